@@ -0,0 +1,198 @@
+package com.navblind.server.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.navblind.server.integration.OsrmResponseParser.RouteBody;
+import com.navblind.server.integration.OsrmResponseParser.StepBody;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OSRM route 응답 파싱 비교: 스트리밍 파서(OsrmResponseParser) vs 이전 방식(전체 응답을 Map.class로 읽은 뒤 캐스팅)
+ *
+ * 응답은 tools/slow_osrm_stub.py처럼 동쪽으로 걷는 경로로 만들되, 실제 foot 프로필 응답처럼
+ * 전체 형상(약 8m 간격 좌표, 보도를 따라 좌우로 완만하게 굽음), step별 geometry, intersections, waypoint hint를 채워서
+ * 스트리밍 파서가 건너뛰는 부분도 크기에 포함되도록 함
+ *
+ * 실행: ./mvnw -Pjmh test-compile exec:exec
+ *      ./mvnw -Pjmh test-compile exec:exec -Djmh.args="OsrmResponseParserBenchmark -prof gc" (할당량 비교)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OsrmResponseParserBenchmark {
+
+    //출발지 (강남역 부근)에서 동쪽으로 걷는 경로
+    private static final double ORIGIN_LAT = 37.4979;
+    private static final double ORIGIN_LNG = 127.0276;
+    private static final double METERS_PER_DEGREE_LAT = 111_320.0;
+    private static final double POINT_SPACING_METERS = 8;
+    private static final double STEP_METERS = 120;
+    private static final double INTERSECTION_METERS = 40;
+    //보도가 좌우로 굽는 폭과 주기 (직선이면 단순화 수준과 관계없이 두 점만 남아 RouteResponseSizeBenchmark 비교가 의미 없음)
+    private static final double BEND_METERS = 4;
+    private static final double BEND_PERIOD_METERS = 160;
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @Param({"1000", "5000", "20000"})
+    public int routeMeters;
+
+    private byte[] body;
+
+    @Setup
+    public void setUp() throws IOException {
+        body = OBJECT_MAPPER.writeValueAsBytes(routeResponse(routeMeters));
+    }
+
+    @Benchmark
+    public RouteBody streaming() {
+        return OsrmResponseParser.parseRoute(body);
+    }
+
+    @Benchmark
+    public RouteBody mapClass() throws IOException {
+        return parseWithMap(body);
+    }
+
+    //이전 OsrmClient처럼 Map으로 읽은 뒤 같은 값을 꺼내 RouteBody로 만듦
+    @SuppressWarnings("unchecked")
+    private static RouteBody parseWithMap(byte[] body) throws IOException {
+        Map<String, Object> response = OBJECT_MAPPER.readValue(body, Map.class);
+        String code = (String) response.get("code");
+        List<Map<String, Object>> routes = (List<Map<String, Object>>) response.get("routes");
+        if (routes == null || routes.isEmpty()) {
+            return new RouteBody(code, false, 0, 0, new double[0], List.of());
+        }
+
+        Map<String, Object> route = routes.get(0);
+        Map<String, Object> geometry = (Map<String, Object>) route.get("geometry");
+        List<List<Number>> coordinates = (List<List<Number>>) geometry.get("coordinates");
+        double[] latLngs = new double[coordinates.size() * 2];
+        for (int i = 0; i < coordinates.size(); i++) {
+            latLngs[i * 2] = coordinates.get(i).get(1).doubleValue();
+            latLngs[i * 2 + 1] = coordinates.get(i).get(0).doubleValue();
+        }
+
+        List<StepBody> steps = new ArrayList<>();
+        List<Map<String, Object>> legs = (List<Map<String, Object>>) route.get("legs");
+        for (Map<String, Object> step : (List<Map<String, Object>>) legs.get(0).get("steps")) {
+            Map<String, Object> maneuver = (Map<String, Object>) step.get("maneuver");
+            List<Number> location = (List<Number>) maneuver.get("location");
+            steps.add(new StepBody((String) step.get("name"), ((Number) step.get("distance")).doubleValue(),
+                    (String) maneuver.get("type"), (String) maneuver.get("modifier"),
+                    location.get(0).doubleValue(), location.get(1).doubleValue()));
+        }
+
+        return new RouteBody(code, true, ((Number) route.get("distance")).doubleValue(),
+                ((Number) route.get("duration")).doubleValue(), latLngs, steps);
+    }
+
+    //routeMeters 길이의 OSRM route 응답 (geometries=geojson, overview=full, steps=true)
+    static Map<String, Object> routeResponse(int routeMeters) {
+        double metersPerDegreeLng = METERS_PER_DEGREE_LAT * Math.cos(Math.toRadians(ORIGIN_LAT));
+        int points = (int) Math.ceil(routeMeters / POINT_SPACING_METERS) + 1;
+        List<List<Double>> coordinates = new ArrayList<>(points);
+        for (int i = 0; i < points; i++) {
+            double meters = Math.min(routeMeters, i * POINT_SPACING_METERS);
+            double bend = BEND_METERS * Math.sin(2 * Math.PI * meters / BEND_PERIOD_METERS);
+            coordinates.add(List.of(ORIGIN_LNG + meters / metersPerDegreeLng,
+                    ORIGIN_LAT + bend / METERS_PER_DEGREE_LAT));
+        }
+
+        int stepCount = (int) Math.ceil(routeMeters / STEP_METERS);
+        int pointsPerStep = (int) (STEP_METERS / POINT_SPACING_METERS);
+        List<Map<String, Object>> steps = new ArrayList<>(stepCount + 1);
+        for (int s = 0; s < stepCount; s++) {
+            int from = s * pointsPerStep;
+            int to = Math.min(points, from + pointsPerStep + 1);
+            String type = s == 0 ? "depart" : "turn";
+            String modifier = s == 0 ? null : (s % 2 == 0 ? "left" : "right");
+            steps.add(step("테헤란로 " + s, (to - from - 1) * POINT_SPACING_METERS, type, modifier,
+                    coordinates.subList(from, to)));
+        }
+        steps.add(step("테헤란로", 0, "arrive", null, coordinates.subList(points - 1, points)));
+
+        Map<String, Object> route = new LinkedHashMap<>();
+        route.put("geometry", Map.of("type", "LineString", "coordinates", coordinates));
+        route.put("legs", List.of(Map.of(
+                "steps", steps,
+                "summary", "테헤란로",
+                "weight", routeMeters / 1.3,
+                "duration", routeMeters / 1.3,
+                "distance", (double) routeMeters)));
+        route.put("weight_name", "duration");
+        route.put("weight", routeMeters / 1.3);
+        route.put("duration", routeMeters / 1.3);
+        route.put("distance", (double) routeMeters);
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("code", "Ok");
+        response.put("routes", List.of(route));
+        response.put("waypoints", List.of(
+                waypoint(coordinates.get(0)),
+                waypoint(coordinates.get(points - 1))));
+        return response;
+    }
+
+    private static Map<String, Object> step(String name, double distance, String type, String modifier,
+                                            List<List<Double>> geometry) {
+        List<Map<String, Object>> intersections = new ArrayList<>();
+        int every = (int) (INTERSECTION_METERS / POINT_SPACING_METERS);
+        for (int i = 0; i < geometry.size(); i += every) {
+            intersections.add(Map.of(
+                    "out", 0,
+                    "in", 1,
+                    "entry", List.of(true, false, true),
+                    "bearings", List.of(90, 270, 0),
+                    "location", geometry.get(i)));
+        }
+
+        Map<String, Object> maneuver = new LinkedHashMap<>();
+        maneuver.put("bearing_after", 90);
+        maneuver.put("bearing_before", 90);
+        maneuver.put("location", geometry.get(0));
+        if (modifier != null) {
+            maneuver.put("modifier", modifier);
+        }
+        maneuver.put("type", type);
+
+        Map<String, Object> step = new LinkedHashMap<>();
+        step.put("geometry", Map.of("type", "LineString", "coordinates", geometry));
+        step.put("maneuver", maneuver);
+        step.put("mode", "walking");
+        step.put("driving_side", "right");
+        step.put("name", name);
+        step.put("intersections", intersections);
+        step.put("weight", distance / 1.3);
+        step.put("duration", distance / 1.3);
+        step.put("distance", distance);
+        return step;
+    }
+
+    private static Map<String, Object> waypoint(List<Double> location) {
+        return Map.of(
+                "hint", "x0YJgP___3-JAAAAIQAAAAAAAAAAAAAAVq1OQqDvjEEAAAAAAAAAAIkAAAAhAAAAAAAAAAAAAAAbAAAA",
+                "distance", 1.2,
+                "name", "테헤란로",
+                "location", location);
+    }
+}
@@ -0,0 +1,155 @@
+package com.navblind.server.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.navblind.server.dto.RouteDto.GeometryDetail;
+import com.navblind.server.dto.RouteDto.Instruction;
+import com.navblind.server.dto.RouteDto.RouteResponse;
+import com.navblind.server.dto.RouteDto.Waypoint;
+import com.navblind.server.geo.LineSimplifier;
+import com.navblind.server.geo.PolylineCodec;
+import com.navblind.server.integration.OsrmClient.OsrmRouteResult;
+import com.navblind.server.integration.OsrmResponseParser.RouteBody;
+import com.navblind.server.integration.OsrmResponseParser.StepBody;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 경로 응답(RouteResponse) 크기 비교: geometryDetail별 polyline vs 전체 경로를 JSON Waypoint 목록으로 보내는 방식
+ *
+ * OsrmResponseParserBenchmark와 같은 1/5/20km 합성 OSRM 응답을 OsrmClient처럼 읽어서
+ * NavigationService와 같은 방식으로 형상을 단순화/인코딩한 뒤 JSON으로 직렬화함
+ * - none: 형상 없이 안내 지점 Waypoint만 (polyline 도입 전 응답과 같음)
+ * - full/fine/medium/coarse: geometry에 polyline (precision 6), 단순화 허용치 0/1/3/8m
+ * - waypoints: geometry 대신 전체 경로 좌표를 Waypoint JSON 목록으로 보냄
+ *
+ * 크기는 rawBytes(직렬화한 JSON), gzipBytes(gzip 압축 후) 보조 지표로 출력되고,
+ * 점수(us/op)는 단순화 + 직렬화 + 압축에 걸린 시간
+ *
+ * 실행: ./mvnw -Pjmh test-compile exec:exec -Djmh.args="RouteResponseSizeBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class RouteResponseSizeBenchmark {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final UUID SESSION_ID = UUID.fromString("3f2a9c4e-8b1d-4e6f-9a7c-2d5b8e1f0a34");
+
+    @Param({"1000", "5000", "20000"})
+    public int routeMeters;
+
+    @Param({"none", "full", "fine", "medium", "coarse", "waypoints"})
+    public String geometry;
+
+    private OsrmRouteResult route;
+
+    @Setup
+    public void setUp() throws IOException {
+        byte[] body = OBJECT_MAPPER.writeValueAsBytes(OsrmResponseParserBenchmark.routeResponse(routeMeters));
+        route = toResult(OsrmResponseParser.parseRoute(body));
+    }
+
+    @Benchmark
+    public int response(WireSize size) throws IOException {
+        byte[] json = OBJECT_MAPPER.writeValueAsBytes(toResponse());
+        size.rawBytes = json.length;
+        size.gzipBytes = gzip(json).length;
+        return json.length;
+    }
+
+    //NavigationService.toResponse와 같은 응답, waypoints는 전체 경로 좌표로 바꿔서 보냄
+    private RouteResponse toResponse() {
+        RouteResponse.RouteResponseBuilder response = RouteResponse.builder()
+                .sessionId(SESSION_ID)
+                .distance(route.getDistance())
+                .duration(route.getDuration())
+                .instructions(route.getInstructions());
+        if ("waypoints".equals(geometry)) {
+            double[] latLngs = PolylineCodec.decode(route.getGeometry());
+            List<Waypoint> path = new ArrayList<>(latLngs.length / 2);
+            for (int i = 0; i < latLngs.length; i += 2) {
+                path.add(Waypoint.builder().lat(latLngs[i]).lng(latLngs[i + 1]).build());
+            }
+            return response.waypoints(path).build();
+        }
+        return response.geometry(encodeGeometry(GeometryDetail.valueOf(geometry)))
+                .waypoints(route.getWaypoints())
+                .build();
+    }
+
+    //NavigationService.encodeGeometry와 같은 단순화
+    private String encodeGeometry(GeometryDetail detail) {
+        if (detail == GeometryDetail.none) {
+            return null;
+        }
+        if (detail == GeometryDetail.full) {
+            return route.getGeometry();
+        }
+        double[] simplified = LineSimplifier.simplify(PolylineCodec.decode(route.getGeometry()),
+                detail.getToleranceMeters());
+        return PolylineCodec.encode(simplified);
+    }
+
+    private static byte[] gzip(byte[] json) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        }
+        return out.toByteArray();
+    }
+
+    //OsrmClient.parseOsrmResponse와 같은 변환
+    private static OsrmRouteResult toResult(RouteBody route) {
+        List<Waypoint> waypoints = new ArrayList<>(route.steps().size());
+        List<Instruction> instructions = new ArrayList<>(route.steps().size());
+        int stepNum = 0;
+        for (StepBody step : route.steps()) {
+            Waypoint waypoint = Waypoint.builder()
+                    .lng(step.lng())
+                    .lat(step.lat())
+                    .name(step.name())
+                    .build();
+            waypoints.add(waypoint);
+            instructions.add(GuidanceBuilder.instruction(stepNum++, step.maneuverType(), step.modifier(),
+                    step.name(), (int) step.distance(), waypoint));
+        }
+        return OsrmRouteResult.builder()
+                .distance((int) route.distance())
+                .duration((int) route.duration())
+                .geometry(PolylineCodec.encode(route.geometry()))
+                .waypoints(waypoints)
+                .instructions(instructions)
+                .build();
+    }
+
+    /**
+     * 마지막으로 직렬화한 응답 크기 (호출마다 같은 값이므로 덮어씀)
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class WireSize {
+        public long rawBytes;
+        public long gzipBytes;
+    }
+}
@@ -0,0 +1,269 @@
+package com.navblind.server.cache;
+
+import com.navblind.server.config.ActiveNavigationProperties;
+import com.navblind.server.entity.NavigationSession;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 사용자별 진행 중인 안내 상태를 Redis에 보관하는 저장소 (data-model.md의 nav:{userId}:active 키, TTL 4시간)
+ * 재탐색 시 세션 확인을 DB 대신 여기서 하고, DB는 상태가 바뀔 때만 갱신함 (NavigationService)
+ *
+ * - 값: 해시 (sessionId, destLat, destLng, currentStep, lastLat, lastLng, rerouteCount, updatedAt)
+ * - 갱신할 때마다 TTL을 다시 설정하므로 ttl 동안 아무 요청이 없던 안내만 만료됨
+ * - 만료 시각을 nav:active:expiry(sorted set, 점수 = 만료 시각)에도 기록해 두고,
+ *   AbandonedSessionReaper가 시각이 지난 항목을 모아 DB 세션을 한 번에 종료 처리함
+ *   (keyspace 알림은 Redis 설정이 필요하고 받지 못한 알림은 다시 오지 않으므로 사용하지 않음)
+ * - 여러 키를 함께 바꾸는 작업은 Lua 스크립트로 원자적으로 실행 (다른 세션의 상태를 덮어쓰지 않도록 sessionId 비교)
+ *
+ * Redis 장애 시에는 빈 결과를 반환하므로 호출자는 DB로 확인함
+ */
+@Component
+@Slf4j
+public class ActiveNavigationStore {
+
+    private static final String KEY_PREFIX = "nav:";
+    private static final String KEY_SUFFIX = ":active";
+    private static final String EXPIRY_INDEX = "nav:active:expiry";
+
+    //새 상태로 교체하고 교체된 다른 세션의 sessionId를 반환 (없거나 같은 세션이면 빈 문자열)
+    private static final RedisScript<String> START = RedisScript.of("""
+            local previous = redis.call('HGET', KEYS[1], 'sessionId')
+            redis.call('DEL', KEYS[1])
+            redis.call('HSET', KEYS[1], 'sessionId', ARGV[1], 'destLat', ARGV[2], 'destLng', ARGV[3],
+                'currentStep', ARGV[4], 'lastLat', ARGV[5], 'lastLng', ARGV[6], 'rerouteCount', ARGV[7],
+                'updatedAt', ARGV[8])
+            redis.call('PEXPIRE', KEYS[1], ARGV[9])
+            redis.call('ZADD', KEYS[2], ARGV[10], ARGV[11] .. ':' .. ARGV[1])
+            if previous and previous ~= ARGV[1] then
+                redis.call('ZREM', KEYS[2], ARGV[11] .. ':' .. previous)
+                return previous
+            end
+            return ''
+            """, String.class);
+
+    //같은 세션일 때만 재탐색 위치를 기록하고 재탐색 횟수를 반환 (다른 세션이거나 없으면 0)
+    private static final RedisScript<Long> REROUTE = RedisScript.of("""
+            if redis.call('HGET', KEYS[1], 'sessionId') ~= ARGV[1] then
+                return 0
+            end
+            redis.call('HSET', KEYS[1], 'currentStep', 0, 'lastLat', ARGV[2], 'lastLng', ARGV[3], 'updatedAt', ARGV[4])
+            local count = redis.call('HINCRBY', KEYS[1], 'rerouteCount', 1)
+            redis.call('PEXPIRE', KEYS[1], ARGV[5])
+            redis.call('ZADD', KEYS[2], ARGV[6], ARGV[7] .. ':' .. ARGV[1])
+            return count
+            """, Long.class);
+
+    //같은 세션일 때만 상태를 지움 (만료 색인에서는 항상 제거)
+    private static final RedisScript<Long> END = RedisScript.of("""
+            redis.call('ZREM', KEYS[2], ARGV[2] .. ':' .. ARGV[1])
+            if redis.call('HGET', KEYS[1], 'sessionId') == ARGV[1] then
+                redis.call('DEL', KEYS[1])
+                return 1
+            end
+            return 0
+            """, Long.class);
+
+    private final ActiveNavigationProperties properties;
+    private final ReactiveStringRedisTemplate redisTemplate;
+
+    public ActiveNavigationStore(ActiveNavigationProperties properties, ReactiveStringRedisTemplate redisTemplate) {
+        this.properties = properties;
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * 사용자의 진행 중인 안내 상태를 반환합니다. (없거나 Redis 장애 시 빈 Mono)
+     */
+    public Mono<ActiveNavigation> get(UUID userId) {
+        if (!properties.enabled()) {
+            return Mono.empty();
+        }
+        return redisTemplate.<String, String>opsForHash().entries(key(userId))
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .mapNotNull(ActiveNavigationStore::parse)
+                .onErrorResume(e -> {
+                    log.warn("Active navigation read failed for user {}: {}", userId, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * 새 안내 상태를 저장하고, 교체된 다른 세션의 ID를 반환합니다. (없거나 Redis 장애 시 빈 Mono)
+     */
+    public Mono<UUID> start(UUID userId, ActiveNavigation state) {
+        if (!properties.enabled()) {
+            return Mono.empty();
+        }
+        long ttlMillis = properties.ttl().toMillis();
+        return redisTemplate.execute(START, List.of(key(userId), EXPIRY_INDEX), List.of(
+                        state.sessionId().toString(),
+                        Double.toString(state.destLat()),
+                        Double.toString(state.destLng()),
+                        Integer.toString(state.currentStep()),
+                        Double.toString(state.lastLat()),
+                        Double.toString(state.lastLng()),
+                        Integer.toString(state.rerouteCount()),
+                        state.updatedAt().toString(),
+                        Long.toString(ttlMillis),
+                        Long.toString(state.updatedAt().toEpochMilli() + ttlMillis),
+                        userId.toString()))
+                .next()
+                .filter(previous -> !previous.isEmpty())
+                .map(UUID::fromString)
+                .onErrorResume(e -> {
+                    log.warn("Active navigation write failed for user {}: {}", userId, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * 재탐색한 위치를 기록하고 갱신된 재탐색 횟수를 반환합니다.
+     * 저장된 상태가 다른 세션이거나 없으면 0, Redis 장애 시 빈 Mono를 반환합니다.
+     */
+    public Mono<Long> recordReroute(UUID userId, UUID sessionId, double lat, double lng) {
+        if (!properties.enabled()) {
+            return Mono.empty();
+        }
+        Instant now = Instant.now();
+        long ttlMillis = properties.ttl().toMillis();
+        return redisTemplate.execute(REROUTE, List.of(key(userId), EXPIRY_INDEX), List.of(
+                        sessionId.toString(),
+                        Double.toString(lat),
+                        Double.toString(lng),
+                        now.toString(),
+                        Long.toString(ttlMillis),
+                        Long.toString(now.toEpochMilli() + ttlMillis),
+                        userId.toString()))
+                .next()
+                .onErrorResume(e -> {
+                    log.warn("Active navigation reroute update failed for session {}: {}", sessionId, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * 안내가 끝난 세션의 상태를 지웁니다. (결과를 기다리지 않음)
+     */
+    public void end(UUID userId, UUID sessionId) {
+        if (!properties.enabled()) {
+            return;
+        }
+        redisTemplate.execute(END, List.of(key(userId), EXPIRY_INDEX), List.of(sessionId.toString(), userId.toString()))
+                .subscribe(
+                        removed -> { },
+                        e -> log.warn("Active navigation delete failed for session {}: {}", sessionId, e.getMessage()));
+    }
+
+    /**
+     * 만료 시각이 지난 안내를 최대 max개 반환합니다.
+     * 그 사이 같은 세션이 다시 갱신되어 키가 남아 있는 경우는 제외합니다.
+     */
+    public Mono<List<ExpiredNavigation>> findExpired(int max) {
+        Range<Double> due = Range.closed(0d, (double) System.currentTimeMillis());
+        return redisTemplate.opsForZSet().rangeByScore(EXPIRY_INDEX, due, Limit.limit().count(max))
+                .mapNotNull(ExpiredNavigation::parse)
+                .filterWhen(expired -> redisTemplate.<String, String>opsForHash()
+                        .get(key(expired.userId()), "sessionId")
+                        .map(current -> !current.equals(expired.sessionId().toString()))
+                        .defaultIfEmpty(true))
+                .collectList();
+    }
+
+    /**
+     * DB에서 종료 처리한 안내를 만료 색인에서 제거합니다.
+     */
+    public Mono<Long> forget(List<ExpiredNavigation> expired) {
+        if (expired.isEmpty()) {
+            return Mono.just(0L);
+        }
+        Object[] members = expired.stream().map(ExpiredNavigation::member).toArray();
+        return redisTemplate.opsForZSet().remove(EXPIRY_INDEX, members);
+    }
+
+    private static String key(UUID userId) {
+        return KEY_PREFIX + userId + KEY_SUFFIX;
+    }
+
+    //읽을 수 없는 상태(이전 형식 등)는 없는 것으로 보고 DB로 확인하게 함
+    private static ActiveNavigation parse(Map<String, String> hash) {
+        if (hash.isEmpty()) {
+            return null;
+        }
+        try {
+            return new ActiveNavigation(
+                    UUID.fromString(hash.get("sessionId")),
+                    Double.parseDouble(hash.get("destLat")),
+                    Double.parseDouble(hash.get("destLng")),
+                    Integer.parseInt(hash.get("currentStep")),
+                    Double.parseDouble(hash.get("lastLat")),
+                    Double.parseDouble(hash.get("lastLng")),
+                    Integer.parseInt(hash.get("rerouteCount")),
+                    Instant.parse(hash.get("updatedAt")));
+        } catch (RuntimeException e) {
+            log.warn("Discarding unreadable active navigation state: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 진행 중인 안내 상태 (현재 안내 단계, 마지막 위치, 재탐색에 필요한 목적지)
+     */
+    public record ActiveNavigation(
+            UUID sessionId,
+            double destLat,
+            double destLng,
+            int currentStep,
+            double lastLat,
+            double lastLng,
+            int rerouteCount,
+            Instant updatedAt
+    ) {
+        /**
+         * DB에 저장된 세션으로 상태를 만듭니다. (마지막 위치는 출발지)
+         */
+        public static ActiveNavigation of(NavigationSession session) {
+            return new ActiveNavigation(
+                    session.getId(),
+                    session.getDestLat(),
+                    session.getDestLng(),
+                    0,
+                    session.getOriginLat(),
+                    session.getOriginLng(),
+                    session.getRerouteCount(),
+                    Instant.now());
+        }
+    }
+
+    /**
+     * 만료 색인에서 꺼낸 안내 (사용자 ID:세션 ID)
+     */
+    public record ExpiredNavigation(UUID userId, UUID sessionId) {
+
+        String member() {
+            return userId + ":" + sessionId;
+        }
+
+        private static ExpiredNavigation parse(String member) {
+            int separator = member.indexOf(':');
+            try {
+                return new ExpiredNavigation(
+                        UUID.fromString(member.substring(0, separator)),
+                        UUID.fromString(member.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                log.warn("Ignoring malformed active navigation index entry: {}", member);
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.navblind.server.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.navblind.server.config.RerouteProperties;
+import com.navblind.server.integration.OsrmClient.OsrmRouteResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * 진행 중인 안내 세션별로 마지막으로 안내한 경로(전체 형상 포함)를 보관하는 저장소
+ * 재탐색 시 남은 경로를 재사용(접합)하는 데 사용됨
+ *
+ * 서버 메모리에만 보관하므로 서버가 재시작되거나 다른 인스턴스로 요청이 가면 비어 있을 수 있음
+ * (그 경우 재탐색은 전체 경로 계산으로 동작)
+ *
+ * 메트릭: cache.*{cache=active-route}
+ */
+@Component
+public class ActiveRouteStore {
+
+    private final Cache<UUID, OsrmRouteResult> routes;
+
+    public ActiveRouteStore(RerouteProperties properties, MeterRegistry meterRegistry) {
+        this.routes = Caffeine.newBuilder()
+                .maximumSize(properties.maxSessions())
+                .expireAfterAccess(properties.sessionRouteTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, routes, "active-route");
+    }
+
+    public OsrmRouteResult get(UUID sessionId) {
+        return routes.getIfPresent(sessionId);
+    }
+
+    public void put(UUID sessionId, OsrmRouteResult route) {
+        routes.put(sessionId, route);
+    }
+
+    public void remove(UUID sessionId) {
+        routes.invalidate(sessionId);
+    }
+}
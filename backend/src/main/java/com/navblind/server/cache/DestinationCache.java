@@ -0,0 +1,125 @@
+package com.navblind.server.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.navblind.server.config.DestinationCacheProperties;
+import com.navblind.server.dto.DestinationDto.DestinationResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * 사용자별 저장 목적지 목록(응답 DTO로 변환된 상태)을 캐싱하는 read-through 캐시 (서버 메모리, Caffeine)
+ * 앱을 켤 때와 음성 검색 전마다 목록을 조회하므로 DB 대신 메모리에서 응답
+ *
+ * - 목록은 사용 횟수 내림차순 (findByUserIdOrderByUseCountDesc와 같은 순서)
+ * - 목적지를 추가/수정/삭제하면 DestinationService가, 사용 횟수 증가분을 DB에 반영하면 UseCountBuffer가 커밋 후 비움
+ * - 같은 사용자의 동시 조회는 DB 조회 하나를 공유
+ * - DB 조회는 Caffeine의 내부 lock 밖(호출한 스레드)에서 하므로 가상 스레드가 고정되지 않음
+ *
+ * 메트릭: navblind.destination.cache.requests{result=hit|miss},
+ *        navblind.destination.cache.queries.avoided, cache.*{cache=destinations}
+ */
+@Component
+public class DestinationCache {
+
+    private final DestinationCacheProperties properties;
+    private final AsyncCache<UUID, List<DestinationResponse>> lists;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter queriesAvoided;
+
+    public DestinationCache(DestinationCacheProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.lists = Caffeine.newBuilder()
+                .maximumSize(properties.maxUsers())
+                .expireAfterAccess(properties.ttl())
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, lists, "destinations");
+
+        this.hits = requestCounter(meterRegistry, "hit");
+        this.misses = requestCounter(meterRegistry, "miss");
+        this.queriesAvoided = Counter.builder("navblind.destination.cache.queries.avoided")
+                .description("Destination database queries answered from the cache instead")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 사용자의 목적지 목록을 반환합니다. 캐시에 없으면 loader로 DB에서 읽어 저장합니다.
+     * (loader가 실패하면 저장하지 않고 예외를 그대로 던짐)
+     */
+    public List<DestinationResponse> get(UUID userId, Supplier<List<DestinationResponse>> loader) {
+        if (!properties.enabled()) {
+            return loader.get();
+        }
+
+        CompletableFuture<List<DestinationResponse>> loading = new CompletableFuture<>();
+        CompletableFuture<List<DestinationResponse>> existing = lists.asMap().putIfAbsent(userId, loading);
+        if (existing != null) {
+            hits.increment();
+            queriesAvoided.increment();
+            return join(existing);
+        }
+
+        misses.increment();
+        try {
+            List<DestinationResponse> destinations = loader.get();
+            loading.complete(destinations);
+            return destinations;
+        } catch (RuntimeException e) {
+            // 실패한 future는 Caffeine이 캐시에서 제거하고, 기다리던 다른 조회도 같은 예외로 실패
+            loading.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * 캐시에 이미 읽어 둔 목록이 있으면 반환하고, 없거나 읽는 중이면 null을 반환합니다.
+     * 목적지 하나만 필요한 조회가 목록 전체를 DB에서 읽지 않도록 할 때 사용합니다.
+     */
+    public List<DestinationResponse> getIfLoaded(UUID userId) {
+        if (!properties.enabled()) {
+            return null;
+        }
+        CompletableFuture<List<DestinationResponse>> cached = lists.getIfPresent(userId);
+        if (cached == null || !cached.isDone() || cached.isCompletedExceptionally()) {
+            return null;
+        }
+        queriesAvoided.increment();
+        return cached.join();
+    }
+
+    /**
+     * 사용자의 목록을 비웁니다. 다음 조회 때 DB에서 다시 읽습니다.
+     */
+    public void invalidate(UUID userId) {
+        lists.synchronous().invalidate(userId);
+    }
+
+    //다른 조회가 읽는 중인 목록을 기다림 (loader의 예외는 감싸지 않고 그대로 던짐)
+    private static List<DestinationResponse> join(CompletableFuture<List<DestinationResponse>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("navblind.destination.cache.requests")
+                .description("Saved destination list lookups by outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,42 @@
+package com.navblind.server.cache;
+
+//위도/경도를 일정한 크기(미터)의 격자 셀로 양자화하는 유틸리티
+//거의 같은 좌표(몇 미터 차이)가 같은 캐시 키를 갖도록 하기 위해 사용
+public final class GeoGrid {
+
+    //위도 1도의 길이 (미터)
+    private static final double METERS_PER_DEGREE_LAT = 111_320.0;
+
+    private GeoGrid() {
+    }
+
+    /**
+     * 좌표가 속한 격자 셀의 키를 반환합니다. (예: "4160132:2816507")
+     * 경도 방향 셀 폭은 해당 위도 행의 중심 위도를 기준으로 계산하므로
+     * 같은 행 안에서는 항상 같은 크기의 셀이 만들어집니다.
+     *
+     * @param lat 위도
+     * @param lng 경도
+     * @param cellMeters 셀 한 변의 길이 (미터)
+     */
+    public static String cellKey(double lat, double lng, double cellMeters) {
+        long latIndex = Math.round(lat * METERS_PER_DEGREE_LAT / cellMeters);
+        double rowLat = latIndex * cellMeters / METERS_PER_DEGREE_LAT;
+        double metersPerDegreeLng = METERS_PER_DEGREE_LAT * Math.cos(Math.toRadians(rowLat));
+        long lngIndex = Math.round(lng * metersPerDegreeLng / cellMeters);
+        return latIndex + ":" + lngIndex;
+    }
+
+    /**
+     * 좌표가 속한 격자 셀의 중심 좌표를 반환합니다. ([lat, lng])
+     * 같은 셀 안의 좌표는 모두 같은 중심 좌표를 가지므로
+     * 셀 단위로 공유하는 요청(검색 viewbox 등)의 기준점으로 사용합니다.
+     */
+    public static double[] cellCenter(double lat, double lng, double cellMeters) {
+        long latIndex = Math.round(lat * METERS_PER_DEGREE_LAT / cellMeters);
+        double rowLat = latIndex * cellMeters / METERS_PER_DEGREE_LAT;
+        double metersPerDegreeLng = METERS_PER_DEGREE_LAT * Math.cos(Math.toRadians(rowLat));
+        long lngIndex = Math.round(lng * metersPerDegreeLng / cellMeters);
+        return new double[]{rowLat, lngIndex * cellMeters / metersPerDegreeLng};
+    }
+}
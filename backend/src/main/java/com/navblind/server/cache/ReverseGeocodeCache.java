@@ -0,0 +1,96 @@
+package com.navblind.server.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.navblind.server.config.ReverseGeocodeProperties;
+import com.navblind.server.dto.DestinationDto.SearchResult;
+import com.navblind.server.geo.RouteLine;
+import com.navblind.server.integration.NominatimClient;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 역지오코딩("여기가 어디야?") 결과를 격자 셀 단위로 캐싱하는 컴포넌트 (서버 메모리, Caffeine)
+ *
+ * 좌표를 gridMeters(기본 20m) 격자 셀로 묶고, 셀 중심 좌표로 Nominatim reverse를 호출한 답을 셀에 저장함
+ * 걷는 사용자는 몇 초 간격으로 같은 셀 안에서 다시 묻기 때문에 대부분 캐시에서 응답
+ * 거리(distance)는 셀 중심이 아닌 사용자의 실제 좌표 기준으로 매번 다시 계산함
+ *
+ * 같은 셀로 동시에 들어온 요청은 진행 중인 future 하나를 공유하고, 찾지 못한 셀(빈 결과)은 캐싱하지 않음
+ * 크기를 넘으면 Caffeine이 적게/오래 쓰인 셀부터 제거하고, ttl이 지나면 다시 조회함
+ *
+ * 메트릭: navblind.reverse.cache.requests{result=hit|miss}, cache.*{cache=reverse}
+ */
+@Component
+public class ReverseGeocodeCache {
+
+    private final NominatimClient nominatimClient;
+    private final ReverseGeocodeProperties properties;
+
+    private final AsyncCache<String, SearchResult> cells;
+    private final Counter hits;
+    private final Counter misses;
+
+    public ReverseGeocodeCache(NominatimClient nominatimClient,
+                               ReverseGeocodeProperties properties,
+                               MeterRegistry meterRegistry) {
+        this.nominatimClient = nominatimClient;
+        this.properties = properties;
+
+        this.cells = Caffeine.newBuilder()
+                .maximumSize(properties.maxSize())
+                .expireAfterWrite(properties.ttl())
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cells, "reverse");
+
+        this.hits = requestCounter(meterRegistry, "hit");
+        this.misses = requestCounter(meterRegistry, "miss");
+    }
+
+    /**
+     * (lat, lng)에서 가장 가까운 주소/장소를 반환합니다. 찾지 못하면 빈 Mono입니다.
+     */
+    public Mono<SearchResult> reverse(double lat, double lng) {
+        if (!properties.enabled()) {
+            return nominatimClient.reverseAsync(lat, lng, properties.zoom());
+        }
+
+        String key = GeoGrid.cellKey(lat, lng, properties.gridMeters());
+        CompletableFuture<SearchResult> cached = cells.getIfPresent(key);
+        CompletableFuture<SearchResult> place;
+        if (cached != null) {
+            hits.increment();
+            place = cached;
+        } else {
+            double[] center = GeoGrid.cellCenter(lat, lng, properties.gridMeters());
+            place = cells.get(key, (k, executor) -> {
+                misses.increment();
+                return nominatimClient.reverseAsync(center[0], center[1], properties.zoom()).toFuture();
+            });
+        }
+
+        // 진행 중인 조회를 공유하는 경우도 있으므로 한 호출자의 취소가 다른 호출자에게 전파되지 않도록 함
+        return Mono.fromFuture(place, true)
+                .map(found -> SearchResult.builder()
+                        .name(found.getName())
+                        .latitude(found.getLatitude())
+                        .longitude(found.getLongitude())
+                        .address(found.getAddress())
+                        .distance((int) RouteLine.distance(lat, lng, found.getLatitude(), found.getLongitude()))
+                        .category(found.getCategory())
+                        .build());
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("navblind.reverse.cache.requests")
+                .description("Reverse geocoding cache lookups by outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
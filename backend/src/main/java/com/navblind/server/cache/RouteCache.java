@@ -0,0 +1,176 @@
+package com.navblind.server.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.navblind.server.config.RouteCacheProperties;
+import com.navblind.server.integration.Lane;
+import com.navblind.server.integration.OsrmClient;
+import com.navblind.server.integration.OsrmClient.OsrmRouteResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * OSRM 경로 결과를 2단계로 캐싱하는 컴포넌트
+ * L1: 서버 메모리(Caffeine), 크기/TTL 기반으로 제거
+ * L2: Redis (data-model.md의 route:{md5(origin+dest+prefs)} 키, TTL 1시간)
+ *     사용자 선호 설정은 OSRM 요청에 쓰이지 않으므로 키에서 제외함 (같은 경로가 선호 설정별로 나뉘어 캐싱되지 않도록)
+ *
+ * 출발/도착 좌표는 gridMeters 격자로 양자화해서 키를 만들기 때문에
+ * 매일 같은 길을 걷는 사용자의 거의 같은 좌표 요청은 OSRM을 다시 호출하지 않음
+ *
+ * 같은 키로 동시에 들어온 요청은 L1의 진행 중인 future 하나를 공유하므로
+ * 캐시가 비어 있을 때 OSRM/Redis로 요청이 몰리는 것(stampede)을 막음
+ *
+ * 메트릭: navblind.route.cache.requests{result=l1_hit|l2_hit|miss}, cache.*{cache=route}
+ */
+@Component
+@Slf4j
+public class RouteCache {
+
+    private static final String KEY_PREFIX = "route:";
+    private static final String PROFILE = "foot";
+
+    private final OsrmClient osrmClient;
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final RouteCacheProperties properties;
+
+    private final AsyncCache<String, OsrmRouteResult> l1;
+    private final Counter l1Hits;
+    private final Counter l2Hits;
+    private final Counter misses;
+
+    public RouteCache(OsrmClient osrmClient,
+                      ReactiveStringRedisTemplate redisTemplate,
+                      ObjectMapper objectMapper,
+                      RouteCacheProperties properties,
+                      MeterRegistry meterRegistry) {
+        this.osrmClient = osrmClient;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+
+        this.l1 = Caffeine.newBuilder()
+                .maximumSize(properties.l1MaxSize())
+                .expireAfterWrite(properties.l1Ttl())
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, l1, "route");
+
+        this.l1Hits = requestCounter(meterRegistry, "l1_hit");
+        this.l2Hits = requestCounter(meterRegistry, "l2_hit");
+        this.misses = requestCounter(meterRegistry, "miss");
+    }
+
+    /**
+     * 캐시를 거쳐 경로를 조회합니다. 캐시에 없으면 OSRM을 호출하고 결과를 L1/L2에 저장합니다.
+     * 경로를 찾지 못한 경우(null)는 캐싱하지 않습니다.
+     */
+    public OsrmRouteResult getRoute(double originLat, double originLng, double destLat, double destLng) {
+        return getRouteAsync(originLat, originLng, destLat, destLng).block();
+    }
+
+    /**
+     * 비동기 버전의 캐시 조회
+     */
+    public Mono<OsrmRouteResult> getRouteAsync(double originLat, double originLng, double destLat, double destLng) {
+        return getRouteAsync(originLat, originLng, destLat, destLng, Lane.ROUTE);
+    }
+
+    /**
+     * 캐시에 없을 때 lane 우선순위로 OSRM을 호출하는 캐시 조회
+     * (같은 키를 먼저 요청한 호출자의 레인으로 한 번만 호출됨)
+     */
+    public Mono<OsrmRouteResult> getRouteAsync(double originLat, double originLng, double destLat, double destLng,
+                                               Lane lane) {
+        if (!properties.enabled()) {
+            return osrmClient.getRouteAsync(originLat, originLng, destLat, destLng, lane);
+        }
+
+        String key = cacheKey(originLat, originLng, destLat, destLng);
+
+        CompletableFuture<OsrmRouteResult> cached = l1.getIfPresent(key);
+        if (cached != null) {
+            l1Hits.increment();
+            // 진행 중인 로드를 공유하는 경우도 있으므로 한 호출자의 취소가 다른 호출자에게 전파되지 않도록 함
+            return Mono.fromFuture(cached, true);
+        }
+
+        CompletableFuture<OsrmRouteResult> loading = l1.get(key, (k, executor) ->
+                loadFromRedisOrOsrm(k, originLat, originLng, destLat, destLng, lane).toFuture());
+        return Mono.fromFuture(loading, true);
+    }
+
+    //L2(Redis)를 먼저 확인하고, 없으면 OSRM을 호출한 뒤 L2에 기록
+    private Mono<OsrmRouteResult> loadFromRedisOrOsrm(String key, double originLat, double originLng,
+                                                       double destLat, double destLng, Lane lane) {
+        return readL2(key)
+                .doOnNext(result -> l2Hits.increment())
+                .switchIfEmpty(Mono.defer(() -> {
+                    misses.increment();
+                    return osrmClient.getRouteAsync(originLat, originLng, destLat, destLng, lane)
+                            .doOnNext(result -> writeL2(key, result));
+                }));
+    }
+
+    private Mono<OsrmRouteResult> readL2(String key) {
+        return redisTemplate.opsForValue().get(key)
+                .mapNotNull(json -> {
+                    try {
+                        return objectMapper.readValue(json, OsrmRouteResult.class);
+                    } catch (JsonProcessingException e) {
+                        log.warn("Discarding unreadable cached route {}: {}", key, e.getMessage());
+                        return null;
+                    }
+                })
+                .onErrorResume(e -> {
+                    // Redis 장애 시에도 경로 안내는 계속되어야 하므로 캐시 미스로 처리
+                    log.warn("Route cache L2 read failed: {}", e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    //L2 기록은 응답 지연에 영향을 주지 않도록 결과를 기다리지 않음
+    private void writeL2(String key, OsrmRouteResult result) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(result);
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to serialize route for cache: {}", e.getMessage());
+            return;
+        }
+
+        redisTemplate.opsForValue().set(key, json, properties.l2Ttl())
+                .subscribe(
+                        ok -> { },
+                        e -> log.warn("Route cache L2 write failed: {}", e.getMessage()));
+    }
+
+    //양자화된 출발/도착 셀 + 격자 크기 + 프로필로 키 생성 (OSRM 요청을 결정하는 값만 포함)
+    private String cacheKey(double originLat, double originLng, double destLat, double destLng) {
+        double grid = properties.gridMeters();
+        String raw = GeoGrid.cellKey(originLat, originLng, grid)
+                + "|" + GeoGrid.cellKey(destLat, destLng, grid)
+                + "|" + grid
+                + "|" + PROFILE;
+        return KEY_PREFIX + DigestUtils.md5DigestAsHex(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("navblind.route.cache.requests")
+                .description("Route cache lookups by outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,204 @@
+package com.navblind.server.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.navblind.server.config.SearchCacheProperties;
+import com.navblind.server.dto.DestinationDto.SearchResult;
+import com.navblind.server.geo.RouteLine;
+import com.navblind.server.integration.NominatimClient;
+import com.navblind.server.text.KoreanText;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Nominatim 장소 검색 결과를 2단계로 캐싱하는 컴포넌트
+ * L1: 서버 메모리(Caffeine), 크기/TTL 기반으로 제거
+ * L2: Redis (search:{md5(query+limit+cell)} 키)
+ *
+ * 검색 viewbox 편향은 사용자 주변 ±0.5°(약 50km)라서 같은 동네 사용자의 같은 검색어는 사실상 같은 요청임
+ * 사용자 위치를 biasGridMeters 격자 셀의 중심으로 옮겨 Nominatim에 요청하고, 키는 정규화한 검색어 + 개수 + 셀로 만듦
+ * 거리(distance)는 사용자마다 다르므로 캐싱하지 않고, 캐시된 좌표로 매 요청마다 다시 계산함
+ *
+ * 같은 키로 동시에 들어온 요청은 L1의 진행 중인 future 하나를 공유함
+ * 결과가 없는 검색(Nominatim 오류 포함)은 캐싱하지 않음
+ *
+ * 메트릭: navblind.search.cache.requests{result=l1_hit|l2_hit|miss}, cache.*{cache=search}
+ */
+@Component
+@Slf4j
+public class SearchCache {
+
+    private static final String KEY_PREFIX = "search:";
+    private static final TypeReference<List<SearchResult>> RESULTS = new TypeReference<>() {};
+
+    private final NominatimClient nominatimClient;
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final SearchCacheProperties properties;
+
+    private final AsyncCache<String, List<SearchResult>> l1;
+    private final Counter l1Hits;
+    private final Counter l2Hits;
+    private final Counter misses;
+
+    public SearchCache(NominatimClient nominatimClient,
+                       ReactiveStringRedisTemplate redisTemplate,
+                       ObjectMapper objectMapper,
+                       SearchCacheProperties properties,
+                       MeterRegistry meterRegistry) {
+        this.nominatimClient = nominatimClient;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+
+        this.l1 = Caffeine.newBuilder()
+                .maximumSize(properties.l1MaxSize())
+                .expireAfterWrite(properties.l1Ttl())
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, l1, "search");
+
+        this.l1Hits = requestCounter(meterRegistry, "l1_hit");
+        this.l2Hits = requestCounter(meterRegistry, "l2_hit");
+        this.misses = requestCounter(meterRegistry, "miss");
+    }
+
+    /**
+     * 캐시를 거쳐 장소를 검색합니다. 캐시에 없으면 Nominatim을 호출하고 결과를 L1/L2에 저장합니다.
+     * 반환되는 결과의 distance는 (lat, lng) 기준으로 새로 계산한 값입니다. (위치가 없으면 null)
+     */
+    public Mono<List<SearchResult>> search(String query, Double lat, Double lng, int limit) {
+        String normalized = KoreanText.normalize(query);
+        if (!properties.enabled()) {
+            return nominatimClient.searchAsync(normalized, lat, lng, limit);
+        }
+
+        boolean located = lat != null && lng != null;
+        double[] center = located ? GeoGrid.cellCenter(lat, lng, properties.biasGridMeters()) : null;
+        String key = cacheKey(normalized, limit, located ? GeoGrid.cellKey(lat, lng, properties.biasGridMeters()) : "-");
+
+        CompletableFuture<List<SearchResult>> cached = l1.getIfPresent(key);
+        Mono<List<SearchResult>> results;
+        if (cached != null) {
+            l1Hits.increment();
+            // 진행 중인 로드를 공유하는 경우도 있으므로 한 호출자의 취소가 다른 호출자에게 전파되지 않도록 함
+            results = Mono.fromFuture(cached, true);
+        } else {
+            CompletableFuture<List<SearchResult>> loading = l1.get(key, (k, executor) ->
+                    loadFromRedisOrNominatim(k, normalized, center, limit).toFuture());
+            results = Mono.fromFuture(loading, true);
+        }
+
+        return results
+                .map(places -> withDistances(places, lat, lng))
+                .defaultIfEmpty(List.of());
+    }
+
+    //L2(Redis)를 먼저 확인하고, 없으면 셀 중심 기준으로 Nominatim을 호출한 뒤 L2에 기록
+    //빈 결과는 Mono.empty()로 바꿔 L1에도 남지 않게 함 (null로 완료된 future는 Caffeine이 제거)
+    private Mono<List<SearchResult>> loadFromRedisOrNominatim(String key, String query, double[] center, int limit) {
+        return readL2(key)
+                .doOnNext(places -> l2Hits.increment())
+                .switchIfEmpty(Mono.defer(() -> {
+                    misses.increment();
+                    return nominatimClient.searchAsync(query,
+                                    center != null ? center[0] : null,
+                                    center != null ? center[1] : null,
+                                    limit)
+                            .filter(places -> !places.isEmpty())
+                            .map(this::withoutDistances)
+                            .doOnNext(places -> writeL2(key, places));
+                }));
+    }
+
+    private Mono<List<SearchResult>> readL2(String key) {
+        return redisTemplate.opsForValue().get(key)
+                .mapNotNull(json -> {
+                    try {
+                        return objectMapper.readValue(json, RESULTS);
+                    } catch (JsonProcessingException e) {
+                        log.warn("Discarding unreadable cached search {}: {}", key, e.getMessage());
+                        return null;
+                    }
+                })
+                .onErrorResume(e -> {
+                    // Redis 장애 시에도 검색은 계속되어야 하므로 캐시 미스로 처리
+                    log.warn("Search cache L2 read failed: {}", e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    //L2 기록은 응답 지연에 영향을 주지 않도록 결과를 기다리지 않음
+    private void writeL2(String key, List<SearchResult> places) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(places);
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to serialize search results for cache: {}", e.getMessage());
+            return;
+        }
+
+        redisTemplate.opsForValue().set(key, json, properties.l2Ttl())
+                .subscribe(
+                        ok -> { },
+                        e -> log.warn("Search cache L2 write failed: {}", e.getMessage()));
+    }
+
+    //캐시에 저장하는 결과는 셀 중심 기준 거리를 빼고 저장 (호출자마다 다시 계산)
+    private List<SearchResult> withoutDistances(List<SearchResult> places) {
+        return places.stream()
+                .map(place -> copy(place, null))
+                .toList();
+    }
+
+    //캐시된 결과는 여러 요청이 공유하므로 수정하지 않고 사용자 기준 거리를 채운 사본을 만듦
+    private List<SearchResult> withDistances(List<SearchResult> places, Double lat, Double lng) {
+        if (lat == null || lng == null) {
+            return places;
+        }
+        return places.stream()
+                .map(place -> copy(place,
+                        (int) RouteLine.distance(lat, lng, place.getLatitude(), place.getLongitude())))
+                .toList();
+    }
+
+    private SearchResult copy(SearchResult place, Integer distance) {
+        return SearchResult.builder()
+                .name(place.getName())
+                .latitude(place.getLatitude())
+                .longitude(place.getLongitude())
+                .address(place.getAddress())
+                .distance(distance)
+                .category(place.getCategory())
+                .build();
+    }
+
+    //정규화한 검색어 + 결과 개수 + 편향 기준 셀 + 격자 크기로 키 생성
+    private String cacheKey(String query, int limit, String cell) {
+        String raw = query
+                + "|" + limit
+                + "|" + cell
+                + "|" + properties.biasGridMeters();
+        return KEY_PREFIX + DigestUtils.md5DigestAsHex(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("navblind.search.cache.requests")
+                .description("Search cache lookups by outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,21 @@
+package com.navblind.server.config;
+
+import com.navblind.server.entity.NavigationSession.SessionStatus;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+//진행 중인 안내 상태(ActiveNavigationStore, Redis) 설정을 application.yml의 active-navigation: 아래에서 가져와 자바객체화
+//ttl: 재탐색 등으로 갱신되지 않은 안내 상태를 버리는 시간 (data-model.md의 nav:{userId}:active 키, 4시간)
+//sweepInterval: 만료된 안내의 DB 세션을 정리하는 주기 (@Scheduled가 같은 키를 읽음)
+//sweepBatchSize: 한 번에 정리하는 최대 세션 수
+//expiredStatus: 만료(방치)된 세션에 기록할 상태 (CANCELLED 또는 FAILED)
+@ConfigurationProperties(prefix = "active-navigation")
+public record ActiveNavigationProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("4h") Duration ttl,
+    @DefaultValue("5m") Duration sweepInterval,
+    @DefaultValue("500") int sweepBatchSize,
+    @DefaultValue("CANCELLED") SessionStatus expiredStatus
+) {}
@@ -0,0 +1,20 @@
+package com.navblind.server.config;
+
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+//업스트림 동시 요청 수 한도를 응답 시간에 맞춰 조절하는 설정, LaneProperties.adaptive 아래에 중첩되어 application.yml 값이 매핑됨
+//enabled: 끄면 설정된 동시 요청 수(osrmConcurrency, search.maxConcurrency)를 고정 한도로 사용
+//minLimit: 한도의 하한 (느려져도 최소 이만큼은 보냄)
+//tolerance: 최근 응답 시간이 평소의 몇 배까지는 한도를 줄이지 않을지
+//smoothing: 한 번의 조정에서 새 값을 얼마나 반영할지 (0~1, 클수록 빠르게 반응)
+//backoffRatio: 제한 시간을 넘긴 요청이 있을 때 한도에 곱하는 값
+//shortWindow, longWindow: 최근/평소 응답 시간 이동 평균에 쓰는 표본 수
+public record AdaptiveConcurrency(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("4") int minLimit,
+    @DefaultValue("1.5") double tolerance,
+    @DefaultValue("0.2") double smoothing,
+    @DefaultValue("0.9") double backoffRatio,
+    @DefaultValue("10") int shortWindow,
+    @DefaultValue("600") int longWindow
+) {}
@@ -0,0 +1,15 @@
+package com.navblind.server.config;
+
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+//업스트림(OSRM, Nominatim)별 동일 요청 합치기(single-flight) 설정
+//OsrmProperties.coalescing, NominatimProperties.coalescing 아래에 중첩되어 application.yml 값이 매핑됨
+//enabled: 동시에 들어온 동일 요청을 하나의 업스트림 호출로 합칠지 여부
+//gridMeters: 요청 키를 만들 때 좌표를 몇 미터 격자로 양자화할지 (같은 셀이면 같은 요청으로 간주)
+//  OSRM route는 결과가 출발 좌표에 따라 달라지므로 적용하지 않고 좌표가 같은 요청만 합침
+//maxInFlight: 동시에 추적하는 진행 중 요청 키의 최대 개수 (초과 시 합치지 않고 바로 호출)
+public record Coalescing(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("2") double gridMeters,
+    @DefaultValue("10000") int maxInFlight
+) {}
@@ -0,0 +1,26 @@
+package com.navblind.server.config;
+
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+//업스트림(OSRM, Nominatim)별 Reactor Netty 커넥션 풀 설정
+//OsrmProperties.pool, NominatimProperties.pool 아래에 중첩되어 application.yml 값이 매핑됨
+//maxConnections: 동시에 열어둘 수 있는 최대 커넥션 수
+//pendingAcquireMaxCount: 커넥션을 기다릴 수 있는 최대 대기 요청 수 (초과 시 즉시 실패)
+//pendingAcquireTimeout: 커넥션 획득 대기 최대 시간
+//maxIdleTime: 유휴 커넥션을 닫기까지의 시간 (upstream keep-alive 타임아웃보다 짧게 설정)
+//maxLifeTime: 커넥션 최대 수명
+//evictionInterval: 백그라운드에서 유휴/만료 커넥션을 정리하는 주기
+//keepAlive: HTTP keep-alive 사용 여부
+//connectTimeout: TCP 연결 타임아웃
+public record ConnectionPool(
+    @DefaultValue("100") int maxConnections,
+    @DefaultValue("500") int pendingAcquireMaxCount,
+    @DefaultValue("2s") Duration pendingAcquireTimeout,
+    @DefaultValue("30s") Duration maxIdleTime,
+    @DefaultValue("5m") Duration maxLifeTime,
+    @DefaultValue("30s") Duration evictionInterval,
+    @DefaultValue("true") boolean keepAlive,
+    @DefaultValue("2s") Duration connectTimeout
+) {}
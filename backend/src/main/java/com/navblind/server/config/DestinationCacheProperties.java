@@ -0,0 +1,16 @@
+package com.navblind.server.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+//사용자별 저장 목적지 캐시(DestinationCache) 설정을 application.yml의 destination-cache: 아래에서 가져와 자바객체화
+//maxUsers: 목적지 목록을 메모리에 유지하는 최대 사용자 수
+//ttl: 마지막 조회 후 목록을 유지하는 시간 (목적지를 바꾸면 TTL과 상관없이 바로 비움)
+@ConfigurationProperties(prefix = "destination-cache")
+public record DestinationCacheProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("10000") long maxUsers,
+    @DefaultValue("30m") Duration ttl
+) {}
@@ -0,0 +1,27 @@
+package com.navblind.server.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+//내장 보행자 라우터(EmbeddedRouter) 설정을 application.yml의 routing.embedded: 아래에서 가져와 자바객체화
+//mode: disabled(사용 안 함), fallback(OSRM 장애 시에만 사용), primary(OSRM 대신 항상 사용, 통합 테스트용)
+//graphFile: 미리 만들어 둔 보행자 그래프 파일 경로 (.navgraph, 메모리 매핑으로 읽음)
+//osmFile: graphFile이 없을 때 그래프를 만들 OSM XML 추출본 경로 (.osm), 만든 그래프는 graphFile에 저장
+//maxSnapMeters: 출발/도착 좌표를 도로에 붙일 수 있는 최대 거리
+//walkingSpeed: 예상 소요 시간 계산에 쓰는 보행 속도 (m/s)
+//maxSettledNodes: 탐색 한 번에 확정할 수 있는 최대 노드 수 (도달 불가능한 목적지에서 그래프 전체를 뒤지지 않도록 제한)
+@ConfigurationProperties(prefix = "routing.embedded")
+public record EmbeddedRoutingProperties(
+    @DefaultValue("disabled") Mode mode,
+    String graphFile,
+    String osmFile,
+    @DefaultValue("200") double maxSnapMeters,
+    @DefaultValue("1.3") double walkingSpeed,
+    @DefaultValue("2000000") int maxSettledNodes
+) {
+    public enum Mode {
+        disabled,
+        fallback,
+        primary
+    }
+}
@@ -0,0 +1,14 @@
+package com.navblind.server.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+//@Async, @Scheduled 작업 활성화
+//spring.threads.virtual.enabled=true이면 스프링 부트가 기본 실행기(applicationTaskExecutor, taskScheduler)를
+//가상 스레드 기반으로 만들기 때문에, 요청 처리(Tomcat)와 비동기/예약 작업이 모두 가상 스레드에서 동작함
+@Configuration
+@EnableAsync
+@EnableScheduling
+public class ExecutionConfig {
+}
@@ -1,8 +1,15 @@
 package com.navblind.server.config;
 
+import com.navblind.server.config.PersistenceScheduler.PersistenceBusyException;
 import com.navblind.server.dto.ErrorResponse;
+import com.navblind.server.integration.OsrmClient.InvalidTraceException;
+import com.navblind.server.integration.PriorityLanes.LaneRejectedException;
+import com.navblind.server.integration.ReplicaPool.NoHealthyReplicaException;
 import com.navblind.server.service.NavigationService.RouteNotFoundException;
+import com.navblind.server.trace.TraceWriter.TraceBufferFullException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -37,6 +44,70 @@ public class GlobalExceptionHandler {
                 .body(ErrorResponse.of("INVALID_STATE", ex.getMessage()));
     }
 
+    //같은 사용자/세션에 대한 요청이 동시에 처리되어 나중 요청의 쓰기가 거부된 경우
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLock(OptimisticLockingFailureException ex) {
+        log.warn("Concurrent update rejected: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ErrorResponse.of("CONCURRENT_UPDATE", "다른 요청이 먼저 처리되었습니다. 다시 시도해주세요"));
+    }
+
+    //궤적 정합 요청의 측정 시각이 시간 순서가 아닌 경우, 클라이언트는 details.index 위치를 확인
+    @ExceptionHandler(InvalidTraceException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidTrace(InvalidTraceException ex) {
+        log.warn("Invalid trace: {}", ex.getMessage());
+        Map<String, Object> details = new HashMap<>();
+        details.put("index", ex.getIndex());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(ErrorResponse.of("INVALID_REQUEST", "위치의 측정 시각이 시간 순서가 아닙니다", details));
+    }
+
+    //업스트림이 느려져 동시 요청 한도와 레인 대기열이 가득 찬 경우 기다리게 하지 않고 바로 거절
+    //클라이언트는 lane을 보고 대체 동작(nearest -> 기기 내 snap 등)을 고르고, Retry-After 후 다시 시도
+    @ExceptionHandler(LaneRejectedException.class)
+    public ResponseEntity<ErrorResponse> handleLaneRejected(LaneRejectedException ex) {
+        log.warn("Upstream lane rejected request: {}", ex.getMessage());
+        Map<String, Object> details = new HashMap<>();
+        details.put("upstream", ex.getUpstream());
+        details.put("lane", ex.getLane().tag());
+        details.put("retryAfterSeconds", ex.getRetryAfterSeconds());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ErrorResponse.of("SERVER_BUSY", "요청이 많아 처리하지 못했습니다. 잠시 후 다시 시도해주세요", details));
+    }
+
+    //업스트림의 모든 복제본이 circuit breaker로 제외된 경우, 가장 빨리 복귀할 수 있는 시점을 Retry-After로 알려줌
+    @ExceptionHandler(NoHealthyReplicaException.class)
+    public ResponseEntity<ErrorResponse> handleNoHealthyReplica(NoHealthyReplicaException ex) {
+        log.warn("Upstream unavailable: {}", ex.getMessage());
+        Map<String, Object> details = new HashMap<>();
+        details.put("upstream", ex.getUpstream());
+        details.put("retryAfterSeconds", ex.getRetryAfterSeconds());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ErrorResponse.of("UPSTREAM_UNAVAILABLE", "외부 서버에 연결할 수 없습니다. 잠시 후 다시 시도해주세요", details));
+    }
+
+    //DB 작업이 몰려 JPA 스케줄러의 대기열까지 가득 찬 경우, 기다리게 하지 않고 바로 거절
+    @ExceptionHandler(PersistenceBusyException.class)
+    public ResponseEntity<ErrorResponse> handlePersistenceBusy(PersistenceBusyException ex) {
+        log.warn("Persistence work rejected: {}", ex.getMessage());
+        Map<String, Object> details = new HashMap<>();
+        details.put("retryAfterSeconds", ex.getRetryAfterSeconds());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ErrorResponse.of("SERVER_BUSY", "요청이 많아 처리하지 못했습니다. 잠시 후 다시 시도해주세요", details));
+    }
+
+    //걸은 경로 업로드가 DB 쓰기보다 빨리 들어와 서버 버퍼가 가득 찬 경우, 클라이언트는 기기에 보관했다가 다시 보냄
+    @ExceptionHandler(TraceBufferFullException.class)
+    public ResponseEntity<ErrorResponse> handleTraceBufferFull(TraceBufferFullException ex) {
+        log.warn("Trace upload rejected: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ErrorResponse.of("TRACE_BUFFER_FULL", "위치 기록을 잠시 받을 수 없습니다. 잠시 후 다시 보내주세요"));
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidationErrors(MethodArgumentNotValidException ex) {
         Map<String, Object> details = new HashMap<>();
@@ -0,0 +1,18 @@
+package com.navblind.server.config;
+
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+//우선순위 레인 하나의 제한, LaneProperties 아래에 레인별로 중첩되어 application.yml 값이 매핑됨
+//maxConcurrency: 이 레인이 동시에 보낼 수 있는 최대 업스트림 요청 수
+//maxQueue: 차례를 기다릴 수 있는 최대 요청 수 (초과 시 즉시 거절, 503)
+//timeout: 대기 시간을 포함한 요청 전체 제한 시간
+//maxWait: 대기열에서 기다릴 수 있는 최대 시간 (넘기면 업스트림에 보내지 않고 버림, 없으면 timeout과 같음)
+//  호출자가 이미 포기했을 요청(지나간 키 입력의 검색 등)이 자리를 차지하지 않도록 timeout보다 짧게 둠
+public record LaneLimit(
+    @DefaultValue("32") int maxConcurrency,
+    @DefaultValue("200") int maxQueue,
+    @DefaultValue("10s") Duration timeout,
+    Duration maxWait
+) {}
@@ -0,0 +1,26 @@
+package com.navblind.server.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+//업스트림 요청 우선순위 레인(bulkhead) 설정을 application.yml의 lanes: 아래에서 가져와 자바객체화
+//osrmConcurrency: reroute/route/nearest 레인이 함께 쓰는 OSRM 동시 요청 수
+//  자리가 나면 항상 reroute -> route -> nearest 순서로 대기 요청을 보냄 (strict priority)
+//rerouteReserve: osrmConcurrency 중 reroute만 쓸 수 있는 자리 수
+//  route/nearest는 합쳐서 osrmConcurrency - rerouteReserve까지만 동시에 보냄 (한도가 줄면 같은 비율로 줄어듦)
+//reroute, route, nearest: OSRM 레인별 제한
+//search: Nominatim 검색 레인 제한 (OSRM과 별도)
+//background: 사용자가 기다리지 않는 Nominatim 작업(일괄 지오코딩 등) 레인 제한, 검색 대기 요청이 없을 때만 보냄
+//adaptive: 위 동시 요청 수를 상한으로, 측정한 응답 시간에 따라 실제 한도를 줄이고 늘리는 설정
+//  한도가 줄면 레인별 maxConcurrency와 대기열도 같은 비율로 줄어듦
+@ConfigurationProperties(prefix = "lanes")
+public record LaneProperties(
+    @DefaultValue("64") int osrmConcurrency,
+    @DefaultValue("16") int rerouteReserve,
+    @DefaultValue LaneLimit reroute,
+    @DefaultValue LaneLimit route,
+    @DefaultValue LaneLimit nearest,
+    @DefaultValue LaneLimit search,
+    @DefaultValue LaneLimit background,
+    @DefaultValue AdaptiveConcurrency adaptive
+) {}
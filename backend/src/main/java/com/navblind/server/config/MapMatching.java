@@ -0,0 +1,16 @@
+package com.navblind.server.config;
+
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+//OSRM match 서비스(궤적 정합) 호출 설정, OsrmProperties.matching 아래에 중첩되어 application.yml 값이 매핑됨
+//chunkSize: 한 번의 match 요청에 보내는 최대 좌표 수 (osrm-routed --max-matching-size 이하로 설정)
+//concurrency: 긴 궤적을 나눈 조각(chunk)을 동시에 요청하는 수
+//minRadius, maxRadius: 클라이언트가 보낸 위치 정확도(미터)를 OSRM radiuses로 보낼 때의 하한/상한
+//defaultRadius: 정확도가 없는 좌표에 사용할 반경 (미터)
+public record MapMatching(
+    @DefaultValue("100") int chunkSize,
+    @DefaultValue("4") int concurrency,
+    @DefaultValue("5") double minRadius,
+    @DefaultValue("50") double maxRadius,
+    @DefaultValue("10") double defaultRadius
+) {}
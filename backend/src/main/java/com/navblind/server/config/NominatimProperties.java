@@ -1,11 +1,18 @@
 package com.navblind.server.config;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
 
 //외부 HTTP API 호출에 필요한 기본 URL과 타임아웃 값을 설정 파일에서 가져와 자바객체화
 //Nominatim은 OSM 내에서 주소와 좌표를 상호변환하는 도구(self-hosted로 docker내에 탑재)
+//pool: Nominatim 전용 커넥션 풀 설정 (WebClientConfig에서 한 번만 생성되어 재사용됨)
+//coalescing: 동시에 들어온 동일 요청을 하나로 합치는 설정 (SingleFlight)
+//rateLimit: Nominatim으로 보내는 요청 속도 제한 (버스트에 약한 Nominatim을 보호)
 @ConfigurationProperties(prefix = "nominatim")
 public record NominatimProperties(
     String baseUrl,
-    int timeout
+    int timeout,
+    @DefaultValue ConnectionPool pool,
+    @DefaultValue Coalescing coalescing,
+    @DefaultValue RateLimit rateLimit
 ) {}
@@ -1,11 +1,26 @@
 package com.navblind.server.config;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
 
 //외부 HTTP API 호출에 필요한 기본 URL과 타임아웃 값을 설정 파일에서 가져와 자바객체화
 //OSRM은 OSM를 기반으로 하여 목적지까지의 경로 계산(self-hosted로 docker내에 탑재)
+//replicas: osrm-routed 복제본 주소 목록 (비어 있으면 baseUrl 하나만 사용)
+//balancing: 복제본 선택(지연 시간 기반), 헤지 요청, 복제본별 circuit breaker 설정
+//pool: OSRM 전용 커넥션 풀 설정 (WebClientConfig에서 한 번만 생성되어 재사용됨)
+//coalescing: 동시에 들어온 동일 요청을 하나로 합치는 설정 (SingleFlight)
+//batchConcurrency: 여러 좌표를 한 번에 snap할 때 동시에 보내는 nearest 요청 수
+//matching: 궤적 정합(match) 요청 설정
 @ConfigurationProperties(prefix = "osrm")
 public record OsrmProperties(
     String baseUrl,
-    int timeout
+    List<String> replicas,
+    @DefaultValue ReplicaBalancing balancing,
+    int timeout,
+    @DefaultValue ConnectionPool pool,
+    @DefaultValue Coalescing coalescing,
+    @DefaultValue("16") int batchConcurrency,
+    @DefaultValue MapMatching matching
 ) {}
@@ -0,0 +1,60 @@
+package com.navblind.server.config;
+
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+
+//리액티브 흐름 안에서 JPA(블로킹) 작업을 실행하기 위한 전용 스케줄러
+//이벤트 루프(Reactor Netty) 스레드에서 DB를 기다리지 않도록 작업을 이 스케줄러로 넘김
+//스레드 수는 DB 커넥션 풀 크기와 같게 제한 (커넥션보다 많은 스레드는 풀 대기만 늘림)
+//넘치는 작업은 최대 queueCapacity개까지 대기하고, 그 이상은 즉시 거절됨 (PersistenceBusyException, 503)
+@Component
+public class PersistenceScheduler {
+
+    //대기열이 가득 찼을 때 권장하는 재시도 시간 (대기 작업은 보통 1초 안에 빠짐)
+    private static final int RETRY_AFTER_SECONDS = 1;
+
+    private final Scheduler scheduler;
+
+    public PersistenceScheduler(@Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+                                @Value("${persistence.scheduler.queue-capacity:10000}") int queueCapacity) {
+        this.scheduler = Schedulers.newBoundedElastic(poolSize, queueCapacity, "jpa");
+    }
+
+    /**
+     * 블로킹 작업을 JPA 스케줄러에서 실행하는 Mono를 반환합니다. (null을 반환하면 빈 Mono)
+     * 결과 이후의 처리(응답 변환 등)가 JPA 스레드를 붙잡지 않도록 parallel 스케줄러로 넘겨 전달합니다.
+     * 대기열이 가득 차서 작업을 받을 수 없으면 PersistenceBusyException으로 실패합니다.
+     */
+    public <T> Mono<T> call(Callable<T> work) {
+        return Mono.fromCallable(work)
+                .subscribeOn(scheduler)
+                .onErrorMap(RejectedExecutionException.class, e -> new PersistenceBusyException(RETRY_AFTER_SECONDS, e))
+                .publishOn(Schedulers.parallel());
+    }
+
+    @PreDestroy
+    public void dispose() {
+        scheduler.dispose();
+    }
+
+    /**
+     * JPA 스케줄러의 스레드와 대기열이 모두 차서 작업을 받을 수 없는 상태 (503으로 응답)
+     */
+    @Getter
+    public static class PersistenceBusyException extends RuntimeException {
+        private final int retryAfterSeconds;
+
+        public PersistenceBusyException(int retryAfterSeconds, Throwable cause) {
+            super("Persistence scheduler queue is full", cause);
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+    }
+}
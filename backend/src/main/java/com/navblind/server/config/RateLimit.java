@@ -0,0 +1,13 @@
+package com.navblind.server.config;
+
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+//업스트림 요청 속도 제한(토큰 버킷) 설정, NominatimProperties.rateLimit 아래에 중첩되어 application.yml 값이 매핑됨
+//enabled: 속도 제한 사용 여부 (레인 대기열에서 차례가 와도 토큰이 생길 때까지 기다림)
+//ratePerSecond: 초당 보낼 수 있는 요청 수 (공개 Nominatim API는 1, self-hosted는 인스턴스 처리량에 맞춤)
+//burst: 한 번에 몰아서 보낼 수 있는 최대 요청 수 (쉬는 동안 쌓이는 토큰의 상한)
+public record RateLimit(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("50") double ratePerSecond,
+    @DefaultValue("20") int burst
+) {}
@@ -0,0 +1,24 @@
+package com.navblind.server.config;
+
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+//여러 업스트림 복제본(replica)에 요청을 나누는 설정, OsrmProperties.balancing 아래에 중첩되어 application.yml 값이 매핑됨
+//latencyDecay: 복제본별 응답 시간 EWMA의 감쇠 시간 (짧을수록 최근 응답 시간에 빠르게 반응)
+//hedgeEnabled: 첫 요청이 hedgePercentile 지연을 넘기면 다른 복제본에 같은 요청을 한 번 더 보낼지 여부 (먼저 온 응답 사용, 나머지는 취소)
+//hedgePercentile: 최근 응답 시간 중 몇 분위를 헤지 지연으로 쓸지 (0.95 = 느린 5% 요청만 헤지)
+//minHedgeDelay, maxHedgeDelay: 헤지 지연의 하한/상한 (표본이 부족할 때는 maxHedgeDelay 사용)
+//maxHedgeRatio: 전체 요청 대비 헤지 요청 비율 상한 (업스트림 전체가 느려졌을 때 부하가 두 배가 되는 것을 막음)
+//failureThreshold: 연속 실패가 이 횟수에 도달하면 복제본을 제외 (circuit open)
+//openDuration: 제외된 복제본에 다시 시험 요청(probe)을 보내기까지의 시간
+public record ReplicaBalancing(
+    @DefaultValue("10s") Duration latencyDecay,
+    @DefaultValue("true") boolean hedgeEnabled,
+    @DefaultValue("0.95") double hedgePercentile,
+    @DefaultValue("20ms") Duration minHedgeDelay,
+    @DefaultValue("1s") Duration maxHedgeDelay,
+    @DefaultValue("0.1") double maxHedgeRatio,
+    @DefaultValue("5") int failureThreshold,
+    @DefaultValue("10s") Duration openDuration
+) {}
@@ -0,0 +1,22 @@
+package com.navblind.server.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+//경로 재탐색(reroute) 설정을 application.yml의 reroute: 아래에서 가져와 자바객체화
+//spliceEnabled: 전체 경로 대신 "현재 위치 -> 기존 경로 복귀 지점" 연결 경로만 계산해서 남은 경로에 붙일지 여부
+//maxOffRouteMeters: 기존 경로에서 이보다 멀리 벗어나면 접합하지 않고 전체 경로를 다시 계산
+//rejoinLookaheadMeters: 복귀 지점을 현재 위치의 경로 투영점보다 얼마나 앞쪽에 둘지 (뒤로 돌아가는 안내 방지)
+//maxSpliceFactor: 접합 경로 거리가 (복귀 지점까지 직선거리 + 남은 경로)의 몇 배를 넘으면 전체 경로로 대체할지
+//sessionRouteTtl, maxSessions: 세션별 마지막 경로를 서버 메모리에 보관하는 시간과 최대 개수
+@ConfigurationProperties(prefix = "reroute")
+public record RerouteProperties(
+    @DefaultValue("true") boolean spliceEnabled,
+    @DefaultValue("150") double maxOffRouteMeters,
+    @DefaultValue("25") double rejoinLookaheadMeters,
+    @DefaultValue("1.5") double maxSpliceFactor,
+    @DefaultValue("2h") Duration sessionRouteTtl,
+    @DefaultValue("10000") long maxSessions
+) {}
@@ -0,0 +1,20 @@
+package com.navblind.server.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+//역지오코딩 캐시(ReverseGeocodeCache) 설정을 application.yml의 reverse-geocode: 아래에서 가져와 자바객체화
+//gridMeters: 좌표를 몇 미터 격자로 묶어 같은 답을 쓸지 (걷는 사용자가 같은 셀 안에서 다시 물으면 캐시에서 응답)
+//zoom: Nominatim reverse 상세 수준 (18: 건물/POI, 17: 도로, 16: 동네)
+//maxSize: 메모리에 유지하는 최대 셀 수 (넘으면 오래 쓰이지 않은 셀부터 제거)
+//ttl: 셀 하나의 답을 유지하는 시간
+@ConfigurationProperties(prefix = "reverse-geocode")
+public record ReverseGeocodeProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("20") double gridMeters,
+    @DefaultValue("18") int zoom,
+    @DefaultValue("50000") long maxSize,
+    @DefaultValue("1h") Duration ttl
+) {}
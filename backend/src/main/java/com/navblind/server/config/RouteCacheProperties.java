@@ -0,0 +1,19 @@
+package com.navblind.server.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+//경로 캐시(RouteCache) 설정을 application.yml의 route-cache: 아래에서 가져와 자바객체화
+//gridMeters: 출발/도착 좌표를 몇 미터 격자로 양자화해서 캐시 키를 만들지 (작을수록 정확, 클수록 적중률 증가)
+//l1MaxSize, l1Ttl: 서버 메모리(Caffeine) 캐시의 최대 항목 수와 유효 시간
+//l2Ttl: Redis 캐시 유효 시간 (data-model.md의 route:{md5} 키, 1시간)
+@ConfigurationProperties(prefix = "route-cache")
+public record RouteCacheProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("5") double gridMeters,
+    @DefaultValue("10000") long l1MaxSize,
+    @DefaultValue("10m") Duration l1Ttl,
+    @DefaultValue("1h") Duration l2Ttl
+) {}
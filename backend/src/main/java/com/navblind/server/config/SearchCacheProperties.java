@@ -0,0 +1,20 @@
+package com.navblind.server.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+//장소 검색 캐시(SearchCache) 설정을 application.yml의 search-cache: 아래에서 가져와 자바객체화
+//biasGridMeters: 사용자 위치를 몇 미터 격자로 묶어 viewbox 편향(±0.5°) 기준점을 공유할지
+//               (같은 셀의 사용자는 같은 Nominatim 요청을 보내고 같은 캐시 항목을 사용)
+//l1MaxSize, l1Ttl: 서버 메모리(Caffeine) 캐시의 최대 항목 수와 유효 시간
+//l2Ttl: Redis 캐시 유효 시간 (장소 데이터는 Nominatim 데이터 갱신 전까지 바뀌지 않으므로 길게)
+@ConfigurationProperties(prefix = "search-cache")
+public record SearchCacheProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("5000") double biasGridMeters,
+    @DefaultValue("20000") long l1MaxSize,
+    @DefaultValue("10m") Duration l1Ttl,
+    @DefaultValue("6h") Duration l2Ttl
+) {}
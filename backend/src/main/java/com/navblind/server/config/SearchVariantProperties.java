@@ -0,0 +1,19 @@
+package com.navblind.server.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+//검색어 변형 동시 검색 설정을 application.yml의 search-variants: 아래에서 가져와 자바객체화
+//enabled: 띄어쓰기/줄임말/위치 접미사를 바꾼 검색어 변형을 함께 검색할지 여부 (QueryVariants)
+//maxVariants: 원래 검색어를 포함해 동시에 검색할 최대 검색어 수
+//deadline: 모든 변형 검색을 기다리는 최대 시간 (넘긴 변형은 빼고 도착한 결과만 합침)
+//mergeRadiusMeters: 서로 다른 변형에서 나온 결과를 같은 장소로 볼 거리 (이름이 같을 때)
+@ConfigurationProperties(prefix = "search-variants")
+public record SearchVariantProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("4") int maxVariants,
+    @DefaultValue("1500ms") Duration deadline,
+    @DefaultValue("30") double mergeRadiusMeters
+) {}
@@ -0,0 +1,30 @@
+package com.navblind.server.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+//목적지 자동완성(SuggestService) 설정을 application.yml의 suggest: 아래에서 가져와 자바객체화
+//poiFile: Nominatim DB에서 내보낸 POI 목록(TSV, tools/export_poi_dump.sh) 경로, 없으면 검색 결과와 저장 목적지만 사용
+//maxPopular: 색인에 넣을 인기 검색 결과(Nominatim 검색으로 나온 장소)의 최대 개수
+//headSize, scanLimit: 짧은 접두사에 미리 골라 둘 후보 수, 조회 시 직접 훑어볼 최대 키 수 (SuggestIndex)
+//headCellMeters: 짧은 접두사의 후보를 지역별로도 골라 둘 격자 셀 크기 (주변 셀 포함, 한두 글자 입력에도 가까운 장소가 나오도록)
+//geoScaleMeters: 거리 가중치 기준 (이 거리만큼 떨어지면 점수가 절반)
+//personalBoost: 사용자가 저장한 목적지에 더하는 점수 (인기 장소보다 항상 앞에 오도록 크게)
+//personalTtl, personalMaxUsers: 사용자별 목적지 색인을 메모리에 유지하는 시간과 최대 사용자 수
+//fallbackMinLength: 색인에 후보가 없을 때 Nominatim 검색으로 넘어가는 최소 검색어 길이 (/search와 같은 2자)
+@ConfigurationProperties(prefix = "suggest")
+public record SuggestProperties(
+    @DefaultValue("true") boolean enabled,
+    String poiFile,
+    @DefaultValue("50000") int maxPopular,
+    @DefaultValue("64") int headSize,
+    @DefaultValue("512") int scanLimit,
+    @DefaultValue("10000") double headCellMeters,
+    @DefaultValue("5000") double geoScaleMeters,
+    @DefaultValue("5") double personalBoost,
+    @DefaultValue("30m") Duration personalTtl,
+    @DefaultValue("10000") long personalMaxUsers,
+    @DefaultValue("2") int fallbackMinLength
+) {}
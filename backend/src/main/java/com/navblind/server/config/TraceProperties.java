@@ -0,0 +1,24 @@
+package com.navblind.server.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+//걸은 경로(trace) 수집 설정을 application.yml의 trace: 아래에서 가져와 자바객체화
+//bufferCapacity: DB에 쓰기 전 메모리에 모아 둘 수 있는 최대 위치 수 (넘치면 업로드를 503으로 거절)
+//batchSize: INSERT 배치 하나에 넣는 최대 위치 수
+//writers: 버퍼를 비우며 DB에 쓰는 스레드 수 (DB 커넥션을 이만큼 사용)
+//maxPointsPerRequest: 업로드 한 번에 받을 수 있는 최대 위치 수
+//partitionMonthsAhead: 이번 달 외에 미리 만들어 둘 월별 파티션 수 (지난달 파티션도 함께 확인)
+//retention: 위치 기록 보관 기간 (이 기간이 모두 지난 월별 파티션을 삭제, 이보다 오래된 시각의 업로드는 거절)
+@ConfigurationProperties(prefix = "trace")
+public record TraceProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("200000") int bufferCapacity,
+    @DefaultValue("2000") int batchSize,
+    @DefaultValue("2") int writers,
+    @DefaultValue("5000") int maxPointsPerRequest,
+    @DefaultValue("2") int partitionMonthsAhead,
+    @DefaultValue("180d") Duration retention
+) {}
@@ -0,0 +1,17 @@
+package com.navblind.server.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+//목적지 사용 횟수 지연 쓰기(UseCountBuffer) 설정을 application.yml의 use-count: 아래에서 가져와 자바객체화
+//writeBehind: 도착할 때마다 DB를 갱신하지 않고 메모리에 모았다가 주기적으로 한 번에 반영 (false면 도착 즉시 UPDATE)
+//flushInterval: 모은 증가분을 DB에 반영하는 주기 (DB 값이 늦을 수 있는 최대 시간, @Scheduled가 같은 키를 읽음)
+//batchSize: JDBC 배치 하나에 넣는 UPDATE 문 수
+@ConfigurationProperties(prefix = "use-count")
+public record UseCountProperties(
+    @DefaultValue("true") boolean writeBehind,
+    @DefaultValue("5s") Duration flushInterval,
+    @DefaultValue("500") int batchSize
+) {}
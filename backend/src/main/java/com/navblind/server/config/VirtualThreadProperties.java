@@ -0,0 +1,16 @@
+package com.navblind.server.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+//가상 스레드 진단 설정을 application.yml의 virtual-threads: 아래에서 가져와 자바객체화
+//가상 스레드 사용 여부 자체는 spring.threads.virtual.enabled로 켜고 끔
+//pinningMonitor: 가상 스레드가 캐리어 스레드에 고정(pinning)되는 이벤트를 JFR로 감시할지 여부
+//pinningThreshold: 이 시간 이상 고정된 경우만 기록 (짧은 고정은 무시)
+@ConfigurationProperties(prefix = "virtual-threads")
+public record VirtualThreadProperties(
+    @DefaultValue("true") boolean pinningMonitor,
+    @DefaultValue("20ms") Duration pinningThreshold
+) {}
@@ -1,8 +1,13 @@
 package com.navblind.server.config;
 
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 /**
 WebClient 설정 클래스
@@ -16,14 +21,76 @@ WebClient는 Reactor Netty 위에서 동작하며,
 Mono/Flux 기반의 선언적 체인(map, flatMap 등)을 통해
 비동기 작업 흐름을 자연스럽게 구성할 수 있음
 
-이 설정을 통해 기본 WebClient.Builder 빈을 제공하며,
-필요 시 타임아웃, 헤더, 재시도, 로깅 등 공통 설정을 추가할 수 있음
+업스트림(OSRM, Nominatim)마다 전용 WebClient를 애플리케이션 시작 시 한 번만 생성하고,
+각각 독립된 커넥션 풀(ConnectionProvider)을 가지도록 함
+    → 요청마다 클라이언트를 새로 만들고 커넥션을 새로 여는 비용을 없앰
+    → 한 업스트림이 느려져도 다른 업스트림의 커넥션 풀에는 영향이 없음
+
+풀 상태(active/idle/pending 커넥션 수)는 Micrometer 게이지로 노출됨
+    reactor.netty.connection.provider.* {name=osrm|nominatim}
 */
 @Configuration
 public class WebClientConfig {
 
+    //OSRM route 응답은 overview=full 경로 형상을 포함하므로 긴 도보 경로도 받을 수 있도록 버퍼 한도를 늘림
+    private static final int OSRM_MAX_RESPONSE_BYTES = 4 * 1024 * 1024;
+
     @Bean
     public WebClient.Builder webClientBuilder() {
         return WebClient.builder();
     }
+
+    //OSRM 전용 커넥션 풀, 애플리케이션 종료 시 커넥션을 정리함
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider osrmConnectionProvider(OsrmProperties osrmProperties) {
+        return connectionProvider("osrm", osrmProperties.pool());
+    }
+
+    //Nominatim 전용 커넥션 풀
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider nominatimConnectionProvider(NominatimProperties nominatimProperties) {
+        return connectionProvider("nominatim", nominatimProperties.pool());
+    }
+
+    //OsrmClient에서 사용하는 WebClient (한 번 생성 후 재사용)
+    @Bean
+    public WebClient osrmWebClient(WebClient.Builder webClientBuilder,
+                                   @Qualifier("osrmConnectionProvider") ConnectionProvider connectionProvider,
+                                   OsrmProperties osrmProperties) {
+        return webClientBuilder.clone()
+                .clientConnector(new ReactorClientHttpConnector(
+                        httpClient(connectionProvider, osrmProperties.pool())))
+                .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(OSRM_MAX_RESPONSE_BYTES))
+                .build();
+    }
+
+    //NominatimClient에서 사용하는 WebClient (한 번 생성 후 재사용)
+    @Bean
+    public WebClient nominatimWebClient(WebClient.Builder webClientBuilder,
+                                        @Qualifier("nominatimConnectionProvider") ConnectionProvider connectionProvider,
+                                        NominatimProperties nominatimProperties) {
+        return webClientBuilder.clone()
+                .clientConnector(new ReactorClientHttpConnector(
+                        httpClient(connectionProvider, nominatimProperties.pool())))
+                .build();
+    }
+
+    //설정값으로 커넥션 풀을 생성, metrics(true)로 풀 게이지를 Micrometer에 등록
+    private ConnectionProvider connectionProvider(String name, ConnectionPool pool) {
+        return ConnectionProvider.builder(name)
+                .maxConnections(pool.maxConnections())
+                .pendingAcquireMaxCount(pool.pendingAcquireMaxCount())
+                .pendingAcquireTimeout(pool.pendingAcquireTimeout())
+                .maxIdleTime(pool.maxIdleTime())
+                .maxLifeTime(pool.maxLifeTime())
+                .evictInBackground(pool.evictionInterval())
+                .metrics(true)
+                .build();
+    }
+
+    private HttpClient httpClient(ConnectionProvider connectionProvider, ConnectionPool pool) {
+        return HttpClient.create(connectionProvider)
+                .keepAlive(pool.keepAlive())
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) pool.connectTimeout().toMillis());
+    }
 }
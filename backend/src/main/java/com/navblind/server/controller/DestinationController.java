@@ -3,6 +3,7 @@ package com.navblind.server.controller;
 import com.navblind.server.dto.DestinationDto.*;
 import com.navblind.server.service.DestinationService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
@@ -10,6 +11,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 import java.util.Map;
@@ -28,7 +30,7 @@ public class DestinationController {
      * OSM Nominatim을 사용하여 장소를 검색합니다.
      */
     @GetMapping("/search")
-    public ResponseEntity<SearchResponse> searchDestinations(
+    public Mono<ResponseEntity<SearchResponse>> searchDestinations(
             @RequestParam @Size(min = 2) String query,
             @RequestParam(required = false) Double lat,
             @RequestParam(required = false) Double lng,
@@ -37,11 +39,47 @@ public class DestinationController {
         log.info("Search request: query='{}', location=({}, {}), limit={}",
                 query, lat, lng, limit);
 
-        List<SearchResult> results = destinationService.searchPlaces(query, lat, lng, Math.min(limit, 50));
+        return destinationService.searchPlaces(query, lat, lng, Math.min(limit, 50))
+                .map(results -> ResponseEntity.ok(SearchResponse.builder()
+                        .results(results)
+                        .build()));
+    }
+
+    /**
+     * 현재 위치 확인 (GET /v1/destinations/reverse)
+     * 좌표에서 가장 가까운 주소/장소를 검색 결과와 같은 형태로 반환합니다. 찾지 못하면 404입니다.
+     */
+    @GetMapping("/reverse")
+    public Mono<ResponseEntity<SearchResult>> reverseGeocode(
+            @RequestParam @Min(-90) @Max(90) double lat,
+            @RequestParam @Min(-180) @Max(180) double lng) {
+
+        return destinationService.reverseGeocode(lat, lng)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * 목적지 자동완성 (GET /v1/destinations/suggest)
+     * 입력 중인 검색어로 시작하는 장소를 서버 메모리 색인에서 찾습니다. (자모/초성 입력 지원, 저장한 목적지 우선)
+     * 색인에 후보가 없을 때만 Nominatim 검색 결과를 반환합니다.
+     */
+    @GetMapping("/suggest")
+    public Mono<ResponseEntity<SearchResponse>> suggestDestinations(
+            @RequestHeader(value = "X-User-Id", required = false) UUID userId,
+            @RequestParam @Size(min = 1) String query,
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lng,
+            @RequestParam(defaultValue = "5") @Min(1) int limit) {
+
+        if (userId == null) {
+            userId = getDefaultUserId();
+        }
 
-        return ResponseEntity.ok(SearchResponse.builder()
-                .results(results)
-                .build());
+        return destinationService.suggestPlaces(userId, query, lat, lng, Math.min(limit, 20))
+                .map(results -> ResponseEntity.ok(SearchResponse.builder()
+                        .results(results)
+                        .build()));
     }
 
     /**
@@ -90,10 +128,7 @@ public class DestinationController {
             userId = getDefaultUserId();
         }
 
-        List<DestinationResponse> destinations = destinationService.getSavedDestinations(userId, null);
-        return destinations.stream()
-                .filter(d -> d.getId().equals(destinationId))
-                .findFirst()
+        return destinationService.getDestination(userId, destinationId)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -1,16 +1,29 @@
 package com.navblind.server.controller;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.navblind.server.dto.RouteDto.*;
 import com.navblind.server.entity.NavigationSession;
 import com.navblind.server.integration.OsrmClient;
+import com.navblind.server.integration.PriorityLanes.LaneRejectedException;
+import com.navblind.server.repository.SessionHistoryRow;
+import com.navblind.server.routing.EmbeddedRouter;
 import com.navblind.server.service.NavigationService;
+import com.navblind.server.service.NavigationService.HistoryPage;
+import com.navblind.server.service.TraceService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -21,14 +34,19 @@ import java.util.UUID;
 @Slf4j
 public class NavigationController {
 
+    //이력 한 페이지의 최대 세션 수 (API 명세의 limit maximum)
+    private static final int MAX_HISTORY_LIMIT = 100;
+
     private final NavigationService navigationService;
+    private final TraceService traceService;
     private final OsrmClient osrmClient;
+    private final EmbeddedRouter embeddedRouter;
 
     /**
      * 경로 탐색 (POST /v1/navigation/route)
      */
     @PostMapping("/route")
-    public ResponseEntity<RouteResponse> calculateRoute(
+    public Mono<ResponseEntity<RouteResponse>> calculateRoute(
             @RequestHeader(value = "X-User-Id", required = false) UUID userId,
             @Valid @RequestBody RouteRequest request) {
 
@@ -41,15 +59,15 @@ public class NavigationController {
                 request.getOriginLat() + "," + request.getOriginLng(),
                 request.getDestLat() + "," + request.getDestLng());
 
-        RouteResponse response = navigationService.calculateRoute(userId, request);
-        return ResponseEntity.ok(response);
+        return navigationService.calculateRoute(userId, request)
+                .map(ResponseEntity::ok);
     }
 
     /**
      * 경로 재탐색 (POST /v1/navigation/reroute)
      */
     @PostMapping("/reroute")
-    public ResponseEntity<RouteResponse> reroute(
+    public Mono<ResponseEntity<RouteResponse>> reroute(
             @RequestHeader(value = "X-User-Id", required = false) UUID userId,
             @Valid @RequestBody RerouteRequest request) {
 
@@ -59,36 +77,46 @@ public class NavigationController {
 
         log.info("Reroute request from user {} for session {}", userId, request.getSessionId());
 
-        RouteResponse response = navigationService.reroute(userId, request);
-        return ResponseEntity.ok(response);
+        return navigationService.reroute(userId, request)
+                .map(ResponseEntity::ok);
     }
 
     /**
      * 네비게이션 이력 조회 (GET /v1/navigation/sessions)
+     * 최신순으로 limit개를 반환하고, 다음 페이지는 응답의 nextCursor를 cursor로 보내 가져옵니다. (마지막 페이지면 nextCursor 없음)
+     * offset은 이전 클라이언트 호환용이며, total은 includeTotal일 때만 최대 1000까지 셉니다. (totalExact가 false면 그 이상)
      */
     @GetMapping("/sessions")
     public ResponseEntity<Map<String, Object>> getNavigationHistory(
             @RequestHeader(value = "X-User-Id", required = false) UUID userId,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "0") int offset,
-            @RequestParam(defaultValue = "20") int limit) {
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "true") boolean includeTotal) {
 
         if (userId == null) {
             userId = getOrCreateDemoUserId();
         }
 
-        int page = offset / Math.max(limit, 1);
-        Page<NavigationSession> sessions = navigationService.getNavigationHistory(userId, page, limit);
+        int pageSize = Math.max(1, Math.min(limit, MAX_HISTORY_LIMIT));
+        HistoryPage history = navigationService.getNavigationHistory(userId, cursor, offset, pageSize, includeTotal);
 
-        List<NavigationSessionResponse> sessionResponses = sessions.getContent().stream()
+        List<NavigationSessionResponse> sessionResponses = history.sessions().stream()
                 .map(this::toSessionResponse)
                 .toList();
 
-        return ResponseEntity.ok(Map.of(
-                "sessions", sessionResponses,
-                "total", sessions.getTotalElements(),
-                "limit", limit,
-                "offset", offset
-        ));
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("sessions", sessionResponses);
+        body.put("limit", pageSize);
+        body.put("nextCursor", history.nextCursor());
+        if (cursor == null) {
+            body.put("offset", offset);
+        }
+        if (history.total() != null) {
+            body.put("total", history.total());
+            body.put("totalExact", history.totalExact());
+        }
+        return ResponseEntity.ok(body);
     }
 
     /**
@@ -119,24 +147,129 @@ public class NavigationController {
                 .build());
     }
 
+    /**
+     * 걸은 경로 업로드 (POST /v1/navigation/sessions/{sessionId}/trace)
+     * 안내 중 기록한 융합 위치를 묶어서(polyline + 시각 차이) 보내면 서버에서 모아 한 번에 기록합니다.
+     * 받기만 하고 바로 202로 응답하며, 서버 버퍼가 가득 차면 503과 Retry-After로 응답합니다.
+     */
+    @PostMapping("/sessions/{sessionId}/trace")
+    public Mono<ResponseEntity<TraceUploadResponse>> uploadTrace(
+            @RequestHeader(value = "X-User-Id", required = false) UUID userId,
+            @PathVariable UUID sessionId,
+            @Valid @RequestBody TraceUploadRequest request) {
+
+        if (userId == null) {
+            userId = getOrCreateDemoUserId();
+        }
+
+        return traceService.upload(userId, sessionId, request)
+                .map(accepted -> ResponseEntity.accepted()
+                        .body(TraceUploadResponse.builder().accepted(accepted).build()));
+    }
+
     /**
      * 좌표를 가장 가까운 도로에 snap (GET /v1/navigation/nearest)
      * VPS/GPS 좌표를 OSM 도로망에 정합하는 데 사용됩니다.
      */
     @GetMapping("/nearest")
-    public ResponseEntity<NearestResponse> getNearestRoad(
+    public Mono<ResponseEntity<NearestResponse>> getNearestRoad(
             @RequestParam double lat,
             @RequestParam double lng) {
 
         log.debug("Nearest road request for: {}, {}", lat, lng);
 
-        OsrmClient.NearestResult result = osrmClient.getNearestRoad(lat, lng, 1);
+        Mono<OsrmClient.NearestResult> result;
+        if (embeddedRouter.isPrimary()) {
+            result = Mono.fromSupplier(() -> embeddedRouter.nearest(lat, lng));
+        } else {
+            // OSRM 장애나 nearest 레인 포화 시 내장 라우터의 그래프로 snap
+            result = osrmClient.getNearestRoadAsync(lat, lng, 1)
+                    .onErrorResume(LaneRejectedException.class,
+                            e -> embeddedRouter.isAvailable() ? Mono.empty() : Mono.error(e))
+                    .switchIfEmpty(Mono.fromSupplier(() -> embeddedRouter.isAvailable()
+                            ? embeddedRouter.nearest(lat, lng) : null));
+        }
+
+        return result
+                .map(nearest -> ResponseEntity.ok(toNearestResponse(nearest)))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * 여러 좌표를 한 번에 도로에 snap (POST /v1/navigation/nearest/batch)
+     * GPS 음영 구간 이후 짧은 궤적을 N번의 개별 요청 없이 한 번에 보정하는 데 사용됩니다.
+     * 결과는 입력 순서대로 반환되며, snap에 실패한 좌표는 error가 채워집니다.
+     * nearest 레인이 가득 차서 거절된 좌표는 내장 라우터로 snap하고, 내장 라우터가 없으면 SERVER_BUSY로 채웁니다.
+     * 모든 좌표가 거절되고 내장 라우터도 없을 때만 503으로 응답합니다.
+     */
+    @PostMapping("/nearest/batch")
+    public Mono<ResponseEntity<NearestBatchResponse>> getNearestRoads(
+            @Valid @RequestBody NearestBatchRequest request) {
+
+        log.debug("Nearest batch request for {} points", request.getPoints().size());
+
+        List<Waypoint> points = request.getPoints().stream()
+                .map(p -> Waypoint.builder().lat(p.getLat()).lng(p.getLng()).build())
+                .toList();
 
-        if (result == null) {
-            return ResponseEntity.notFound().build();
+        Mono<List<OsrmClient.NearestOutcome>> results;
+        if (embeddedRouter.isPrimary()) {
+            results = Mono.fromSupplier(() -> points.stream().map(this::embeddedNearest).toList());
+        } else {
+            // 모든 좌표가 거절된 경우도 내장 라우터가 있으면 아래에서 좌표마다 대체
+            results = osrmClient.getNearestRoadsAsync(points)
+                    .onErrorResume(LaneRejectedException.class, e -> embeddedRouter.isAvailable()
+                            ? Mono.just(points.stream()
+                                    .map(p -> OsrmClient.NearestOutcome.failed(OsrmClient.NearestError.SERVER_BUSY))
+                                    .toList())
+                            : Mono.error(e));
         }
 
-        NearestResponse response = NearestResponse.builder()
+        return results.map(outcomes -> {
+            List<NearestBatchItem> items = new ArrayList<>(points.size());
+            for (int i = 0; i < points.size(); i++) {
+                OsrmClient.NearestOutcome outcome = outcomes.get(i);
+                if (outcome.error() == OsrmClient.NearestError.SERVER_BUSY && embeddedRouter.isAvailable()) {
+                    outcome = embeddedNearest(points.get(i));
+                }
+                items.add(NearestBatchItem.builder()
+                        .index(i)
+                        .result(outcome.result() != null ? toNearestResponse(outcome.result()) : null)
+                        .error(outcome.error() != null ? outcome.error().name() : null)
+                        .build());
+            }
+            return ResponseEntity.ok(NearestBatchResponse.builder()
+                    .results(items)
+                    .build());
+        });
+    }
+
+    /**
+     * GPS/VPS 궤적을 도로망에 정합 (POST /v1/navigation/match)
+     * 수 초 동안 모은 위치를 한 번에 보내면 OSRM match 서비스로 정합된 좌표, 신뢰도, 지나간 도로 순서를 반환합니다.
+     * 위치마다 /nearest를 호출하는 것보다 요청 수가 훨씬 적습니다.
+     * points는 측정 시각 순서대로 보내야 합니다. (줄어드는 시각이 있으면 400 INVALID_REQUEST)
+     */
+    @PostMapping("/match")
+    public Mono<ResponseEntity<MatchResponse>> matchTrace(
+            @Valid @RequestBody MatchRequest request) {
+
+        log.debug("Match request for {} points", request.getPoints().size());
+
+        return osrmClient.matchTraceAsync(request.getPoints())
+                .map(ResponseEntity::ok);
+    }
+
+    //내장 라우터의 그래프로 snap (OSRM 대신 쓰는 경우)
+    private OsrmClient.NearestOutcome embeddedNearest(Waypoint point) {
+        OsrmClient.NearestResult snapped = embeddedRouter.nearest(point.getLat(), point.getLng());
+        return snapped != null
+                ? OsrmClient.NearestOutcome.found(snapped)
+                : OsrmClient.NearestOutcome.failed(OsrmClient.NearestError.NEAREST_NOT_FOUND);
+    }
+
+    private NearestResponse toNearestResponse(OsrmClient.NearestResult result) {
+        return NearestResponse.builder()
                 .originalLat(result.getOriginalLat())
                 .originalLng(result.getOriginalLng())
                 .snappedLat(result.getSnappedLat())
@@ -145,19 +278,17 @@ public class NavigationController {
                 .roadName(result.getRoadName())
                 .isOnRoad(result.getDistance() < 15.0) // 15m 이내면 도로 위로 판단
                 .build();
-
-        return ResponseEntity.ok(response);
     }
 
-    private NavigationSessionResponse toSessionResponse(NavigationSession session) {
+    private NavigationSessionResponse toSessionResponse(SessionHistoryRow session) {
         return NavigationSessionResponse.builder()
-                .id(session.getId())
-                .destName(session.getDestName())
-                .status(session.getStatus().name())
-                .distance(session.getDistanceMeters())
-                .startedAt(session.getStartedAt() != null ? session.getStartedAt().toString() : null)
-                .completedAt(session.getCompletedAt() != null ? session.getCompletedAt().toString() : null)
-                .rerouteCount(session.getRerouteCount())
+                .id(session.id())
+                .destName(session.destName())
+                .status(session.status().name())
+                .distance(session.distanceMeters())
+                .startedAt(session.startedAt() != null ? session.startedAt().toString() : null)
+                .completedAt(session.completedAt() != null ? session.completedAt().toString() : null)
+                .rerouteCount(session.rerouteCount())
                 .build();
     }
 
@@ -212,4 +343,56 @@ public class NavigationController {
         /** 도로 위에 있는지 여부 (distance < 15m) */
         private Boolean isOnRoad;
     }
+
+    /**
+     * Nearest batch API 요청 DTO
+     */
+    @lombok.Data
+    @lombok.NoArgsConstructor
+    @lombok.AllArgsConstructor
+    public static class NearestBatchRequest {
+        /** snap할 좌표 목록 (최대 500개) */
+        @NotEmpty
+        @Size(max = 500)
+        @Valid
+        private List<NearestPoint> points;
+    }
+
+    @lombok.Data
+    @lombok.NoArgsConstructor
+    @lombok.AllArgsConstructor
+    public static class NearestPoint {
+        @NotNull
+        @Min(-90) @Max(90)
+        private Double lat;
+
+        @NotNull
+        @Min(-180) @Max(180)
+        private Double lng;
+    }
+
+    /**
+     * Nearest batch API 응답 DTO
+     */
+    @lombok.Data
+    @lombok.Builder
+    @lombok.NoArgsConstructor
+    @lombok.AllArgsConstructor
+    public static class NearestBatchResponse {
+        private List<NearestBatchItem> results;
+    }
+
+    @lombok.Data
+    @lombok.Builder
+    @lombok.NoArgsConstructor
+    @lombok.AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class NearestBatchItem {
+        /** 요청 목록에서의 위치 */
+        private Integer index;
+        /** snap 결과 (실패 시 null) */
+        private NearestResponse result;
+        /** 실패 사유 (성공 시 null): NEAREST_NOT_FOUND, UPSTREAM_ERROR, TIMEOUT, SERVER_BUSY */
+        private String error;
+    }
 }
@@ -0,0 +1,85 @@
+package com.navblind.server.diagnostics;
+
+import com.navblind.server.config.VirtualThreadProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 가상 스레드 고정(pinning) 감시기
+ *
+ * 가상 스레드가 synchronized 블록이나 네이티브 호출 안에서 블로킹되면 캐리어(플랫폼) 스레드까지 붙잡혀
+ * 가상 스레드를 쓰는 이점이 사라짐. JFR의 jdk.VirtualThreadPinned 이벤트를 앱 안에서 구독해서
+ * 고정이 발생한 위치(스택 상단)를 경고 로그로 남기고 메트릭으로 집계함
+ *
+ * 가상 스레드 모드(spring.threads.virtual.enabled=true)이고 virtual-threads.pinning-monitor=true일 때만 동작
+ *
+ * 메트릭: navblind.virtual.pinned
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@ConditionalOnProperty(prefix = "virtual-threads", name = "pinning-monitor", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 8;
+
+    private final RecordingStream stream;
+    private final Counter pinned;
+
+    public VirtualThreadPinningMonitor(VirtualThreadProperties properties, MeterRegistry meterRegistry) {
+        this.pinned = Counter.builder("navblind.virtual.pinned")
+                .description("Virtual threads pinned to their carrier longer than the threshold")
+                .register(meterRegistry);
+
+        this.stream = new RecordingStream();
+        stream.enable(PINNED_EVENT)
+                .withThreshold(properties.pinningThreshold())
+                .withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+
+        log.info("Virtual thread pinning monitor started (threshold {})", properties.pinningThreshold());
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinned.increment();
+        log.warn("Virtual thread pinned for {} ms:{}", event.getDuration().toMillis(), topFrames(event));
+    }
+
+    private static String topFrames(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace == null) {
+            return " (no stack trace)";
+        }
+        StringBuilder frames = new StringBuilder();
+        List<RecordedFrame> recorded = stackTrace.getFrames();
+        for (int i = 0; i < Math.min(LOGGED_FRAMES, recorded.size()); i++) {
+            RecordedFrame frame = recorded.get(i);
+            frames.append("\n    at ")
+                    .append(frame.getMethod().getType().getName())
+                    .append('.')
+                    .append(frame.getMethod().getName())
+                    .append(':')
+                    .append(frame.getLineNumber());
+        }
+        return frames.toString();
+    }
+
+    @PreDestroy
+    public void close() {
+        stream.close();
+    }
+}
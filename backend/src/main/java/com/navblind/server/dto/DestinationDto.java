@@ -42,7 +42,7 @@ public class DestinationDto {
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
-    @Builder
+    @Builder(toBuilder = true)
     public static class DestinationResponse {
         private UUID id;
         private String name;
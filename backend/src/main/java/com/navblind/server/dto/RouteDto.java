@@ -1,8 +1,12 @@
 package com.navblind.server.dto;
 
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.*;
 
 import java.util.List;
@@ -39,6 +43,10 @@ public class RouteDto {
 
         @Builder.Default
         private Boolean usePreferences = true;
+
+        //응답에 포함할 경로 형상의 단순화 수준 (기본: medium, 3m)
+        @Builder.Default
+        private GeometryDetail geometryDetail = GeometryDetail.medium;
     }
 
     //경로 이탈 등의 이유로 중간에 경로를 재탐색할 때 쓰는 요청을 담는 DTO
@@ -57,6 +65,10 @@ public class RouteDto {
         @NotNull
         @Min(-180) @Max(180)
         private Double currentLng;
+
+        //응답에 포함할 경로 형상의 단순화 수준 (기본: medium, 3m)
+        @Builder.Default
+        private GeometryDetail geometryDetail = GeometryDetail.medium;
     }
 
     //OSRM에서 받은 경로 결과를 클라이언트에게 응답할 때 사용하는 DTO
@@ -68,6 +80,8 @@ public class RouteDto {
         private UUID sessionId;
         private Integer distance;
         private Integer duration;
+        //전체 경로 형상 (encoded polyline, precision 6), geometryDetail이 none이면 null
+        private String geometry;
         private List<Waypoint> waypoints;
         private List<Instruction> instructions;
     }
@@ -97,6 +111,116 @@ public class RouteDto {
         private Waypoint location;
     }
 
+    //GPS/VPS 궤적을 도로망에 정합(map matching)해달라는 요청을 담는 DTO
+    //수 초 동안 모은 위치를 한 번에 보내서 위치마다 nearest를 호출하지 않도록 함
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class MatchRequest {
+        @NotEmpty
+        @Size(min = 2, max = 2000)
+        @Valid
+        private List<TracePoint> points;
+    }
+
+    //궤적의 위치 하나 (LocationFusionService가 만드는 융합 위치)
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class TracePoint {
+        @NotNull
+        @Min(-90) @Max(90)
+        private Double lat;
+
+        @NotNull
+        @Min(-180) @Max(180)
+        private Double lng;
+
+        //측정 시각 (epoch milliseconds)
+        @NotNull
+        private Long timestamp;
+
+        //위치 정확도 반경 (미터, 없으면 서버 기본값 사용)
+        private Double accuracy;
+    }
+
+    //안내 중 실제로 걸은 위치(융합 위치)를 묶어서 올리는 요청을 담는 DTO
+    //크기를 줄이기 위해 좌표는 polyline(precision 6)으로, 시각은 앞 위치와의 차이로 보냄
+    //accuracies, headings, sources는 선택이며, 보낼 경우 위치 수와 같은 길이여야 함 (값이 없는 위치는 null)
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class TraceUploadRequest {
+        @NotBlank
+        private String polyline;
+
+        //첫 위치 기준 시각 (epoch milliseconds)
+        @NotNull
+        private Long startTime;
+
+        //위치마다 앞 위치(첫 위치는 startTime)와의 시각 차이 (밀리초, 0 이상)
+        @NotEmpty
+        private List<Integer> timeDeltas;
+
+        private List<Float> accuracies;
+        private List<Float> headings;
+        private List<String> sources;
+    }
+
+    //업로드를 받았을 때의 응답 (accepted: 받은 위치 수, DB에는 잠시 후 기록됨)
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class TraceUploadResponse {
+        private Integer accepted;
+    }
+
+    //궤적 정합 결과를 클라이언트에게 응답할 때 사용하는 DTO
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class MatchResponse {
+        //전체 신뢰도 (정합된 구간들의 거리 가중 평균, 0~1)
+        private Double confidence;
+        //입력 순서와 같은 순서의 정합 결과
+        private List<MatchedPoint> points;
+        //연속으로 정합된 구간 목록
+        private List<Matching> matchings;
+    }
+
+    //정합된 위치 하나, matched가 false면 원래 좌표를 그대로 담음
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class MatchedPoint {
+        private Integer index;
+        private Boolean matched;
+        private Double lat;
+        private Double lng;
+        //원래 좌표에서 정합된 좌표까지의 거리 (미터)
+        private Double distance;
+        private String roadName;
+        //이 위치가 속한 matchings의 인덱스 (정합되지 않았으면 null)
+        private Integer matchingIndex;
+    }
+
+    //연속으로 정합된 구간 하나와 그 구간에서 지나간 도로 순서
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Matching {
+        private Double confidence;
+        private Integer distance;
+        private List<String> roads;
+    }
+
     public enum InstructionType {
         depart,
         turn,
@@ -105,6 +229,26 @@ public class RouteDto {
         crosswalk
     }
 
+    //경로 형상(polyline)을 Douglas-Peucker로 단순화하는 수준
+    //toleranceMeters: 원래 경로에서 벗어날 수 있는 최대 거리, 클라이언트의 도로 정합(snap) 허용치에 맞춰 선택
+    public enum GeometryDetail {
+        none(-1),
+        full(0),
+        fine(1),
+        medium(3),
+        coarse(8);
+
+        private final double toleranceMeters;
+
+        GeometryDetail(double toleranceMeters) {
+            this.toleranceMeters = toleranceMeters;
+        }
+
+        public double getToleranceMeters() {
+            return toleranceMeters;
+        }
+    }
+
     public enum TurnModifier {
         left,
         right,
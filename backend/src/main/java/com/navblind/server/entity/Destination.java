@@ -61,7 +61,9 @@ public class Destination {
     private String label;
 
     //이 목적지를 몇 번이나 네비게이션으로 갔는지 카운트
-    @Column(name = "use_count", nullable = false)
+    //UseCountBuffer가 UPDATE ... SET use_count = use_count + ? 로만 갱신하므로 엔티티 저장 시에는 쓰지 않음
+    //(이름 수정 등으로 엔티티를 저장할 때 읽어 둔 옛 값으로 덮어써 반영된 증가분을 잃지 않도록)
+    @Column(name = "use_count", nullable = false, updatable = false)
     @Builder.Default
     private Integer useCount = 0;
 
@@ -74,9 +76,4 @@ public class Destination {
     @UpdateTimestamp
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
-
-    //네비게이션 도착 시 호출해서 useCount 1 증가(해당 장소에 자주 간다는 걸 DB에 반영)
-    public void incrementUseCount() {
-        this.useCount++;
-    }
 }
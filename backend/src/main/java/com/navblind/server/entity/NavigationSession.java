@@ -87,6 +87,12 @@ public class NavigationSession {
     @Builder.Default
     private Integer rerouteCount = 0;
 
+    //낙관적 잠금용 버전, 재탐색/상태 변경이 동시에 들어왔을 때 나중 요청이 앞 요청의 변경을 덮어쓰지 않도록 함
+    @Version
+    @Column(nullable = false)
+    @Builder.Default
+    private Long version = 0L;
+
     //경로 재탐색 시에 rerouteCount 1 증가
     public void incrementRerouteCount() {
         this.rerouteCount++;
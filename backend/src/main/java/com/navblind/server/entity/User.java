@@ -54,4 +54,11 @@ public class User {
     @Column(name = "is_active", nullable = false)
     @Builder.Default
     private Boolean isActive = true;
+
+    //낙관적 잠금용 버전, 같은 사용자의 경로 요청이 동시에 들어왔을 때 세션이 두 개 생기지 않도록 함
+    //@Version: 수정할 때마다 1씩 증가하며, 읽은 뒤 다른 트랜잭션이 먼저 수정했다면 저장이 실패함
+    @Version
+    @Column(nullable = false)
+    @Builder.Default
+    private Long version = 0L;
 }
@@ -0,0 +1,99 @@
+package com.navblind.server.geo;
+
+import java.util.Arrays;
+
+//Douglas-Peucker 알고리즘으로 경로 형상(polyline)의 점 개수를 줄이는 유틸리티
+//허용 오차(미터) 안에서 모양이 유지되는 점만 남기므로, 클라이언트의 도로 정합(snap) 허용치에 맞춰 사용
+//좌표 배열은 [lat0, lng0, lat1, lng1, ...] 순서의 double 배열로 다룸
+public final class LineSimplifier {
+
+    private static final double METERS_PER_DEGREE_LAT = 111_320.0;
+
+    private LineSimplifier() {
+    }
+
+    /**
+     * 허용 오차 안에서 점을 제거한 새 좌표 배열을 반환합니다. 첫 점과 마지막 점은 항상 유지됩니다.
+     *
+     * @param latLngs [lat0, lng0, lat1, lng1, ...]
+     * @param toleranceMeters 원래 선에서 벗어날 수 있는 최대 거리 (미터)
+     */
+    public static double[] simplify(double[] latLngs, double toleranceMeters) {
+        int pointCount = latLngs.length / 2;
+        if (pointCount < 3 || toleranceMeters <= 0) {
+            return latLngs;
+        }
+
+        //경로 범위가 작으므로(도보 수 km) 첫 점 기준 등거리 투영으로 미터 좌표를 만들어 계산
+        double metersPerDegreeLng = METERS_PER_DEGREE_LAT * Math.cos(Math.toRadians(latLngs[0]));
+        double[] xs = new double[pointCount];
+        double[] ys = new double[pointCount];
+        for (int i = 0; i < pointCount; i++) {
+            ys[i] = latLngs[i * 2] * METERS_PER_DEGREE_LAT;
+            xs[i] = latLngs[i * 2 + 1] * metersPerDegreeLng;
+        }
+
+        boolean[] keep = new boolean[pointCount];
+        keep[0] = true;
+        keep[pointCount - 1] = true;
+        double toleranceSq = toleranceMeters * toleranceMeters;
+
+        //재귀 대신 구간 스택을 사용 (긴 경로에서도 스택 오버플로우 없음)
+        int[] stack = new int[64];
+        int top = 0;
+        stack[top++] = 0;
+        stack[top++] = pointCount - 1;
+
+        while (top > 0) {
+            int end = stack[--top];
+            int start = stack[--top];
+
+            int farthest = -1;
+            double farthestSq = toleranceSq;
+            for (int i = start + 1; i < end; i++) {
+                double d = segmentDistanceSq(xs[i], ys[i], xs[start], ys[start], xs[end], ys[end]);
+                if (d > farthestSq) {
+                    farthestSq = d;
+                    farthest = i;
+                }
+            }
+
+            if (farthest >= 0) {
+                keep[farthest] = true;
+                if (top + 4 > stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                }
+                stack[top++] = start;
+                stack[top++] = farthest;
+                stack[top++] = farthest;
+                stack[top++] = end;
+            }
+        }
+
+        int kept = 0;
+        for (boolean k : keep) {
+            if (k) kept++;
+        }
+        double[] simplified = new double[kept * 2];
+        int j = 0;
+        for (int i = 0; i < pointCount; i++) {
+            if (keep[i]) {
+                simplified[j++] = latLngs[i * 2];
+                simplified[j++] = latLngs[i * 2 + 1];
+            }
+        }
+        return simplified;
+    }
+
+    //점 (px, py)에서 선분 (ax, ay)-(bx, by)까지 거리의 제곱
+    private static double segmentDistanceSq(double px, double py, double ax, double ay, double bx, double by) {
+        double dx = bx - ax;
+        double dy = by - ay;
+        double lengthSq = dx * dx + dy * dy;
+        double t = lengthSq == 0 ? 0 : ((px - ax) * dx + (py - ay) * dy) / lengthSq;
+        t = Math.max(0, Math.min(1, t));
+        double cx = ax + t * dx - px;
+        double cy = ay + t * dy - py;
+        return cx * cx + cy * cy;
+    }
+}
@@ -0,0 +1,94 @@
+package com.navblind.server.geo;
+
+import java.util.Arrays;
+
+//Google Encoded Polyline 알고리즘 인코더/디코더 (precision 6, OSRM의 polyline6와 동일)
+//좌표 배열은 [lat0, lng0, lat1, lng1, ...] 순서의 double 배열로 다룸
+//JSON 좌표 리스트보다 훨씬 작아서 셀룰러 환경에서 전체 경로 형상을 보내는 데 사용
+public final class PolylineCodec {
+
+    /** 소수점 6자리 (약 0.1m) */
+    public static final int PRECISION = 6;
+
+    private static final double FACTOR = 1e6;
+
+    private PolylineCodec() {
+    }
+
+    /**
+     * 좌표 배열을 polyline6 문자열로 인코딩합니다.
+     *
+     * @param latLngs [lat0, lng0, lat1, lng1, ...]
+     */
+    public static String encode(double[] latLngs) {
+        return encode(latLngs, latLngs.length / 2);
+    }
+
+    /**
+     * 좌표 배열의 앞쪽 pointCount개 점을 polyline6 문자열로 인코딩합니다.
+     */
+    public static String encode(double[] latLngs, int pointCount) {
+        StringBuilder encoded = new StringBuilder(pointCount * 8);
+        long prevLat = 0;
+        long prevLng = 0;
+
+        for (int i = 0; i < pointCount; i++) {
+            long lat = Math.round(latLngs[i * 2] * FACTOR);
+            long lng = Math.round(latLngs[i * 2 + 1] * FACTOR);
+            encodeValue(lat - prevLat, encoded);
+            encodeValue(lng - prevLng, encoded);
+            prevLat = lat;
+            prevLng = lng;
+        }
+        return encoded.toString();
+    }
+
+    /**
+     * polyline6 문자열을 좌표 배열([lat0, lng0, ...])로 디코딩합니다.
+     */
+    public static double[] decode(String encoded) {
+        double[] latLngs = new double[Math.max(16, encoded.length())];
+        int size = 0;
+        int index = 0;
+        long lat = 0;
+        long lng = 0;
+
+        while (index < encoded.length()) {
+            long result = 0;
+            int shift = 0;
+            int b;
+            do {
+                b = encoded.charAt(index++) - 63;
+                result |= (long) (b & 0x1f) << shift;
+                shift += 5;
+            } while (b >= 0x20);
+            lat += (result & 1) != 0 ? ~(result >> 1) : (result >> 1);
+
+            result = 0;
+            shift = 0;
+            do {
+                b = encoded.charAt(index++) - 63;
+                result |= (long) (b & 0x1f) << shift;
+                shift += 5;
+            } while (b >= 0x20);
+            lng += (result & 1) != 0 ? ~(result >> 1) : (result >> 1);
+
+            if (size + 2 > latLngs.length) {
+                latLngs = Arrays.copyOf(latLngs, latLngs.length * 2);
+            }
+            latLngs[size++] = lat / FACTOR;
+            latLngs[size++] = lng / FACTOR;
+        }
+        return Arrays.copyOf(latLngs, size);
+    }
+
+    //zig-zag 변환 후 5비트씩 끊어서 ASCII(63 오프셋)로 기록
+    private static void encodeValue(long value, StringBuilder out) {
+        long v = value < 0 ? ~(value << 1) : (value << 1);
+        while (v >= 0x20) {
+            out.append((char) ((0x20 | (v & 0x1f)) + 63));
+            v >>= 5;
+        }
+        out.append((char) (v + 63));
+    }
+}
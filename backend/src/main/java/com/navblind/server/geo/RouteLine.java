@@ -0,0 +1,162 @@
+package com.navblind.server.geo;
+
+import java.util.Arrays;
+
+//경로 형상(polyline) 위의 위치를 "출발점부터 따라간 거리(along)"로 다루는 유틸리티
+//현재 위치가 경로의 어디쯤인지 찾거나, 특정 지점 이후의 남은 경로를 잘라낼 때 사용
+//좌표 배열은 [lat0, lng0, lat1, lng1, ...] 순서의 double 배열로 다룸
+public final class RouteLine {
+
+    private static final double METERS_PER_DEGREE_LAT = 111_320.0;
+
+    private final double[] latLngs;
+    private final int pointCount;
+    //cumulative[i]: 첫 점부터 i번째 점까지의 거리 (미터)
+    private final double[] cumulative;
+    private final double metersPerDegreeLng;
+
+    public RouteLine(double[] latLngs) {
+        this.latLngs = latLngs;
+        this.pointCount = latLngs.length / 2;
+        this.metersPerDegreeLng = pointCount > 0
+                ? METERS_PER_DEGREE_LAT * Math.cos(Math.toRadians(latLngs[0]))
+                : METERS_PER_DEGREE_LAT;
+        this.cumulative = new double[Math.max(pointCount, 1)];
+        for (int i = 1; i < pointCount; i++) {
+            cumulative[i] = cumulative[i - 1] + distance(lat(i - 1), lng(i - 1), lat(i), lng(i));
+        }
+    }
+
+    /** 경로 전체 길이 (미터) */
+    public double length() {
+        return cumulative[Math.max(pointCount - 1, 0)];
+    }
+
+    public int pointCount() {
+        return pointCount;
+    }
+
+    /**
+     * (lat, lng)에서 가장 가까운 경로 위의 점을 찾습니다.
+     * fromSegment 이전 구간은 보지 않으므로, 경로를 따라 순서대로 찾을 때 되돌아가는 매칭을 막을 수 있습니다.
+     */
+    public Projection locate(double lat, double lng, int fromSegment) {
+        if (pointCount < 2) {
+            double d = pointCount == 1 ? distance(lat, lng, lat(0), lng(0)) : Double.POSITIVE_INFINITY;
+            return new Projection(0, 0, pointCount == 1 ? lat(0) : lat, pointCount == 1 ? lng(0) : lng, d);
+        }
+
+        Projection best = null;
+        double px = lng * metersPerDegreeLng;
+        double py = lat * METERS_PER_DEGREE_LAT;
+        for (int i = Math.max(fromSegment, 0); i < pointCount - 1; i++) {
+            double ax = lng(i) * metersPerDegreeLng;
+            double ay = lat(i) * METERS_PER_DEGREE_LAT;
+            double dx = lng(i + 1) * metersPerDegreeLng - ax;
+            double dy = lat(i + 1) * METERS_PER_DEGREE_LAT - ay;
+            double lengthSq = dx * dx + dy * dy;
+            double t = lengthSq == 0 ? 0 : Math.max(0, Math.min(1, ((px - ax) * dx + (py - ay) * dy) / lengthSq));
+            double cx = ax + t * dx - px;
+            double cy = ay + t * dy - py;
+            double d = Math.sqrt(cx * cx + cy * cy);
+
+            if (best == null || d < best.distance()) {
+                double along = cumulative[i] + t * (cumulative[i + 1] - cumulative[i]);
+                best = new Projection(i, along,
+                        lat(i) + t * (lat(i + 1) - lat(i)),
+                        lng(i) + t * (lng(i + 1) - lng(i)),
+                        d);
+            }
+        }
+        return best;
+    }
+
+    /** 출발점부터 along 미터 떨어진 경로 위의 점 [lat, lng] */
+    public double[] pointAt(double along) {
+        int i = segmentAt(along);
+        if (i >= pointCount - 1) {
+            return new double[]{lat(pointCount - 1), lng(pointCount - 1)};
+        }
+        double segment = cumulative[i + 1] - cumulative[i];
+        double t = segment == 0 ? 0 : (along - cumulative[i]) / segment;
+        return new double[]{lat(i) + t * (lat(i + 1) - lat(i)), lng(i) + t * (lng(i + 1) - lng(i))};
+    }
+
+    /** along 지점의 진행 방향 (북쪽 기준 시계 방향 각도) */
+    public double bearingAt(double along) {
+        if (pointCount < 2) {
+            return 0;
+        }
+        int i = Math.min(segmentAt(along), pointCount - 2);
+        return bearing(lat(i), lng(i), lat(i + 1), lng(i + 1));
+    }
+
+    /** along 지점부터 끝까지의 경로 좌표 (along 지점이 첫 점) */
+    public double[] suffixFrom(double along) {
+        int i = segmentAt(along);
+        double[] start = pointAt(along);
+        int remaining = Math.max(pointCount - 1 - i, 0);
+        double[] suffix = new double[(remaining + 1) * 2];
+        suffix[0] = start[0];
+        suffix[1] = start[1];
+        System.arraycopy(latLngs, (i + 1) * 2, suffix, 2, remaining * 2);
+        return suffix;
+    }
+
+    //along 위치를 포함하는 구간의 시작 점 인덱스
+    private int segmentAt(double along) {
+        if (along <= 0 || pointCount < 2) {
+            return 0;
+        }
+        int i = Arrays.binarySearch(cumulative, 0, pointCount, along);
+        if (i < 0) {
+            i = -i - 2;
+        }
+        return Math.min(i, pointCount - 1);
+    }
+
+    private double lat(int i) {
+        return latLngs[i * 2];
+    }
+
+    private double lng(int i) {
+        return latLngs[i * 2 + 1];
+    }
+
+    /** 두 좌표 사이의 거리 (미터, 짧은 거리용 등거리 근사) */
+    public static double distance(double lat1, double lng1, double lat2, double lng2) {
+        double dy = (lat2 - lat1) * METERS_PER_DEGREE_LAT;
+        double dx = (lng2 - lng1) * METERS_PER_DEGREE_LAT * Math.cos(Math.toRadians((lat1 + lat2) / 2));
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    /** (lat1, lng1)에서 (lat2, lng2)를 향하는 방향 (북쪽 기준 시계 방향 각도) */
+    public static double bearing(double lat1, double lng1, double lat2, double lng2) {
+        double phi1 = Math.toRadians(lat1);
+        double phi2 = Math.toRadians(lat2);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double y = Math.sin(dLng) * Math.cos(phi2);
+        double x = Math.cos(phi1) * Math.sin(phi2) - Math.sin(phi1) * Math.cos(phi2) * Math.cos(dLng);
+        return Math.toDegrees(Math.atan2(y, x));
+    }
+
+    /** 진행 방향이 from에서 to로 바뀔 때의 회전 각도 (-180 ~ 180, 양수면 오른쪽) */
+    public static double turnAngle(double fromBearing, double toBearing) {
+        double delta = toBearing - fromBearing;
+        while (delta > 180) delta -= 360;
+        while (delta <= -180) delta += 360;
+        return delta;
+    }
+
+    /**
+     * 경로 위에 투영한 결과
+     *
+     * @param segment 투영된 구간의 시작 점 인덱스
+     * @param along 출발점부터 투영된 점까지 경로를 따라간 거리 (미터)
+     * @param lat 투영된 점의 위도
+     * @param lng 투영된 점의 경도
+     * @param distance 원래 좌표와 투영된 점 사이의 거리 (미터)
+     */
+    public record Projection(int segment, double along, double lat, double lng, double distance) {
+    }
+}
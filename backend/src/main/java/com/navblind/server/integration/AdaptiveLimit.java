@@ -0,0 +1,118 @@
+package com.navblind.server.integration;
+
+import com.navblind.server.config.AdaptiveConcurrency;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 측정한 응답 시간으로 업스트림 동시 요청 수 한도를 조절하는 limiter (gradient 방식)
+ * (OSRM이 느려지면 한도를 줄여 대기 요청을 빨리 거절하고, 회복되면 다시 늘림)
+ *
+ * - longRtt: 오랜 기간의 평균 응답 시간 (부하가 없을 때의 기준)
+ * - shortRtt: 최근 몇 개 응답의 평균
+ * - gradient = tolerance x longRtt / shortRtt (0.5 ~ 1.0)
+ *   응답 시간이 기준의 tolerance배 이내면 1.0이라 한도가 sqrt(limit)만큼씩 늘고, 그 이상 느려지면 비율만큼 줄어듦
+ * - 제한 시간 초과(drop)는 바로 backoffRatio를 곱해 줄임
+ * - 진행 중 요청이 한도의 절반도 안 되면 한도가 부족한 상황이 아니므로 늘리지 않음
+ *
+ * 한도는 minLimit ~ maxLimit 사이에서 움직이며 maxLimit(설정된 동시 요청 수)에서 시작함
+ *
+ * 메트릭: navblind.lane.limit{upstream}
+ */
+public class AdaptiveLimit {
+
+    private final AdaptiveConcurrency settings;
+    private final int maxLimit;
+    //가상 스레드 고정(pinning)을 피하기 위해 synchronized 대신 사용
+    private final ReentrantLock lock = new ReentrantLock();
+    private final double longAlpha;
+    private final double shortAlpha;
+
+    private volatile double limit;
+    private double longRtt;
+    private double shortRtt;
+
+    public AdaptiveLimit(String upstream, int maxLimit, AdaptiveConcurrency settings, MeterRegistry meterRegistry) {
+        this.settings = settings;
+        this.maxLimit = maxLimit;
+        this.limit = maxLimit;
+        this.longAlpha = 2.0 / (settings.longWindow() + 1);
+        this.shortAlpha = 2.0 / (settings.shortWindow() + 1);
+        Gauge.builder("navblind.lane.limit", this, AdaptiveLimit::current)
+                .description("Current adaptive concurrency limit for the upstream")
+                .tag("upstream", upstream)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 현재 동시 요청 수 한도
+     */
+    public int current() {
+        return settings.enabled() ? (int) limit : maxLimit;
+    }
+
+    /**
+     * 설정된 최대 동시 요청 수 (레인별 한도는 이 값에 대한 비율로 계산)
+     */
+    public int max() {
+        return maxLimit;
+    }
+
+    /**
+     * 최근 응답 시간 추정치 (나노초, 표본이 없으면 0)
+     */
+    public long rttNanos() {
+        return (long) shortRtt;
+    }
+
+    /**
+     * 업스트림 요청 하나가 제한 시간 안에 끝났을 때 호출합니다.
+     *
+     * @param inflight 이 요청을 포함해 진행 중이던 요청 수
+     */
+    public void onSample(long rttNanos, int inflight) {
+        lock.lock();
+        try {
+            if (longRtt == 0) {
+                longRtt = rttNanos;
+                shortRtt = rttNanos;
+                return;
+            }
+            shortRtt = shortRtt * (1 - shortAlpha) + rttNanos * shortAlpha;
+            longRtt = longRtt * (1 - longAlpha) + rttNanos * longAlpha;
+
+            // 응답 시간이 계속 기준보다 크게 낮으면 기준을 빨리 따라 내려가게 함 (업스트림 증설/회복 후)
+            if (longRtt / shortRtt > 2) {
+                longRtt *= 0.95;
+            }
+
+            if (inflight < limit / 2) {
+                return;
+            }
+
+            double gradient = Math.max(0.5, Math.min(1.0, settings.tolerance() * longRtt / shortRtt));
+            double target = limit * gradient + Math.sqrt(limit);
+            update(limit * (1 - settings.smoothing()) + target * settings.smoothing());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 업스트림 요청 하나가 제한 시간을 넘겼을 때 호출합니다.
+     */
+    public void onDrop() {
+        lock.lock();
+        try {
+            update(limit * settings.backoffRatio());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void update(double next) {
+        limit = Math.max(Math.min(settings.minLimit(), maxLimit), Math.min(maxLimit, next));
+    }
+}
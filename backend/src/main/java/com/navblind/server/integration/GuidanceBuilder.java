@@ -0,0 +1,175 @@
+package com.navblind.server.integration;
+
+import com.navblind.server.dto.RouteDto.Instruction;
+import com.navblind.server.dto.RouteDto.InstructionType;
+import com.navblind.server.dto.RouteDto.TurnModifier;
+import com.navblind.server.dto.RouteDto.Waypoint;
+
+//OSRM 형식의 maneuver(type, modifier, 도로명, 거리)를 한국어 음성 안내 Instruction으로 만드는 클래스
+//OsrmClient와 내장 라우터(EmbeddedRouter)가 같은 안내 문장을 만들도록 공유함
+public final class GuidanceBuilder {
+
+    private GuidanceBuilder() {
+    }
+
+    /**
+     * maneuver 하나를 음성 안내 Instruction으로 변환합니다.
+     *
+     * @param step 안내 순번
+     * @param maneuverType OSRM maneuver.type (depart, turn, arrive 등)
+     * @param modifier OSRM maneuver.modifier (left, slight right 등, 없으면 null)
+     * @param streetName 도로명 (없으면 null 또는 빈 문자열)
+     * @param distance 이 안내 구간의 거리 (미터)
+     * @param location 안내 지점
+     */
+    public static Instruction instruction(int step, String maneuverType, String modifier, String streetName,
+                                          int distance, Waypoint location) {
+        return Instruction.builder()
+                .step(step)
+                .type(mapInstructionType(maneuverType))
+                .modifier(mapTurnModifier(modifier))
+                .text(generateKoreanInstruction(maneuverType, modifier, streetName, distance))
+                .distance(distance)
+                .location(location)
+                .build();
+    }
+
+    /**
+     * 회전 각도(-180 ~ 180, 양수면 오른쪽)를 OSRM modifier 문자열로 변환합니다.
+     * OSRM 밖에서 만든 경로(내장 라우터, 재탐색 접합 지점)의 회전 안내에 사용합니다.
+     */
+    public static String turnModifier(double turnDegrees) {
+        double abs = Math.abs(turnDegrees);
+        String side = turnDegrees > 0 ? "right" : "left";
+        if (abs < 20) return "straight";
+        if (abs < 60) return "slight " + side;
+        if (abs < 140) return side;
+        if (abs < 170) return "sharp " + side;
+        return "uturn";
+    }
+
+    //OSRM에서 주는 maneuver.type을 정의한 InstructionType enum으로 매핑(영어->한국어)
+    private static InstructionType mapInstructionType(String osrmType) {
+        if (osrmType == null) return InstructionType.continue_straight;
+        return switch (osrmType) {
+            case "depart"                               -> InstructionType.depart;
+            case "arrive"                               -> InstructionType.arrive;
+            // 명시적 회전 + 도로 구조상 방향 결정이 필요한 지점
+            case "turn", "end of road", "fork"          -> InstructionType.turn;
+            // 도로명 변경: 보행자에게는 중요한 분기점 신호
+            case "new name"                             -> InstructionType.turn;
+            // 횡단보도/신호등 (OSM에 highway=crossing 태그 있을 때 발생)
+            case "notification"                         -> InstructionType.crosswalk;
+            // 로터리: 진입 후 몇 번째 출구인지 modifier에 담김
+            case "roundabout", "rotary",
+                 "exit roundabout", "exit rotary"       -> InstructionType.turn;
+            default                                     -> InstructionType.continue_straight;
+        };
+    }
+
+    //turn일 때 방향(좌/우 등)을 정의한 enum으로 매핑(영어->한국어)
+    private static TurnModifier mapTurnModifier(String osrmModifier) {
+        if (osrmModifier == null) return TurnModifier.straight;
+        return switch (osrmModifier) {
+            case "left"         -> TurnModifier.left;
+            case "right"        -> TurnModifier.right;
+            case "slight left"  -> TurnModifier.slight_left;
+            case "slight right" -> TurnModifier.slight_right;
+            case "uturn"        -> TurnModifier.uturn;
+            case "straight"     -> TurnModifier.straight;
+            // fork/end of road에서 나오는 sharp turn도 처리
+            case "sharp left"   -> TurnModifier.left;
+            case "sharp right"  -> TurnModifier.right;
+            default             -> TurnModifier.straight;
+        };
+    }
+
+    //OSRM의 영어 지시사항을 한국어 음성 안내 문장으로 변환
+    private static String generateKoreanInstruction(String type, String modifier, String streetName, int distance) {
+        String distanceStr = formatDistance(distance);
+        String street = (streetName != null && !streetName.isEmpty()) ? streetName : null;
+
+        return switch (type) {
+            case "depart" -> street != null
+                    ? String.format("%s 방향으로 출발하세요", street)
+                    : "경로를 따라 출발하세요";
+
+            case "arrive" -> "목적지에 도착했습니다";
+
+            // 명시적 회전
+            case "turn" -> {
+                String dir = modifierToKorean(modifier);
+                yield street != null
+                        ? String.format("%s 후 %s하여 %s 방향으로 가세요", distanceStr, dir, street)
+                        : String.format("%s 후 %s하세요", distanceStr, dir);
+            }
+
+            // 도로 끝(T자 교차로): 반드시 좌/우 선택 필요
+            case "end of road" -> {
+                String dir = modifierToKorean(modifier);
+                yield street != null
+                        ? String.format("도로 끝에서 %s하여 %s 방향으로 가세요", dir, street)
+                        : String.format("도로 끝에서 %s하세요", dir);
+            }
+
+            // 갈림길: 방향 안내 필요
+            case "fork" -> {
+                String dir = switch (modifier != null ? modifier : "") {
+                    case "slight left", "left" -> "왼쪽 길";
+                    case "slight right", "right" -> "오른쪽 길";
+                    default -> "앞쪽 길";
+                };
+                yield street != null
+                        ? String.format("갈림길에서 %s로 가세요. %s 방향입니다", dir, street)
+                        : String.format("갈림길에서 %s로 가세요", dir);
+            }
+
+            // 도로명 변경: 보행자에게 "여기서 길이 바뀝니다" 안내
+            case "new name" -> street != null
+                    ? String.format("%s 방향으로 계속 가세요", street)
+                    : String.format("%s 직진하세요", distanceStr);
+
+            // 횡단보도 / 신호등 (OSM highway=crossing 태그)
+            case "notification" -> "횡단보도를 건너세요";
+
+            // 로터리: 진입 후 modifier에 출구 번호가 담기는 경우도 있음
+            case "roundabout", "rotary" -> {
+                String dir = modifierToKorean(modifier);
+                yield String.format("로터리에서 %s하세요", dir);
+            }
+            case "exit roundabout", "exit rotary" -> street != null
+                    ? String.format("로터리를 나와 %s 방향으로 가세요", street)
+                    : "로터리를 나오세요";
+
+            // 그 외 (continue, merge 등): 도로명 있으면 활용
+            default -> street != null
+                    ? String.format("%s을(를) 따라 %s 직진하세요", street, distanceStr)
+                    : String.format("%s 직진하세요", distanceStr);
+        };
+    }
+
+    /** OSRM modifier 문자열을 한국어 동사로 변환합니다. */
+    private static String modifierToKorean(String modifier) {
+        if (modifier == null) return "직진";
+        return switch (modifier) {
+            case "left"        -> "좌회전";
+            case "right"       -> "우회전";
+            case "slight left" -> "약간 왼쪽으로";
+            case "slight right"-> "약간 오른쪽으로";
+            case "uturn"       -> "유턴";
+            case "straight"    -> "직진";
+            default            -> "직진";
+        };
+    }
+
+    //거리를 한국어로 보기 좋게 포맷팅
+    private static String formatDistance(int meters) {
+        if (meters < 100) {
+            return meters + "미터";
+        } else if (meters < 1000) {
+            return (meters / 10 * 10) + "미터";
+        } else {
+            return String.format("%.1f킬로미터", meters / 1000.0);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.navblind.server.integration;
+
+import java.util.Locale;
+
+/**
+ * 업스트림 요청의 우선순위 구분 (선언 순서가 우선순위, 앞쪽이 높음)
+ *
+ * REROUTE: 경로를 벗어난 사용자의 재탐색 (가장 급함)
+ * ROUTE: 새 경로 탐색
+ * NEAREST: 좌표 snap, 궤적 정합
+ * SEARCH: 목적지 검색 (Nominatim)
+ * BACKGROUND: 사용자가 기다리지 않는 Nominatim 작업 (일괄 지오코딩 등)
+ */
+public enum Lane {
+    REROUTE,
+    ROUTE,
+    NEAREST,
+    SEARCH,
+    BACKGROUND;
+
+    //메트릭 태그, 로그에 쓰는 이름
+    public String tag() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
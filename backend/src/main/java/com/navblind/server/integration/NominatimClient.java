@@ -1,9 +1,16 @@
 package com.navblind.server.integration;
 
+import com.navblind.server.cache.GeoGrid;
+import com.navblind.server.config.LaneProperties;
 import com.navblind.server.config.NominatimProperties;
+import com.navblind.server.config.RateLimit;
 import com.navblind.server.dto.DestinationDto.SearchResult;
-import lombok.RequiredArgsConstructor;
+import com.navblind.server.integration.PriorityLanes.LaneRejectedException;
+import com.navblind.server.text.KoreanText;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
@@ -19,51 +26,48 @@ import java.util.Map;
 //장소 검색 엔진(Nominatim)과 통신하여 "한국공학대"같은 키워드로 장소를 찾아주는 역할을 담당
 
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class NominatimClient {
 
-    private final WebClient.Builder webClientBuilder;
+    private static final ParameterizedTypeReference<List<Map<String, Object>>> RAW_RESULTS =
+            new ParameterizedTypeReference<>() {};
+    private static final ParameterizedTypeReference<Map<String, Object>> RAW_RESULT =
+            new ParameterizedTypeReference<>() {};
+
+    //WebClientConfig에서 생성된 전용 WebClient (커넥션 풀 공유, 요청마다 새로 만들지 않음)
+    private final WebClient webClient;
     private final NominatimProperties nominatimProperties;
 
+    //검색/백그라운드 레인 (응답 시간에 따라 조절되는 Nominatim 동시 요청 한도와 초당 요청 수 제한,
+    //대기열이 가득 차면 거절, 대기 시간이 maxWait을 넘으면 보내지 않고 버림)
+    private final PriorityLanes lanes;
+
+    //동시에 들어온 동일 검색 요청을 하나의 Nominatim 호출로 합침
+    private final SingleFlight<List<Map<String, Object>>> searchFlights;
+
+    public NominatimClient(@Qualifier("nominatimWebClient") WebClient webClient, NominatimProperties nominatimProperties,
+                           LaneProperties laneProperties, MeterRegistry meterRegistry) {
+        this.webClient = webClient;
+        this.nominatimProperties = nominatimProperties;
+        AdaptiveLimit limit = new AdaptiveLimit("nominatim", laneProperties.search().maxConcurrency(),
+                laneProperties.adaptive(), meterRegistry);
+        RateLimit rateLimit = nominatimProperties.rateLimit();
+        TokenBucket rateBucket = rateLimit.enabled()
+                ? new TokenBucket(rateLimit.ratePerSecond(), rateLimit.burst())
+                : null;
+        this.lanes = new PriorityLanes("nominatim", limit, rateBucket, Map.of(
+                Lane.SEARCH, laneProperties.search(),
+                Lane.BACKGROUND, laneProperties.background()), meterRegistry);
+        this.searchFlights = new SingleFlight<>("nominatim-search",
+                nominatimProperties.coalescing().maxInFlight(), meterRegistry);
+    }
+
     //동기적으로 작동하는 검색 메서드, 입력으로 검색어(query), 현재 위치(위도, 경도), 결과 개수가 들어감
-    @SuppressWarnings("unchecked")
+    //사용자 요청을 기다리게 하지 않는 작업용이므로 백그라운드 레인(검색 대기 요청이 없을 때만 보냄)으로 호출
     public List<SearchResult> search(String query, Double lat, Double lng, int limit) {
-        String encodedQuery = URLEncoder.encode(query, StandardCharsets.UTF_8);
-
-        //URL을 조합하여 장소를 검색하는 데 쓰이는 도구로, 한국만 검색하도록 고정
-        StringBuilder urlBuilder = new StringBuilder();
-        urlBuilder.append(nominatimProperties.baseUrl())
-                .append("/search?q=").append(encodedQuery)
-                .append("&format=json")
-                .append("&addressdetails=1")
-                .append("&limit=").append(limit)
-                .append("&countrycodes=kr"); // Limit to Korea
-
-        // 위치가 있으면 viewbox로 주변 50km 정도 편향(bias)을 줌 (더 가까운 결과 우선)
-        if (lat != null && lng != null) {
-            double delta = 0.5; // approximately 50km
-            urlBuilder.append("&viewbox=")
-                    .append(lng - delta).append(",")
-                    .append(lat + delta).append(",")
-                    .append(lng + delta).append(",")
-                    .append(lat - delta);
-            urlBuilder.append("&bounded=0");
-        }
-
-        String url = urlBuilder.toString();
-        log.debug("Nominatim search: {}", url);
-
-        //WebClient으로 GET 요청을 보내 응답을 List<Map>으로 받아 parseNominatimResult()한 결과를 반환
+        //응답을 List<Map>으로 받아 parseNominatimResult()한 결과를 반환
         try {
-            WebClient webClient = webClientBuilder.build();
-            List<Map<String, Object>> response = webClient.get()
-                    .uri(URI.create(url))
-                    .header("User-Agent", "NavBlind/1.0")
-                    .retrieve()
-                    .bodyToMono(List.class)
-                    .timeout(Duration.ofMillis(nominatimProperties.timeout()))
-                    .block();
+            List<Map<String, Object>> response = searchCall(query, lat, lng, limit, Lane.BACKGROUND).block();
 
             if (response == null || response.isEmpty()) {
                 return List.of();
@@ -77,20 +81,40 @@ public class NominatimClient {
     }
 
     //비동기적으로 작동하는 검색 메서드, 입력으로 검색어(query), 현재 위치(위도, 경도), 결과 개수가 들어감
-    @SuppressWarnings({"unchecked", "rawtypes"})
+    //검색 레인이 가득 차서 거절된 경우만 오류(LaneRejectedException)로 전달
     public Mono<List<SearchResult>> searchAsync(String query, Double lat, Double lng, int limit) {
+        return searchAsync(query, lat, lng, limit, Lane.SEARCH);
+    }
+
+    //lane 우선순위로 호출하는 비동기 검색 (SEARCH: 사용자가 기다리는 검색, BACKGROUND: 일괄 작업)
+    public Mono<List<SearchResult>> searchAsync(String query, Double lat, Double lng, int limit, Lane lane) {
+        return searchCall(query, lat, lng, limit, lane)
+                .map(response -> parseNominatimResults(response, lat, lng))
+                .defaultIfEmpty(List.of())
+                .onErrorResume(e -> !(e instanceof LaneRejectedException), e -> {
+                    log.error("Error calling Nominatim async: {}", e.getMessage());
+                    return Mono.just(List.of());
+                });
+    }
+
+    //Nominatim search 호출, 같은 검색어/개수/주변 격자 셀/레인의 요청이 진행 중이면 원본 응답을 공유
+    //(대기열에 같은 검색이 여러 개 쌓이지 않음, 검색 요청이 백그라운드 대기열 뒤에 묶이지 않도록 레인별로 합침)
+    //거리(distance)는 호출자마다 다르므로 공유된 원본 응답을 각자 파싱함
+    private Mono<List<Map<String, Object>>> searchCall(String query, Double lat, Double lng, int limit, Lane lane) {
         String encodedQuery = URLEncoder.encode(query, StandardCharsets.UTF_8);
 
+        //URL을 조합하여 장소를 검색하는 데 쓰이는 도구로, 한국만 검색하도록 고정
         StringBuilder urlBuilder = new StringBuilder();
         urlBuilder.append(nominatimProperties.baseUrl())
                 .append("/search?q=").append(encodedQuery)
                 .append("&format=json")
                 .append("&addressdetails=1")
                 .append("&limit=").append(limit)
-                .append("&countrycodes=kr");
+                .append("&countrycodes=kr"); // Limit to Korea
 
+        // 위치가 있으면 viewbox로 주변 50km 정도 편향(bias)을 줌 (더 가까운 결과 우선)
         if (lat != null && lng != null) {
-            double delta = 0.5;
+            double delta = 0.5; // approximately 50km
             urlBuilder.append("&viewbox=")
                     .append(lng - delta).append(",")
                     .append(lat + delta).append(",")
@@ -101,19 +125,54 @@ public class NominatimClient {
 
         String url = urlBuilder.toString();
 
-        WebClient webClient = webClientBuilder.build();
-        Mono<List> rawMono = webClient.get()
-                .uri(URI.create(url))
-                .header("User-Agent", "NavBlind/1.0")
-                .retrieve()
-                .bodyToMono(List.class)
-                .timeout(Duration.ofMillis(nominatimProperties.timeout()));
-
-        return rawMono
-                .map(response -> parseNominatimResults((List<Map<String, Object>>) response, lat, lng))
-                .onErrorResume(e -> {
-                    log.error("Error calling Nominatim async: {}", e.getMessage());
-                    return Mono.just(List.of());
+        Mono<List<Map<String, Object>>> call = lanes.execute(lane, () -> {
+            log.debug("Nominatim search: {}", url);
+            return webClient.get()
+                    .uri(URI.create(url))
+                    .header("User-Agent", "NavBlind/1.0")
+                    .retrieve()
+                    .bodyToMono(RAW_RESULTS)
+                    .timeout(Duration.ofMillis(nominatimProperties.timeout()));
+        });
+
+        if (!nominatimProperties.coalescing().enabled()) {
+            return call;
+        }
+
+        String bias = (lat != null && lng != null)
+                ? GeoGrid.cellKey(lat, lng, nominatimProperties.coalescing().gridMeters())
+                : "-";
+        String key = KoreanText.normalize(query) + "|" + limit + "|" + bias + "|" + lane.tag();
+        return searchFlights.execute(key, () -> call);
+    }
+
+    //좌표에서 가장 가까운 주소/장소를 찾는 역지오코딩, 입력으로 위도, 경도, 상세 수준(zoom, 18이면 건물 단위)이 들어감
+    //"여기가 어디야?"처럼 사용자가 기다리는 요청이므로 검색 레인으로 호출
+    //찾지 못하거나 오류면 빈 Mono, 검색 레인이 가득 차서 거절된 경우만 오류(LaneRejectedException)로 전달
+    public Mono<SearchResult> reverseAsync(double lat, double lng, int zoom) {
+        String url = nominatimProperties.baseUrl()
+                + "/reverse?lat=" + lat
+                + "&lon=" + lng
+                + "&format=json"
+                + "&addressdetails=1"
+                + "&zoom=" + zoom
+                + "&accept-language=ko";
+
+        return lanes.execute(Lane.SEARCH, () -> {
+                    log.debug("Nominatim reverse: {}", url);
+                    return webClient.get()
+                            .uri(URI.create(url))
+                            .header("User-Agent", "NavBlind/1.0")
+                            .retrieve()
+                            .bodyToMono(RAW_RESULT)
+                            .timeout(Duration.ofMillis(nominatimProperties.timeout()));
+                })
+                // 주변에 주소가 없으면 {"error": "Unable to geocode"}로 응답함
+                .filter(result -> !result.containsKey("error"))
+                .mapNotNull(result -> parseNominatimResult(result, lat, lng))
+                .onErrorResume(e -> !(e instanceof LaneRejectedException), e -> {
+                    log.error("Error calling Nominatim reverse: {}", e.getMessage());
+                    return Mono.empty();
                 });
     }
 
@@ -122,36 +181,45 @@ public class NominatimClient {
         List<SearchResult> searchResults = new ArrayList<>();
 
         for (Map<String, Object> result : results) {
-            try {
-                double resultLat = Double.parseDouble((String) result.get("lat"));
-                double resultLng = Double.parseDouble((String) result.get("lon"));
-
-                String displayName = (String) result.get("display_name");
-                String name = extractName(result);
-                String category = (String) result.get("type");
-
-                //유저의 위치가 주어지면 목적지까지의 거리를 계산
-                Integer distance = null;
-                if (userLat != null && userLng != null) {
-                    distance = (int) calculateDistance(userLat, userLng, resultLat, resultLng);
-                }
-
-                searchResults.add(SearchResult.builder()
-                        .name(name)
-                        .latitude(resultLat)
-                        .longitude(resultLng)
-                        .address(displayName)
-                        .distance(distance)
-                        .category(translateCategory(category))
-                        .build());
-            } catch (Exception e) {
-                log.warn("Error parsing Nominatim result: {}", e.getMessage());
+            SearchResult searchResult = parseNominatimResult(result, userLat, userLng);
+            if (searchResult != null) {
+                searchResults.add(searchResult);
             }
         }
 
         return searchResults;
     }
 
+    //Nominatim 원본 응답의 장소 하나를 DTO로 변환하는 함수 (읽을 수 없으면 null)
+    private SearchResult parseNominatimResult(Map<String, Object> result, Double userLat, Double userLng) {
+        try {
+            double resultLat = Double.parseDouble((String) result.get("lat"));
+            double resultLng = Double.parseDouble((String) result.get("lon"));
+
+            String displayName = (String) result.get("display_name");
+            String name = extractName(result);
+            String category = (String) result.get("type");
+
+            //유저의 위치가 주어지면 목적지까지의 거리를 계산
+            Integer distance = null;
+            if (userLat != null && userLng != null) {
+                distance = (int) calculateDistance(userLat, userLng, resultLat, resultLng);
+            }
+
+            return SearchResult.builder()
+                    .name(name)
+                    .latitude(resultLat)
+                    .longitude(resultLng)
+                    .address(displayName)
+                    .distance(distance)
+                    .category(translateCategory(category))
+                    .build();
+        } catch (Exception e) {
+            log.warn("Error parsing Nominatim result: {}", e.getMessage());
+            return null;
+        }
+    }
+
     //Nominatim 원본 응답(JSON 배열)에서 장소의 이름을 추출하는 함수
     @SuppressWarnings("unchecked")
     private String extractName(Map<String, Object> result) {
@@ -175,8 +243,8 @@ public class NominatimClient {
         return displayName;
     }
 
-    //Nominatim 원본 응답(JSON 배열)에서 category을 번역하는 함수
-    private String translateCategory(String category) {
+    //Nominatim 원본 응답(JSON 배열)에서 category을 번역하는 함수 (자동완성 POI 목록에도 사용)
+    public static String translateCategory(String category) {
         if (category == null) return null;
 
         return switch (category) {
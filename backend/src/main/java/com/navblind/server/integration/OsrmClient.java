@@ -1,53 +1,77 @@
 package com.navblind.server.integration;
 
+import com.navblind.server.cache.GeoGrid;
+import com.navblind.server.config.LaneLimit;
+import com.navblind.server.config.LaneProperties;
+import com.navblind.server.config.MapMatching;
 import com.navblind.server.config.OsrmProperties;
 import com.navblind.server.dto.RouteDto.*;
-import lombok.RequiredArgsConstructor;
+import com.navblind.server.geo.PolylineCodec;
+import com.navblind.server.geo.RouteLine;
+import com.navblind.server.integration.OsrmResponseParser.MatchBody;
+import com.navblind.server.integration.OsrmResponseParser.MatchingBody;
+import com.navblind.server.integration.OsrmResponseParser.NearestBody;
+import com.navblind.server.integration.OsrmResponseParser.RouteBody;
+import com.navblind.server.integration.OsrmResponseParser.StepBody;
+import com.navblind.server.integration.OsrmResponseParser.TracepointBody;
+import com.navblind.server.integration.PriorityLanes.LaneRejectedException;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
 
 //OSRM(경로 계산 엔진)과 통신하여 출발~도착 경로를 계산해주는 클래스
 
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class OsrmClient {
 
-    private final WebClient.Builder webClientBuilder;
+    //WebClientConfig에서 생성된 전용 WebClient (커넥션 풀 공유, 요청마다 새로 만들지 않음)
+    private final WebClient webClient;
     private final OsrmProperties osrmProperties;
 
+    //재탐색 > 새 경로 > nearest/match 순서의 우선순위 레인 (응답 시간에 따라 조절되는 OSRM 동시 요청 한도를 나눠 씀)
+    private final PriorityLanes lanes;
+
+    //osrm-routed 복제본 선택, 헤지 요청, 복제본별 circuit breaker
+    private final ReplicaPool replicas;
+
+    //동시에 들어온 동일 route/nearest 요청을 하나의 OSRM 호출로 합침
+    private final SingleFlight<OsrmRouteResult> routeFlights;
+    private final SingleFlight<NearestBody> nearestFlights;
+
+    public OsrmClient(@Qualifier("osrmWebClient") WebClient webClient, OsrmProperties osrmProperties,
+                      LaneProperties laneProperties, MeterRegistry meterRegistry) {
+        this.webClient = webClient;
+        this.osrmProperties = osrmProperties;
+        Map<Lane, LaneLimit> limits = new EnumMap<>(Lane.class);
+        limits.put(Lane.REROUTE, laneProperties.reroute());
+        limits.put(Lane.ROUTE, laneProperties.route());
+        limits.put(Lane.NEAREST, laneProperties.nearest());
+        AdaptiveLimit limit = new AdaptiveLimit("osrm", laneProperties.osrmConcurrency(),
+                laneProperties.adaptive(), meterRegistry);
+        this.lanes = new PriorityLanes("osrm", limit, null, limits, laneProperties.rerouteReserve(), meterRegistry);
+        this.replicas = new ReplicaPool("osrm", replicaUrls(osrmProperties), osrmProperties.balancing(), meterRegistry);
+        int maxInFlight = osrmProperties.coalescing().maxInFlight();
+        this.routeFlights = new SingleFlight<>("osrm-route", maxInFlight, meterRegistry);
+        this.nearestFlights = new SingleFlight<>("osrm-nearest", maxInFlight, meterRegistry);
+    }
+
     //동기적으로 출발지부터 목적지까지의 거리를 계산해주는 함수, 압력: 출발/도착 위도 경도
-    @SuppressWarnings("unchecked")
     public OsrmRouteResult getRoute(double originLat, double originLng, double destLat, double destLng) {
-        String coordinates = String.format("%f,%f;%f,%f", originLng, originLat, destLng, destLat);
-        //URL 조합기
-        String url = String.format("%s/route/v1/foot/%s?overview=full&steps=true&geometries=geojson",
-                osrmProperties.baseUrl(), coordinates);
-
-        log.debug("Requesting OSRM route: {}", url);
-
         try {
-            WebClient webClient = webClientBuilder.build();
-            Map<String, Object> response = webClient.get()
-                    .uri(url)
-                    .retrieve()
-                    .bodyToMono(Map.class)
-                    .timeout(Duration.ofMillis(osrmProperties.timeout()))
-                    .block();
-
-            if (response == null || !"Ok".equals(response.get("code"))) {
-                log.warn("OSRM returned non-OK response: {}", response);
-                return null;
-            }
-
-            return parseOsrmResponse(response);
+            return routeCall(originLat, originLng, destLat, destLng, Lane.ROUTE).block();
         } catch (Exception e) {
             log.error("Error calling OSRM: {}", e.getMessage());
             return null;
@@ -56,214 +80,87 @@ public class OsrmClient {
 
     //비동기적으로 출발지부터 목적지까지의 거리를 계산해주는 함수, 압력: 출발/도착 위도 경도
     public Mono<OsrmRouteResult> getRouteAsync(double originLat, double originLng, double destLat, double destLng) {
-        String coordinates = String.format("%f,%f;%f,%f", originLng, originLat, destLng, destLat);
-        String url = String.format("%s/route/v1/foot/%s?overview=full&steps=true&geometries=geojson",
-                osrmProperties.baseUrl(), coordinates);
-
-        log.debug("Requesting OSRM route async: {}", url);
-
-        WebClient webClient = webClientBuilder.build();
-        return webClient.get()
-                .uri(url)
-                .retrieve()
-                .bodyToMono(Map.class)
-                .timeout(Duration.ofMillis(osrmProperties.timeout()))
-                .map(this::parseOsrmResponse)
-                .onErrorResume(e -> {
+        return getRouteAsync(originLat, originLng, destLat, destLng, Lane.ROUTE);
+    }
+
+    //lane 우선순위로 경로를 계산, 레인이 가득 차서 거절된 경우만 오류(LaneRejectedException)로 전달
+    public Mono<OsrmRouteResult> getRouteAsync(double originLat, double originLng, double destLat, double destLng,
+                                               Lane lane) {
+        return routeCall(originLat, originLng, destLat, destLng, lane)
+                .onErrorResume(e -> !(e instanceof LaneRejectedException), e -> {
                     log.error("Error calling OSRM async: {}", e.getMessage());
                     return Mono.empty();
                 });
     }
 
+    //OSRM route 호출, OSRM에 보낼 출발/도착 좌표가 같은 요청이 진행 중이면 그 결과를 공유
+    //(격자 셀로 합치면 뒤에 온 호출자가 먼저 온 호출자의 좌표에서 시작하는 경로를 받으므로 좌표 문자열을 그대로 키로 사용)
+    //오류는 호출자(getRoute/getRouteAsync)에게 그대로 전달
+    private Mono<OsrmRouteResult> routeCall(double originLat, double originLng, double destLat, double destLng,
+                                            Lane lane) {
+        String coordinates = String.format("%f,%f;%f,%f", originLng, originLat, destLng, destLat);
+
+        Mono<OsrmRouteResult> call = lanes.execute(lane, () -> replicas.execute(baseUrl -> {
+            //URL 조합기
+            String url = String.format("%s/route/v1/foot/%s?overview=full&steps=true&geometries=geojson",
+                    baseUrl, coordinates);
+            log.debug("Requesting OSRM route: {}", url);
+            return webClient.get()
+                    .uri(url)
+                    .retrieve()
+                    .bodyToMono(byte[].class)
+                    .timeout(Duration.ofMillis(osrmProperties.timeout()))
+                    .mapNotNull(this::parseOsrmResponse);
+        }));
+
+        String key = "route|" + coordinates;
+        return coalesce(routeFlights, key, call);
+    }
+
     //OSRM에서 응답받은 원본 JSON을 DTO로 바꾸는 함수
-    @SuppressWarnings("unchecked")
-    private OsrmRouteResult parseOsrmResponse(Map<String, Object> response) {
-        List<Map<String, Object>> routes = (List<Map<String, Object>>) response.get("routes");
-        if (routes == null || routes.isEmpty()) {
+    //OsrmResponseParser가 필요한 필드만 스트리밍으로 읽어오고, 여기서는 안내 문장 생성만 담당
+    private OsrmRouteResult parseOsrmResponse(byte[] body) {
+        RouteBody route = OsrmResponseParser.parseRoute(body);
+        if (!"Ok".equals(route.code())) {
+            log.warn("OSRM returned non-OK response: {}", route.code());
+            return null;
+        }
+        if (!route.found()) {
             return null;
         }
 
-        //경로를 가져와 총 거리와 시간을 추출
-        Map<String, Object> route = routes.get(0);
-        double distance = ((Number) route.get("distance")).doubleValue();
-        double duration = ((Number) route.get("duration")).doubleValue();
-
-        //legs는 구간을 나타내며 waypoint까지의 경로를 나타냄
-        List<Map<String, Object>> legs = (List<Map<String, Object>>) route.get("legs");
-        List<Instruction> instructions = new ArrayList<>();
-        List<Waypoint> waypoints = new ArrayList<>();
+        List<Instruction> instructions = new ArrayList<>(route.steps().size());
+        List<Waypoint> waypoints = new ArrayList<>(route.steps().size());
 
         //steps는 지시사항을 뜻하며 하나의 구간(leg)안에서 사용자에게 말해줘야 할 구체적인 안내 지시들을 나타냄
-        if (legs != null && !legs.isEmpty()) {
-            Map<String, Object> leg = legs.get(0);
-            List<Map<String, Object>> steps = (List<Map<String, Object>>) leg.get("steps");
-
-            int stepNum = 0;
-            for (Map<String, Object> step : steps) {
-                //각 step에서 maneuver 정보 추출
-                //maneuver는 각 step에서 사용자가 실제로 해야 할 행동의 세부 정보를 나타냄
-                Map<String, Object> maneuver = (Map<String, Object>) step.get("maneuver");
-                List<Double> location = (List<Double>) maneuver.get("location");
-
-                //waypoint 생성(위치 + 이름)
-                Waypoint waypoint = Waypoint.builder()
-                        .lng(location.get(0))
-                        .lat(location.get(1))
-                        .name((String) step.get("name"))
-                        .build();
-                waypoints.add(waypoint);
-
-                String maneuverType = (String) maneuver.get("type");
-                String modifier = (String) maneuver.get("modifier");
-
-                //음성 안내 텍스트 생성
-                Instruction instruction = Instruction.builder()
-                        .step(stepNum++)
-                        .type(mapInstructionType(maneuverType))
-                        .modifier(mapTurnModifier(modifier))
-                        .text(generateKoreanInstruction(maneuverType, modifier, (String) step.get("name"),
-                                ((Number) step.get("distance")).intValue()))
-                        .distance(((Number) step.get("distance")).intValue())
-                        .location(waypoint)
-                        .build();
-                instructions.add(instruction);
-            }
+        //maneuver는 각 step에서 사용자가 실제로 해야 할 행동의 세부 정보를 나타냄
+        int stepNum = 0;
+        for (StepBody step : route.steps()) {
+            //waypoint 생성(위치 + 이름)
+            Waypoint waypoint = Waypoint.builder()
+                    .lng(step.lng())
+                    .lat(step.lat())
+                    .name(step.name())
+                    .build();
+            waypoints.add(waypoint);
+
+            int stepDistance = (int) step.distance();
+
+            //음성 안내 텍스트 생성
+            instructions.add(GuidanceBuilder.instruction(stepNum++, step.maneuverType(), step.modifier(),
+                    step.name(), stepDistance, waypoint));
         }
 
         //최종 DTO 반환
         return OsrmRouteResult.builder()
-                .distance((int) distance)
-                .duration((int) duration)
+                .distance((int) route.distance())
+                .duration((int) route.duration())
+                .geometry(PolylineCodec.encode(route.geometry()))
                 .waypoints(waypoints)
                 .instructions(instructions)
                 .build();
     }
 
-    //OSRM에서 주는 maneuver.type을 정의한 InstructionType enum으로 매핑(영어->한국어)
-    private InstructionType mapInstructionType(String osrmType) {
-        if (osrmType == null) return InstructionType.continue_straight;
-        return switch (osrmType) {
-            case "depart"                               -> InstructionType.depart;
-            case "arrive"                               -> InstructionType.arrive;
-            // 명시적 회전 + 도로 구조상 방향 결정이 필요한 지점
-            case "turn", "end of road", "fork"          -> InstructionType.turn;
-            // 도로명 변경: 보행자에게는 중요한 분기점 신호
-            case "new name"                             -> InstructionType.turn;
-            // 횡단보도/신호등 (OSM에 highway=crossing 태그 있을 때 발생)
-            case "notification"                         -> InstructionType.crosswalk;
-            // 로터리: 진입 후 몇 번째 출구인지 modifier에 담김
-            case "roundabout", "rotary",
-                 "exit roundabout", "exit rotary"       -> InstructionType.turn;
-            default                                     -> InstructionType.continue_straight;
-        };
-    }
-
-    //turn일 때 방향(좌/우 등)을 정의한 enum으로 매핑(영어->한국어)
-    private TurnModifier mapTurnModifier(String osrmModifier) {
-        if (osrmModifier == null) return TurnModifier.straight;
-        return switch (osrmModifier) {
-            case "left"         -> TurnModifier.left;
-            case "right"        -> TurnModifier.right;
-            case "slight left"  -> TurnModifier.slight_left;
-            case "slight right" -> TurnModifier.slight_right;
-            case "uturn"        -> TurnModifier.uturn;
-            case "straight"     -> TurnModifier.straight;
-            // fork/end of road에서 나오는 sharp turn도 처리
-            case "sharp left"   -> TurnModifier.left;
-            case "sharp right"  -> TurnModifier.right;
-            default             -> TurnModifier.straight;
-        };
-    }
-
-    //OSRM의 영어 지시사항을 한국어 음성 안내 문장으로 변환
-    private String generateKoreanInstruction(String type, String modifier, String streetName, int distance) {
-        String distanceStr = formatDistance(distance);
-        String street = (streetName != null && !streetName.isEmpty()) ? streetName : null;
-
-        return switch (type) {
-            case "depart" -> street != null
-                    ? String.format("%s 방향으로 출발하세요", street)
-                    : "경로를 따라 출발하세요";
-
-            case "arrive" -> "목적지에 도착했습니다";
-
-            // 명시적 회전
-            case "turn" -> {
-                String dir = modifierToKorean(modifier);
-                yield street != null
-                        ? String.format("%s 후 %s하여 %s 방향으로 가세요", distanceStr, dir, street)
-                        : String.format("%s 후 %s하세요", distanceStr, dir);
-            }
-
-            // 도로 끝(T자 교차로): 반드시 좌/우 선택 필요
-            case "end of road" -> {
-                String dir = modifierToKorean(modifier);
-                yield street != null
-                        ? String.format("도로 끝에서 %s하여 %s 방향으로 가세요", dir, street)
-                        : String.format("도로 끝에서 %s하세요", dir);
-            }
-
-            // 갈림길: 방향 안내 필요
-            case "fork" -> {
-                String dir = switch (modifier != null ? modifier : "") {
-                    case "slight left", "left" -> "왼쪽 길";
-                    case "slight right", "right" -> "오른쪽 길";
-                    default -> "앞쪽 길";
-                };
-                yield street != null
-                        ? String.format("갈림길에서 %s로 가세요. %s 방향입니다", dir, street)
-                        : String.format("갈림길에서 %s로 가세요", dir);
-            }
-
-            // 도로명 변경: 보행자에게 "여기서 길이 바뀝니다" 안내
-            case "new name" -> street != null
-                    ? String.format("%s 방향으로 계속 가세요", street)
-                    : String.format("%s 직진하세요", distanceStr);
-
-            // 횡단보도 / 신호등 (OSM highway=crossing 태그)
-            case "notification" -> "횡단보도를 건너세요";
-
-            // 로터리: 진입 후 modifier에 출구 번호가 담기는 경우도 있음
-            case "roundabout", "rotary" -> {
-                String dir = modifierToKorean(modifier);
-                yield String.format("로터리에서 %s하세요", dir);
-            }
-            case "exit roundabout", "exit rotary" -> street != null
-                    ? String.format("로터리를 나와 %s 방향으로 가세요", street)
-                    : "로터리를 나오세요";
-
-            // 그 외 (continue, merge 등): 도로명 있으면 활용
-            default -> street != null
-                    ? String.format("%s을(를) 따라 %s 직진하세요", street, distanceStr)
-                    : String.format("%s 직진하세요", distanceStr);
-        };
-    }
-
-    /** OSRM modifier 문자열을 한국어 동사로 변환합니다. */
-    private String modifierToKorean(String modifier) {
-        if (modifier == null) return "직진";
-        return switch (modifier) {
-            case "left"        -> "좌회전";
-            case "right"       -> "우회전";
-            case "slight left" -> "약간 왼쪽으로";
-            case "slight right"-> "약간 오른쪽으로";
-            case "uturn"       -> "유턴";
-            case "straight"    -> "직진";
-            default            -> "직진";
-        };
-    }
-
-    //거리를 한국어로 보기 좋게 포맷팅
-    private String formatDistance(int meters) {
-        if (meters < 100) {
-            return meters + "미터";
-        } else if (meters < 1000) {
-            return (meters / 10 * 10) + "미터";
-        } else {
-            return String.format("%.1f킬로미터", meters / 1000.0);
-        }
-    }
-
     /**
      * OSRM nearest API를 호출하여 주어진 좌표에서 가장 가까운 도로 위의 좌표를 반환합니다.
      * VPS/GPS 좌표를 OSM 도로망에 snap하는 데 사용됩니다.
@@ -273,28 +170,9 @@ public class OsrmClient {
      * @param number 반환할 결과 수 (기본 1)
      * @return 가장 가까운 도로 좌표 정보
      */
-    @SuppressWarnings("unchecked")
     public NearestResult getNearestRoad(double lat, double lng, int number) {
-        String url = String.format("%s/nearest/v1/foot/%f,%f?number=%d",
-                osrmProperties.baseUrl(), lng, lat, number);
-
-        log.debug("Requesting OSRM nearest: {}", url);
-
         try {
-            WebClient webClient = webClientBuilder.build();
-            Map<String, Object> response = webClient.get()
-                    .uri(url)
-                    .retrieve()
-                    .bodyToMono(Map.class)
-                    .timeout(Duration.ofMillis(osrmProperties.timeout()))
-                    .block();
-
-            if (response == null || !"Ok".equals(response.get("code"))) {
-                log.warn("OSRM nearest returned non-OK response: {}", response);
-                return null;
-            }
-
-            return parseNearestResponse(response, lat, lng);
+            return nearestCall(lat, lng, number).block();
         } catch (Exception e) {
             log.error("Error calling OSRM nearest: {}", e.getMessage());
             return null;
@@ -303,55 +181,280 @@ public class OsrmClient {
 
     /**
      * 비동기 버전의 nearest API
+     * nearest 레인이 가득 차서 거절된 경우만 오류(LaneRejectedException)로 전달합니다.
      */
-    @SuppressWarnings("unchecked")
     public Mono<NearestResult> getNearestRoadAsync(double lat, double lng, int number) {
-        String url = String.format("%s/nearest/v1/foot/%f,%f?number=%d",
-                osrmProperties.baseUrl(), lng, lat, number);
-
-        log.debug("Requesting OSRM nearest async: {}", url);
-
-        WebClient webClient = webClientBuilder.build();
-        return webClient.get()
-                .uri(url)
-                .retrieve()
-                .bodyToMono(Map.class)
-                .timeout(Duration.ofMillis(osrmProperties.timeout()))
-                .map(response -> parseNearestResponse(response, lat, lng))
-                .onErrorResume(e -> {
+        return nearestCall(lat, lng, number)
+                .onErrorResume(e -> !(e instanceof LaneRejectedException), e -> {
                     log.error("Error calling OSRM nearest async: {}", e.getMessage());
                     return Mono.empty();
                 });
     }
 
+    /**
+     * 여러 좌표를 한 번에 도로에 snap합니다. (GPS 음영 구간 이후 짧은 궤적 보정용)
+     * OSRM nearest 서비스는 좌표 하나만 받으므로 batchConcurrency개까지 동시에 호출하고,
+     * 결과는 입력 순서대로 반환합니다. snap하지 못한 좌표는 실패 사유(NearestError)로 채워지며
+     * 다른 좌표의 결과에는 영향을 주지 않습니다.
+     * nearest 레인이 가득 차서 거절된 좌표는 SERVER_BUSY가 되고, 모든 좌표가 거절된 경우만
+     * 오류(LaneRejectedException)로 전달합니다.
+     */
+    public Mono<List<NearestOutcome>> getNearestRoadsAsync(List<Waypoint> points) {
+        return Mono.defer(() -> {
+            AtomicReference<LaneRejectedException> rejected = new AtomicReference<>();
+            return Flux.fromIterable(points)
+                    .flatMapSequential(point -> nearestCall(point.getLat(), point.getLng(), 1)
+                                    .map(NearestOutcome::found)
+                                    .defaultIfEmpty(NearestOutcome.failed(NearestError.NEAREST_NOT_FOUND))
+                                    .onErrorResume(LaneRejectedException.class, e -> {
+                                        rejected.compareAndSet(null, e);
+                                        return Mono.just(NearestOutcome.failed(NearestError.SERVER_BUSY));
+                                    })
+                                    .onErrorResume(e -> {
+                                        log.error("Error calling OSRM nearest async: {}", e.getMessage());
+                                        return Mono.just(NearestOutcome.failed(nearestError(e)));
+                                    }),
+                            osrmProperties.batchConcurrency())
+                    .collectList()
+                    .flatMap(outcomes -> rejected.get() != null
+                            && outcomes.stream().allMatch(o -> o.error() == NearestError.SERVER_BUSY)
+                            ? Mono.error(rejected.get())
+                            : Mono.just(outcomes));
+        });
+    }
+
+    //nearest 호출 오류를 응답의 실패 사유로 구분 (원인 중 하나라도 제한 시간 초과면 TIMEOUT)
+    private static NearestError nearestError(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TimeoutException) {
+                return NearestError.TIMEOUT;
+            }
+        }
+        return NearestError.UPSTREAM_ERROR;
+    }
+
+    //OSRM nearest 호출, 같은 격자 셀의 요청이 진행 중이면 그 결과를 공유
+    //snap 결과는 공유하되 originalLat/originalLng과 distance는 각 호출자의 좌표로 채움
+    private Mono<NearestResult> nearestCall(double lat, double lng, int number) {
+        Mono<NearestBody> call = lanes.execute(Lane.NEAREST, () -> replicas.execute(baseUrl -> {
+            String url = String.format("%s/nearest/v1/foot/%f,%f?number=%d", baseUrl, lng, lat, number);
+            log.debug("Requesting OSRM nearest: {}", url);
+            return webClient.get()
+                    .uri(url)
+                    .retrieve()
+                    .bodyToMono(byte[].class)
+                    .timeout(Duration.ofMillis(osrmProperties.timeout()))
+                    .mapNotNull(this::parseNearestResponse);
+        }));
+
+        String key = "nearest|" + number + "|" + cellKey(lat, lng);
+        return coalesce(nearestFlights, key, call)
+                .map(nearest -> toNearestResult(nearest, lat, lng));
+    }
+
     /**
      * OSRM nearest 응답을 파싱합니다.
      */
-    @SuppressWarnings("unchecked")
-    private NearestResult parseNearestResponse(Map<String, Object> response, double originalLat, double originalLng) {
-        List<Map<String, Object>> waypoints = (List<Map<String, Object>>) response.get("waypoints");
-        if (waypoints == null || waypoints.isEmpty()) {
+    private NearestBody parseNearestResponse(byte[] body) {
+        NearestBody nearest = OsrmResponseParser.parseNearest(body);
+        if (!"Ok".equals(nearest.code())) {
+            log.warn("OSRM nearest returned non-OK response: {}", nearest.code());
             return null;
         }
+        return nearest.found() ? nearest : null;
+    }
 
-        Map<String, Object> nearest = waypoints.get(0);
-        List<Double> location = (List<Double>) nearest.get("location");
-        double distance = ((Number) nearest.get("distance")).doubleValue();
-        String name = (String) nearest.get("name");
-
-        double snappedLng = location.get(0);
-        double snappedLat = location.get(1);
+    private NearestResult toNearestResult(NearestBody nearest, double originalLat, double originalLng) {
+        String name = nearest.name();
 
         return NearestResult.builder()
                 .originalLat(originalLat)
                 .originalLng(originalLng)
-                .snappedLat(snappedLat)
-                .snappedLng(snappedLng)
-                .distance(distance)
+                .snappedLat(nearest.lat())
+                .snappedLng(nearest.lng())
+                // OSRM의 distance는 합쳐진 호출을 보낸 첫 호출자 기준이므로 각 호출자의 좌표로 다시 계산
+                .distance(RouteLine.distance(originalLat, originalLng, nearest.lat(), nearest.lng()))
                 .roadName(name != null && !name.isEmpty() ? name : null)
                 .build();
     }
 
+    /**
+     * OSRM match API로 GPS/VPS 궤적을 도로망에 정합합니다.
+     * 긴 궤적은 matching.chunkSize개씩(앞 조각의 마지막 좌표를 겹쳐서) 나누어 동시에 요청하고,
+     * 결과는 입력 순서대로 합칩니다. 실패한 조각의 좌표는 matched=false로 원래 좌표를 담습니다.
+     *
+     * 측정 시각이 앞 위치보다 이른 위치가 있으면 OSRM에 보내지 않고 InvalidTraceException으로 실패합니다.
+     *
+     * @param trace 시간 순서로 정렬된 위치 목록 (2개 이상)
+     */
+    public Mono<MatchResponse> matchTraceAsync(List<TracePoint> trace) {
+        //OSRM은 줄어드는 timestamps를 거부하고, 조각으로 나누면 조각마다 일부만 실패하므로 먼저 확인
+        for (int i = 1; i < trace.size(); i++) {
+            if (trace.get(i).getTimestamp() < trace.get(i - 1).getTimestamp()) {
+                return Mono.error(new InvalidTraceException(i));
+            }
+        }
+
+        MapMatching matching = osrmProperties.matching();
+        int chunkSize = Math.max(2, matching.chunkSize());
+
+        //[시작 인덱스, 끝 인덱스(제외)] 조각 목록, 이웃한 조각은 좌표 하나를 공유
+        List<int[]> chunks = new ArrayList<>();
+        int start = 0;
+        while (true) {
+            int end = Math.min(trace.size(), start + chunkSize);
+            chunks.add(new int[]{start, end});
+            if (end >= trace.size()) {
+                break;
+            }
+            start = end - 1;
+        }
+
+        return Flux.fromIterable(chunks)
+                .flatMapSequential(chunk -> matchChunk(trace.subList(chunk[0], chunk[1]), matching),
+                        Math.max(1, matching.concurrency()))
+                .collectList()
+                .map(bodies -> mergeMatches(trace, chunks, bodies));
+    }
+
+    //궤적 조각 하나를 match API로 정합, 실패하면 빈 결과로 대체 (다른 조각에는 영향 없음)
+    private Mono<MatchBody> matchChunk(List<TracePoint> points, MapMatching matching) {
+        StringBuilder coordinates = new StringBuilder();
+        StringBuilder timestamps = new StringBuilder();
+        StringBuilder radiuses = new StringBuilder();
+        for (int i = 0; i < points.size(); i++) {
+            TracePoint point = points.get(i);
+            if (i > 0) {
+                coordinates.append(';');
+                timestamps.append(';');
+                radiuses.append(';');
+            }
+            coordinates.append(point.getLng()).append(',').append(point.getLat());
+            timestamps.append(point.getTimestamp() / 1000);
+            double radius = point.getAccuracy() != null ? point.getAccuracy() : matching.defaultRadius();
+            radiuses.append(Math.max(matching.minRadius(), Math.min(matching.maxRadius(), radius)));
+        }
+
+        //gaps=split: 시간 간격이 큰 곳에서 구간을 나눔, overview=false: 경로 형상은 필요 없음
+        String query = coordinates
+                + "?timestamps=" + timestamps
+                + "&radiuses=" + radiuses
+                + "&steps=true&overview=false&gaps=split&tidy=false";
+
+        log.debug("Requesting OSRM match for {} points", points.size());
+
+        return lanes.execute(Lane.NEAREST, () -> replicas.execute(baseUrl -> webClient.get()
+                        .uri(baseUrl + "/match/v1/foot/" + query)
+                        .retrieve()
+                        .bodyToMono(byte[].class)
+                        .timeout(Duration.ofMillis(osrmProperties.timeout()))))
+                .map(OsrmResponseParser::parseMatch)
+                .filter(body -> {
+                    if (!"Ok".equals(body.code())) {
+                        log.warn("OSRM match returned non-OK response: {}", body.code());
+                        return false;
+                    }
+                    return true;
+                })
+                .onErrorResume(e -> {
+                    log.error("Error calling OSRM match: {}", e.getMessage());
+                    return Mono.empty();
+                })
+                .defaultIfEmpty(new MatchBody(null, List.of(), List.of()));
+    }
+
+    //조각별 결과를 입력 순서로 합치고 matchings 인덱스를 전체 기준으로 다시 매김
+    private MatchResponse mergeMatches(List<TracePoint> trace, List<int[]> chunks, List<MatchBody> bodies) {
+        List<MatchedPoint> points = new ArrayList<>(trace.size());
+        List<Matching> matchings = new ArrayList<>();
+        double weightedConfidence = 0;
+        double matchedDistance = 0;
+
+        for (int c = 0; c < chunks.size(); c++) {
+            int chunkStart = chunks.get(c)[0];
+            int chunkEnd = chunks.get(c)[1];
+            MatchBody body = bodies.get(c);
+            int matchingOffset = matchings.size();
+
+            //두 번째 조각부터 첫 좌표는 앞 조각과 겹치므로 건너뜀
+            for (int i = (c == 0 ? 0 : 1); i < chunkEnd - chunkStart; i++) {
+                TracePoint input = trace.get(chunkStart + i);
+                TracepointBody tracepoint = i < body.tracepoints().size() ? body.tracepoints().get(i) : null;
+                if (tracepoint == null) {
+                    points.add(MatchedPoint.builder()
+                            .index(chunkStart + i)
+                            .matched(false)
+                            .lat(input.getLat())
+                            .lng(input.getLng())
+                            .build());
+                } else {
+                    String name = tracepoint.name();
+                    points.add(MatchedPoint.builder()
+                            .index(chunkStart + i)
+                            .matched(true)
+                            .lat(tracepoint.lat())
+                            .lng(tracepoint.lng())
+                            .distance(tracepoint.distance())
+                            .roadName(name != null && !name.isEmpty() ? name : null)
+                            .matchingIndex(matchingOffset + tracepoint.matchingIndex())
+                            .build());
+                }
+            }
+
+            for (MatchingBody matchingBody : body.matchings()) {
+                matchings.add(Matching.builder()
+                        .confidence(matchingBody.confidence())
+                        .distance((int) matchingBody.distance())
+                        .roads(matchingBody.roads())
+                        .build());
+                weightedConfidence += matchingBody.confidence() * matchingBody.distance();
+                matchedDistance += matchingBody.distance();
+            }
+        }
+
+        Double confidence = null;
+        if (matchedDistance > 0) {
+            confidence = weightedConfidence / matchedDistance;
+        } else if (!matchings.isEmpty()) {
+            confidence = matchings.stream().mapToDouble(Matching::getConfidence).average().orElse(0);
+        }
+
+        return MatchResponse.builder()
+                .confidence(confidence)
+                .points(points)
+                .matchings(matchings)
+                .build();
+    }
+
+    //replicas가 설정되어 있으면 그 목록을, 아니면 baseUrl 하나를 복제본으로 사용
+    private static List<String> replicaUrls(OsrmProperties osrmProperties) {
+        List<String> urls = new ArrayList<>();
+        if (osrmProperties.replicas() != null) {
+            for (String url : osrmProperties.replicas()) {
+                if (url != null && !url.isBlank()) {
+                    urls.add(url.strip());
+                }
+            }
+        }
+        if (urls.isEmpty()) {
+            urls.add(osrmProperties.baseUrl());
+        }
+        return urls;
+    }
+
+    //설정에 따라 동일 요청 합치기를 적용
+    private <T> Mono<T> coalesce(SingleFlight<T> flights, String key, Mono<T> call) {
+        if (!osrmProperties.coalescing().enabled()) {
+            return call;
+        }
+        return flights.execute(key, () -> call);
+    }
+
+    //요청 키에 사용할 양자화된 좌표 셀
+    private String cellKey(double lat, double lng) {
+        return GeoGrid.cellKey(lat, lng, osrmProperties.coalescing().gridMeters());
+    }
+
     @lombok.Data
     @lombok.Builder
     @lombok.NoArgsConstructor
@@ -359,6 +462,8 @@ public class OsrmClient {
     public static class OsrmRouteResult {
         private Integer distance;
         private Integer duration;
+        /** 전체 경로 형상 (encoded polyline, precision 6) */
+        private String geometry;
         private List<Waypoint> waypoints;
         private List<Instruction> instructions;
     }
@@ -384,4 +489,46 @@ public class OsrmClient {
         /** 도로 이름 (있는 경우) */
         private String roadName;
     }
+
+    /**
+     * 궤적의 측정 시각이 줄어드는 위치가 있어 정합할 수 없는 상태 (400으로 응답)
+     * index는 앞 위치보다 측정 시각이 이른 첫 위치입니다.
+     */
+    @lombok.Getter
+    public static class InvalidTraceException extends RuntimeException {
+        private final int index;
+
+        public InvalidTraceException(int index) {
+            super("Trace timestamps must be non-decreasing (point " + index + ")");
+            this.index = index;
+        }
+    }
+
+    /**
+     * 일괄 nearest에서 좌표 하나의 결과 (result와 error 중 하나만 채워짐)
+     */
+    public record NearestOutcome(NearestResult result, NearestError error) {
+
+        public static NearestOutcome found(NearestResult result) {
+            return new NearestOutcome(result, null);
+        }
+
+        public static NearestOutcome failed(NearestError error) {
+            return new NearestOutcome(null, error);
+        }
+    }
+
+    /**
+     * 일괄 nearest에서 좌표를 snap하지 못한 사유 (응답의 error 코드로 그대로 사용)
+     */
+    public enum NearestError {
+        /** OSRM이 근처에서 도로를 찾지 못함 */
+        NEAREST_NOT_FOUND,
+        /** OSRM 호출 실패 (연결 오류, 5xx, 사용 가능한 복제본 없음 등) */
+        UPSTREAM_ERROR,
+        /** 대기 시간을 포함한 제한 시간 초과 */
+        TIMEOUT,
+        /** nearest 레인이 가득 차서 OSRM에 보내지 못함 */
+        SERVER_BUSY
+    }
 }
@@ -0,0 +1,380 @@
+package com.navblind.server.integration;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+//OSRM 응답 JSON을 토큰 단위로 읽어서 필요한 값만 뽑아내는 스트리밍 파서
+//기존처럼 전체 응답을 Map<String, Object>로 만들지 않고,
+//사용하지 않는 부분(step geometry, intersections, waypoints 등)은 객체를 만들지 않고 건너뜀
+//좌표/거리는 Double 박싱 없이 double로 바로 읽음 (전체 경로 형상은 double[] 하나로 읽음)
+final class OsrmResponseParser {
+
+    //JsonFactory는 thread-safe하므로 하나만 만들어 재사용
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final double[] NO_GEOMETRY = new double[0];
+
+    private OsrmResponseParser() {
+    }
+
+    /**
+     * route 서비스 응답을 파싱합니다. 첫 번째 route의 첫 번째 leg만 읽습니다.
+     */
+    static RouteBody parseRoute(byte[] body) {
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            expect(parser.nextToken(), JsonToken.START_OBJECT);
+
+            String code = null;
+            RouteBody route = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "code" -> code = parser.getValueAsString();
+                    case "routes" -> route = readFirst(parser, OsrmResponseParser::readRoute);
+                    default -> parser.skipChildren();
+                }
+            }
+
+            if (route == null) {
+                return new RouteBody(code, false, 0, 0, NO_GEOMETRY, List.of());
+            }
+            return new RouteBody(code, true, route.distance(), route.duration(), route.geometry(), route.steps());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Malformed OSRM route response", e);
+        }
+    }
+
+    /**
+     * nearest 서비스 응답을 파싱합니다. 첫 번째 waypoint만 읽습니다.
+     */
+    static NearestBody parseNearest(byte[] body) {
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            expect(parser.nextToken(), JsonToken.START_OBJECT);
+
+            String code = null;
+            NearestBody nearest = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "code" -> code = parser.getValueAsString();
+                    case "waypoints" -> nearest = readFirst(parser, OsrmResponseParser::readNearestWaypoint);
+                    default -> parser.skipChildren();
+                }
+            }
+
+            if (nearest == null) {
+                return new NearestBody(code, false, 0, 0, 0, null);
+            }
+            return new NearestBody(code, true, nearest.lng(), nearest.lat(), nearest.distance(), nearest.name());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Malformed OSRM nearest response", e);
+        }
+    }
+
+    /**
+     * match 서비스 응답을 파싱합니다. tracepoints는 입력 좌표와 같은 순서이며, 정합되지 않은 좌표는 null입니다.
+     */
+    static MatchBody parseMatch(byte[] body) {
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            expect(parser.nextToken(), JsonToken.START_OBJECT);
+
+            String code = null;
+            List<TracepointBody> tracepoints = new ArrayList<>();
+            List<MatchingBody> matchings = new ArrayList<>();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken token = parser.nextToken();
+                if ("code".equals(field)) {
+                    code = parser.getValueAsString();
+                } else if ("tracepoints".equals(field) && token == JsonToken.START_ARRAY) {
+                    JsonToken element;
+                    while ((element = parser.nextToken()) != JsonToken.END_ARRAY && element != null) {
+                        tracepoints.add(element == JsonToken.START_OBJECT ? readTracepoint(parser) : null);
+                        parser.skipChildren();
+                    }
+                } else if ("matchings".equals(field) && token == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        matchings.add(readMatching(parser));
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return new MatchBody(code, tracepoints, matchings);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Malformed OSRM match response", e);
+        }
+    }
+
+    //tracepoints[i] 객체: location, distance, name, matchings_index만 읽음
+    private static TracepointBody readTracepoint(JsonParser parser) throws IOException {
+        double lng = 0;
+        double lat = 0;
+        double distance = 0;
+        String name = null;
+        int matchingIndex = 0;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "location" -> {
+                    expect(parser.currentToken(), JsonToken.START_ARRAY);
+                    parser.nextToken();
+                    lng = parser.getDoubleValue();
+                    parser.nextToken();
+                    lat = parser.getDoubleValue();
+                    expect(parser.nextToken(), JsonToken.END_ARRAY);
+                }
+                case "distance" -> distance = parser.getDoubleValue();
+                case "name" -> name = parser.getValueAsString();
+                case "matchings_index" -> matchingIndex = parser.getIntValue();
+                default -> parser.skipChildren();
+            }
+        }
+        return new TracepointBody(lng, lat, distance, name, matchingIndex);
+    }
+
+    //matchings[i] 객체: confidence, distance와 legs[].steps[].name(지나간 도로 순서)만 읽음
+    private static MatchingBody readMatching(JsonParser parser) throws IOException {
+        double confidence = 0;
+        double distance = 0;
+        List<String> roads = new ArrayList<>();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if ("confidence".equals(field)) {
+                confidence = parser.getDoubleValue();
+            } else if ("distance".equals(field)) {
+                distance = parser.getDoubleValue();
+            } else if ("legs".equals(field) && token == JsonToken.START_ARRAY) {
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    for (StepBody step : readLegSteps(parser)) {
+                        String name = step.name();
+                        //이름 없는 길과 연속으로 같은 도로는 한 번만 기록
+                        if (name != null && !name.isEmpty()
+                                && (roads.isEmpty() || !roads.get(roads.size() - 1).equals(name))) {
+                            roads.add(name);
+                        }
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return new MatchingBody(confidence, distance, roads);
+    }
+
+    //routes[i] 객체: distance, duration, geometry, legs만 읽음
+    private static RouteBody readRoute(JsonParser parser) throws IOException {
+        double distance = 0;
+        double duration = 0;
+        double[] geometry = NO_GEOMETRY;
+        List<StepBody> steps = List.of();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "distance" -> distance = parser.getDoubleValue();
+                case "duration" -> duration = parser.getDoubleValue();
+                case "geometry" -> geometry = readLineString(parser);
+                case "legs" -> {
+                    List<StepBody> legSteps = readFirst(parser, OsrmResponseParser::readLegSteps);
+                    if (legSteps != null) {
+                        steps = legSteps;
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+        return new RouteBody(null, true, distance, duration, geometry, steps);
+    }
+
+    //GeoJSON LineString의 coordinates([[lng, lat], ...])를 [lat0, lng0, lat1, lng1, ...] 배열로 읽음
+    private static double[] readLineString(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return NO_GEOMETRY;
+        }
+
+        double[] latLngs = NO_GEOMETRY;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if ("coordinates".equals(field) && token == JsonToken.START_ARRAY) {
+                double[] buffer = new double[512];
+                int size = 0;
+                while (parser.nextToken() == JsonToken.START_ARRAY) {
+                    parser.nextToken();
+                    double lng = parser.getDoubleValue();
+                    parser.nextToken();
+                    double lat = parser.getDoubleValue();
+                    //고도 등 추가 값이 있으면 무시
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        parser.skipChildren();
+                    }
+
+                    if (size + 2 > buffer.length) {
+                        buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                    }
+                    buffer[size++] = lat;
+                    buffer[size++] = lng;
+                }
+                latLngs = Arrays.copyOf(buffer, size);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return latLngs;
+    }
+
+    //legs[i] 객체에서 steps 배열만 읽음
+    private static List<StepBody> readLegSteps(JsonParser parser) throws IOException {
+        List<StepBody> steps = new ArrayList<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if ("steps".equals(field) && token == JsonToken.START_ARRAY) {
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    steps.add(readStep(parser));
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return steps;
+    }
+
+    //steps[i] 객체: name, distance, maneuver만 읽음 (step geometry, intersections 등은 skip)
+    private static StepBody readStep(JsonParser parser) throws IOException {
+        String name = null;
+        double distance = 0;
+        String type = null;
+        String modifier = null;
+        double lng = 0;
+        double lat = 0;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "name" -> name = parser.getValueAsString();
+                case "distance" -> distance = parser.getDoubleValue();
+                case "maneuver" -> {
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String maneuverField = parser.currentName();
+                        parser.nextToken();
+                        switch (maneuverField) {
+                            case "type" -> type = parser.getValueAsString();
+                            case "modifier" -> modifier = parser.getValueAsString();
+                            case "location" -> {
+                                expect(parser.currentToken(), JsonToken.START_ARRAY);
+                                parser.nextToken();
+                                lng = parser.getDoubleValue();
+                                parser.nextToken();
+                                lat = parser.getDoubleValue();
+                                expect(parser.nextToken(), JsonToken.END_ARRAY);
+                            }
+                            default -> parser.skipChildren();
+                        }
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+        return new StepBody(name, distance, type, modifier, lng, lat);
+    }
+
+    //waypoints[i] 객체: location, distance, name만 읽음 (hint, nodes 등은 skip)
+    private static NearestBody readNearestWaypoint(JsonParser parser) throws IOException {
+        double lng = 0;
+        double lat = 0;
+        double distance = 0;
+        String name = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "location" -> {
+                    expect(parser.currentToken(), JsonToken.START_ARRAY);
+                    parser.nextToken();
+                    lng = parser.getDoubleValue();
+                    parser.nextToken();
+                    lat = parser.getDoubleValue();
+                    expect(parser.nextToken(), JsonToken.END_ARRAY);
+                }
+                case "distance" -> distance = parser.getDoubleValue();
+                case "name" -> name = parser.getValueAsString();
+                default -> parser.skipChildren();
+            }
+        }
+        return new NearestBody(null, true, lng, lat, distance, name);
+    }
+
+    //배열의 첫 번째 객체만 reader로 읽고, 나머지 원소는 객체를 만들지 않고 건너뜀
+    private static <T> T readFirst(JsonParser parser, ElementReader<T> reader) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return null;
+        }
+
+        T first = null;
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+            if (first == null && token == JsonToken.START_OBJECT) {
+                first = reader.read(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return first;
+    }
+
+    private static void expect(JsonToken actual, JsonToken expected) throws IOException {
+        if (actual != expected) {
+            throw new IOException("Expected " + expected + " but was " + actual);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ElementReader<T> {
+        T read(JsonParser parser) throws IOException;
+    }
+
+    /** route 응답에서 필요한 값만 담은 결과 (found=false면 routes가 비어 있음, geometry는 [lat, lng, ...]) */
+    record RouteBody(String code, boolean found, double distance, double duration, double[] geometry,
+                     List<StepBody> steps) {
+    }
+
+    /** route step 하나의 안내 생성에 필요한 값 */
+    record StepBody(String name, double distance, String maneuverType, String modifier, double lng, double lat) {
+    }
+
+    /** match 응답에서 필요한 값만 담은 결과 (tracepoints의 null은 정합되지 않은 좌표) */
+    record MatchBody(String code, List<TracepointBody> tracepoints, List<MatchingBody> matchings) {
+    }
+
+    /** 정합된 좌표 하나 (matchingIndex는 이 응답의 matchings 안에서의 위치) */
+    record TracepointBody(double lng, double lat, double distance, String name, int matchingIndex) {
+    }
+
+    /** 연속으로 정합된 구간 하나의 신뢰도, 거리, 지나간 도로 순서 */
+    record MatchingBody(double confidence, double distance, List<String> roads) {
+    }
+
+    /** nearest 응답에서 필요한 값만 담은 결과 (found=false면 waypoints가 비어 있음) */
+    record NearestBody(String code, boolean found, double lng, double lat, double distance, String name) {
+    }
+}
@@ -0,0 +1,384 @@
+package com.navblind.server.integration;
+
+import com.navblind.server.config.LaneLimit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 업스트림 하나의 동시 요청 수를 우선순위 레인별로 나눠 제한하는 bulkhead
+ * (출퇴근 시간처럼 새 경로 요청이 몰려도 경로를 벗어난 사용자의 재탐색이 뒤로 밀리지 않도록 함)
+ *
+ * - 레인마다 최대 동시 요청 수(maxConcurrency)와 대기열 길이(maxQueue)를 따로 둠
+ * - reserved개의 자리는 가장 우선순위가 높은 레인만 쓸 수 있음 (나머지 레인은 합쳐서 한도 - reserved까지)
+ *   레인별 maxConcurrency의 합이 한도를 넘어도 낮은 레인들이 모든 자리를 차지하지 못하게 함
+ * - 업스트림 전체 동시 요청 수 한도(AdaptiveLimit)에 자리가 나면 우선순위가 높은 레인의 대기 요청부터 보냄
+ *   한도는 응답 시간에 따라 바뀌며, 레인별 동시 요청 수와 대기열 길이도 같은 비율로 줄고 늘어남
+ * - 대기열이 가득 찬 레인의 새 요청은 기다리지 않고 LaneRejectedException으로 실패 (load shedding)
+ * - 레인별 timeout은 대기 시간과 업스트림 응답 시간을 합친 전체 제한 시간
+ *   응답 시간은 한도 조절에 쓰이고, 제한 시간을 넘긴 요청은 한도를 줄이는 신호가 됨
+ * - 대기열에서 maxWait을 넘긴 요청과 호출자가 취소한 요청은 업스트림에 보내지 않고 버림
+ * - 토큰 버킷(rateBucket)이 있으면 자리가 나도 토큰이 있을 때만 보내고, 없으면 다음 토큰이 생길 때 다시 배정
+ *
+ * 메트릭: navblind.lane.active/queued{upstream, lane}, navblind.lane.wait{upstream, lane},
+ *        navblind.lane.rejected{upstream, lane}, navblind.lane.timeouts{upstream, lane},
+ *        navblind.lane.expired{upstream, lane}, navblind.lane.abandoned{upstream, lane},
+ *        navblind.upstream.tokens{upstream}
+ */
+@Slf4j
+public class PriorityLanes {
+
+    private final String upstream;
+    private final AdaptiveLimit limit;
+    //Lane 선언 순서(우선순위 순서)로 정렬됨
+    private final Map<Lane, LaneState> lanes = new EnumMap<>(Lane.class);
+    //가상 스레드 고정(pinning)을 피하기 위해 synchronized 대신 사용
+    private final ReentrantLock lock = new ReentrantLock();
+    //요청 속도 제한 (없으면 null), lock 안에서만 사용
+    private final TokenBucket rateBucket;
+    private int running;
+    //가장 우선순위가 높은 레인 외의 레인들이 함께 쓰는 자리 수 한도 (최대 한도 기준)와 사용 중인 자리 수
+    private final int sharedConcurrency;
+    private int sharedRunning;
+    //토큰이 없어 다음 배정을 예약해 두었는지 여부 (lock 안에서만 변경)
+    private boolean wakeupScheduled;
+
+    public PriorityLanes(String upstream, AdaptiveLimit limit, Map<Lane, LaneLimit> limits,
+                         MeterRegistry meterRegistry) {
+        this(upstream, limit, null, limits, 0, meterRegistry);
+    }
+
+    public PriorityLanes(String upstream, AdaptiveLimit limit, TokenBucket rateBucket, Map<Lane, LaneLimit> limits,
+                         MeterRegistry meterRegistry) {
+        this(upstream, limit, rateBucket, limits, 0, meterRegistry);
+    }
+
+    public PriorityLanes(String upstream, AdaptiveLimit limit, TokenBucket rateBucket, Map<Lane, LaneLimit> limits,
+                         int reserved, MeterRegistry meterRegistry) {
+        if (reserved < 0 || reserved >= limit.max()) {
+            throw new IllegalArgumentException("Reserved slots for " + upstream + " must be between 0 and "
+                    + (limit.max() - 1) + ": " + reserved);
+        }
+        this.upstream = upstream;
+        this.limit = limit;
+        this.rateBucket = rateBucket;
+        this.sharedConcurrency = limit.max() - reserved;
+        limits.forEach((lane, laneLimit) -> lanes.put(lane, new LaneState(lane, laneLimit, meterRegistry)));
+        Lane first = lanes.keySet().iterator().next();
+        lanes.values().forEach(state -> state.shared = state.lane != first);
+        if (rateBucket != null) {
+            Gauge.builder("navblind.upstream.tokens", rateBucket, TokenBucket::available)
+                    .description("Rate limit tokens currently available")
+                    .tag("upstream", upstream)
+                    .register(meterRegistry);
+        }
+        log.info("{} lanes: capacity {}, reserved {} for {}, {}", upstream, limit.max(), reserved, first, limits);
+    }
+
+    /**
+     * lane의 차례가 되면 call을 구독하고, 끝나면(성공/실패/취소) 자리를 다음 대기 요청에 넘깁니다.
+     * 반환되는 Mono는 구독 시점에 대기열에 들어갑니다.
+     */
+    public <T> Mono<T> execute(Lane lane, Supplier<Mono<T>> call) {
+        LaneState state = lanes.get(lane);
+        if (state == null) {
+            throw new IllegalArgumentException("Lane " + lane + " is not configured for " + upstream);
+        }
+        Duration timeout = state.limit.timeout();
+        Duration maxWait = state.limit.maxWait() != null && state.limit.maxWait().compareTo(timeout) < 0
+                ? state.limit.maxWait()
+                : timeout;
+        return Mono.usingWhen(
+                        acquire(state)
+                                .timeout(maxWait)
+                                .doOnError(TimeoutException.class, e -> state.expired.increment()),
+                        permit -> call.get().timeout(permit.remaining(timeout)),
+                        permit -> release(permit, Completion.SUCCEEDED),
+                        (permit, error) -> release(permit,
+                                error instanceof TimeoutException ? Completion.TIMED_OUT : Completion.FAILED),
+                        permit -> release(permit, Completion.FAILED))
+                .doOnError(TimeoutException.class, e -> state.timeouts.increment());
+    }
+
+    //자리를 얻으면 대기 정보(Waiter)를 값으로 내보내는 Mono, 대기 중 취소되면 대기열에서 빠짐
+    private Mono<Waiter> acquire(LaneState state) {
+        return Mono.create(sink -> {
+            Waiter waiter = new Waiter(state, sink, System.nanoTime());
+            sink.onCancel(() -> cancel(waiter));
+
+            List<Waiter> granted;
+            lock.lock();
+            try {
+                if (waiter.cancelled) {
+                    return;
+                }
+                if (state.queue.size() >= scaled(state.limit.maxQueue())) {
+                    granted = null;
+                } else {
+                    state.queue.add(waiter);
+                    state.queued.incrementAndGet();
+                    granted = dispatch();
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (granted == null) {
+                state.rejected.increment();
+                long rttSeconds = (limit.rttNanos() + 999_999_999L) / 1_000_000_000L;
+                sink.error(new LaneRejectedException(upstream, state.lane, (int) Math.max(1, rttSeconds)));
+                return;
+            }
+            grant(granted);
+        });
+    }
+
+    //대기 중 취소면 대기열에서 제거, 자리를 받은 직후(구독 전) 취소면 자리를 반납
+    private void cancel(Waiter waiter) {
+        lock.lock();
+        try {
+            waiter.cancelled = true;
+            if (waiter.state.queue.remove(waiter)) {
+                waiter.state.queued.decrementAndGet();
+                waiter.state.abandoned.increment();
+                return;
+            }
+            if (!waiter.granted) {
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        release(waiter, Completion.FAILED).subscribe();
+    }
+
+    //자리를 반납하고 결과를 한도 조절에 반영한 뒤 다음 대기 요청에 자리를 넘김
+    private Mono<Void> release(Waiter permit, Completion completion) {
+        return Mono.fromRunnable(() -> {
+            int inflight;
+            lock.lock();
+            try {
+                inflight = running--;
+                if (permit.state.shared) {
+                    sharedRunning--;
+                }
+                permit.state.active.decrementAndGet();
+            } finally {
+                lock.unlock();
+            }
+
+            // 취소나 빠른 실패(연결 거부 등)는 업스트림이 얼마나 붐비는지 알려주지 않으므로 반영하지 않음
+            if (completion == Completion.SUCCEEDED) {
+                limit.onSample(System.nanoTime() - permit.grantedAt, inflight);
+            } else if (completion == Completion.TIMED_OUT) {
+                limit.onDrop();
+            }
+
+            List<Waiter> granted;
+            lock.lock();
+            try {
+                granted = dispatch();
+            } finally {
+                lock.unlock();
+            }
+            grant(granted);
+        });
+    }
+
+    //빈 자리에 우선순위가 높은 레인의 대기 요청부터 배정 (lock 안에서 호출)
+    private List<Waiter> dispatch() {
+        List<Waiter> granted = List.of();
+        int capacity = limit.current();
+        int sharedCapacity = scaled(sharedConcurrency);
+        while (running < capacity) {
+            LaneState next = null;
+            for (LaneState state : lanes.values()) {
+                if (!state.queue.isEmpty() && state.active.get() < scaled(state.limit.maxConcurrency())
+                        && (!state.shared || sharedRunning < sharedCapacity)) {
+                    next = state;
+                    break;
+                }
+            }
+            if (next == null || !takeToken()) {
+                break;
+            }
+            Waiter waiter = next.queue.poll();
+            next.queued.decrementAndGet();
+            next.active.incrementAndGet();
+            running++;
+            if (next.shared) {
+                sharedRunning++;
+            }
+            waiter.granted = true;
+            if (granted.isEmpty()) {
+                granted = new ArrayList<>();
+            }
+            granted.add(waiter);
+        }
+        return granted;
+    }
+
+    //토큰을 하나 쓰고 true, 토큰이 없으면 다음 토큰이 생기는 시점에 배정을 예약하고 false (lock 안에서 호출)
+    private boolean takeToken() {
+        if (rateBucket == null) {
+            return true;
+        }
+        long now = System.nanoTime();
+        if (rateBucket.tryAcquire(now)) {
+            return true;
+        }
+        if (!wakeupScheduled) {
+            wakeupScheduled = true;
+            Schedulers.parallel().schedule(this::wakeup, rateBucket.nanosUntilAvailable(now), TimeUnit.NANOSECONDS);
+        }
+        return false;
+    }
+
+    //예약된 시점에 토큰이 생겼으므로 대기 요청을 다시 배정
+    private void wakeup() {
+        List<Waiter> granted;
+        lock.lock();
+        try {
+            wakeupScheduled = false;
+            granted = dispatch();
+        } finally {
+            lock.unlock();
+        }
+        grant(granted);
+    }
+
+    //자리를 받은 요청을 lock 밖에서 시작 (업스트림 호출 구독이 lock을 잡고 일어나지 않도록)
+    private void grant(List<Waiter> granted) {
+        for (Waiter waiter : granted) {
+            waiter.grantedAt = System.nanoTime();
+            waiter.state.waitTime.record(waiter.grantedAt - waiter.enqueuedAt, TimeUnit.NANOSECONDS);
+            waiter.sink.success(waiter);
+        }
+    }
+
+    //설정값(최대 한도 기준)을 현재 한도 비율로 줄인 값 (최소 1)
+    private int scaled(int configured) {
+        return Math.max(1, (int) Math.ceil((double) configured * limit.current() / limit.max()));
+    }
+
+    private final class LaneState {
+
+        private final Lane lane;
+        private final LaneLimit limit;
+        private final ArrayDeque<Waiter> queue = new ArrayDeque<>();
+        private final AtomicInteger active = new AtomicInteger();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final Timer waitTime;
+        private final Counter rejected;
+        private final Counter timeouts;
+        private final Counter expired;
+        private final Counter abandoned;
+        //가장 우선순위가 높은 레인이 아니어서 sharedConcurrency를 함께 쓰는지 (생성 직후 한 번만 설정)
+        private boolean shared;
+
+        private LaneState(Lane lane, LaneLimit limit, MeterRegistry meterRegistry) {
+            this.lane = lane;
+            this.limit = limit;
+            Gauge.builder("navblind.lane.active", active, AtomicInteger::get)
+                    .description("Upstream requests currently running in the lane")
+                    .tag("upstream", upstream)
+                    .tag("lane", lane.tag())
+                    .register(meterRegistry);
+            Gauge.builder("navblind.lane.queued", queued, AtomicInteger::get)
+                    .description("Requests waiting for an upstream slot in the lane")
+                    .tag("upstream", upstream)
+                    .tag("lane", lane.tag())
+                    .register(meterRegistry);
+            this.waitTime = Timer.builder("navblind.lane.wait")
+                    .description("Time spent waiting for an upstream slot")
+                    .tag("upstream", upstream)
+                    .tag("lane", lane.tag())
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry);
+            this.rejected = Counter.builder("navblind.lane.rejected")
+                    .description("Requests rejected because the lane queue was full")
+                    .tag("upstream", upstream)
+                    .tag("lane", lane.tag())
+                    .register(meterRegistry);
+            this.timeouts = Counter.builder("navblind.lane.timeouts")
+                    .description("Requests that exceeded the lane timeout, waiting included")
+                    .tag("upstream", upstream)
+                    .tag("lane", lane.tag())
+                    .register(meterRegistry);
+            this.expired = Counter.builder("navblind.lane.expired")
+                    .description("Requests dropped after waiting longer than the lane max wait")
+                    .tag("upstream", upstream)
+                    .tag("lane", lane.tag())
+                    .register(meterRegistry);
+            this.abandoned = Counter.builder("navblind.lane.abandoned")
+                    .description("Requests removed from the queue before being sent (cancelled or expired)")
+                    .tag("upstream", upstream)
+                    .tag("lane", lane.tag())
+                    .register(meterRegistry);
+        }
+    }
+
+    private enum Completion {
+        SUCCEEDED,
+        TIMED_OUT,
+        FAILED
+    }
+
+    private static final class Waiter {
+
+        private final LaneState state;
+        private final MonoSink<Waiter> sink;
+        private final long enqueuedAt;
+        private volatile long grantedAt;
+        //dispatch에서 자리를 배정받았는지, 취소되었는지 (lock 안에서만 변경)
+        private boolean granted;
+        private boolean cancelled;
+
+        private Waiter(LaneState state, MonoSink<Waiter> sink, long enqueuedAt) {
+            this.state = state;
+            this.sink = sink;
+            this.enqueuedAt = enqueuedAt;
+        }
+
+        //레인 제한 시간에서 대기한 시간을 뺀 나머지 (최소 1ms)
+        private Duration remaining(Duration timeout) {
+            long waited = grantedAt - enqueuedAt;
+            return Duration.ofNanos(Math.max(1_000_000L, timeout.toNanos() - waited));
+        }
+    }
+
+    /**
+     * 레인 대기열이 가득 차서 요청을 받을 수 없는 상태 (503으로 응답)
+     * retryAfterSeconds는 최근 업스트림 응답 시간으로 계산한 재시도 권장 시간입니다.
+     */
+    @lombok.Getter
+    public static class LaneRejectedException extends RuntimeException {
+        private final String upstream;
+        private final Lane lane;
+        private final int retryAfterSeconds;
+
+        public LaneRejectedException(String upstream, Lane lane, int retryAfterSeconds) {
+            super(upstream + " " + lane.tag() + " lane is full");
+            this.upstream = upstream;
+            this.lane = lane;
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+    }
+}
@@ -0,0 +1,434 @@
+package com.navblind.server.integration;
+
+import com.navblind.server.config.ReplicaBalancing;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * 같은 API를 제공하는 여러 업스트림 복제본(osrm-routed 등)에 요청을 나눠 보내는 풀
+ * (재탐색 요청이 느린 복제본 하나 때문에 기다리지 않도록 함)
+ *
+ * - 복제본 선택: 무작위로 두 복제본을 골라 (응답 시간 EWMA) x (진행 중 요청 수 + 1)이 작은 쪽으로 보냄
+ *   EWMA는 느린 응답이 오면 바로 그 값으로 올라가고(peak), 응답이 없으면 시간이 지나며 내려감
+ * - 헤지 요청: 첫 요청이 최근 응답 시간의 hedgePercentile 분위를 넘기면 다른 복제본에 한 번 더 보내고
+ *   먼저 온 응답을 사용, 나머지 요청은 취소함 (maxHedgeRatio로 헤지 비율 제한)
+ * - circuit breaker: 연속 failureThreshold번 실패한 복제본은 openDuration 동안 제외하고,
+ *   그 뒤 실제 요청 하나를 시험(probe)으로 보내 성공하면 다시 포함함
+ *   복제본이 하나뿐이면 제외하지 않음 (제외해도 보낼 곳이 없어 모든 요청이 실패하므로)
+ *   4xx 응답(NoRoute, InvalidQuery 등)은 복제본이 정상 응답한 것으로 보고 실패로 세지 않음
+ *
+ * 메트릭: navblind.upstream.replica.latency/outstanding/state{upstream, replica},
+ *        navblind.upstream.replica.ejected{upstream, replica},
+ *        navblind.upstream.hedged{upstream, result=sent|won}, navblind.upstream.unavailable{upstream}
+ */
+@Slf4j
+public class ReplicaPool {
+
+    //헤지 비율 계산 단위 (요청 하나당 maxHedgeRatio * 1000 크레딧, 헤지 하나에 1000 크레딧 사용)
+    private static final long CREDIT_PER_HEDGE = 1000;
+    //헤지가 몰릴 때 한 번에 쓸 수 있는 최대 헤지 수
+    private static final long MAX_HEDGE_BURST = 10;
+    //헤지 지연 분위를 계산하기 위한 최소 표본 수
+    private static final int MIN_LATENCY_SAMPLES = 20;
+
+    private final String upstream;
+    private final List<Replica> replicas;
+    private final ReplicaBalancing balancing;
+    private final LatencyWindow latencies = new LatencyWindow(512);
+    private final AtomicLong hedgeCredits = new AtomicLong(MAX_HEDGE_BURST * CREDIT_PER_HEDGE);
+    private final Counter hedgesSent;
+    private final Counter hedgesWon;
+    private final Counter unavailable;
+
+    public ReplicaPool(String upstream, List<String> baseUrls, ReplicaBalancing balancing,
+                       MeterRegistry meterRegistry) {
+        if (baseUrls.isEmpty()) {
+            throw new IllegalArgumentException("No replicas configured for " + upstream);
+        }
+        this.upstream = upstream;
+        this.balancing = balancing;
+        this.replicas = new ArrayList<>(baseUrls.size());
+        for (String baseUrl : baseUrls) {
+            Replica replica = new Replica(baseUrl, meterRegistry);
+            replicas.add(replica);
+        }
+        this.hedgesSent = hedgeCounter(meterRegistry, "sent");
+        this.hedgesWon = hedgeCounter(meterRegistry, "won");
+        this.unavailable = Counter.builder("navblind.upstream.unavailable")
+                .description("Requests rejected because every replica was ejected")
+                .tag("upstream", upstream)
+                .register(meterRegistry);
+        log.info("{} replicas: {}", upstream, baseUrls);
+    }
+
+    /**
+     * 복제본 하나를 골라 call(복제본 base URL)을 실행하고, 느리면 다른 복제본으로 헤지합니다.
+     * 반환되는 Mono는 구독 시점에 동작하며, 모든 복제본이 제외된 상태면 NoHealthyReplicaException으로 실패합니다.
+     */
+    public <T> Mono<T> execute(Function<String, Mono<T>> call) {
+        return Mono.defer(() -> {
+            Replica primary = choose(null);
+            if (primary == null) {
+                unavailable.increment();
+                return Mono.error(new NoHealthyReplicaException(upstream, retryAfterSeconds()));
+            }
+
+            Mono<Outcome<T>> first = attempt(primary, call);
+            if (!balancing.hedgeEnabled() || replicas.size() < 2) {
+                return unwrap(first);
+            }
+
+            earnHedgeCredit();
+            Mono<Outcome<T>> hedge = Mono.delay(hedgeDelay())
+                    .then(Mono.defer(() -> {
+                        Replica secondary = choose(primary);
+                        if (secondary == null || !spendHedgeCredit()) {
+                            return Mono.empty();
+                        }
+                        hedgesSent.increment();
+                        return attempt(secondary, call).doOnNext(outcome -> hedgesWon.increment());
+                    }));
+
+            // 먼저 값을 낸 쪽을 사용하고 나머지는 취소 (아직 시작 전인 헤지는 보내지 않음)
+            return unwrap(Mono.firstWithValue(first, hedge)
+                    .onErrorMap(NoSuchElementException.class, ReplicaPool::firstFailure));
+        });
+    }
+
+    //복제본 하나에 요청을 보내고 결과를 복제본 상태(EWMA, circuit breaker)에 반영
+    //빈 응답과 4xx 응답도 "응답을 받은 것"이므로 값(Outcome)으로 바꿔 다른 복제본 응답을 기다리지 않게 함
+    private <T> Mono<Outcome<T>> attempt(Replica replica, Function<String, Mono<T>> call) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            replica.outstanding.incrementAndGet();
+            return call.apply(replica.baseUrl)
+                    .map(value -> new Outcome<T>(value, null))
+                    .defaultIfEmpty(new Outcome<>(null, null))
+                    .onErrorResume(ReplicaPool::isAnswer, e -> Mono.just(new Outcome<>(null, e)))
+                    .doOnNext(outcome -> {
+                        long latency = System.nanoTime() - start;
+                        latencies.record(latency);
+                        replica.succeeded(latency);
+                    })
+                    .doOnError(e -> replica.failed(System.nanoTime() - start, e))
+                    // 헤지 경쟁에서 져서 취소된 요청도 최소한 그만큼은 걸린 것이므로 EWMA에 반영
+                    .doOnCancel(() -> replica.cancelled(System.nanoTime() - start))
+                    .doFinally(signal -> replica.outstanding.decrementAndGet());
+        });
+    }
+
+    private static <T> Mono<T> unwrap(Mono<Outcome<T>> outcome) {
+        return outcome.flatMap(result -> result.error() != null
+                ? Mono.error(result.error())
+                : Mono.justOrEmpty(result.value()));
+    }
+
+    //exclude를 제외한 복제본 중 하나를 고름, 시험 요청을 보낼 차례인 복제본이 있으면 그쪽을 우선 사용
+    private Replica choose(Replica exclude) {
+        long now = System.nanoTime();
+        List<Replica> candidates = new ArrayList<>(replicas.size());
+        for (Replica replica : replicas) {
+            if (replica == exclude) {
+                continue;
+            }
+            if (replica.tryProbe(now)) {
+                return replica;
+            }
+            if (replica.isClosed()) {
+                candidates.add(replica);
+            }
+        }
+
+        if (candidates.isEmpty()) {
+            return null;
+        }
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+
+        // power of two choices: 가장 좋은 하나에 요청이 몰리지 않도록 무작위 두 개 중 비용이 낮은 쪽
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int a = random.nextInt(candidates.size());
+        int b = random.nextInt(candidates.size() - 1);
+        if (b >= a) {
+            b++;
+        }
+        Replica first = candidates.get(a);
+        Replica second = candidates.get(b);
+        return first.cost(now) <= second.cost(now) ? first : second;
+    }
+
+    //가장 먼저 제외가 끝나는 복제본까지 남은 시간 (초 단위 올림, 최소 1초)
+    private int retryAfterSeconds() {
+        long now = System.nanoTime();
+        long soonest = Long.MAX_VALUE;
+        for (Replica replica : replicas) {
+            long until = replica.openUntil;
+            if (until != 0) {
+                soonest = Math.min(soonest, Math.max(0, until - now));
+            }
+        }
+        if (soonest == Long.MAX_VALUE) {
+            return 1;
+        }
+        return (int) Math.max(1, (soonest + 999_999_999) / 1_000_000_000);
+    }
+
+    //최근 응답 시간의 hedgePercentile 분위 (minHedgeDelay ~ maxHedgeDelay 범위)
+    private Duration hedgeDelay() {
+        long percentile = latencies.percentile(balancing.hedgePercentile());
+        if (percentile < 0) {
+            return balancing.maxHedgeDelay();
+        }
+        long min = balancing.minHedgeDelay().toNanos();
+        long max = balancing.maxHedgeDelay().toNanos();
+        return Duration.ofNanos(Math.max(min, Math.min(max, percentile)));
+    }
+
+    private void earnHedgeCredit() {
+        long earned = Math.round(balancing.maxHedgeRatio() * CREDIT_PER_HEDGE);
+        hedgeCredits.updateAndGet(credits -> Math.min(MAX_HEDGE_BURST * CREDIT_PER_HEDGE, credits + earned));
+    }
+
+    private boolean spendHedgeCredit() {
+        while (true) {
+            long credits = hedgeCredits.get();
+            if (credits < CREDIT_PER_HEDGE) {
+                return false;
+            }
+            if (hedgeCredits.compareAndSet(credits, credits - CREDIT_PER_HEDGE)) {
+                return true;
+            }
+        }
+    }
+
+    //4xx는 복제본이 요청을 처리하고 돌려준 응답이므로 다른 복제본에 보내도 결과가 같음
+    private static boolean isAnswer(Throwable e) {
+        return e instanceof WebClientResponseException response && response.getStatusCode().is4xxClientError();
+    }
+
+    //모든 요청이 실패했을 때 firstWithValue가 만든 예외 대신 첫 번째 실제 실패 원인을 전달
+    private static Throwable firstFailure(NoSuchElementException e) {
+        if (e.getCause() == null) {
+            return e;
+        }
+        return Exceptions.unwrapMultiple(e.getCause()).stream()
+                .filter(cause -> cause != null)
+                .findFirst()
+                .orElse(e);
+    }
+
+    private Counter hedgeCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("navblind.upstream.hedged")
+                .description("Hedged duplicate requests sent to a second replica, and how many of them answered first")
+                .tag("upstream", upstream)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    //복제본 하나의 응답 시간, 진행 중 요청 수, circuit breaker 상태
+    private final class Replica {
+
+        private final String baseUrl;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        //제외가 끝나는 시각 (System.nanoTime 기준, 0이면 정상)
+        private volatile long openUntil;
+        //제외 시간이 끝난 뒤 시험 요청이 진행 중인지
+        private final AtomicBoolean probing = new AtomicBoolean();
+        private final Counter ejected;
+
+        //EWMA와 마지막 관측 시각을 함께 갱신 (가상 스레드 고정을 피하기 위해 synchronized 대신 사용)
+        private final ReentrantLock lock = new ReentrantLock();
+        private double latencyEwma;
+        private long lastObserved = System.nanoTime();
+
+        private Replica(String baseUrl, MeterRegistry meterRegistry) {
+            this.baseUrl = baseUrl;
+            this.ejected = Counter.builder("navblind.upstream.replica.ejected")
+                    .description("Times the replica was ejected by its circuit breaker")
+                    .tag("upstream", upstream)
+                    .tag("replica", baseUrl)
+                    .register(meterRegistry);
+            Gauge.builder("navblind.upstream.replica.latency", this, r -> r.cost(System.nanoTime()) / 1_000_000.0)
+                    .description("Decayed peak EWMA of replica response time in milliseconds")
+                    .tag("upstream", upstream)
+                    .tag("replica", baseUrl)
+                    .register(meterRegistry);
+            Gauge.builder("navblind.upstream.replica.outstanding", outstanding, AtomicInteger::get)
+                    .description("Requests currently in flight to the replica")
+                    .tag("upstream", upstream)
+                    .tag("replica", baseUrl)
+                    .register(meterRegistry);
+            Gauge.builder("navblind.upstream.replica.state", this, Replica::state)
+                    .description("Circuit breaker state: 0 closed, 1 open, 2 half-open")
+                    .tag("upstream", upstream)
+                    .tag("replica", baseUrl)
+                    .register(meterRegistry);
+        }
+
+        private boolean isClosed() {
+            return openUntil == 0;
+        }
+
+        //제외 시간이 지났고 아직 시험 요청이 없으면 이번 요청을 시험 요청으로 사용
+        private boolean tryProbe(long now) {
+            long until = openUntil;
+            return until != 0 && now >= until && probing.compareAndSet(false, true);
+        }
+
+        private double state() {
+            long until = openUntil;
+            if (until == 0) {
+                return 0;
+            }
+            return System.nanoTime() < until ? 1 : 2;
+        }
+
+        //(EWMA + 1ms) x (진행 중 요청 수 + 1), 아직 응답이 없는 복제본에 요청이 한꺼번에 몰리지 않도록 1ms를 더함
+        private double cost(long now) {
+            return (decayed(0, now) + 1_000_000.0) * (outstanding.get() + 1);
+        }
+
+        private void succeeded(long latency) {
+            decayed(latency, System.nanoTime());
+            consecutiveFailures.set(0);
+            if (openUntil != 0) {
+                openUntil = 0;
+                probing.set(false);
+                log.info("{} replica {} passed probe, back in rotation", upstream, baseUrl);
+            }
+        }
+
+        private void failed(long latency, Throwable error) {
+            decayed(latency, System.nanoTime());
+            if (probing.get()) {
+                openUntil = System.nanoTime() + balancing.openDuration().toNanos();
+                probing.set(false);
+                log.warn("{} replica {} failed probe: {}", upstream, baseUrl, error.getMessage());
+                return;
+            }
+            // 하나뿐인 복제본은 제외하지 않고 계속 요청을 보냄
+            if (consecutiveFailures.incrementAndGet() >= balancing.failureThreshold() && openUntil == 0
+                    && replicas.size() > 1) {
+                openUntil = System.nanoTime() + balancing.openDuration().toNanos();
+                ejected.increment();
+                log.warn("{} replica {} ejected after {} consecutive failures: {}",
+                        upstream, baseUrl, consecutiveFailures.get(), error.getMessage());
+            }
+        }
+
+        //취소된 시험 요청은 결과를 모르므로 다음 요청이 다시 시험하도록 풀어줌
+        private void cancelled(long elapsed) {
+            decayed(elapsed, System.nanoTime());
+            probing.set(false);
+        }
+
+        //peak EWMA: 더 느린 표본은 바로 반영, 그 외에는 마지막 관측 이후 시간만큼 감쇠하며 평균
+        //sample 0으로 호출하면 시간에 따른 감쇠만 적용됨 (한동안 선택되지 않은 복제본에 다시 기회를 줌)
+        private double decayed(long sample, long now) {
+            lock.lock();
+            try {
+                double weight = Math.exp(-(double) Math.max(0, now - lastObserved) / balancing.latencyDecay().toNanos());
+                lastObserved = now;
+                if (sample > latencyEwma) {
+                    latencyEwma = sample;
+                } else {
+                    latencyEwma = latencyEwma * weight + sample * (1 - weight);
+                }
+                return latencyEwma;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    //최근 응답 시간 표본 (헤지 지연 계산용), 분위 값은 표본이 일정 개수 쌓일 때마다 다시 계산
+    private static final class LatencyWindow {
+
+        private static final int RECOMPUTE_EVERY = 64;
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final long[] samples;
+        private int next;
+        private int size;
+        private int sinceComputed;
+        private double computedFraction = -1;
+        private long computed = -1;
+
+        private LatencyWindow(int capacity) {
+            this.samples = new long[capacity];
+        }
+
+        private void record(long latency) {
+            lock.lock();
+            try {
+                samples[next] = latency;
+                next = (next + 1) % samples.length;
+                size = Math.min(size + 1, samples.length);
+                sinceComputed++;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        //표본이 부족하면 -1
+        private long percentile(double fraction) {
+            lock.lock();
+            try {
+                if (size < MIN_LATENCY_SAMPLES) {
+                    return -1;
+                }
+                if (computed < 0 || sinceComputed >= RECOMPUTE_EVERY || fraction != computedFraction) {
+                    long[] sorted = Arrays.copyOf(samples, size);
+                    Arrays.sort(sorted);
+                    int index = (int) Math.min(size - 1, Math.max(0, Math.ceil(size * fraction) - 1));
+                    computed = sorted[index];
+                    computedFraction = fraction;
+                    sinceComputed = 0;
+                }
+                return computed;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    //복제본 하나의 결과 (값, 4xx 오류, 또는 둘 다 없으면 빈 응답)
+    private record Outcome<T>(T value, Throwable error) {
+    }
+
+    /**
+     * 모든 복제본이 circuit breaker로 제외된 상태
+     * retryAfterSeconds는 가장 먼저 시험 요청을 받을 수 있는 복제본까지 남은 시간입니다.
+     */
+    @Getter
+    public static class NoHealthyReplicaException extends RuntimeException {
+        private final String upstream;
+        private final int retryAfterSeconds;
+
+        public NoHealthyReplicaException(String upstream, int retryAfterSeconds) {
+            super("No healthy " + upstream + " replica available");
+            this.upstream = upstream;
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+    }
+}
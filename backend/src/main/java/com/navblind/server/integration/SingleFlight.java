@@ -0,0 +1,77 @@
+package com.navblind.server.integration;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 동일한 업스트림 요청이 동시에 여러 번 들어오면 실제 호출은 한 번만 하고 결과를 공유하는 레지스트리
+ * (버스가 정류장에 도착했을 때처럼 거의 같은 좌표로 요청이 몰리는 상황 대비)
+ *
+ * - 같은 키로 진행 중인 호출이 있으면 나중에 온 호출자는 그 결과에 합류함
+ * - 한 호출자가 구독을 취소해도 공유 호출은 취소되지 않음 (다른 호출자를 위해 끝까지 진행)
+ * - 호출이 끝나면(성공/실패/빈 결과) 키는 바로 제거되므로 결과를 캐싱하지는 않음
+ * - 추적 중인 키가 maxInFlight개를 넘으면 합치지 않고 바로 호출하여 메모리 사용을 제한함
+ *
+ * 메트릭: navblind.upstream.inflight{upstream}, navblind.upstream.coalesced{upstream}
+ */
+public class SingleFlight<T> {
+
+    private final Map<String, CompletableFuture<T>> inFlight = new ConcurrentHashMap<>();
+    private final int maxInFlight;
+    private final Counter coalesced;
+
+    public SingleFlight(String upstream, int maxInFlight, MeterRegistry meterRegistry) {
+        this.maxInFlight = maxInFlight;
+        this.coalesced = Counter.builder("navblind.upstream.coalesced")
+                .description("Requests that joined an identical in-flight upstream call")
+                .tag("upstream", upstream)
+                .register(meterRegistry);
+        Gauge.builder("navblind.upstream.inflight", inFlight, Map::size)
+                .description("Distinct upstream calls currently in flight")
+                .tag("upstream", upstream)
+                .register(meterRegistry);
+    }
+
+    /**
+     * key로 진행 중인 호출이 있으면 합류하고, 없으면 call로 새 호출을 시작합니다.
+     * 반환되는 Mono는 구독 시점에 동작합니다.
+     */
+    public Mono<T> execute(String key, Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            CompletableFuture<T> existing = inFlight.get(key);
+            if (existing != null) {
+                coalesced.increment();
+                return Mono.fromFuture(existing, true);
+            }
+
+            if (inFlight.size() >= maxInFlight) {
+                return call.get();
+            }
+
+            CompletableFuture<T> promise = new CompletableFuture<>();
+            CompletableFuture<T> raced = inFlight.putIfAbsent(key, promise);
+            if (raced != null) {
+                coalesced.increment();
+                return Mono.fromFuture(raced, true);
+            }
+
+            // 완료되면 레지스트리에서 제거 (동기적으로 완료되는 경우를 위해 구독 전에 등록)
+            promise.whenComplete((result, error) -> inFlight.remove(key, promise));
+
+            // call이 Mono를 만들다 바로 예외를 던져도 promise가 실패로 완료되어 키가 남지 않도록 defer로 감쌈
+            Mono.defer(call).subscribe(
+                    promise::complete,
+                    promise::completeExceptionally,
+                    () -> promise.complete(null));
+
+            return Mono.fromFuture(promise, true);
+        });
+    }
+}
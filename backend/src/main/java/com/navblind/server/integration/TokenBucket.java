@@ -0,0 +1,52 @@
+package com.navblind.server.integration;
+
+/**
+ * 초당 rate개씩 채워지고 최대 burst개까지 쌓이는 토큰 버킷 (업스트림 요청 속도 제한)
+ * 스레드 안전하지 않으므로 호출하는 쪽(PriorityLanes)의 lock 안에서만 사용합니다.
+ */
+public class TokenBucket {
+
+    private final double tokensPerNano;
+    private final double burst;
+    private double tokens;
+    private long refilledAt;
+
+    public TokenBucket(double ratePerSecond, int burst) {
+        this.tokensPerNano = ratePerSecond / 1_000_000_000.0;
+        this.burst = Math.max(1, burst);
+        this.tokens = this.burst;
+        this.refilledAt = System.nanoTime();
+    }
+
+    /**
+     * 토큰이 있으면 하나 쓰고 true, 없으면 false를 반환합니다.
+     */
+    public boolean tryAcquire(long now) {
+        refill(now);
+        if (tokens >= 1) {
+            tokens -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 다음 토큰이 생길 때까지 남은 시간 (나노초, 지금 있으면 0)
+     */
+    public long nanosUntilAvailable(long now) {
+        refill(now);
+        return tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) / tokensPerNano);
+    }
+
+    /**
+     * 지금 쓸 수 있는 토큰 수 (메트릭용 근사값, 상태를 바꾸지 않음)
+     */
+    public double available() {
+        return Math.min(burst, tokens + (System.nanoTime() - refilledAt) * tokensPerNano);
+    }
+
+    private void refill(long now) {
+        tokens = Math.min(burst, tokens + (now - refilledAt) * tokensPerNano);
+        refilledAt = now;
+    }
+}
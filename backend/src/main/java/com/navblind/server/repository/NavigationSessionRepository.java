@@ -2,13 +2,16 @@ package com.navblind.server.repository;
 
 import com.navblind.server.entity.NavigationSession;
 import com.navblind.server.entity.NavigationSession.SessionStatus;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -21,6 +24,9 @@ public interface NavigationSessionRepository extends JpaRepository<NavigationSes
     //세션ID가 해당 유저의 소유인지를 확인
     Optional<NavigationSession> findByIdAndUserId(UUID id, UUID userId);
 
+    //세션이 해당 유저의 소유인지만 확인 (엔티티를 읽지 않음)
+    boolean existsByIdAndUserId(UUID id, UUID userId);
+
     //사용자가 현재 진행 중인 네비게이션이 있는지 확인
     @Query("SELECT ns FROM NavigationSession ns WHERE ns.user.id = :userId AND ns.status = :status")
     Optional<NavigationSession> findActiveSession(@Param("userId") UUID userId, @Param("status") SessionStatus status);
@@ -29,8 +35,53 @@ public interface NavigationSessionRepository extends JpaRepository<NavigationSes
         return findActiveSession(userId, SessionStatus.ACTIVE);
     }
 
-    //사용자의 네비 이력을 최신순으로 가져옴
-    Page<NavigationSession> findByUserIdOrderByStartedAtDesc(UUID userId, Pageable pageable);
+    //사용자의 진행 중인 세션을 모두 종료 상태로 바꿈 (엔티티를 읽지 않고 UPDATE 한 번으로 처리, 바뀐 행 수 반환)
+    @Modifying
+    @Query("UPDATE NavigationSession ns SET ns.status = :status, ns.completedAt = :completedAt, ns.version = ns.version + 1 " +
+           "WHERE ns.user.id = :userId AND ns.status = 'ACTIVE'")
+    int closeActiveSessions(@Param("userId") UUID userId,
+                            @Param("status") SessionStatus status,
+                            @Param("completedAt") LocalDateTime completedAt);
+
+    //주어진 세션 중 아직 진행 중인 것을 종료 상태로 바꿈 (만료된 안내 정리용)
+    @Modifying
+    @Query("UPDATE NavigationSession ns SET ns.status = :status, ns.completedAt = :completedAt, ns.version = ns.version + 1 " +
+           "WHERE ns.id IN :ids AND ns.status = 'ACTIVE'")
+    int closeSessions(@Param("ids") Collection<UUID> ids,
+                      @Param("status") SessionStatus status,
+                      @Param("completedAt") LocalDateTime completedAt);
+
+    //진행 중인 세션의 재탐색 횟수를 1 늘리고 거리를 갱신 (DB에서 더하므로 동시 재탐색도 빠짐없이 반영)
+    @Modifying
+    @Query("UPDATE NavigationSession ns SET ns.rerouteCount = ns.rerouteCount + 1, ns.distanceMeters = :distanceMeters, " +
+           "ns.version = ns.version + 1 WHERE ns.id = :id AND ns.status = 'ACTIVE'")
+    int recordReroute(@Param("id") UUID id, @Param("distanceMeters") int distanceMeters);
+
+    //사용자의 네비 이력 첫 페이지를 최신순으로 가져옴 (idx_session_user_history, 응답에 필요한 컬럼만 읽음)
+    //시작 시각이 같은 세션은 id 역순으로 정렬해 커서 위치가 하나로 정해지게 함
+    @Query("SELECT new com.navblind.server.repository.SessionHistoryRow(" +
+           "ns.id, ns.destName, ns.status, ns.distanceMeters, ns.startedAt, ns.completedAt, ns.rerouteCount) " +
+           "FROM NavigationSession ns WHERE ns.user.id = :userId " +
+           "ORDER BY ns.startedAt DESC, ns.id DESC")
+    List<SessionHistoryRow> findHistory(@Param("userId") UUID userId, Limit limit);
+
+    //커서(이전 페이지 마지막 세션의 시작 시각, id) 다음부터 가져옴 (keyset pagination)
+    //OFFSET처럼 앞 행을 읽고 버리지 않으므로 이력이 많아도 페이지마다 읽는 행 수가 같음
+    //startedAt <= :startedAt 조건은 인덱스 범위 검색에 쓰이고, 나머지 조건은 같은 시각의 세션만 거름
+    @Query("SELECT new com.navblind.server.repository.SessionHistoryRow(" +
+           "ns.id, ns.destName, ns.status, ns.distanceMeters, ns.startedAt, ns.completedAt, ns.rerouteCount) " +
+           "FROM NavigationSession ns WHERE ns.user.id = :userId AND ns.startedAt <= :startedAt " +
+           "AND (ns.startedAt < :startedAt OR ns.id < :id) " +
+           "ORDER BY ns.startedAt DESC, ns.id DESC")
+    List<SessionHistoryRow> findHistoryBefore(@Param("userId") UUID userId,
+                                              @Param("startedAt") LocalDateTime startedAt,
+                                              @Param("id") UUID id,
+                                              Limit limit);
+
+    //사용자의 세션 수를 최대 cap개까지만 셈 (이력이 많은 사용자도 COUNT 비용이 일정하도록)
+    @Query(value = "SELECT COUNT(*) FROM (SELECT 1 FROM navigation_sessions WHERE user_id = :userId LIMIT :cap) capped",
+           nativeQuery = true)
+    long countByUserIdUpTo(@Param("userId") UUID userId, @Param("cap") int cap);
 
     //사용자가 성공적으로 도착한 횟수를 나타냄
     @Query("SELECT COUNT(ns) FROM NavigationSession ns WHERE ns.user.id = :userId AND ns.status = 'COMPLETED'")
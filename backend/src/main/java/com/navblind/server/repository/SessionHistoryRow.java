@@ -0,0 +1,19 @@
+package com.navblind.server.repository;
+
+import com.navblind.server.entity.NavigationSession.SessionStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * 네비 이력 목록에 필요한 컬럼만 읽는 projection (NavigationSession 엔티티와 User 프록시를 만들지 않음)
+ */
+public record SessionHistoryRow(
+        UUID id,
+        String destName,
+        SessionStatus status,
+        Integer distanceMeters,
+        LocalDateTime startedAt,
+        LocalDateTime completedAt,
+        Integer rerouteCount
+) {}
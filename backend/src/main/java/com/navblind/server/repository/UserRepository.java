@@ -1,7 +1,9 @@
 package com.navblind.server.repository;
 
 import com.navblind.server.entity.User;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -24,4 +26,9 @@ public interface UserRepository extends JpaRepository<User, UUID> {
 
     //해당 UID로 이미 가입했는 지를 확인
     boolean existsByFirebaseUid(String firebaseUid);
+
+    //사용자를 가져오면서 트랜잭션 커밋 시 버전을 강제로 올림 (수정할 필드가 없어도 버전 검사 + 증가)
+    //같은 사용자에 대한 세션 생성이 동시에 커밋되면 하나만 성공함
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    Optional<User> findWithVersionIncrementById(UUID id);
 }
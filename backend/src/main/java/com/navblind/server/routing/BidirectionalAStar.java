@@ -0,0 +1,345 @@
+package com.navblind.server.routing;
+
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 보행자 그래프용 양방향 A* 탐색
+ *
+ * 정방향/역방향 탐색이 같은 기준을 쓰도록 평균 포텐셜을 사용:
+ *   p_f(v) = (h_t(v) - h_s(v)) / 2,  p_r(v) = -p_f(v)
+ * (h_s, h_t는 출발/도착 snap 지점까지의 직선거리)
+ * 두 힙의 최소 키 합이 현재까지의 최단 거리 μ 이상이 되면 탐색을 멈춤
+ *
+ * 출발/도착은 노드가 아니라 간선 위의 점이므로 간선 양 끝 노드를
+ * (snap 지점까지 거리)를 초기 거리로 하여 동시에 시작점으로 넣음
+ *
+ * 탐색용 배열(거리, 부모, 힙)은 노드 수만큼 크므로 요청마다 만들지 않고 풀에서 재사용하며,
+ * 세대 번호(generation)로 초기화 비용 없이 이전 탐색 값을 무시함
+ */
+final class BidirectionalAStar {
+
+    //같은 간선 위 직행 경로를 나타내는 meet 값
+    static final int DIRECT = -2;
+
+    //직선거리가 간선 가중치(하버사인 거리)를 넘지 않도록 약간 줄여서 사용
+    private static final double HEURISTIC_SCALE = 0.99;
+    private static final double METERS_PER_DEGREE = 111_320.0;
+    private static final int MAX_POOLED = 8;
+
+    private final PedestrianGraph graph;
+    private final Queue<SearchSpace> pool = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooled = new AtomicInteger();
+
+    BidirectionalAStar(PedestrianGraph graph) {
+        this.graph = graph;
+    }
+
+    /**
+     * 두 snap 지점 사이의 최단 경로를 찾습니다.
+     * 경로가 없거나 maxSettled개보다 많은 노드를 확정해야 하면 null을 반환합니다.
+     */
+    Path search(EdgeSnap from, EdgeSnap to, int maxSettled) {
+        SearchSpace space = pool.poll();
+        if (space == null) {
+            space = new SearchSpace(graph.nodeCount());
+        } else {
+            pooled.decrementAndGet();
+        }
+        try {
+            return run(space, from, to, maxSettled);
+        } finally {
+            if (pooled.incrementAndGet() <= MAX_POOLED) {
+                pool.offer(space);
+            } else {
+                pooled.decrementAndGet();
+            }
+        }
+    }
+
+    private Path run(SearchSpace s, EdgeSnap from, EdgeSnap to, int maxSettled) {
+        s.reset();
+        Potential potential = new Potential(from, to);
+
+        double mu = Double.POSITIVE_INFINITY;
+        int meet = -1;
+
+        // 출발/도착이 같은 간선 위에 있으면 간선을 따라 바로 가는 경로가 후보
+        if (from.sameEdge(to)) {
+            mu = Math.abs(from.positionOf(to) - from.t()) * graph.arcWeight(from.arc());
+            meet = DIRECT;
+        }
+
+        float fromWeight = graph.arcWeight(from.arc());
+        float toWeight = graph.arcWeight(to.arc());
+        s.relaxForward(from.source(), fromWeight * from.t(), -1, -1, potential);
+        s.relaxForward(from.target(), fromWeight * (1 - from.t()), -1, -1, potential);
+        s.relaxReverse(to.source(), toWeight * to.t(), -1, -1, potential);
+        s.relaxReverse(to.target(), toWeight * (1 - to.t()), -1, -1, potential);
+
+        for (int node : new int[]{from.source(), from.target()}) {
+            if (s.reachedReverse(node) && s.distF[node] + s.distR[node] < mu) {
+                mu = s.distF[node] + s.distR[node];
+                meet = node;
+            }
+        }
+
+        int settled = 0;
+        while (!s.heapF.isEmpty() && !s.heapR.isEmpty()) {
+            double keyF = s.heapF.peekKey();
+            double keyR = s.heapR.peekKey();
+            if (keyF + keyR >= mu) {
+                break;
+            }
+            if (++settled > maxSettled) {
+                return null;
+            }
+
+            if (keyF <= keyR) {
+                int node = s.heapF.pop();
+                if (keyF > s.distF[node] + potential.forward(node) + 1e-6) {
+                    continue;
+                }
+                for (int arc = graph.firstArc(node); arc < graph.endArc(node); arc++) {
+                    int next = graph.arcTarget(arc);
+                    double d = s.distF[node] + graph.arcWeight(arc);
+                    if (s.relaxForward(next, d, node, arc, potential) && s.reachedReverse(next)
+                            && d + s.distR[next] < mu) {
+                        mu = d + s.distR[next];
+                        meet = next;
+                    }
+                }
+            } else {
+                int node = s.heapR.pop();
+                if (keyR > s.distR[node] - potential.forward(node) + 1e-6) {
+                    continue;
+                }
+                // 보행자 그래프는 양방향 간선이 대칭이므로 역방향 탐색도 같은 간선 목록을 사용
+                for (int arc = graph.firstArc(node); arc < graph.endArc(node); arc++) {
+                    int next = graph.arcTarget(arc);
+                    double d = s.distR[node] + graph.arcWeight(arc);
+                    if (s.relaxReverse(next, d, node, arc, potential) && s.reachedForward(next)
+                            && d + s.distF[next] < mu) {
+                        mu = d + s.distF[next];
+                        meet = next;
+                    }
+                }
+            }
+        }
+
+        if (meet == -1) {
+            return null;
+        }
+        if (meet == DIRECT) {
+            return new Path(new int[0], new int[0], mu);
+        }
+        return s.buildPath(meet, mu);
+    }
+
+    /**
+     * 탐색 결과 경로
+     *
+     * @param nodes 출발 snap 지점 다음부터 도착 snap 지점 전까지 거치는 노드 (같은 간선 직행이면 비어 있음)
+     * @param arcs nodes[i] -> nodes[i+1] 구간의 간선 (길이 nodes.length - 1)
+     * @param weight 경로 가중치 합
+     */
+    record Path(int[] nodes, int[] arcs, double weight) {
+    }
+
+    //평균 포텐셜 계산 (직선거리는 평면 근사)
+    private final class Potential {
+        private final double fromLat;
+        private final double fromLng;
+        private final double toLat;
+        private final double toLng;
+        private final double lngScale;
+
+        private Potential(EdgeSnap from, EdgeSnap to) {
+            this.fromLat = from.lat();
+            this.fromLng = from.lng();
+            this.toLat = to.lat();
+            this.toLng = to.lng();
+            this.lngScale = Math.cos(Math.toRadians((from.lat() + to.lat()) / 2));
+        }
+
+        double forward(int node) {
+            double lat = graph.lat(node);
+            double lng = graph.lng(node);
+            return (distance(lat, lng, toLat, toLng) - distance(lat, lng, fromLat, fromLng)) / 2;
+        }
+
+        private double distance(double lat1, double lng1, double lat2, double lng2) {
+            double dy = (lat2 - lat1) * METERS_PER_DEGREE;
+            double dx = (lng2 - lng1) * lngScale * METERS_PER_DEGREE;
+            return Math.sqrt(dx * dx + dy * dy) * HEURISTIC_SCALE;
+        }
+    }
+
+    //한 번의 탐색에 필요한 배열 묶음 (스레드 하나가 독점해서 사용)
+    private static final class SearchSpace {
+        private final int[] stampF;
+        private final int[] stampR;
+        private final double[] distF;
+        private final double[] distR;
+        private final int[] parentF;
+        private final int[] parentR;
+        private final int[] parentArcF;
+        private final int[] parentArcR;
+        private final MinHeap heapF = new MinHeap();
+        private final MinHeap heapR = new MinHeap();
+        private int generation;
+
+        private SearchSpace(int nodeCount) {
+            this.stampF = new int[nodeCount];
+            this.stampR = new int[nodeCount];
+            this.distF = new double[nodeCount];
+            this.distR = new double[nodeCount];
+            this.parentF = new int[nodeCount];
+            this.parentR = new int[nodeCount];
+            this.parentArcF = new int[nodeCount];
+            this.parentArcR = new int[nodeCount];
+        }
+
+        private void reset() {
+            if (++generation == Integer.MAX_VALUE) {
+                Arrays.fill(stampF, 0);
+                Arrays.fill(stampR, 0);
+                generation = 1;
+            }
+            heapF.clear();
+            heapR.clear();
+        }
+
+        private boolean reachedForward(int node) {
+            return stampF[node] == generation;
+        }
+
+        private boolean reachedReverse(int node) {
+            return stampR[node] == generation;
+        }
+
+        private boolean relaxForward(int node, double d, int parent, int arc, Potential potential) {
+            if (reachedForward(node) && distF[node] <= d) {
+                return false;
+            }
+            stampF[node] = generation;
+            distF[node] = d;
+            parentF[node] = parent;
+            parentArcF[node] = arc;
+            heapF.push(d + potential.forward(node), node);
+            return true;
+        }
+
+        private boolean relaxReverse(int node, double d, int parent, int arc, Potential potential) {
+            if (reachedReverse(node) && distR[node] <= d) {
+                return false;
+            }
+            stampR[node] = generation;
+            distR[node] = d;
+            parentR[node] = parent;
+            parentArcR[node] = arc;
+            heapR.push(d - potential.forward(node), node);
+            return true;
+        }
+
+        //meet 노드에서 양쪽 부모를 따라가며 경로 복원
+        private Path buildPath(int meet, double weight) {
+            int forwardLength = 0;
+            for (int node = meet; node != -1; node = parentF[node]) {
+                forwardLength++;
+            }
+            int reverseLength = 0;
+            for (int node = parentR[meet]; node != -1; node = parentR[node]) {
+                reverseLength++;
+            }
+
+            int[] nodes = new int[forwardLength + reverseLength];
+            int[] arcs = new int[nodes.length - 1];
+
+            int i = forwardLength - 1;
+            for (int node = meet; node != -1; node = parentF[node], i--) {
+                nodes[i] = node;
+                if (i > 0) {
+                    arcs[i - 1] = parentArcF[node];
+                }
+            }
+
+            // 역방향 간선은 (다음 노드 -> 현재 노드) 방향으로 저장되어 있지만 가중치/도로명은 양방향 동일
+            i = forwardLength;
+            for (int node = meet; parentR[node] != -1; node = parentR[node], i++) {
+                arcs[i - 1] = parentArcR[node];
+                nodes[i] = parentR[node];
+            }
+
+            return new Path(nodes, arcs, weight);
+        }
+    }
+
+    //(키, 노드) 이진 최소 힙. 감소 연산 대신 중복 삽입 후 꺼낼 때 오래된 항목을 건너뜀
+    private static final class MinHeap {
+        private double[] keys = new double[256];
+        private int[] values = new int[256];
+        private int size;
+
+        private boolean isEmpty() {
+            return size == 0;
+        }
+
+        private void clear() {
+            size = 0;
+        }
+
+        private double peekKey() {
+            return keys[0];
+        }
+
+        private void push(double key, int value) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (keys[parent] <= key) {
+                    break;
+                }
+                keys[i] = keys[parent];
+                values[i] = values[parent];
+                i = parent;
+            }
+            keys[i] = key;
+            values[i] = value;
+        }
+
+        private int pop() {
+            int top = values[0];
+            size--;
+            if (size > 0) {
+                double key = keys[size];
+                int value = values[size];
+                int i = 0;
+                while (true) {
+                    int child = 2 * i + 1;
+                    if (child >= size) {
+                        break;
+                    }
+                    if (child + 1 < size && keys[child + 1] < keys[child]) {
+                        child++;
+                    }
+                    if (keys[child] >= key) {
+                        break;
+                    }
+                    keys[i] = keys[child];
+                    values[i] = values[child];
+                    i = child;
+                }
+                keys[i] = key;
+                values[i] = value;
+            }
+            return top;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.navblind.server.routing;
+
+/**
+ * 좌표를 그래프 간선 위에 snap한 결과
+ *
+ * @param source 간선 시작 노드
+ * @param target 간선 끝 노드
+ * @param arc source -> target 간선 인덱스
+ * @param t 간선 위 위치 비율 (0이면 source, 1이면 target)
+ * @param lat snap된 위도
+ * @param lng snap된 경도
+ * @param distance 원래 좌표와 snap된 좌표 사이 거리 (미터)
+ */
+public record EdgeSnap(int source, int target, int arc, double t, double lat, double lng, double distance) {
+
+    /** 같은 도로 구간(방향 무관) 위에 있는지 확인합니다. */
+    boolean sameEdge(EdgeSnap other) {
+        return (source == other.source && target == other.target)
+                || (source == other.target && target == other.source);
+    }
+
+    /** 이 간선 방향(source -> target) 기준으로 본 other의 위치 비율 */
+    double positionOf(EdgeSnap other) {
+        return source == other.source ? other.t : 1 - other.t;
+    }
+}
@@ -0,0 +1,287 @@
+package com.navblind.server.routing;
+
+import com.navblind.server.config.EmbeddedRoutingProperties;
+import com.navblind.server.config.EmbeddedRoutingProperties.Mode;
+import com.navblind.server.dto.RouteDto.Instruction;
+import com.navblind.server.dto.RouteDto.Waypoint;
+import com.navblind.server.geo.PolylineCodec;
+import com.navblind.server.geo.RouteLine;
+import com.navblind.server.integration.GuidanceBuilder;
+import com.navblind.server.integration.OsrmClient.NearestResult;
+import com.navblind.server.integration.OsrmClient.OsrmRouteResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 서버 프로세스 안에서 동작하는 보행자 라우터
+ *
+ * OSRM 컨테이너가 내려가 있거나 경로를 주지 못할 때(fallback), 또는 OSRM 없이 통합 테스트를 돌릴 때(primary)
+ * PedestrianGraph + BidirectionalAStar로 경로를 계산하고 OSRM과 같은 OsrmRouteResult 형태로 반환함
+ * 안내 문장은 OsrmClient와 같은 GuidanceBuilder로 만들기 때문에 클라이언트 입장에서는 차이가 없음
+ *
+ * 그래프는 기동 시 한 번 읽고, 읽지 못하면 경고만 남기고 비활성 상태로 동작함 (OSRM 경로에는 영향 없음)
+ *
+ * 메트릭: navblind.route.embedded{result=found|not_found}
+ */
+@Component
+@Slf4j
+public class EmbeddedRouter {
+
+    //이 각도 이상 꺾이면 도로명이 같아도 회전 안내를 넣음
+    private static final double TURN_THRESHOLD_DEGREES = 60;
+
+    //이보다 짧은 구간은 방향 계산에서 제외 (snap 지점이 노드와 겹치는 경우 등)
+    private static final double MIN_SEGMENT_METERS = 0.05;
+
+    private final EmbeddedRoutingProperties properties;
+    private final PedestrianGraph graph;
+    private final BidirectionalAStar search;
+    private final Timer found;
+    private final Timer notFound;
+
+    public EmbeddedRouter(EmbeddedRoutingProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.graph = properties.mode() != Mode.disabled ? loadGraph(properties) : null;
+        this.search = graph != null ? new BidirectionalAStar(graph) : null;
+        this.found = routeTimer(meterRegistry, "found");
+        this.notFound = routeTimer(meterRegistry, "not_found");
+    }
+
+    /** 그래프가 로드되어 경로 계산이 가능한지 여부 */
+    public boolean isAvailable() {
+        return graph != null;
+    }
+
+    /** OSRM 대신 항상 내장 라우터를 사용하는 모드인지 여부 */
+    public boolean isPrimary() {
+        return isAvailable() && properties.mode() == Mode.primary;
+    }
+
+    /**
+     * 출발지부터 목적지까지의 보행 경로를 계산합니다.
+     * 그래프가 없거나, 좌표를 도로에 붙일 수 없거나, 경로가 없으면 null을 반환합니다.
+     */
+    public OsrmRouteResult route(double originLat, double originLng, double destLat, double destLng) {
+        if (!isAvailable()) {
+            return null;
+        }
+
+        long start = System.nanoTime();
+        OsrmRouteResult result = null;
+        try {
+            EdgeSnap from = graph.snap(originLat, originLng, properties.maxSnapMeters());
+            EdgeSnap to = graph.snap(destLat, destLng, properties.maxSnapMeters());
+            if (from == null || to == null) {
+                log.debug("Embedded router could not snap ({}, {}) -> ({}, {})",
+                        originLat, originLng, destLat, destLng);
+                return null;
+            }
+
+            BidirectionalAStar.Path path = search.search(from, to, properties.maxSettledNodes());
+            if (path == null) {
+                return null;
+            }
+            result = toRouteResult(from, to, path);
+            return result;
+        } finally {
+            (result != null ? found : notFound).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * 비동기 버전의 경로 계산
+     * 탐색은 CPU 작업이므로 parallel 스케줄러에서 실행합니다. (경로가 없으면 빈 Mono)
+     */
+    public Mono<OsrmRouteResult> routeAsync(double originLat, double originLng, double destLat, double destLng) {
+        return Mono.fromCallable(() -> route(originLat, originLng, destLat, destLng))
+                .subscribeOn(Schedulers.parallel());
+    }
+
+    /**
+     * 좌표를 가장 가까운 도로 위의 점으로 snap합니다. (OSRM nearest 대체)
+     */
+    public NearestResult nearest(double lat, double lng) {
+        if (!isAvailable()) {
+            return null;
+        }
+        EdgeSnap snap = graph.snap(lat, lng, properties.maxSnapMeters());
+        if (snap == null) {
+            return null;
+        }
+        return NearestResult.builder()
+                .originalLat(lat)
+                .originalLng(lng)
+                .snappedLat(snap.lat())
+                .snappedLng(snap.lng())
+                .distance(snap.distance())
+                .roadName(graph.name(graph.arcName(snap.arc())))
+                .build();
+    }
+
+    //탐색 결과를 좌표열 + 구간별 도로명으로 펼친 뒤 OSRM과 같은 형태의 결과로 변환
+    private OsrmRouteResult toRouteResult(EdgeSnap from, EdgeSnap to, BidirectionalAStar.Path path) {
+        int[] nodes = path.nodes();
+        int maxPoints = nodes.length + 2;
+        double[] latLngs = new double[maxPoints * 2];
+        String[] segmentNames = new String[maxPoints];
+        int points = 0;
+
+        latLngs[0] = from.lat();
+        latLngs[1] = from.lng();
+        points++;
+
+        for (int i = 0; i < nodes.length; i++) {
+            // 첫 노드까지는 출발 간선, 이후는 탐색 경로의 간선
+            int arc = i == 0 ? from.arc() : path.arcs()[i - 1];
+            points = append(latLngs, segmentNames, points, graph.lat(nodes[i]), graph.lng(nodes[i]),
+                    graph.name(graph.arcName(arc)));
+        }
+        points = append(latLngs, segmentNames, points, to.lat(), to.lng(), graph.name(graph.arcName(to.arc())));
+
+        double distance = 0;
+        double[] segmentLengths = new double[points];
+        for (int i = 1; i < points; i++) {
+            segmentLengths[i] = PedestrianGraphBuilder.haversine(
+                    latLngs[(i - 1) * 2], latLngs[(i - 1) * 2 + 1], latLngs[i * 2], latLngs[i * 2 + 1]);
+            distance += segmentLengths[i];
+        }
+
+        List<Waypoint> waypoints = new ArrayList<>();
+        List<Instruction> instructions = new ArrayList<>();
+        buildGuidance(latLngs, segmentNames, segmentLengths, points, waypoints, instructions);
+
+        return OsrmRouteResult.builder()
+                .distance((int) distance)
+                .duration((int) (distance / properties.walkingSpeed()))
+                .geometry(PolylineCodec.encode(latLngs, points))
+                .waypoints(waypoints)
+                .instructions(instructions)
+                .build();
+    }
+
+    //직전 점과 거의 같은 위치면 건너뜀. segmentNames[i]는 (i-1 -> i) 구간의 도로명
+    private static int append(double[] latLngs, String[] segmentNames, int points, double lat, double lng,
+                              String name) {
+        double prevLat = latLngs[(points - 1) * 2];
+        double prevLng = latLngs[(points - 1) * 2 + 1];
+        if (PedestrianGraphBuilder.haversine(prevLat, prevLng, lat, lng) < MIN_SEGMENT_METERS) {
+            return points;
+        }
+        latLngs[points * 2] = lat;
+        latLngs[points * 2 + 1] = lng;
+        segmentNames[points] = name;
+        return points + 1;
+    }
+
+    //도로명이 바뀌거나 크게 꺾이는 지점마다 안내를 만듦 (OSRM step과 같은 의미: 안내 지점 + 다음 안내까지의 거리)
+    private static void buildGuidance(double[] latLngs, String[] segmentNames, double[] segmentLengths, int points,
+                                      List<Waypoint> waypoints, List<Instruction> instructions) {
+        if (points < 2) {
+            Waypoint location = waypoint(latLngs, 0, null);
+            waypoints.add(location);
+            instructions.add(GuidanceBuilder.instruction(0, "arrive", null, null, 0, location));
+            return;
+        }
+
+        int stepStart = 0;
+        String stepType = "depart";
+        String stepModifier = null;
+        String stepName = segmentNames[1];
+        double stepDistance = 0;
+
+        for (int i = 1; i < points; i++) {
+            if (i > 1) {
+                double turn = turnAngle(latLngs, i - 2, i - 1, i);
+                boolean nameChanged = !Objects.equals(segmentNames[i], stepName);
+                if (nameChanged || Math.abs(turn) >= TURN_THRESHOLD_DEGREES) {
+                    addStep(latLngs, stepStart, stepType, stepModifier, stepName, stepDistance, waypoints, instructions);
+
+                    stepStart = i - 1;
+                    stepModifier = GuidanceBuilder.turnModifier(turn);
+                    stepType = nameChanged && "straight".equals(stepModifier) ? "new name" : "turn";
+                    stepName = segmentNames[i];
+                    stepDistance = 0;
+                }
+            }
+            stepDistance += segmentLengths[i];
+        }
+
+        addStep(latLngs, stepStart, stepType, stepModifier, stepName, stepDistance, waypoints, instructions);
+        addStep(latLngs, points - 1, "arrive", null, segmentNames[points - 1], 0, waypoints, instructions);
+    }
+
+    private static void addStep(double[] latLngs, int point, String type, String modifier, String name,
+                                double distance, List<Waypoint> waypoints, List<Instruction> instructions) {
+        Waypoint location = waypoint(latLngs, point, name);
+        waypoints.add(location);
+        instructions.add(GuidanceBuilder.instruction(instructions.size(), type, modifier, name, (int) distance, location));
+    }
+
+    private static Waypoint waypoint(double[] latLngs, int point, String name) {
+        return Waypoint.builder()
+                .lat(latLngs[point * 2])
+                .lng(latLngs[point * 2 + 1])
+                .name(name != null ? name : "")
+                .build();
+    }
+
+    //a -> b -> c 에서 b 지점의 회전 각도 (-180 ~ 180, 양수면 오른쪽)
+    private static double turnAngle(double[] latLngs, int a, int b, int c) {
+        return RouteLine.turnAngle(
+                RouteLine.bearing(latLngs[a * 2], latLngs[a * 2 + 1], latLngs[b * 2], latLngs[b * 2 + 1]),
+                RouteLine.bearing(latLngs[b * 2], latLngs[b * 2 + 1], latLngs[c * 2], latLngs[c * 2 + 1]));
+    }
+
+    //graphFile이 있으면 메모리 매핑으로 읽고, 없으면 osmFile에서 만든 뒤 graphFile에 저장
+    private static PedestrianGraph loadGraph(EmbeddedRoutingProperties properties) {
+        try {
+            Path graphFile = hasText(properties.graphFile()) ? Path.of(properties.graphFile()) : null;
+            if (graphFile != null && Files.exists(graphFile)) {
+                PedestrianGraph graph = PedestrianGraph.load(graphFile);
+                log.info("Loaded pedestrian graph {}: {} nodes, {} arcs",
+                        graphFile, graph.nodeCount(), graph.arcCount());
+                return graph;
+            }
+
+            if (!hasText(properties.osmFile())) {
+                log.warn("Embedded routing is {} but no graph-file or osm-file is available", properties.mode());
+                return null;
+            }
+
+            PedestrianGraph graph = PedestrianGraphBuilder.fromOsmXml(Path.of(properties.osmFile()));
+            log.info("Built pedestrian graph from {}: {} nodes, {} arcs",
+                    properties.osmFile(), graph.nodeCount(), graph.arcCount());
+            if (graphFile != null) {
+                graph.write(graphFile);
+                log.info("Saved pedestrian graph to {}", graphFile);
+            }
+            return graph;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Embedded routing disabled, failed to load pedestrian graph: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    private static Timer routeTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("navblind.route.embedded")
+                .description("Embedded pedestrian router searches by outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
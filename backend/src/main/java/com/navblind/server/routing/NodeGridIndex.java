@@ -0,0 +1,100 @@
+package com.navblind.server.routing;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * 노드 좌표를 고정 크기 위경도 격자 셀로 묶은 공간 인덱스
+ *
+ * (셀 키 << 28 | 노드 인덱스)를 long 배열 하나에 담아 정렬한 뒤
+ * 셀 키 배열(cellKeys)과 셀별 시작 위치(cellStart), 노드 순서(nodes)로 펼쳐 둠
+ * 조회는 셀 키 이진 탐색이므로 객체 할당 없이 주변 노드를 순회할 수 있음
+ */
+final class NodeGridIndex {
+
+    //약 220m(위도 방향) 크기 셀
+    static final double CELL_DEGREES = 0.002;
+
+    private static final int NODE_BITS = 28;
+    private static final double METERS_PER_DEGREE = 111_320.0;
+
+    private final long[] cellKeys;
+    private final int[] cellStart;
+    private final int[] nodes;
+
+    NodeGridIndex(PedestrianGraph graph) {
+        int n = graph.nodeCount();
+        if (n >= 1 << NODE_BITS) {
+            throw new IllegalArgumentException("Too many nodes for grid index: " + n);
+        }
+
+        long[] packed = new long[n];
+        for (int node = 0; node < n; node++) {
+            packed[node] = (cellKey(graph.lat(node), graph.lng(node)) << NODE_BITS) | node;
+        }
+        Arrays.sort(packed);
+
+        long[] keys = new long[n];
+        int[] starts = new int[n + 1];
+        int cells = 0;
+        long previous = -1;
+        this.nodes = new int[n];
+        for (int i = 0; i < n; i++) {
+            long key = packed[i] >>> NODE_BITS;
+            if (key != previous) {
+                keys[cells] = key;
+                starts[cells] = i;
+                cells++;
+                previous = key;
+            }
+            nodes[i] = (int) (packed[i] & ((1 << NODE_BITS) - 1));
+        }
+        starts[cells] = n;
+
+        this.cellKeys = Arrays.copyOf(keys, cells);
+        this.cellStart = Arrays.copyOf(starts, cells + 1);
+    }
+
+    /**
+     * (lat, lng)에서 radiusMeters 안쪽 셀들에 속한 노드를 모두 전달합니다.
+     * 셀 단위 후보이므로 실제 거리는 호출자가 다시 확인해야 합니다.
+     */
+    void forEachNear(double lat, double lng, double radiusMeters, IntConsumer consumer) {
+        double latSpan = radiusMeters / METERS_PER_DEGREE;
+        double lngSpan = latSpan / Math.max(Math.cos(Math.toRadians(lat)), 0.01);
+
+        int minLatCell = latCell(lat - latSpan);
+        int maxLatCell = latCell(lat + latSpan);
+        int minLngCell = lngCell(lng - lngSpan);
+        int maxLngCell = lngCell(lng + lngSpan);
+
+        for (int latCell = minLatCell; latCell <= maxLatCell; latCell++) {
+            for (int lngCell = minLngCell; lngCell <= maxLngCell; lngCell++) {
+                int cell = Arrays.binarySearch(cellKeys, pack(latCell, lngCell));
+                if (cell < 0) {
+                    continue;
+                }
+                for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+                    consumer.accept(nodes[i]);
+                }
+            }
+        }
+    }
+
+    private static long cellKey(double lat, double lng) {
+        return pack(latCell(lat), lngCell(lng));
+    }
+
+    //위도 셀은 18비트, 경도 셀은 18비트 안에 들어감 (0.002도 기준)
+    private static long pack(int latCell, int lngCell) {
+        return ((long) latCell << 18) | lngCell;
+    }
+
+    private static int latCell(double lat) {
+        return (int) Math.floor((Math.max(-90, Math.min(90, lat)) + 90) / CELL_DEGREES);
+    }
+
+    private static int lngCell(double lng) {
+        return (int) Math.floor((Math.max(-180, Math.min(180, lng)) + 180) / CELL_DEGREES);
+    }
+}
@@ -0,0 +1,234 @@
+package com.navblind.server.routing;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 보행자 도로망 그래프 (CSR 인접 리스트)
+ *
+ * 노드: int 인덱스(0..nodeCount-1), 좌표는 1e-7도 단위 int로 저장
+ * 간선(arc): 노드 u의 간선은 firstArc[u] ~ firstArc[u+1]-1 범위에 있고,
+ *           도착 노드(arcTarget), 가중치(arcWeight, 미터 기준 float), 도로명 인덱스(arcName, 없으면 -1)를 가짐
+ * 보행자는 일방통행 제약이 없으므로 모든 도로는 양방향 간선 두 개로 저장됨 (역방향 탐색도 같은 간선 사용)
+ *
+ * 파일(.navgraph)에서 읽을 때는 메모리 매핑된 버퍼를 그대로 사용하므로
+ * 큰 그래프도 힙에 복사하지 않고 OS 페이지 캐시로 공유됨
+ */
+public final class PedestrianGraph {
+
+    //파일 형식 식별자 "NAVG"
+    static final int MAGIC = 0x4E415647;
+    static final int VERSION = 1;
+
+    private static final double E7 = 1e7;
+    private static final double METERS_PER_DEGREE = 111_320.0;
+
+    //노드 사이 간격이 긴 도로도 찾을 수 있도록 snap 반경에 더해서 노드를 검색
+    private static final double SNAP_SLACK_METERS = 150.0;
+
+    private final int nodeCount;
+    private final int arcCount;
+    private final IntBuffer latE7;
+    private final IntBuffer lngE7;
+    private final IntBuffer firstArc;
+    private final IntBuffer arcTarget;
+    private final FloatBuffer arcWeight;
+    private final IntBuffer arcName;
+    private final String[] names;
+    private final NodeGridIndex index;
+
+    PedestrianGraph(int nodeCount, int arcCount, IntBuffer latE7, IntBuffer lngE7, IntBuffer firstArc,
+                    IntBuffer arcTarget, FloatBuffer arcWeight, IntBuffer arcName, String[] names) {
+        this.nodeCount = nodeCount;
+        this.arcCount = arcCount;
+        this.latE7 = latE7;
+        this.lngE7 = lngE7;
+        this.firstArc = firstArc;
+        this.arcTarget = arcTarget;
+        this.arcWeight = arcWeight;
+        this.arcName = arcName;
+        this.names = names;
+        this.index = new NodeGridIndex(this);
+    }
+
+    PedestrianGraph(int[] latE7, int[] lngE7, int[] firstArc, int[] arcTarget, float[] arcWeight, int[] arcName,
+                    String[] names) {
+        this(latE7.length, arcTarget.length, IntBuffer.wrap(latE7), IntBuffer.wrap(lngE7), IntBuffer.wrap(firstArc),
+                IntBuffer.wrap(arcTarget), FloatBuffer.wrap(arcWeight), IntBuffer.wrap(arcName), names);
+    }
+
+    /**
+     * 미리 만들어 둔 그래프 파일을 메모리 매핑으로 읽습니다.
+     */
+    public static PedestrianGraph load(Path file) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            //매핑은 채널을 닫아도 유지됨
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("Not a pedestrian graph file: " + file);
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported pedestrian graph version " + version + ": " + file);
+        }
+
+        int nodeCount = buffer.getInt();
+        int arcCount = buffer.getInt();
+        int nameCount = buffer.getInt();
+
+        IntBuffer latE7 = take(buffer, nodeCount).asIntBuffer();
+        IntBuffer lngE7 = take(buffer, nodeCount).asIntBuffer();
+        IntBuffer firstArc = take(buffer, nodeCount + 1).asIntBuffer();
+        IntBuffer arcTarget = take(buffer, arcCount).asIntBuffer();
+        FloatBuffer arcWeight = take(buffer, arcCount).asFloatBuffer();
+        IntBuffer arcName = take(buffer, arcCount).asIntBuffer();
+
+        String[] names = new String[nameCount];
+        for (int i = 0; i < nameCount; i++) {
+            byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+            buffer.get(bytes);
+            names[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        return new PedestrianGraph(nodeCount, arcCount, latE7, lngE7, firstArc, arcTarget, arcWeight, arcName, names);
+    }
+
+    /**
+     * 그래프를 파일로 저장합니다. (load로 다시 읽을 수 있는 형식)
+     */
+    public void write(Path file) throws IOException {
+        try (OutputStream fileOut = Files.newOutputStream(file);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut, 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(nodeCount);
+            out.writeInt(arcCount);
+            out.writeInt(names.length);
+
+            for (int i = 0; i < nodeCount; i++) out.writeInt(latE7.get(i));
+            for (int i = 0; i < nodeCount; i++) out.writeInt(lngE7.get(i));
+            for (int i = 0; i <= nodeCount; i++) out.writeInt(firstArc.get(i));
+            for (int i = 0; i < arcCount; i++) out.writeInt(arcTarget.get(i));
+            for (int i = 0; i < arcCount; i++) out.writeFloat(arcWeight.get(i));
+            for (int i = 0; i < arcCount; i++) out.writeInt(arcName.get(i));
+
+            for (String name : names) {
+                byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+                out.writeShort(bytes.length);
+                out.write(bytes);
+            }
+        }
+    }
+
+    //버퍼의 현재 위치에서 int/float count개 분량을 잘라내고 위치를 그만큼 이동
+    private static ByteBuffer take(ByteBuffer buffer, int count) {
+        int bytes = count * Integer.BYTES;
+        ByteBuffer slice = buffer.slice(buffer.position(), bytes);
+        buffer.position(buffer.position() + bytes);
+        return slice;
+    }
+
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    public int arcCount() {
+        return arcCount;
+    }
+
+    public double lat(int node) {
+        return latE7.get(node) / E7;
+    }
+
+    public double lng(int node) {
+        return lngE7.get(node) / E7;
+    }
+
+    /** 노드의 첫 번째 간선 인덱스 */
+    public int firstArc(int node) {
+        return firstArc.get(node);
+    }
+
+    /** 노드의 마지막 간선 다음 인덱스 */
+    public int endArc(int node) {
+        return firstArc.get(node + 1);
+    }
+
+    public int arcTarget(int arc) {
+        return arcTarget.get(arc);
+    }
+
+    public float arcWeight(int arc) {
+        return arcWeight.get(arc);
+    }
+
+    /** 간선의 도로명 인덱스 (없으면 -1) */
+    public int arcName(int arc) {
+        return arcName.get(arc);
+    }
+
+    /** 도로명 인덱스에 해당하는 도로명 (인덱스가 -1이면 null) */
+    public String name(int nameId) {
+        return nameId >= 0 ? names[nameId] : null;
+    }
+
+    /**
+     * 좌표에서 가장 가까운 간선 위의 점을 찾습니다.
+     * maxMeters 안에 간선이 없으면 null을 반환합니다.
+     */
+    public EdgeSnap snap(double lat, double lng, double maxMeters) {
+        //짧은 거리이므로 (lat, lng) 기준 평면 근사로 투영
+        double cosLat = Math.cos(Math.toRadians(lat));
+        SnapCandidate best = new SnapCandidate(maxMeters);
+
+        index.forEachNear(lat, lng, maxMeters + SNAP_SLACK_METERS, source -> {
+            double ax = (lng(source) - lng) * cosLat * METERS_PER_DEGREE;
+            double ay = (lat(source) - lat) * METERS_PER_DEGREE;
+            for (int arc = firstArc(source); arc < endArc(source); arc++) {
+                int target = arcTarget(arc);
+                double bx = (lng(target) - lng) * cosLat * METERS_PER_DEGREE;
+                double by = (lat(target) - lat) * METERS_PER_DEGREE;
+
+                double dx = bx - ax;
+                double dy = by - ay;
+                double lengthSq = dx * dx + dy * dy;
+                double t = lengthSq > 0 ? Math.max(0, Math.min(1, -(ax * dx + ay * dy) / lengthSq)) : 0;
+                double px = ax + t * dx;
+                double py = ay + t * dy;
+                double distance = Math.sqrt(px * px + py * py);
+
+                if (distance < best.distance) {
+                    best.distance = distance;
+                    best.snap = new EdgeSnap(source, target, arc, t,
+                            lat + py / METERS_PER_DEGREE,
+                            lng + px / (cosLat * METERS_PER_DEGREE),
+                            distance);
+                }
+            }
+        });
+        return best.snap;
+    }
+
+    private static final class SnapCandidate {
+        private double distance;
+        private EdgeSnap snap;
+
+        private SnapCandidate(double distance) {
+            this.distance = distance;
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.navblind.server.routing;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * OSM XML(.osm) 추출본에서 보행자 그래프를 만드는 빌더
+ *
+ * 1차 패스: 보행 가능한 way와 참조 노드 ID를 수집
+ * 2차 패스: 필요한 노드의 좌표만 읽음 (전체 노드를 메모리에 올리지 않음)
+ *
+ * PBF는 지원하지 않으므로 `osmium cat region.osm.pbf -o region.osm`로 변환해서 사용
+ * 빌드한 그래프는 write()로 저장해 두고 다음 기동부터 load()로 바로 읽는 것을 권장
+ *
+ * 사용법: java ... PedestrianGraphBuilder input.osm output.navgraph
+ */
+public final class PedestrianGraphBuilder {
+
+    //보행자가 다닐 수 있는 도로 종류 (자동차 전용 도로 제외)
+    private static final Set<String> WALKABLE_HIGHWAYS = Set.of(
+            "footway", "pedestrian", "path", "steps", "living_street", "residential", "service",
+            "unclassified", "track", "tertiary", "tertiary_link", "secondary", "secondary_link",
+            "primary", "primary_link", "road", "corridor");
+
+    //foot 태그가 명시적으로 허용한 경우에만 포함하는 도로 종류
+    private static final Set<String> FOOT_OPT_IN_HIGHWAYS = Set.of("cycleway", "bridleway");
+
+    private static final Set<String> FOOT_ALLOWED = Set.of("yes", "designated", "permissive");
+    private static final Set<String> ACCESS_DENIED = Set.of("no", "private");
+
+    //계단은 같은 거리라도 시각장애인에게 부담이 크므로 가중치를 늘림
+    private static final float STEPS_PENALTY = 2.0f;
+
+    private static final double EARTH_RADIUS = 6_371_000.0;
+
+    private PedestrianGraphBuilder() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: PedestrianGraphBuilder <input.osm> <output.navgraph>");
+            System.exit(2);
+        }
+        PedestrianGraph graph = fromOsmXml(Path.of(args[0]));
+        graph.write(Path.of(args[1]));
+        System.out.printf("Wrote %d nodes, %d arcs to %s%n", graph.nodeCount(), graph.arcCount(), args[1]);
+    }
+
+    /**
+     * OSM XML 파일에서 보행자 그래프를 만듭니다.
+     */
+    public static PedestrianGraph fromOsmXml(Path osmFile) throws IOException {
+        List<WayData> ways = new ArrayList<>();
+        Map<Long, Integer> nodeIndex = new HashMap<>();
+        readWays(osmFile, ways, nodeIndex);
+
+        int nodeCount = nodeIndex.size();
+        int[] latE7 = new int[nodeCount];
+        int[] lngE7 = new int[nodeCount];
+        boolean[] located = new boolean[nodeCount];
+        readNodes(osmFile, nodeIndex, latE7, lngE7, located);
+
+        return buildGraph(ways, nodeIndex, latE7, lngE7, located);
+    }
+
+    private static void readWays(Path osmFile, List<WayData> ways, Map<Long, Integer> nodeIndex) throws IOException {
+        parse(osmFile, reader -> {
+            if (!"way".equals(reader.getLocalName())) {
+                return;
+            }
+
+            List<Long> refs = new ArrayList<>();
+            Map<String, String> tags = new HashMap<>();
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String element = reader.getLocalName();
+                    if ("nd".equals(element)) {
+                        refs.add(Long.parseLong(reader.getAttributeValue(null, "ref")));
+                    } else if ("tag".equals(element)) {
+                        tags.put(reader.getAttributeValue(null, "k"), reader.getAttributeValue(null, "v"));
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT && "way".equals(reader.getLocalName())) {
+                    break;
+                }
+            }
+
+            if (refs.size() < 2 || !isWalkable(tags)) {
+                return;
+            }
+
+            long[] nodeIds = new long[refs.size()];
+            for (int i = 0; i < nodeIds.length; i++) {
+                nodeIds[i] = refs.get(i);
+                nodeIndex.putIfAbsent(nodeIds[i], nodeIndex.size());
+            }
+            ways.add(new WayData(nodeIds, tags.get("name"), "steps".equals(tags.get("highway"))));
+        });
+    }
+
+    private static void readNodes(Path osmFile, Map<Long, Integer> nodeIndex,
+                                  int[] latE7, int[] lngE7, boolean[] located) throws IOException {
+        parse(osmFile, reader -> {
+            if (!"node".equals(reader.getLocalName())) {
+                return;
+            }
+            Integer index = nodeIndex.get(Long.parseLong(reader.getAttributeValue(null, "id")));
+            if (index == null) {
+                return;
+            }
+            latE7[index] = (int) Math.round(Double.parseDouble(reader.getAttributeValue(null, "lat")) * 1e7);
+            lngE7[index] = (int) Math.round(Double.parseDouble(reader.getAttributeValue(null, "lon")) * 1e7);
+            located[index] = true;
+        });
+    }
+
+    //way의 인접한 노드 쌍마다 양방향 간선을 만들고 CSR 형태로 정렬
+    private static PedestrianGraph buildGraph(List<WayData> ways, Map<Long, Integer> nodeIndex,
+                                              int[] latE7, int[] lngE7, boolean[] located) {
+        int nodeCount = latE7.length;
+        Map<String, Integer> nameIndex = new HashMap<>();
+        List<String> names = new ArrayList<>();
+
+        int maxArcs = 0;
+        for (WayData way : ways) {
+            maxArcs += 2 * (way.nodeIds().length - 1);
+        }
+        int[] from = new int[maxArcs];
+        int[] to = new int[maxArcs];
+        float[] weight = new float[maxArcs];
+        int[] name = new int[maxArcs];
+        int arcs = 0;
+
+        for (WayData way : ways) {
+            int nameId = -1;
+            if (way.name() != null && !way.name().isBlank()) {
+                nameId = nameIndex.computeIfAbsent(way.name(), n -> {
+                    names.add(n);
+                    return names.size() - 1;
+                });
+            }
+
+            for (int i = 1; i < way.nodeIds().length; i++) {
+                int a = nodeIndex.get(way.nodeIds()[i - 1]);
+                int b = nodeIndex.get(way.nodeIds()[i]);
+                if (a == b || !located[a] || !located[b]) {
+                    continue;
+                }
+                float meters = (float) haversine(latE7[a] / 1e7, lngE7[a] / 1e7, latE7[b] / 1e7, lngE7[b] / 1e7);
+                float w = way.steps() ? meters * STEPS_PENALTY : meters;
+
+                from[arcs] = a; to[arcs] = b; weight[arcs] = w; name[arcs] = nameId; arcs++;
+                from[arcs] = b; to[arcs] = a; weight[arcs] = w; name[arcs] = nameId; arcs++;
+            }
+        }
+
+        //출발 노드 기준 counting sort
+        int[] firstArc = new int[nodeCount + 1];
+        for (int i = 0; i < arcs; i++) {
+            firstArc[from[i] + 1]++;
+        }
+        for (int i = 0; i < nodeCount; i++) {
+            firstArc[i + 1] += firstArc[i];
+        }
+        int[] cursor = new int[nodeCount];
+        System.arraycopy(firstArc, 0, cursor, 0, nodeCount);
+
+        int[] arcTarget = new int[arcs];
+        float[] arcWeight = new float[arcs];
+        int[] arcName = new int[arcs];
+        for (int i = 0; i < arcs; i++) {
+            int slot = cursor[from[i]]++;
+            arcTarget[slot] = to[i];
+            arcWeight[slot] = weight[i];
+            arcName[slot] = name[i];
+        }
+
+        return new PedestrianGraph(latE7, lngE7, firstArc, arcTarget, arcWeight, arcName, names.toArray(String[]::new));
+    }
+
+    private static boolean isWalkable(Map<String, String> tags) {
+        String highway = tags.get("highway");
+        if (highway == null || "yes".equals(tags.get("area"))) {
+            return false;
+        }
+
+        String foot = tags.get("foot");
+        if (foot != null && ACCESS_DENIED.contains(foot)) {
+            return false;
+        }
+        if (FOOT_OPT_IN_HIGHWAYS.contains(highway)) {
+            return foot != null && FOOT_ALLOWED.contains(foot);
+        }
+        if (!WALKABLE_HIGHWAYS.contains(highway)) {
+            return false;
+        }
+
+        String access = tags.get("access");
+        return access == null || !ACCESS_DENIED.contains(access) || (foot != null && FOOT_ALLOWED.contains(foot));
+    }
+
+    //시작 태그마다 handler를 호출하며 문서 전체를 순회
+    private static void parse(Path osmFile, ElementHandler handler) throws IOException {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(osmFile), 1 << 16)) {
+            XMLStreamReader reader = factory.createXMLStreamReader(in);
+            try {
+                while (reader.hasNext()) {
+                    if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+                        handler.onStart(reader);
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Failed to parse OSM file " + osmFile + ": " + e.getMessage(), e);
+        }
+    }
+
+    static double haversine(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return EARTH_RADIUS * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+
+    @FunctionalInterface
+    private interface ElementHandler {
+        void onStart(XMLStreamReader reader) throws XMLStreamException;
+    }
+
+    private record WayData(long[] nodeIds, String name, boolean steps) {
+    }
+}
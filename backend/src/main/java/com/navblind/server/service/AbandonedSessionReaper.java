@@ -0,0 +1,78 @@
+package com.navblind.server.service;
+
+import com.navblind.server.cache.ActiveNavigationStore;
+import com.navblind.server.cache.ActiveNavigationStore.ExpiredNavigation;
+import com.navblind.server.config.ActiveNavigationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Redis의 안내 상태(nav:{userId}:active)가 만료된 세션을 DB에서 종료 처리하는 주기 작업
+ *
+ * 앱이 종료되거나 연결이 끊겨 도착/취소 요청이 오지 않은 세션은 DB에 ACTIVE로 계속 남으므로
+ * ActiveNavigationStore의 만료 색인에서 시각이 지난 안내를 모아 UPDATE 한 번으로 expiredStatus로 바꿈
+ * (여러 인스턴스가 같은 항목을 처리해도 이미 종료된 세션은 건드리지 않으므로 결과는 같음)
+ *
+ * 메트릭: navblind.navigation.sessions.expired
+ */
+@Component
+@Slf4j
+public class AbandonedSessionReaper {
+
+    private static final Duration REDIS_TIMEOUT = Duration.ofSeconds(10);
+    //한 번 실행에서 처리하는 최대 배치 수 (밀린 항목은 다음 주기에 처리)
+    private static final int MAX_BATCHES = 20;
+
+    private final ActiveNavigationProperties properties;
+    private final ActiveNavigationStore store;
+    private final NavigationSessionManager sessionManager;
+    private final Counter expired;
+
+    public AbandonedSessionReaper(ActiveNavigationProperties properties,
+                                  ActiveNavigationStore store,
+                                  NavigationSessionManager sessionManager,
+                                  MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.store = store;
+        this.sessionManager = sessionManager;
+        this.expired = Counter.builder("navblind.navigation.sessions.expired")
+                .description("Abandoned navigation sessions closed after their active state expired")
+                .register(meterRegistry);
+    }
+
+    //만료된 안내를 배치 단위로 정리 (주기는 active-navigation.sweep-interval)
+    @Scheduled(fixedDelayString = "${active-navigation.sweep-interval:5m}")
+    public void sweep() {
+        if (!properties.enabled()) {
+            return;
+        }
+        try {
+            for (int i = 0; i < MAX_BATCHES; i++) {
+                List<ExpiredNavigation> batch = store.findExpired(properties.sweepBatchSize()).block(REDIS_TIMEOUT);
+                if (batch == null || batch.isEmpty()) {
+                    return;
+                }
+
+                List<UUID> sessionIds = batch.stream().map(ExpiredNavigation::sessionId).toList();
+                int closed = sessionManager.closeExpiredSessions(sessionIds, properties.expiredStatus());
+                store.forget(batch).block(REDIS_TIMEOUT);
+                expired.increment(closed);
+                log.info("Closed {} abandoned navigation sessions as {}", closed, properties.expiredStatus());
+
+                if (batch.size() < properties.sweepBatchSize()) {
+                    return;
+                }
+            }
+        } catch (RuntimeException e) {
+            // 처리하지 못한 항목은 색인에 남아 다음 주기에 다시 시도됨
+            log.warn("Abandoned session sweep failed: {}", e.getMessage());
+        }
+    }
+}
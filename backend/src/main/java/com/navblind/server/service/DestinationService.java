@@ -1,17 +1,30 @@
 package com.navblind.server.service;
 
+import com.navblind.server.cache.DestinationCache;
+import com.navblind.server.cache.ReverseGeocodeCache;
+import com.navblind.server.cache.SearchCache;
+import com.navblind.server.config.SearchVariantProperties;
 import com.navblind.server.dto.DestinationDto.*;
 import com.navblind.server.entity.Destination;
 import com.navblind.server.entity.User;
-import com.navblind.server.integration.NominatimClient;
+import com.navblind.server.geo.RouteLine;
 import com.navblind.server.repository.DestinationRepository;
 import com.navblind.server.repository.UserRepository;
+import com.navblind.server.text.KoreanText;
+import com.navblind.server.text.QueryVariants;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 //사용자의 즐겨찾기 장소(목적지)를 관리하고, 새로운 장소를 CRUD하는 로직을 담당
@@ -21,32 +34,171 @@ import java.util.UUID;
 @Slf4j
 public class DestinationService {
 
-    private final NominatimClient nominatimClient;
+    //순위 합산 시 상위 몇 개 결과의 점수 차이를 줄이는 상수 (1 / (RANK_OFFSET + 순위))
+    private static final double RANK_OFFSET = 10;
+    //이름이 달라도 같은 장소로 보는 거리 (Nominatim이 같은 OSM 객체를 다른 이름으로 돌려주는 경우)
+    private static final double SAME_POINT_METERS = 5;
+
+    private final SearchCache searchCache;
+    private final ReverseGeocodeCache reverseGeocodeCache;
+    private final SearchVariantProperties variantProperties;
+    private final SuggestService suggestService;
+    private final DestinationCache destinationCache;
+    private final UseCountBuffer useCounts;
     private final DestinationRepository destinationRepository;
     private final UserRepository userRepository;
 
     //장소를 찾기를 요청하면 근처 지역을 한국어로 정리된 SearchResult 리스트로 반환
-    public List<SearchResult> searchPlaces(String query, Double lat, Double lng, int limit) {
+    //Nominatim 응답을 기다리는 동안 스레드를 점유하지 않도록 Mono로 반환
+    //같은 동네(격자 셀)에서 같은 검색어로 검색한 결과는 SearchCache에서 재사용
+    //음성 검색어는 띄어쓰기/줄임말이 달라 한 번에 찾지 못하는 경우가 많아 변형 검색어를 함께 검색해 합침
+    public Mono<List<SearchResult>> searchPlaces(String query, Double lat, Double lng, int limit) {
         log.info("Searching places for query: '{}' near ({}, {})", query, lat, lng);
-        return nominatimClient.search(query, lat, lng, limit);
+        Mono<List<SearchResult>> results = variantProperties.enabled()
+                ? searchVariants(query, lat, lng, limit)
+                : searchCache.search(query, lat, lng, limit);
+        return results.doOnNext(suggestService::record);
+    }
+
+    //원래 검색어와 변형을 동시에 검색하고 deadline 안에 도착한 결과만 합침
+    //원래 검색어의 레인 거절(503)은 그대로 전달하고, 변형 검색의 실패는 결과에서 빠지기만 함
+    private Mono<List<SearchResult>> searchVariants(String query, Double lat, Double lng, int limit) {
+        List<String> variants = QueryVariants.of(query, variantProperties.maxVariants());
+        if (variants.size() == 1) {
+            return searchCache.search(variants.get(0), lat, lng, limit);
+        }
+        log.debug("Searching variants {}", variants);
+
+        return Flux.fromIterable(variants)
+                .index()
+                .flatMapSequential(indexed -> {
+                    Mono<List<SearchResult>> search = searchCache.search(indexed.getT2(), lat, lng, limit)
+                            .timeout(variantProperties.deadline(), Mono.just(List.of()));
+                    if (indexed.getT1() == 0) {
+                        return search;
+                    }
+                    return search.onErrorResume(e -> {
+                        log.debug("Variant search '{}' failed: {}", indexed.getT2(), e.getMessage());
+                        return Mono.just(List.of());
+                    });
+                }, variants.size())
+                .collectList()
+                .map(resultLists -> merge(resultLists, limit));
+    }
+
+    //변형별 결과를 같은 장소끼리 묶고 순위 합산(reciprocal rank)으로 정렬
+    //여러 변형에서 상위에 나온 장소가 앞에 오며, 점수가 같으면 원래 검색어 결과부터 먼저 나온 순서를 유지
+    //SearchResult에는 OSM id가 없으므로 같은 장소는 이름 + 거리로 판단
+    private List<SearchResult> merge(List<List<SearchResult>> resultLists, int limit) {
+        List<MergedResult> merged = new ArrayList<>();
+        for (List<SearchResult> results : resultLists) {
+            for (int rank = 0; rank < results.size(); rank++) {
+                SearchResult result = results.get(rank);
+                double score = 1.0 / (RANK_OFFSET + rank);
+                MergedResult same = findSamePlace(merged, result);
+                if (same != null) {
+                    same.score += score;
+                } else {
+                    merged.add(new MergedResult(result, score));
+                }
+            }
+        }
+        return merged.stream()
+                .sorted(Comparator.comparingDouble((MergedResult m) -> m.score).reversed())
+                .limit(limit)
+                .map(m -> m.result)
+                .toList();
+    }
+
+    private MergedResult findSamePlace(List<MergedResult> merged, SearchResult result) {
+        String name = KoreanText.normalize(result.getName());
+        for (MergedResult candidate : merged) {
+            double distance = RouteLine.distance(
+                    candidate.result.getLatitude(), candidate.result.getLongitude(),
+                    result.getLatitude(), result.getLongitude());
+            if (distance <= SAME_POINT_METERS
+                    || (distance <= variantProperties.mergeRadiusMeters() && candidate.name.equals(name))) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    //현재 좌표에서 가장 가까운 주소/장소를 검색 결과와 같은 형태로 반환 ("여기가 어디야?")
+    //걷는 동안 반복되는 요청은 20m 격자 셀 캐시에서 응답
+    public Mono<SearchResult> reverseGeocode(double lat, double lng) {
+        log.debug("Reverse geocoding ({}, {})", lat, lng);
+        return reverseGeocodeCache.reverse(lat, lng);
+    }
+
+    //입력 중인 검색어로 시작하는 장소(저장한 목적지 우선)를 서버 메모리 색인에서 찾아 반환
+    //색인에 후보가 없고 검색어가 충분히 길면 Nominatim 검색 결과로 대신함
+    public Mono<List<SearchResult>> suggestPlaces(UUID userId, String query, Double lat, Double lng, int limit) {
+        return suggestService.suggest(userId, query, lat, lng, limit)
+                .flatMap(suggestions -> {
+                    if (!suggestions.isEmpty()
+                            || KoreanText.normalize(query).length() < suggestService.fallbackMinLength()) {
+                        return Mono.just(suggestions);
+                    }
+                    log.debug("No suggestion for '{}', falling back to search", query);
+                    return searchPlaces(query, lat, lng, limit);
+                });
     }
 
     //사용자의 목적지 목록을 보여주는데, label이 있으면 label로 필터링
-    //@Transactional(readOnly = true) -> 읽기 전용 트랜잭션으로 성능 향상
-    @Transactional(readOnly = true)
+    //앱을 켤 때와 음성 검색 전마다 호출되므로 DestinationCache에 변환된 목록을 두고 label은 메모리에서 거름
+    //(캐시 적중 시 DB 커넥션을 잡지 않도록 트랜잭션 없이 조회, 조회 메서드 자체는 읽기 전용 트랜잭션으로 실행됨)
     public List<DestinationResponse> getSavedDestinations(UUID userId, String label) {
-        List<Destination> destinations;
-        if (label != null && !label.isEmpty()) {
-            destinations = destinationRepository.findByUserIdAndLabelOrderByUseCountDesc(userId, label);
-        } else {
-            destinations = destinationRepository.findByUserIdOrderByUseCountDesc(userId);
-        }
+        List<DestinationResponse> destinations = destinationCache.get(userId, () ->
+                destinationRepository.findByUserIdOrderByUseCountDesc(userId).stream()
+                        .map(this::toResponse)
+                        .toList());
+        destinations = withPendingUseCounts(userId, destinations);
 
+        if (label == null || label.isEmpty()) {
+            return destinations;
+        }
         return destinations.stream()
-                .map(this::toResponse)
+                .filter(d -> label.equals(d.getLabel()))
                 .toList();
     }
 
+    //목적지 하나를 조회, 사용자의 목록이 캐시에 있으면 거기서 찾고 없으면 id로 한 건만 조회
+    public Optional<DestinationResponse> getDestination(UUID userId, UUID destinationId) {
+        List<DestinationResponse> cached = destinationCache.getIfLoaded(userId);
+        Optional<DestinationResponse> destination = cached != null
+                ? cached.stream().filter(d -> d.getId().equals(destinationId)).findFirst()
+                : destinationRepository.findByIdAndUserId(destinationId, userId).map(this::toResponse);
+        return destination.map(d -> withPendingUseCount(userId, d));
+    }
+
+    //아직 DB에 반영되지 않은 사용 횟수 증가분(UseCountBuffer)을 더하고 사용 횟수 내림차순으로 다시 정렬
+    //증가분이 없으면 캐시된 목록을 그대로 반환 (캐시의 응답 객체는 바꾸지 않고 복사본에 더함)
+    private List<DestinationResponse> withPendingUseCounts(UUID userId, List<DestinationResponse> destinations) {
+        boolean changed = false;
+        List<DestinationResponse> merged = new ArrayList<>(destinations.size());
+        for (DestinationResponse destination : destinations) {
+            DestinationResponse withPending = withPendingUseCount(userId, destination);
+            changed |= withPending != destination;
+            merged.add(withPending);
+        }
+        if (!changed) {
+            return destinations;
+        }
+        merged.sort(Comparator.comparingInt(DestinationResponse::getUseCount).reversed());
+        return List.copyOf(merged);
+    }
+
+    private DestinationResponse withPendingUseCount(UUID userId, DestinationResponse destination) {
+        int pending = useCounts.pending(userId, destination.getId());
+        if (pending == 0) {
+            return destination;
+        }
+        return destination.toBuilder()
+                .useCount(destination.getUseCount() + pending)
+                .build();
+    }
+
     //해당 장소를 즐겨찾기에 추가하는 기능을 수행
     //@Transactional: 저장 도중 에러 나면 해당 트랜잭션을 롤백시켜 데이터 일관성 유지
     @Transactional
@@ -64,6 +216,7 @@ public class DestinationService {
                 .build();
 
         destination = destinationRepository.save(destination);
+        evictAfterCommit(userId);
         log.info("Created destination {} for user {}", destination.getId(), userId);
 
         return toResponse(destination);
@@ -83,6 +236,7 @@ public class DestinationService {
         }
 
         destination = destinationRepository.save(destination);
+        evictAfterCommit(userId);
         log.info("Updated destination {}", destinationId);
 
         return toResponse(destination);
@@ -95,17 +249,34 @@ public class DestinationService {
                 .orElseThrow(() -> new IllegalArgumentException("Destination not found: " + destinationId));
 
         destinationRepository.delete(destination);
+        evictAfterCommit(userId);
         log.info("Deleted destination {}", destinationId);
     }
 
     //네비게이션 도착 시 호출되며 해당 목적지의 useCount을 1 증가시킴
-    @Transactional
+    //도착마다 엔티티를 읽고 저장하지 않도록 UseCountBuffer에 모았다가 주기적으로 한 번에 DB에서 더함
+    //(목록 조회는 아직 반영되지 않은 증가분을 더해 정렬하므로 순서가 바로 바뀜)
     public void incrementUseCount(UUID userId, UUID destinationId) {
-        destinationRepository.findByIdAndUserId(destinationId, userId)
-                .ifPresent(dest -> {
-                    dest.incrementUseCount();
-                    destinationRepository.save(dest);
-                });
+        useCounts.increment(userId, destinationId);
+    }
+
+    //트랜잭션이 커밋된 뒤 사용자의 목적지 캐시와 자동완성 색인을 비움
+    //커밋 전에 비우면 그 사이 들어온 조회가 바뀌기 전 데이터를 다시 캐싱할 수 있음
+    private void evictAfterCommit(UUID userId) {
+        Runnable evict = () -> {
+            destinationCache.invalidate(userId);
+            suggestService.invalidate(userId);
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict.run();
+            }
+        });
     }
 
     private DestinationResponse toResponse(Destination destination) {
@@ -120,4 +291,17 @@ public class DestinationService {
                 .createdAt(destination.getCreatedAt() != null ? destination.getCreatedAt().toString() : null)
                 .build();
     }
+
+    //합치는 중인 검색 결과 하나와 누적 점수
+    private static final class MergedResult {
+        private final SearchResult result;
+        private final String name;
+        private double score;
+
+        private MergedResult(SearchResult result, double score) {
+            this.result = result;
+            this.name = KoreanText.normalize(result.getName());
+            this.score = score;
+        }
+    }
 }
@@ -1,19 +1,31 @@
 package com.navblind.server.service;
 
+import com.navblind.server.cache.ActiveNavigationStore;
+import com.navblind.server.cache.ActiveNavigationStore.ActiveNavigation;
+import com.navblind.server.cache.ActiveRouteStore;
+import com.navblind.server.cache.RouteCache;
+import com.navblind.server.config.PersistenceScheduler;
 import com.navblind.server.dto.RouteDto.*;
 import com.navblind.server.entity.NavigationSession;
-import com.navblind.server.entity.User;
-import com.navblind.server.integration.OsrmClient;
+import com.navblind.server.geo.LineSimplifier;
+import com.navblind.server.geo.PolylineCodec;
+import com.navblind.server.integration.Lane;
 import com.navblind.server.integration.OsrmClient.OsrmRouteResult;
+import com.navblind.server.integration.PriorityLanes.LaneRejectedException;
 import com.navblind.server.repository.NavigationSessionRepository;
-import com.navblind.server.repository.UserRepository;
+import com.navblind.server.repository.SessionHistoryRow;
+import com.navblind.server.routing.EmbeddedRouter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Mono;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -22,100 +34,123 @@ import java.util.UUID;
 @Slf4j
 public class NavigationService {
 
-    private final OsrmClient osrmClient;
+    //이전 클라이언트 호환용 offset의 최대값 (offset만큼 앞 행을 읽고 버리므로 제한, 그 뒤는 cursor 사용)
+    private static final int MAX_HISTORY_OFFSET = 1000;
+    //전체 이력 수를 셀 때의 상한 (넘으면 대략적인 값으로 응답)
+    private static final int HISTORY_COUNT_CAP = 1000;
+
+    private final RouteCache routeCache;
+    private final EmbeddedRouter embeddedRouter;
+    private final ActiveRouteStore activeRouteStore;
+    private final ActiveNavigationStore activeNavigationStore;
+    private final RouteSplicer routeSplicer;
+    private final NavigationSessionManager sessionManager;
     private final NavigationSessionRepository sessionRepository;
-    private final UserRepository userRepository;
+    private final PersistenceScheduler persistence;
 
     //경로 계산 기능을 수행
-    //@Transcational: 트랜잭션 롤백 기능
-    @Transactional
-    public RouteResponse calculateRoute(UUID userId, RouteRequest request) {
+    //경로 계산(업스트림 호출)은 트랜잭션 밖에서 비동기로 하고, DB 작업은 앞뒤의 짧은 트랜잭션으로 나눠
+    //JPA 전용 스케줄러에서 실행 (NavigationSessionManager, PersistenceScheduler)
+    public Mono<RouteResponse> calculateRoute(UUID userId, RouteRequest request) {
         log.info("Calculating route for user {} from ({}, {}) to ({}, {})",
                 userId, request.getOriginLat(), request.getOriginLng(),
                 request.getDestLat(), request.getDestLng());
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("User not found: " + userId));
-
-        // Cancel any existing active session
-        sessionRepository.findActiveSession(userId).ifPresent(session -> {
-            session.cancel();
-            sessionRepository.save(session);
-            log.info("Cancelled existing active session: {}", session.getId());
-        });
-
-        // Call OSRM for route calculation
-        OsrmRouteResult osrmResult = osrmClient.getRoute(
-                request.getOriginLat(), request.getOriginLng(),
-                request.getDestLat(), request.getDestLng()
-        );
-
-        if (osrmResult == null) {
-            log.warn("OSRM returned no route for request");
-            throw new RouteNotFoundException("경로를 찾을 수 없습니다");
-        }
-
-        // Create navigation session
-        NavigationSession session = NavigationSession.builder()
-                .user(user)
-                .originLat(request.getOriginLat())
-                .originLng(request.getOriginLng())
-                .destLat(request.getDestLat())
-                .destLng(request.getDestLng())
-                .destName(request.getDestName() != null ? request.getDestName() : "목적지")
-                .distanceMeters(osrmResult.getDistance())
-                .build();
-
-        session = sessionRepository.save(session);
-        log.info("Created navigation session: {}", session.getId());
-
-        return RouteResponse.builder()
-                .sessionId(session.getId())
-                .distance(osrmResult.getDistance())
-                .duration(osrmResult.getDuration())
-                .waypoints(osrmResult.getWaypoints())
-                .instructions(osrmResult.getInstructions())
-                .build();
+        // Phase 1: validate user (short read-only transaction)
+        return persistence.call(() -> sessionManager.readUserVersion(userId))
+                .flatMap(userVersion -> findRoute(
+                                request.getOriginLat(), request.getOriginLng(),
+                                request.getDestLat(), request.getDestLng(), Lane.ROUTE)
+                        // Phase 2: call OSRM for route calculation outside any transaction
+                        // (through the route cache, embedded router as fallback)
+                        .switchIfEmpty(Mono.error(() -> {
+                            log.warn("OSRM returned no route for request");
+                            return new RouteNotFoundException("경로를 찾을 수 없습니다");
+                        }))
+                        // Phase 3: cancel any existing active session and create the new one (short write transaction)
+                        .flatMap(osrmResult -> persistence
+                                .call(() -> sessionManager.startSession(userId, userVersion, NavigationSession.builder()
+                                        .originLat(request.getOriginLat())
+                                        .originLng(request.getOriginLng())
+                                        .destLat(request.getDestLat())
+                                        .destLng(request.getDestLng())
+                                        .destName(request.getDestName() != null ? request.getDestName() : "목적지")
+                                        .distanceMeters(osrmResult.getDistance())
+                                        .build()))
+                                .map(session -> {
+                                    activeRouteStore.put(session.getId(), osrmResult);
+                                    // 진행 중인 안내 상태를 Redis에 기록하고, 취소된 이전 세션의 경로는 버림
+                                    activeNavigationStore.start(userId, ActiveNavigation.of(session))
+                                            .subscribe(activeRouteStore::remove);
+                                    log.info("Created navigation session: {}", session.getId());
+                                    return toResponse(session.getId(), osrmResult, request.getGeometryDetail());
+                                })));
     }
-    //경로 재계산 기능을 수행
-    @Transactional
-    public RouteResponse reroute(UUID userId, RerouteRequest request) {
+    //경로 재계산 기능을 수행 (calculateRoute와 같은 3단계 구조)
+    //세션 확인과 기록은 Redis의 안내 상태로 하고 DB에는 응답 후 비동기로 반영 (Redis에 상태가 없을 때만 DB를 읽음)
+    public Mono<RouteResponse> reroute(UUID userId, RerouteRequest request) {
         log.info("Rerouting for user {} session {} from ({}, {})",
                 userId, request.getSessionId(), request.getCurrentLat(), request.getCurrentLng());
 
-        NavigationSession session = sessionRepository.findByIdAndUserId(request.getSessionId(), userId)
-                .orElseThrow(() -> new IllegalArgumentException("Session not found: " + request.getSessionId()));
-
-        if (session.getStatus() != NavigationSession.SessionStatus.ACTIVE) {
-            throw new IllegalStateException("Session is not active");
-        }
-
-        // Call OSRM for new route from current position to destination
-        OsrmRouteResult osrmResult = osrmClient.getRoute(
-                request.getCurrentLat(), request.getCurrentLng(),
-                session.getDestLat(), session.getDestLng()
-        );
-
-        if (osrmResult == null) {
-            log.warn("OSRM returned no route for reroute request");
-            throw new RouteNotFoundException("새로운 경로를 찾을 수 없습니다");
-        }
-
-        // Update session
-        session.incrementRerouteCount();
-        session.setDistanceMeters(osrmResult.getDistance());
-        sessionRepository.save(session);
+        // Phase 1: validate session against the active navigation state (DB read only if it is missing)
+        return activeNavigation(userId, request.getSessionId())
+                .flatMap(active -> routeSplicer.splice(
+                                activeRouteStore.get(active.sessionId()),
+                                request.getCurrentLat(), request.getCurrentLng(),
+                                (originLat, originLng, destLat, destLng) ->
+                                        findRoute(originLat, originLng, destLat, destLng, Lane.REROUTE))
+                        // Phase 2: splice a short connector onto the remaining part of the last route if possible,
+                        // otherwise compute a full route from current position to destination
+                        .switchIfEmpty(Mono.defer(() -> findRoute(
+                                request.getCurrentLat(), request.getCurrentLng(),
+                                active.destLat(), active.destLng(), Lane.REROUTE)))
+                        .switchIfEmpty(Mono.error(() -> {
+                            log.warn("OSRM returned no route for reroute request");
+                            return new RouteNotFoundException("새로운 경로를 찾을 수 없습니다");
+                        }))
+                        // Phase 3: record the reroute in the active state (fails if the session ended meanwhile),
+                        // the database row is updated asynchronously
+                        .flatMap(osrmResult -> activeNavigationStore
+                                .recordReroute(userId, active.sessionId(),
+                                        request.getCurrentLat(), request.getCurrentLng())
+                                // Redis 장애로 확인할 수 없으면 안내를 막지 않고 진행
+                                .defaultIfEmpty(-1L)
+                                .flatMap(rerouteCount -> {
+                                    if (rerouteCount == 0) {
+                                        return Mono.error(new IllegalStateException("Session is not active"));
+                                    }
+                                    activeRouteStore.put(active.sessionId(), osrmResult);
+                                    persistReroute(active.sessionId(), osrmResult.getDistance());
+                                    log.info("Reroute complete for session {}, reroute count: {}",
+                                            active.sessionId(), rerouteCount);
+                                    return Mono.just(toResponse(active.sessionId(), osrmResult,
+                                            request.getGeometryDetail()));
+                                })));
+    }
 
-        log.info("Reroute complete for session {}, reroute count: {}",
-                session.getId(), session.getRerouteCount());
+    //Redis에서 진행 중인 안내 상태를 확인하고, 없거나 다른 세션이면 DB에서 확인한 뒤 Redis에 다시 기록
+    //(서버/Redis 재시작 후 첫 재탐색, 또는 종료된 세션에 대한 요청)
+    private Mono<ActiveNavigation> activeNavigation(UUID userId, UUID sessionId) {
+        return activeNavigationStore.get(userId)
+                .filter(active -> active.sessionId().equals(sessionId))
+                .switchIfEmpty(Mono.defer(() -> persistence
+                        .call(() -> sessionManager.readActiveSession(userId, sessionId))
+                        .flatMap(session -> {
+                            ActiveNavigation state = ActiveNavigation.of(session);
+                            return activeNavigationStore.start(userId, state).then(Mono.just(state));
+                        })));
+    }
 
-        return RouteResponse.builder()
-                .sessionId(session.getId())
-                .distance(osrmResult.getDistance())
-                .duration(osrmResult.getDuration())
-                .waypoints(osrmResult.getWaypoints())
-                .instructions(osrmResult.getInstructions())
-                .build();
+    //재탐색 결과를 DB에 반영 (응답을 기다리게 하지 않고, 실패해도 안내는 계속됨)
+    private void persistReroute(UUID sessionId, int distanceMeters) {
+        persistence.call(() -> sessionManager.recordReroute(sessionId, distanceMeters))
+                .subscribe(
+                        updated -> {
+                            if (!updated) {
+                                log.debug("Session {} ended before its reroute was recorded", sessionId);
+                            }
+                        },
+                        e -> log.warn("Failed to record reroute for session {}: {}", sessionId, e.getMessage()));
     }
 
     //도착하거나 안내가 취소되었을 때 호출되어 세션에 대해 처리하고 DB에 저장
@@ -132,6 +167,8 @@ public class NavigationService {
         }
 
         sessionRepository.save(session);
+        activeRouteStore.remove(sessionId);
+        activeNavigationStore.end(userId, sessionId);
         log.info("Updated session {} status to {}", sessionId, newStatus);
     }
 
@@ -141,8 +178,108 @@ public class NavigationService {
     }
 
     //안내 기록을 열람하는 데 사용하는 함수
-    public Page<NavigationSession> getNavigationHistory(UUID userId, int page, int size) {
-        return sessionRepository.findByUserIdOrderByStartedAtDesc(userId, PageRequest.of(page, size));
+    //cursor가 있으면 그 다음부터, 없으면 최신 기록부터 limit개를 반환 (시작 시각, id 기준 keyset pagination)
+    //limit + 1개를 읽어 다음 페이지가 있는지 확인하고, 있으면 마지막 세션으로 다음 cursor를 만듦
+    //includeTotal이면 전체 개수를 HISTORY_COUNT_CAP까지만 셈 (totalExact가 false면 그 이상)
+    @Transactional(readOnly = true)
+    public HistoryPage getNavigationHistory(UUID userId, String cursor, int offset, int limit, boolean includeTotal) {
+        List<SessionHistoryRow> rows;
+        if (cursor != null && !cursor.isEmpty()) {
+            HistoryCursor position = decodeCursor(cursor);
+            rows = sessionRepository.findHistoryBefore(
+                    userId, position.startedAt(), position.id(), Limit.of(limit + 1));
+        } else {
+            if (offset < 0 || offset > MAX_HISTORY_OFFSET) {
+                throw new IllegalArgumentException(
+                        "offset must be between 0 and " + MAX_HISTORY_OFFSET + ", use cursor for older history");
+            }
+            rows = sessionRepository.findHistory(userId, Limit.of(offset + limit + 1));
+            rows = rows.subList(Math.min(offset, rows.size()), rows.size());
+        }
+
+        boolean hasMore = rows.size() > limit;
+        List<SessionHistoryRow> sessions = List.copyOf(hasMore ? rows.subList(0, limit) : rows);
+        String nextCursor = hasMore ? encodeCursor(sessions.get(sessions.size() - 1)) : null;
+
+        if (!includeTotal) {
+            return new HistoryPage(sessions, nextCursor, null, null);
+        }
+        // 하나 더 세어서 정확히 HISTORY_COUNT_CAP개인 경우와 그보다 많은 경우를 구분
+        long counted = sessionRepository.countByUserIdUpTo(userId, HISTORY_COUNT_CAP + 1);
+        boolean exact = counted <= HISTORY_COUNT_CAP;
+        return new HistoryPage(sessions, nextCursor, exact ? counted : HISTORY_COUNT_CAP, exact);
+    }
+
+    //cursor는 마지막 세션의 시작 시각과 id를 URL에 그대로 쓸 수 있게 Base64로 묶은 값 (클라이언트는 내용을 해석하지 않음)
+    private static String encodeCursor(SessionHistoryRow last) {
+        String raw = last.startedAt() + "|" + last.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static HistoryCursor decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new HistoryCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    UUID.fromString(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid history cursor");
+        }
+    }
+
+    //OSRM(경로 캐시 경유)으로 경로를 찾고, 실패하면 내장 라우터로 대체 (경로가 없으면 빈 Mono)
+    //내장 라우터 결과는 품질이 다를 수 있으므로 경로 캐시에 넣지 않음
+    //OSRM 레인이 가득 차서 거절되면 내장 라우터로 대체하고, 내장 라우터가 없으면 거절(503)을 그대로 전달
+    private Mono<OsrmRouteResult> findRoute(double originLat, double originLng, double destLat, double destLng,
+                                            Lane lane) {
+        if (embeddedRouter.isPrimary()) {
+            return embeddedRouter.routeAsync(originLat, originLng, destLat, destLng);
+        }
+
+        return routeCache.getRouteAsync(originLat, originLng, destLat, destLng, lane)
+                .onErrorResume(LaneRejectedException.class,
+                        e -> embeddedRouter.isAvailable() ? Mono.empty() : Mono.error(e))
+                .switchIfEmpty(Mono.defer(() -> {
+                    if (!embeddedRouter.isAvailable()) {
+                        return Mono.empty();
+                    }
+                    log.warn("OSRM returned no route, falling back to embedded router");
+                    return embeddedRouter.routeAsync(originLat, originLng, destLat, destLng);
+                }));
+    }
+
+    private RouteResponse toResponse(UUID sessionId, OsrmRouteResult osrmResult, GeometryDetail detail) {
+        return RouteResponse.builder()
+                .sessionId(sessionId)
+                .distance(osrmResult.getDistance())
+                .duration(osrmResult.getDuration())
+                .geometry(encodeGeometry(osrmResult.getGeometry(), detail))
+                .waypoints(osrmResult.getWaypoints())
+                .instructions(osrmResult.getInstructions())
+                .build();
+    }
+
+    //요청한 단순화 수준에 맞춰 전체 경로 polyline을 다시 인코딩
+    private String encodeGeometry(String fullGeometry, GeometryDetail detail) {
+        if (fullGeometry == null || detail == GeometryDetail.none) {
+            return null;
+        }
+        GeometryDetail level = detail != null ? detail : GeometryDetail.medium;
+        if (level == GeometryDetail.full) {
+            return fullGeometry;
+        }
+        double[] simplified = LineSimplifier.simplify(PolylineCodec.decode(fullGeometry), level.getToleranceMeters());
+        return PolylineCodec.encode(simplified);
+    }
+
+    /**
+     * 네비 이력 한 페이지 (nextCursor가 null이면 마지막 페이지, total은 요청한 경우에만 채움)
+     */
+    public record HistoryPage(List<SessionHistoryRow> sessions, String nextCursor, Long total, Boolean totalExact) {
+    }
+
+    private record HistoryCursor(LocalDateTime startedAt, UUID id) {
     }
 
     public static class RouteNotFoundException extends RuntimeException {
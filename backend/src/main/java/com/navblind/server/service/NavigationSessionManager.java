@@ -0,0 +1,112 @@
+package com.navblind.server.service;
+
+import com.navblind.server.entity.NavigationSession;
+import com.navblind.server.entity.User;
+import com.navblind.server.repository.NavigationSessionRepository;
+import com.navblind.server.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * 안내 세션의 DB 작업을 짧은 트랜잭션 단위로 나눠 제공하는 서비스
+ *
+ * 경로 계산(OSRM 호출, 최대 수 초)을 트랜잭션 안에서 하면 그동안 DB 커넥션을 붙잡고 있어
+ * 부하 시 CPU보다 커넥션 풀이 먼저 고갈됨. 그래서 NavigationService는
+ *   1) 읽기/검증 트랜잭션 (이 클래스의 read 메서드)
+ *   2) 트랜잭션 밖에서 경로 계산
+ *   3) 쓰기 트랜잭션 (이 클래스의 write 메서드)
+ * 순서로 진행하고, 1)과 3) 사이에 다른 요청이 먼저 쓴 경우는 버전(@Version) 비교로 감지해
+ * ObjectOptimisticLockingFailureException(409)으로 실패시킴
+ *
+ * 재탐색은 Redis의 안내 상태(ActiveNavigationStore)로 확인하므로 DB를 읽지 않고,
+ * 결과는 응답 후 UPDATE 한 번으로 비동기 반영함
+ *
+ * (NavigationService 내부 호출로는 @Transactional 프록시가 적용되지 않으므로 별도 빈으로 분리)
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NavigationSessionManager {
+
+    private final NavigationSessionRepository sessionRepository;
+    private final UserRepository userRepository;
+
+    /**
+     * 경로 계산 전 사용자를 확인하고, 세션 생성 시 비교할 사용자 버전을 반환합니다.
+     */
+    @Transactional(readOnly = true)
+    public long readUserVersion(UUID userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new IllegalArgumentException("User not found: " + userId));
+        return user.getVersion();
+    }
+
+    /**
+     * 기존 진행 중인 세션을 취소하고 새 세션을 저장합니다.
+     * readUserVersion 이후 같은 사용자의 다른 세션 생성이 먼저 커밋되었다면 실패합니다.
+     *
+     * @param expectedUserVersion readUserVersion에서 읽은 버전
+     * @param session 저장할 새 세션 (user는 이 메서드에서 채움)
+     */
+    @Transactional
+    public NavigationSession startSession(UUID userId, long expectedUserVersion, NavigationSession session) {
+        // 커밋 시 사용자 버전을 올려서, 동시에 커밋하는 다른 세션 생성 트랜잭션이 실패하도록 함
+        User user = userRepository.findWithVersionIncrementById(userId)
+                .orElseThrow(() -> new IllegalArgumentException("User not found: " + userId));
+        if (user.getVersion() != expectedUserVersion) {
+            throw new ObjectOptimisticLockingFailureException(User.class, userId);
+        }
+
+        // 진행 중인 세션을 읽지 않고 한 번에 취소 (이전 세션 ID는 Redis의 안내 상태에서 알 수 있음)
+        int cancelled = sessionRepository.closeActiveSessions(
+                userId, NavigationSession.SessionStatus.CANCELLED, LocalDateTime.now());
+        if (cancelled > 0) {
+            log.info("Cancelled {} active session(s) for user {}", cancelled, userId);
+        }
+
+        session.setUser(user);
+        return sessionRepository.save(session);
+    }
+
+    /**
+     * 재탐색 전 세션을 확인합니다. (Redis에 안내 상태가 없거나 다른 세션일 때만 사용)
+     */
+    @Transactional(readOnly = true)
+    public NavigationSession readActiveSession(UUID userId, UUID sessionId) {
+        NavigationSession session = sessionRepository.findByIdAndUserId(sessionId, userId)
+                .orElseThrow(() -> new IllegalArgumentException("Session not found: " + sessionId));
+
+        if (session.getStatus() != NavigationSession.SessionStatus.ACTIVE) {
+            throw new IllegalStateException("Session is not active");
+        }
+        return session;
+    }
+
+    /**
+     * 재탐색 결과를 세션에 반영합니다. 세션이 이미 종료되었으면 false를 반환합니다.
+     * (재탐색 응답 후 비동기로 호출되므로 엔티티를 읽지 않고 UPDATE 한 번으로 처리)
+     */
+    @Transactional
+    public boolean recordReroute(UUID sessionId, int distanceMeters) {
+        return sessionRepository.recordReroute(sessionId, distanceMeters) > 0;
+    }
+
+    /**
+     * Redis의 안내 상태가 만료된(방치된) 세션들을 종료 처리하고 바뀐 세션 수를 반환합니다.
+     * 이미 종료된 세션은 그대로 둡니다.
+     */
+    @Transactional
+    public int closeExpiredSessions(Collection<UUID> sessionIds, NavigationSession.SessionStatus status) {
+        if (sessionIds.isEmpty()) {
+            return 0;
+        }
+        return sessionRepository.closeSessions(sessionIds, status, LocalDateTime.now());
+    }
+}
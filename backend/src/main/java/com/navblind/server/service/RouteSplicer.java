@@ -0,0 +1,220 @@
+package com.navblind.server.service;
+
+import com.navblind.server.config.RerouteProperties;
+import com.navblind.server.dto.RouteDto.Instruction;
+import com.navblind.server.dto.RouteDto.Waypoint;
+import com.navblind.server.geo.PolylineCodec;
+import com.navblind.server.geo.RouteLine;
+import com.navblind.server.geo.RouteLine.Projection;
+import com.navblind.server.integration.GuidanceBuilder;
+import com.navblind.server.integration.OsrmClient.OsrmRouteResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 경로 재탐색 시 전체 경로를 다시 구하지 않고
+ * "현재 위치 -> 기존 경로 복귀 지점" 연결 경로(connector)만 계산해서 기존 경로의 남은 부분에 붙이는 컴포넌트
+ *
+ * 3km 경로에서 20m 벗어난 경우처럼 대부분의 재탐색은 짧은 연결 경로만 필요하므로
+ * 업스트림 계산량과 응답 시간이 크게 줄어듦 (SC-004: 재탐색 안내 3초 이내)
+ *
+ * 접합할 수 없거나 접합 경로가 너무 돌아가는 경우 빈 Mono를 반환하며, 호출자는 전체 경로를 계산해야 함
+ *
+ * 메트릭: navblind.reroute.splice{result=spliced|off_route|no_connector|detour|unavailable}
+ */
+@Component
+@Slf4j
+public class RouteSplicer {
+
+    //복귀 지점이 목적지에서 이보다 가까우면 접합하지 않음 (연결 경로가 곧 전체 경로)
+    private static final double MIN_SUFFIX_METERS = 5;
+
+    private final RerouteProperties properties;
+    private final Counter spliced;
+    private final Counter offRoute;
+    private final Counter noConnector;
+    private final Counter detour;
+    private final Counter unavailable;
+
+    public RouteSplicer(RerouteProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.spliced = spliceCounter(meterRegistry, "spliced");
+        this.offRoute = spliceCounter(meterRegistry, "off_route");
+        this.noConnector = spliceCounter(meterRegistry, "no_connector");
+        this.detour = spliceCounter(meterRegistry, "detour");
+        this.unavailable = spliceCounter(meterRegistry, "unavailable");
+    }
+
+    //연결 경로 계산 방법 (NavigationService의 경로 탐색을 그대로 사용)
+    @FunctionalInterface
+    public interface ConnectorRouter {
+        Mono<OsrmRouteResult> route(double originLat, double originLng, double destLat, double destLng);
+    }
+
+    /**
+     * 현재 위치에서 기존 경로로 복귀하는 연결 경로를 계산해 남은 경로와 합친 새 경로를 반환합니다.
+     * 저장된 경로 객체(캐시에서 공유될 수 있음)는 수정하지 않고 새 Instruction을 만듭니다.
+     *
+     * @param stored 세션에 마지막으로 안내한 경로 (전체 형상 포함)
+     * @return 접합된 경로, 접합할 수 없거나 전체 경로가 나을 것 같으면 빈 Mono
+     */
+    public Mono<OsrmRouteResult> splice(OsrmRouteResult stored, double lat, double lng, ConnectorRouter router) {
+        if (!properties.spliceEnabled() || stored == null || stored.getGeometry() == null
+                || stored.getDistance() == null || stored.getInstructions() == null
+                || stored.getInstructions().isEmpty()) {
+            unavailable.increment();
+            return Mono.empty();
+        }
+
+        RouteLine line = new RouteLine(PolylineCodec.decode(stored.getGeometry()));
+        if (line.pointCount() < 2 || line.length() <= 0) {
+            unavailable.increment();
+            return Mono.empty();
+        }
+
+        Projection current = line.locate(lat, lng, 0);
+        if (current.distance() > properties.maxOffRouteMeters()) {
+            offRoute.increment();
+            return Mono.empty();
+        }
+
+        double rejoinAlong = current.along() + properties.rejoinLookaheadMeters();
+        if (rejoinAlong >= line.length() - MIN_SUFFIX_METERS) {
+            unavailable.increment();
+            return Mono.empty();
+        }
+        double[] rejoin = line.pointAt(rejoinAlong);
+
+        return router.route(lat, lng, rejoin[0], rejoin[1])
+                .filter(connector -> connector.getGeometry() != null && connector.getDistance() != null)
+                .switchIfEmpty(Mono.<OsrmRouteResult>fromRunnable(noConnector::increment))
+                .mapNotNull(connector -> join(stored, line, connector, lat, lng, rejoinAlong, rejoin));
+    }
+
+    //연결 경로와 남은 경로를 합침 (너무 돌아가는 경우 null)
+    private OsrmRouteResult join(OsrmRouteResult stored, RouteLine line, OsrmRouteResult connector,
+                                 double lat, double lng, double rejoinAlong, double[] rejoin) {
+        // OSRM 거리와 형상 길이가 조금 다를 수 있으므로 저장된 거리 기준으로 환산
+        double scale = stored.getDistance() / line.length();
+        double suffixDistance = (line.length() - rejoinAlong) * scale;
+        double splicedDistance = connector.getDistance() + suffixDistance;
+        double idealDistance = RouteLine.distance(lat, lng, rejoin[0], rejoin[1]) + suffixDistance;
+        if (splicedDistance > idealDistance * properties.maxSpliceFactor()) {
+            log.debug("Spliced route {}m exceeds {}x of {}m, computing full route",
+                    (int) splicedDistance, properties.maxSpliceFactor(), (int) idealDistance);
+            detour.increment();
+            return null;
+        }
+
+        double[] connectorPoints = PolylineCodec.decode(connector.getGeometry());
+        List<Instruction> instructions = spliceInstructions(stored, line, connector, connectorPoints, rejoinAlong, scale);
+        List<Waypoint> waypoints = new ArrayList<>(instructions.size());
+        for (Instruction instruction : instructions) {
+            waypoints.add(instruction.getLocation());
+        }
+
+        double[] suffixPoints = line.suffixFrom(rejoinAlong);
+        double[] geometry = new double[connectorPoints.length + suffixPoints.length];
+        System.arraycopy(connectorPoints, 0, geometry, 0, connectorPoints.length);
+        System.arraycopy(suffixPoints, 0, geometry, connectorPoints.length, suffixPoints.length);
+
+        int storedDuration = stored.getDuration() != null ? stored.getDuration() : 0;
+        int connectorDuration = connector.getDuration() != null ? connector.getDuration() : 0;
+
+        spliced.increment();
+        return OsrmRouteResult.builder()
+                .distance((int) splicedDistance)
+                .duration(connectorDuration + (int) (storedDuration * suffixDistance / stored.getDistance()))
+                .geometry(PolylineCodec.encode(geometry))
+                .waypoints(waypoints)
+                .instructions(instructions)
+                .build();
+    }
+
+    //연결 경로 안내(도착 제외) + 복귀 지점 안내 + 남은 경로 안내를 이어 붙이고 step 번호를 다시 매김
+    private List<Instruction> spliceInstructions(OsrmRouteResult stored, RouteLine line, OsrmRouteResult connector,
+                                                 double[] connectorPoints, double rejoinAlong, double scale) {
+        List<Instruction> storedInstructions = stored.getInstructions();
+
+        //저장된 안내 지점들을 경로 위 거리로 변환 (경로가 겹치는 경우를 대비해 앞 지점 이후 구간에서만 찾음)
+        double[] alongs = new double[storedInstructions.size()];
+        int segment = 0;
+        for (int i = 0; i < storedInstructions.size(); i++) {
+            Waypoint location = storedInstructions.get(i).getLocation();
+            Projection projection = line.locate(location.getLat(), location.getLng(), segment);
+            alongs[i] = projection.along();
+            segment = projection.segment();
+        }
+
+        int firstSuffix = storedInstructions.size() - 1;
+        for (int i = 0; i < storedInstructions.size(); i++) {
+            if (alongs[i] > rejoinAlong) {
+                firstSuffix = i;
+                break;
+            }
+        }
+        //복귀 지점이 속한 안내 구간의 도로명
+        String rejoinStreet = firstSuffix > 0 ? storedInstructions.get(firstSuffix - 1).getLocation().getName() : null;
+
+        List<Instruction> instructions = new ArrayList<>();
+        List<Instruction> connectorInstructions = connector.getInstructions() != null
+                ? connector.getInstructions() : List.of();
+        for (int i = 0; i < connectorInstructions.size() - 1; i++) {
+            instructions.add(renumber(connectorInstructions.get(i), instructions.size()));
+        }
+
+        double[] rejoinPoint = line.pointAt(rejoinAlong);
+        double turn = RouteLine.turnAngle(lastBearing(connectorPoints), line.bearingAt(rejoinAlong));
+        String modifier = GuidanceBuilder.turnModifier(turn);
+        Waypoint rejoinLocation = Waypoint.builder()
+                .lat(rejoinPoint[0])
+                .lng(rejoinPoint[1])
+                .name(rejoinStreet != null ? rejoinStreet : "")
+                .build();
+        int rejoinDistance = (int) Math.max(0, (alongs[firstSuffix] - rejoinAlong) * scale);
+        instructions.add(GuidanceBuilder.instruction(instructions.size(),
+                "straight".equals(modifier) ? "continue" : "turn",
+                modifier, rejoinStreet, rejoinDistance, rejoinLocation));
+
+        for (int i = firstSuffix; i < storedInstructions.size(); i++) {
+            instructions.add(renumber(storedInstructions.get(i), instructions.size()));
+        }
+        return instructions;
+    }
+
+    //연결 경로의 마지막 진행 방향 (마지막 두 점이 같으면 그 앞 점 사용)
+    private static double lastBearing(double[] points) {
+        int last = points.length / 2 - 1;
+        for (int i = last - 1; i >= 0; i--) {
+            if (points[i * 2] != points[last * 2] || points[i * 2 + 1] != points[last * 2 + 1]) {
+                return RouteLine.bearing(points[i * 2], points[i * 2 + 1], points[last * 2], points[last * 2 + 1]);
+            }
+        }
+        return 0;
+    }
+
+    //캐시에 있는 원본 Instruction을 건드리지 않도록 step만 바꾼 복사본을 만듦
+    private static Instruction renumber(Instruction source, int step) {
+        return Instruction.builder()
+                .step(step)
+                .type(source.getType())
+                .modifier(source.getModifier())
+                .text(source.getText())
+                .distance(source.getDistance())
+                .location(source.getLocation())
+                .build();
+    }
+
+    private static Counter spliceCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("navblind.reroute.splice")
+                .description("Reroute splice attempts by outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,282 @@
+package com.navblind.server.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.navblind.server.config.PersistenceScheduler;
+import com.navblind.server.config.SuggestProperties;
+import com.navblind.server.dto.DestinationDto.SearchResult;
+import com.navblind.server.entity.Destination;
+import com.navblind.server.geo.RouteLine;
+import com.navblind.server.integration.NominatimClient;
+import com.navblind.server.repository.DestinationRepository;
+import com.navblind.server.suggest.SuggestEntry;
+import com.navblind.server.suggest.SuggestIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * 목적지 자동완성 서비스
+ *
+ * 첫 한두 글자를 입력(또는 음성 인식)할 때마다 Nominatim을 호출하지 않도록 서버 메모리의 색인(SuggestIndex)에서 찾음
+ * - 공용 색인: Nominatim DB에서 내보낸 POI 목록(선택) + 최근 검색 결과로 자주 나온 장소, 주기적으로 새로 만들어 교체
+ * - 사용자 색인: 사용자가 저장한 목적지(이름과 라벨), 처음 조회할 때 DB에서 읽어 만들고 목적지가 바뀌면 버림
+ *
+ * 점수 = 기본 점수(인기도, 저장 목적지 가산점) / (1 + 거리 / geoScaleMeters)
+ * 색인에 후보가 없을 때만 호출자(DestinationService)가 Nominatim 검색으로 넘어감
+ *
+ * 메트릭: navblind.suggest.index.size
+ */
+@Service
+@Slf4j
+public class SuggestService {
+
+    private final SuggestProperties properties;
+    private final DestinationRepository destinationRepository;
+    private final PersistenceScheduler persistence;
+
+    private final AtomicReference<SuggestIndex> shared = new AtomicReference<>(SuggestIndex.empty());
+    //검색 결과로 나온 장소와 나온 횟수 (Caffeine은 빈도 기반으로 제거하므로 자주 나오는 장소가 남음)
+    private final Cache<String, Popular> popular;
+    private final AsyncCache<UUID, SuggestIndex> personal;
+    private volatile List<SuggestEntry> poiEntries;
+    private volatile boolean dirty = true;
+
+    public SuggestService(SuggestProperties properties,
+                          DestinationRepository destinationRepository,
+                          PersistenceScheduler persistence,
+                          MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.destinationRepository = destinationRepository;
+        this.persistence = persistence;
+        this.popular = Caffeine.newBuilder()
+                .maximumSize(properties.maxPopular())
+                .build();
+        this.personal = Caffeine.newBuilder()
+                .maximumSize(properties.personalMaxUsers())
+                .expireAfterAccess(properties.personalTtl())
+                .buildAsync();
+        Gauge.builder("navblind.suggest.index.size", shared, ref -> ref.get().size())
+                .description("Places in the shared autocomplete index")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 검색어로 시작하는 장소를 점수 순으로 최대 limit개 반환합니다. (후보가 없으면 빈 리스트)
+     * 사용자 색인이 메모리에 없으면 DB에서 읽는 동안만 JPA 스케줄러를 사용합니다.
+     */
+    public Mono<List<SearchResult>> suggest(UUID userId, String query, Double lat, Double lng, int limit) {
+        String key = SuggestIndex.queryKey(query);
+        if (!properties.enabled() || key.isEmpty()) {
+            return Mono.just(List.of());
+        }
+        List<SuggestEntry> sharedCandidates = shared.get().lookup(key, lat, lng);
+        return personalIndex(userId)
+                .map(index -> rank(index.lookup(key, lat, lng), sharedCandidates, lat, lng, limit));
+    }
+
+    /**
+     * Nominatim 검색 결과를 인기 장소로 기록합니다. 다음 색인 갱신 때 반영됩니다.
+     */
+    public void record(List<SearchResult> results) {
+        if (!properties.enabled() || results.isEmpty()) {
+            return;
+        }
+        for (SearchResult result : results) {
+            if (result.getName() == null || result.getLatitude() == null || result.getLongitude() == null) {
+                continue;
+            }
+            popular.get(placeKey(result.getName(), result.getLatitude(), result.getLongitude()),
+                    k -> new Popular(result)).hits++;
+        }
+        dirty = true;
+    }
+
+    /** 색인에 후보가 없을 때 Nominatim 검색으로 넘어가는 최소 검색어 길이 */
+    public int fallbackMinLength() {
+        return properties.fallbackMinLength();
+    }
+
+    /**
+     * 사용자의 목적지가 바뀌었을 때 호출합니다. 다음 조회 때 DB에서 다시 읽습니다.
+     */
+    public void invalidate(UUID userId) {
+        personal.synchronous().invalidate(userId);
+    }
+
+    //공용 색인을 새로 만들어 교체 (바뀐 것이 없으면 건너뜀), 기동 직후 한 번 실행되며 그 전에는 빈 색인으로 동작
+    @Scheduled(fixedDelayString = "${suggest.rebuild-interval:1m}")
+    public void rebuild() {
+        if (!properties.enabled() || !dirty) {
+            return;
+        }
+        dirty = false;
+        if (poiEntries == null) {
+            poiEntries = loadPoiFile(properties.poiFile());
+        }
+
+        long start = System.nanoTime();
+        List<SuggestEntry> entries = new ArrayList<>(poiEntries);
+        Set<String> known = new HashSet<>();
+        for (SuggestEntry entry : poiEntries) {
+            known.add(placeKey(entry.name(), entry.latitude(), entry.longitude()));
+        }
+        popular.asMap().forEach((key, place) -> {
+            if (known.add(key)) {
+                entries.add(place.toEntry());
+            }
+        });
+
+        shared.set(SuggestIndex.build(entries, properties.headSize(), properties.scanLimit(),
+                properties.headCellMeters()));
+        log.info("Rebuilt suggest index: {} places in {}ms", entries.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private Mono<SuggestIndex> personalIndex(UUID userId) {
+        if (userId == null) {
+            return Mono.just(SuggestIndex.empty());
+        }
+        return Mono.fromFuture(personal.get(userId, (id, executor) -> persistence
+                .call(() -> destinationRepository.findByUserIdOrderByUseCountDesc(id))
+                .map(destinations -> SuggestIndex.build(
+                        destinations.stream().map(this::toEntry).toList(),
+                        properties.headSize(), properties.scanLimit(), properties.headCellMeters()))
+                .toFuture()), true)
+                .onErrorResume(e -> {
+                    // 저장 목적지를 읽지 못해도 공용 색인 후보는 보여줌 (실패한 로드는 캐시에 남지 않음)
+                    log.warn("Failed to load destinations for suggest: {}", e.getMessage());
+                    return Mono.just(SuggestIndex.empty());
+                });
+    }
+
+    //사용자 목적지와 공용 후보를 합쳐(같은 장소는 한 번만) 거리 가중 점수 순으로 정렬
+    private List<SearchResult> rank(List<SuggestEntry> mine, List<SuggestEntry> candidates,
+                                    Double lat, Double lng, int limit) {
+        Set<String> seen = new HashSet<>();
+        List<SuggestEntry> merged = new ArrayList<>(mine.size() + candidates.size());
+        for (List<SuggestEntry> source : List.of(mine, candidates)) {
+            for (SuggestEntry entry : source) {
+                if (seen.add(placeKey(entry.name(), entry.latitude(), entry.longitude()))) {
+                    merged.add(entry);
+                }
+            }
+        }
+
+        boolean located = lat != null && lng != null;
+        return merged.stream()
+                .map(entry -> {
+                    double distance = located
+                            ? RouteLine.distance(lat, lng, entry.latitude(), entry.longitude())
+                            : 0;
+                    return new Scored(entry, distance, entry.weight() / (1 + distance / properties.geoScaleMeters()));
+                })
+                .sorted(Comparator.comparingDouble(Scored::score).reversed())
+                .limit(limit)
+                .map(scored -> SearchResult.builder()
+                        .name(scored.entry().name())
+                        .latitude(scored.entry().latitude())
+                        .longitude(scored.entry().longitude())
+                        .address(scored.entry().address())
+                        .distance(located ? (int) scored.distance() : null)
+                        .category(scored.entry().category())
+                        .build())
+                .toList();
+    }
+
+    private SuggestEntry toEntry(Destination destination) {
+        return new SuggestEntry(
+                destination.getName(),
+                destination.getLatitude(),
+                destination.getLongitude(),
+                destination.getAddress(),
+                destination.getLabel(),
+                properties.personalBoost() + Math.log1p(destination.getUseCount()),
+                destination.getLabel());
+    }
+
+    //POI 목록 파일(TSV: 이름, 위도, 경도, 분류, importance[, 주소])을 읽음, 없거나 읽지 못하면 빈 목록
+    private List<SuggestEntry> loadPoiFile(String poiFile) {
+        if (poiFile == null || poiFile.isBlank()) {
+            return List.of();
+        }
+        Path path = Path.of(poiFile);
+        if (!Files.isReadable(path)) {
+            log.warn("Suggest POI file {} not found, indexing search results only", path);
+            return List.of();
+        }
+
+        List<SuggestEntry> entries = new ArrayList<>();
+        int skipped = 0;
+        try (Stream<String> lines = Files.lines(path, StandardCharsets.UTF_8)) {
+            for (String line : (Iterable<String>) lines::iterator) {
+                String[] fields = line.split("\t", -1);
+                try {
+                    entries.add(new SuggestEntry(
+                            fields[0],
+                            Double.parseDouble(fields[1]),
+                            Double.parseDouble(fields[2]),
+                            fields.length > 5 && !fields[5].isEmpty() ? fields[5] : null,
+                            NominatimClient.translateCategory(fields[3]),
+                            Double.parseDouble(fields[4]),
+                            null));
+                } catch (RuntimeException e) {
+                    skipped++;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to read suggest POI file {}: {}", path, e.getMessage());
+            return List.of();
+        }
+        log.info("Loaded {} POIs for suggest from {} ({} lines skipped)", entries.size(), path, skipped);
+        return entries;
+    }
+
+    //같은 장소 판별용 키 (이름 + 약 10m 단위로 반올림한 좌표)
+    private static String placeKey(String name, double lat, double lng) {
+        return name + "|" + Math.round(lat * 10_000) + "|" + Math.round(lng * 10_000);
+    }
+
+    private record Scored(SuggestEntry entry, double distance, double score) {
+    }
+
+    //검색 결과로 나온 장소 하나와 나온 횟수
+    private static final class Popular {
+
+        private final SearchResult place;
+        //정확한 값일 필요는 없으므로 동시 증가 시 일부가 빠져도 무시
+        private volatile int hits;
+
+        private Popular(SearchResult place) {
+            this.place = place;
+        }
+
+        //Nominatim에서 여러 번 나온 장소일수록 높은 점수 (사용자 목적지 가산점보다는 작음)
+        private SuggestEntry toEntry() {
+            return new SuggestEntry(
+                    place.getName(),
+                    place.getLatitude(),
+                    place.getLongitude(),
+                    place.getAddress(),
+                    place.getCategory(),
+                    Math.log1p(hits),
+                    null);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.navblind.server.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.navblind.server.config.PersistenceScheduler;
+import com.navblind.server.config.TraceProperties;
+import com.navblind.server.dto.RouteDto.TraceUploadRequest;
+import com.navblind.server.geo.PolylineCodec;
+import com.navblind.server.repository.NavigationSessionRepository;
+import com.navblind.server.trace.TraceSample;
+import com.navblind.server.trace.TraceWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 안내 세션 중 실제로 걸은 경로(위치 기록)를 받는 서비스
+ *
+ * 압축된 업로드(polyline + 시각 차이)를 위치 목록으로 풀고, 세션 소유를 확인한 뒤 TraceWriter 버퍼에 넣음
+ * 세션 소유 확인 결과는 메모리에 보관해 같은 세션의 이후 업로드는 DB를 읽지 않음
+ */
+@Service
+@Slf4j
+public class TraceService {
+
+    private static final int MAX_OWNER_ENTRIES = 10_000;
+    private static final Duration OWNER_TTL = Duration.ofHours(1);
+    private static final int MAX_SOURCE_LENGTH = 20;
+    //기기 시계가 서버보다 앞설 수 있는 허용치 (이보다 미래 시각의 위치는 거절)
+    private static final Duration MAX_CLOCK_SKEW = Duration.ofMinutes(10);
+
+    private final TraceProperties properties;
+    private final TraceWriter traceWriter;
+    private final NavigationSessionRepository sessionRepository;
+    private final PersistenceScheduler persistence;
+    //소유가 확인된 세션 ID -> 사용자 ID
+    private final Cache<UUID, UUID> sessionOwners;
+
+    public TraceService(TraceProperties properties,
+                        TraceWriter traceWriter,
+                        NavigationSessionRepository sessionRepository,
+                        PersistenceScheduler persistence) {
+        this.properties = properties;
+        this.traceWriter = traceWriter;
+        this.sessionRepository = sessionRepository;
+        this.persistence = persistence;
+        this.sessionOwners = Caffeine.newBuilder()
+                .maximumSize(MAX_OWNER_ENTRIES)
+                .expireAfterAccess(OWNER_TTL)
+                .build();
+    }
+
+    /**
+     * 위치 기록을 받아 버퍼에 넣고 받은 위치 수를 반환합니다. (DB에는 잠시 후 기록)
+     * 형식이 잘못되었으면 IllegalArgumentException, 버퍼가 가득 찼으면 TraceBufferFullException으로 실패합니다.
+     */
+    public Mono<Integer> upload(UUID userId, UUID sessionId, TraceUploadRequest request) {
+        if (!properties.enabled()) {
+            return Mono.error(new IllegalStateException("Trace upload is disabled"));
+        }
+        List<TraceSample> samples = decode(sessionId, request);
+        return verifyOwner(userId, sessionId)
+                .then(Mono.fromCallable(() -> {
+                    traceWriter.submit(samples);
+                    return samples.size();
+                }));
+    }
+
+    private Mono<Void> verifyOwner(UUID userId, UUID sessionId) {
+        if (userId.equals(sessionOwners.getIfPresent(sessionId))) {
+            return Mono.empty();
+        }
+        return persistence.call(() -> sessionRepository.existsByIdAndUserId(sessionId, userId))
+                .flatMap(owned -> {
+                    if (!owned) {
+                        return Mono.error(new IllegalArgumentException("Session not found: " + sessionId));
+                    }
+                    sessionOwners.put(sessionId, userId);
+                    return Mono.empty();
+                });
+    }
+
+    //polyline과 시각 차이를 위치 목록으로 풀고, 선택 필드의 길이와 값 범위를 확인
+    private List<TraceSample> decode(UUID sessionId, TraceUploadRequest request) {
+        double[] latLngs;
+        try {
+            latLngs = PolylineCodec.decode(request.getPolyline());
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed trace polyline");
+        }
+
+        int count = latLngs.length / 2;
+        if (count == 0 || count > properties.maxPointsPerRequest()) {
+            throw new IllegalArgumentException("Trace must contain 1 to " + properties.maxPointsPerRequest() + " points");
+        }
+        requireLength("timeDeltas", request.getTimeDeltas(), count);
+        requireLength("accuracies", request.getAccuracies(), count);
+        requireLength("headings", request.getHeadings(), count);
+        requireLength("sources", request.getSources(), count);
+
+        List<TraceSample> samples = new ArrayList<>(count);
+        long time = request.getStartTime();
+        for (int i = 0; i < count; i++) {
+            Integer delta = request.getTimeDeltas().get(i);
+            if (delta == null || delta < 0) {
+                throw new IllegalArgumentException("timeDeltas must be non-negative");
+            }
+            time += delta;
+
+            double lat = latLngs[i * 2];
+            double lng = latLngs[i * 2 + 1];
+            if (lat < -90 || lat > 90 || lng < -180 || lng > 180) {
+                throw new IllegalArgumentException("Trace point out of range at index " + i);
+            }
+
+            String source = valueAt(request.getSources(), i);
+            if (source != null && source.length() > MAX_SOURCE_LENGTH) {
+                throw new IllegalArgumentException("Trace source too long at index " + i);
+            }
+            samples.add(new TraceSample(sessionId, time, lat, lng,
+                    valueAt(request.getAccuracies(), i), valueAt(request.getHeadings(), i), source));
+        }
+
+        // 시각은 줄어들지 않으므로 첫 위치와 마지막 위치만 확인
+        // 범위 밖의 시각(기기 시계 오류, 초 단위로 보낸 startTime 등)은 월별 파티션이 없어 기본 파티션에 쌓이고,
+        // 그 달의 파티션을 만들 수 없게 하므로 받지 않음
+        long now = System.currentTimeMillis();
+        long earliest = now - properties.retention().toMillis();
+        long latest = now + MAX_CLOCK_SKEW.toMillis();
+        if (request.getStartTime() < earliest || time > latest) {
+            throw new IllegalArgumentException("Trace timestamps must be within the retention period and not in the future"
+                    + " (epoch milliseconds)");
+        }
+        return samples;
+    }
+
+    private static void requireLength(String field, List<?> values, int count) {
+        if (values != null && values.size() != count) {
+            throw new IllegalArgumentException(field + " must have one entry per point (" + count + ")");
+        }
+    }
+
+    private static <T> T valueAt(List<T> values, int index) {
+        return values != null ? values.get(index) : null;
+    }
+}
@@ -0,0 +1,165 @@
+package com.navblind.server.service;
+
+import com.navblind.server.cache.DestinationCache;
+import com.navblind.server.config.UseCountProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 목적지 사용 횟수(use_count) 증가분을 메모리에 모았다가 주기적으로 DB에 반영하는 지연 쓰기(write-behind) 버퍼
+ *
+ * 도착할 때마다 엔티티를 읽고 행 전체를 UPDATE하는 대신
+ * - 증가분은 (사용자, 목적지)별로 ConcurrentHashMap에 더함 (키마다 잠금이 나뉘어 있어 동시 도착끼리 막히지 않음)
+ * - flushInterval마다 목적지마다 UPDATE ... SET use_count = use_count + ? 를 JDBC 배치로 한 트랜잭션에 실행
+ *   (DB에서 더하므로 동시에 도착해도 증가분이 사라지지 않음, 다른 사용자의 목적지 id면 0행이 바뀌어 무시됨)
+ * - 반영에 실패하면 증가분을 버퍼에 되돌려 다음 주기에 다시 시도
+ * - 서버 종료 시 남은 증가분을 반영
+ *
+ * 아직 반영되지 않은 증가분은 pending()으로 조회해 목록 정렬에 더함 (DestinationService)
+ * 반영 후에는 해당 사용자의 목적지 캐시와 자동완성 색인을 비움
+ *
+ * 메트릭: navblind.usecount.pending, navblind.usecount.flushed, navblind.usecount.flush.failures
+ */
+@Component
+@Slf4j
+public class UseCountBuffer {
+
+    private static final String INCREMENT_SQL =
+            "UPDATE destinations SET use_count = use_count + ? WHERE id = ? AND user_id = ?";
+
+    private final UseCountProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DestinationCache destinationCache;
+    private final SuggestService suggestService;
+
+    private final ConcurrentHashMap<Key, Integer> pending = new ConcurrentHashMap<>();
+    //스케줄러의 주기 반영과 종료 시 반영이 겹치지 않도록 (가상 스레드 고정을 피하기 위해 synchronized 대신 사용)
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Counter flushed;
+    private final Counter failures;
+
+    public UseCountBuffer(UseCountProperties properties,
+                          JdbcTemplate jdbcTemplate,
+                          TransactionTemplate transactionTemplate,
+                          DestinationCache destinationCache,
+                          SuggestService suggestService,
+                          MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.destinationCache = destinationCache;
+        this.suggestService = suggestService;
+
+        Gauge.builder("navblind.usecount.pending", pending, Map::size)
+                .description("Destinations with use count increments not yet written to the database")
+                .register(meterRegistry);
+        this.flushed = Counter.builder("navblind.usecount.flushed")
+                .description("Destination use count updates written to the database")
+                .register(meterRegistry);
+        this.failures = Counter.builder("navblind.usecount.flush.failures")
+                .description("Use count flushes that failed and were put back into the buffer")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 목적지 사용 횟수를 1 늘립니다. (writeBehind가 꺼져 있으면 바로 DB에 반영)
+     */
+    public void increment(UUID userId, UUID destinationId) {
+        Key key = new Key(userId, destinationId);
+        if (!properties.writeBehind()) {
+            write(Map.of(key, 1));
+            return;
+        }
+        pending.merge(key, 1, Integer::sum);
+    }
+
+    /**
+     * 아직 DB에 반영되지 않은 증가분 (없으면 0)
+     */
+    public int pending(UUID userId, UUID destinationId) {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        return pending.getOrDefault(new Key(userId, destinationId), 0);
+    }
+
+    //모은 증가분을 DB에 반영 (주기는 use-count.flush-interval)
+    @Scheduled(fixedDelayString = "${use-count.flush-interval:5s}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            // 키를 하나씩 꺼내므로 꺼낸 뒤 들어온 증가분은 새 항목으로 쌓여 다음 주기에 반영됨
+            Map<Key, Integer> batch = new HashMap<>();
+            for (Key key : pending.keySet()) {
+                Integer delta = pending.remove(key);
+                if (delta != null) {
+                    batch.put(key, delta);
+                }
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                write(batch);
+            } catch (RuntimeException e) {
+                batch.forEach((key, delta) -> pending.merge(key, delta, Integer::sum));
+                failures.increment();
+                log.warn("Failed to flush use counts for {} destinations, will retry: {}", batch.size(), e.getMessage());
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+        if (!pending.isEmpty()) {
+            log.warn("Dropping {} unflushed destination use counts on shutdown", pending.size());
+        }
+    }
+
+    //증가분을 한 트랜잭션의 배치 UPDATE로 반영하고, 커밋 후 해당 사용자들의 캐시를 비움
+    private void write(Map<Key, Integer> batch) {
+        List<Map.Entry<Key, Integer>> updates = new ArrayList<>(batch.entrySet());
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(INCREMENT_SQL, updates, properties.batchSize(), (ps, update) -> {
+                    ps.setInt(1, update.getValue());
+                    ps.setObject(2, update.getKey().destinationId());
+                    ps.setObject(3, update.getKey().userId());
+                }));
+        flushed.increment(updates.size());
+
+        Set<UUID> users = new HashSet<>();
+        for (Key key : batch.keySet()) {
+            users.add(key.userId());
+        }
+        for (UUID userId : users) {
+            destinationCache.invalidate(userId);
+            suggestService.invalidate(userId);
+        }
+    }
+
+    private record Key(UUID userId, UUID destinationId) {}
+}
@@ -0,0 +1,17 @@
+package com.navblind.server.suggest;
+
+/**
+ * 자동완성 색인의 장소 하나
+ *
+ * @param alias    이름 외에 함께 색인할 별칭 (저장한 목적지의 라벨 "집", "회사" 등, 없으면 null)
+ * @param weight   위치와 무관한 기본 점수 (검색/방문 빈도, Nominatim importance)
+ */
+public record SuggestEntry(
+    String name,
+    double latitude,
+    double longitude,
+    String address,
+    String category,
+    double weight,
+    String alias
+) {}
@@ -0,0 +1,296 @@
+package com.navblind.server.suggest;
+
+import com.navblind.server.cache.GeoGrid;
+import com.navblind.server.text.KoreanText;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * 장소 이름의 자모 접두사로 후보를 찾는 읽기 전용 자동완성 색인
+ *
+ * 키는 공백을 뺀 이름의 자모열("강남역" -> "ㄱㅏㅇㄴㅏㅁㅇㅕㄱ")과 초성열("ㄱㄴㅇ")이며,
+ * 여러 단어로 된 이름은 각 단어부터 시작하는 키도 넣어서 "역삼"으로 "강남 역삼점"을 찾을 수 있게 함
+ *
+ * 키를 정렬한 배열로 보관하면 같은 접두사의 키는 연속 구간이 되므로 이분 탐색 두 번으로 구간을 찾음
+ * (trie와 같은 접두사 탐색을 노드 객체 없이 키 배열 하나로 처리)
+ * 구간이 scanLimit보다 큰 짧은 접두사("ㄱ", "ㄱㅏ" 등)는 만들 때 기본 점수 상위 headSize개를 미리 골라 두어
+ * 조회 시간이 색인 크기와 상관없이 일정하게 유지됨
+ * 전체 상위 후보만 두면 먼 지역의 유명한 장소만 남으므로, headCellMeters 격자 셀별 상위 후보도 함께 골라 두고
+ * 위치가 주어지면 그 셀과 이웃 8개 셀의 후보를 더해서 반환함 (가까운 장소는 SuggestService가 거리 점수로 올림)
+ *
+ * 만든 뒤에는 바뀌지 않으므로 여러 스레드가 잠금 없이 조회할 수 있고, 갱신은 새로 만들어 교체함
+ */
+public final class SuggestIndex {
+
+    private static final SuggestIndex EMPTY = build(List.of(), 1, 1, 1);
+
+    private final List<SuggestEntry> entries;
+    //정렬된 키와 각 키가 가리키는 entries 인덱스
+    private final String[] keys;
+    private final int[] owners;
+    //구간이 큰 접두사 -> 기본 점수 상위 entries 인덱스
+    private final Map<String, int[]> heads;
+    //"접두사|셀 키" -> 그 셀 안의 기본 점수 상위 entries 인덱스
+    private final Map<String, int[]> cellHeads;
+    private final int scanLimit;
+    private final double headCellMeters;
+
+    private SuggestIndex(List<SuggestEntry> entries, String[] keys, int[] owners,
+                         Map<String, int[]> heads, Map<String, int[]> cellHeads,
+                         int scanLimit, double headCellMeters) {
+        this.entries = entries;
+        this.keys = keys;
+        this.owners = owners;
+        this.heads = heads;
+        this.cellHeads = cellHeads;
+        this.scanLimit = scanLimit;
+        this.headCellMeters = headCellMeters;
+    }
+
+    public static SuggestIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * 색인을 만듭니다.
+     *
+     * @param headSize       구간이 큰 접두사에 대해 미리 골라 둘 후보 수 (전체와 셀마다)
+     * @param scanLimit      조회 시 직접 훑어볼 최대 구간 크기
+     * @param headCellMeters 셀별 상위 후보를 고를 격자 셀 한 변의 길이 (미터)
+     */
+    public static SuggestIndex build(List<SuggestEntry> entries, int headSize, int scanLimit, double headCellMeters) {
+        List<String> keyList = new ArrayList<>();
+        List<Integer> ownerList = new ArrayList<>();
+        for (int i = 0; i < entries.size(); i++) {
+            SuggestEntry entry = entries.get(i);
+            for (String key : keysOf(entry)) {
+                keyList.add(key);
+                ownerList.add(i);
+            }
+        }
+
+        Integer[] order = new Integer[keyList.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparing(keyList::get));
+
+        String[] keys = new String[order.length];
+        int[] owners = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            keys[i] = keyList.get(order[i]);
+            owners[i] = ownerList.get(order[i]);
+        }
+
+        String[] cells = new String[entries.size()];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = GeoGrid.cellKey(entries.get(i).latitude(), entries.get(i).longitude(), headCellMeters);
+        }
+
+        Heads heads = new Heads(entries, keys, owners, cells, headSize, scanLimit);
+        heads.collect(0, keys.length, 0);
+        return new SuggestIndex(List.copyOf(entries), keys, owners, heads.global, heads.local,
+                scanLimit, headCellMeters);
+    }
+
+    /**
+     * 검색어를 자동완성 키와 같은 방식으로 바꿉니다. (정규화 -> 자모 분해 -> 공백 제거)
+     */
+    public static String queryKey(String query) {
+        return KoreanText.decompose(KoreanText.normalize(query)).replace(" ", "");
+    }
+
+    /**
+     * queryKey가 접두사인 장소 후보를 반환합니다. (중복 없음, 순서는 의미 없음)
+     * 구간이 큰 접두사는 기본 점수 상위 후보만 반환합니다.
+     */
+    public List<SuggestEntry> lookup(String queryKey) {
+        return lookup(queryKey, null, null);
+    }
+
+    /**
+     * 위치(lat, lng)가 주어지면 구간이 큰 접두사에 대해 전체 상위 후보에 주변 셀의 상위 후보를 더해서 반환합니다.
+     */
+    public List<SuggestEntry> lookup(String queryKey, Double lat, Double lng) {
+        if (queryKey.isEmpty() || keys.length == 0) {
+            return List.of();
+        }
+        int from = lowerBound(queryKey);
+        int to = lowerBound(queryKey + Character.MAX_VALUE);
+
+        if (to - from > scanLimit) {
+            int[] head = heads.get(queryKey);
+            if (head != null) {
+                Set<Integer> seen = new LinkedHashSet<>();
+                for (int owner : head) {
+                    seen.add(owner);
+                }
+                if (lat != null && lng != null) {
+                    for (String cell : nearbyCells(lat, lng)) {
+                        int[] local = cellHeads.get(queryKey + "|" + cell);
+                        if (local != null) {
+                            for (int owner : local) {
+                                seen.add(owner);
+                            }
+                        }
+                    }
+                }
+                List<SuggestEntry> candidates = new ArrayList<>(seen.size());
+                for (int owner : seen) {
+                    candidates.add(entries.get(owner));
+                }
+                return candidates;
+            }
+            to = from + scanLimit;
+        }
+
+        Set<Integer> seen = new HashSet<>();
+        List<SuggestEntry> candidates = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            if (seen.add(owners[i])) {
+                candidates.add(entries.get(owners[i]));
+            }
+        }
+        return candidates;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    //이름 전체, 두 번째 단어부터의 각 단어 시작 위치, 별칭에 대해 자모 키와 초성 키를 만듦
+    private static Set<String> keysOf(SuggestEntry entry) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (String text : new String[]{entry.name(), entry.alias()}) {
+            if (text == null) {
+                continue;
+            }
+            String normalized = KoreanText.normalize(text);
+            String[] words = normalized.split(" ");
+            for (int i = 0; i < words.length; i++) {
+                String suffix = String.join("", Arrays.copyOfRange(words, i, words.length));
+                if (suffix.isEmpty()) {
+                    continue;
+                }
+                keys.add(KoreanText.decompose(suffix));
+                if (KoreanText.hasSyllable(suffix)) {
+                    keys.add(KoreanText.chosung(suffix));
+                }
+            }
+        }
+        return keys;
+    }
+
+    //위치가 속한 셀과 이웃 8개 셀의 키 (셀 경계 근처의 장소도 후보에 들어가도록)
+    private List<String> nearbyCells(double lat, double lng) {
+        double dLat = headCellMeters / 111_320.0;
+        double dLng = dLat / Math.max(0.01, Math.cos(Math.toRadians(lat)));
+        List<String> cells = new ArrayList<>(9);
+        for (int y = -1; y <= 1; y++) {
+            for (int x = -1; x <= 1; x++) {
+                String cell = GeoGrid.cellKey(lat + y * dLat, lng + x * dLng, headCellMeters);
+                if (!cells.contains(cell)) {
+                    cells.add(cell);
+                }
+            }
+        }
+        return cells;
+    }
+
+    //구간이 큰 접두사의 전체/셀별 상위 후보를 모으는 build 전용 도우미
+    private static final class Heads {
+
+        private final List<SuggestEntry> entries;
+        private final String[] keys;
+        private final int[] owners;
+        //entries 인덱스 -> 격자 셀 키
+        private final String[] cells;
+        private final int headSize;
+        private final int scanLimit;
+        private final Map<String, int[]> global = new HashMap<>();
+        private final Map<String, int[]> local = new HashMap<>();
+
+        private Heads(List<SuggestEntry> entries, String[] keys, int[] owners, String[] cells,
+                      int headSize, int scanLimit) {
+            this.entries = entries;
+            this.keys = keys;
+            this.owners = owners;
+            this.cells = cells;
+            this.headSize = headSize;
+            this.scanLimit = scanLimit;
+        }
+
+        //[from, to) 구간(모두 길이 depth의 같은 접두사를 가짐)을 다음 글자로 나누어, scanLimit보다 큰 구간의 상위 후보를 저장
+        private void collect(int from, int to, int depth) {
+            int i = from;
+            //접두사와 길이가 같은 키는 정렬상 앞에 옴
+            while (i < to && keys[i].length() == depth) {
+                i++;
+            }
+            while (i < to) {
+                char c = keys[i].charAt(depth);
+                int end = i + 1;
+                while (end < to && keys[end].charAt(depth) == c) {
+                    end++;
+                }
+                if (end - i > scanLimit) {
+                    topByWeight(keys[i].substring(0, depth + 1), i, end);
+                    collect(i, end, depth + 1);
+                }
+                i = end;
+            }
+        }
+
+        //구간 전체와 셀마다 기본 점수 상위 headSize개를 저장 (셀별 후보 수의 합은 구간 크기를 넘지 않음)
+        private void topByWeight(String prefix, int from, int to) {
+            Comparator<Integer> byWeight = Comparator.comparingDouble(owner -> entries.get(owner).weight());
+            PriorityQueue<Integer> top = new PriorityQueue<>(byWeight);
+            Map<String, PriorityQueue<Integer>> topByCell = new HashMap<>();
+            Set<Integer> seen = new HashSet<>();
+            for (int i = from; i < to; i++) {
+                int owner = owners[i];
+                if (!seen.add(owner)) {
+                    continue;
+                }
+                offer(top, owner);
+                offer(topByCell.computeIfAbsent(cells[owner], cell -> new PriorityQueue<>(byWeight)), owner);
+            }
+            global.put(prefix, toArray(top));
+            topByCell.forEach((cell, cellTop) -> local.put(prefix + "|" + cell, toArray(cellTop)));
+        }
+
+        private void offer(PriorityQueue<Integer> top, int owner) {
+            top.add(owner);
+            if (top.size() > headSize) {
+                top.poll();
+            }
+        }
+
+        private static int[] toArray(PriorityQueue<Integer> top) {
+            return top.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    private int lowerBound(String key) {
+        int lo = 0;
+        int hi = keys.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid].compareTo(key) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,130 @@
+package com.navblind.server.text;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+//한국어 검색어를 캐시/요청 키로 쓸 수 있게 정규화하는 유틸리티
+//같은 검색어라도 입력 기기(IME)에 따라 다른 문자열로 들어오는 경우를 하나로 모음
+public final class KoreanText {
+
+    //공백 문자: 일반 공백/탭, NBSP, 전각 공백(U+3000) 등 유니코드 공백 전체
+    private static final Pattern WHITESPACE = Pattern.compile("[\\s\\p{Z}]+");
+    //폭 없는 문자(zero-width space/joiner, BOM), 복사/붙여넣기한 검색어에 섞여 들어옴
+    private static final Pattern ZERO_WIDTH = Pattern.compile("[\\u200B-\\u200D\\u2060\\uFEFF]");
+
+    //완성형 한글 음절 범위 (가 ~ 힣), 음절 = 0xAC00 + (초성 x 21 + 중성) x 28 + 종성
+    private static final char SYLLABLE_FIRST = '가';
+    private static final char SYLLABLE_LAST = '힣';
+
+    //초성 19자 (호환 자모)
+    private static final String CHOSUNG = "ㄱㄲㄴㄷㄸㄹㅁㅂㅃㅅㅆㅇㅈㅉㅊㅋㅌㅍㅎ";
+    //중성 21자, 겹모음은 입력 순서대로 풀어 씀 (ㅘ -> ㅗㅏ)
+    private static final String[] JUNGSUNG = {
+            "ㅏ", "ㅐ", "ㅑ", "ㅒ", "ㅓ", "ㅔ", "ㅕ", "ㅖ", "ㅗ", "ㅗㅏ", "ㅗㅐ", "ㅗㅣ", "ㅛ", "ㅜ",
+            "ㅜㅓ", "ㅜㅔ", "ㅜㅣ", "ㅠ", "ㅡ", "ㅡㅣ", "ㅣ"};
+    //종성 28자 (첫 번째는 받침 없음), 겹받침은 입력 순서대로 풀어 씀 (ㄺ -> ㄹㄱ)
+    private static final String[] JONGSUNG = {
+            "", "ㄱ", "ㄲ", "ㄱㅅ", "ㄴ", "ㄴㅈ", "ㄴㅎ", "ㄷ", "ㄹ", "ㄹㄱ", "ㄹㅁ", "ㄹㅂ", "ㄹㅅ", "ㄹㅌ",
+            "ㄹㅍ", "ㄹㅎ", "ㅁ", "ㅂ", "ㅂㅅ", "ㅅ", "ㅆ", "ㅇ", "ㅈ", "ㅊ", "ㅋ", "ㅌ", "ㅍ", "ㅎ"};
+    //음절이 되지 못하고 낱자로 입력된 겹모음/겹받침
+    private static final Map<Character, String> COMPOUND_JAMO = Map.ofEntries(
+            Map.entry('ㄳ', "ㄱㅅ"), Map.entry('ㄵ', "ㄴㅈ"), Map.entry('ㄶ', "ㄴㅎ"), Map.entry('ㄺ', "ㄹㄱ"),
+            Map.entry('ㄻ', "ㄹㅁ"), Map.entry('ㄼ', "ㄹㅂ"), Map.entry('ㄽ', "ㄹㅅ"), Map.entry('ㄾ', "ㄹㅌ"),
+            Map.entry('ㄿ', "ㄹㅍ"), Map.entry('ㅀ', "ㄹㅎ"), Map.entry('ㅄ', "ㅂㅅ"), Map.entry('ㅘ', "ㅗㅏ"),
+            Map.entry('ㅙ', "ㅗㅐ"), Map.entry('ㅚ', "ㅗㅣ"), Map.entry('ㅝ', "ㅜㅓ"), Map.entry('ㅞ', "ㅜㅔ"),
+            Map.entry('ㅟ', "ㅜㅣ"), Map.entry('ㅢ', "ㅡㅣ"));
+
+    private KoreanText() {
+    }
+
+    /**
+     * 검색어를 정규화합니다.
+     * - NFC 정규화: 자모가 분리된 채(NFD, 예: iOS/macOS 입력) 들어온 "ㅎ+ㅏ+ㄴ"을 완성형 "한"으로 합침
+     * - 전각 영문/숫자(Ａ, １)를 반각으로 변환
+     * - 폭 없는 문자 제거, 공백 종류와 개수 통일(연속 공백은 하나로), 앞뒤 공백 제거
+     * - 소문자화 (Locale.ROOT)
+     *
+     * @return 정규화된 검색어 (null이면 빈 문자열)
+     */
+    public static String normalize(String query) {
+        if (query == null) {
+            return "";
+        }
+        String text = Normalizer.normalize(query, Normalizer.Form.NFC);
+        text = toHalfWidth(text);
+        text = ZERO_WIDTH.matcher(text).replaceAll("");
+        text = WHITESPACE.matcher(text).replaceAll(" ").trim();
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 한글 음절을 입력 순서대로의 자모열로 풀어 씁니다. (예: "강남" -> "ㄱㅏㅇㄴㅏㅁ", "과" -> "ㄱㅗㅏ")
+     * 입력 중인 글자("가" -> "강" -> "강ㄴ")도 완성된 이름의 자모열 접두사가 되므로 자동완성 키로 사용합니다.
+     * 한글이 아닌 문자는 그대로 둡니다.
+     */
+    public static String decompose(String text) {
+        StringBuilder sb = new StringBuilder(text.length() * 3);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= SYLLABLE_FIRST && c <= SYLLABLE_LAST) {
+                int index = c - SYLLABLE_FIRST;
+                sb.append(CHOSUNG.charAt(index / (21 * 28)))
+                        .append(JUNGSUNG[index / 28 % 21])
+                        .append(JONGSUNG[index % 28]);
+            } else {
+                String jamo = COMPOUND_JAMO.get(c);
+                if (jamo != null) {
+                    sb.append(jamo);
+                } else {
+                    sb.append(c);
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 한글 음절을 초성으로 바꿉니다. (예: "강남역" -> "ㄱㄴㅇ")
+     * 초성만 입력하는 검색("ㄱㄴㅇ")을 위한 키이며, 한글이 아닌 문자는 그대로 둡니다.
+     */
+    public static String chosung(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= SYLLABLE_FIRST && c <= SYLLABLE_LAST) {
+                sb.append(CHOSUNG.charAt((c - SYLLABLE_FIRST) / (21 * 28)));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /** 문자열에 완성형 한글 음절이 있는지 여부 */
+    public static boolean hasSyllable(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= SYLLABLE_FIRST && c <= SYLLABLE_LAST) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    //전각 ASCII 영역(U+FF01~U+FF5E)을 반각(U+0021~U+007E)으로 변환
+    private static String toHalfWidth(String text) {
+        StringBuilder sb = null;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= '！' && c <= '～') {
+                if (sb == null) {
+                    sb = new StringBuilder(text);
+                }
+                sb.setCharAt(i, (char) (c - 0xFEE0));
+            }
+        }
+        return sb == null ? text : sb.toString();
+    }
+}
@@ -0,0 +1,78 @@
+package com.navblind.server.text;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+//음성 인식으로 들어온 장소 검색어의 변형을 만드는 유틸리티
+//"한국 공학 대학교", "한국공학대", "강남역 입구"처럼 띄어쓰기/줄임말/위치 접미사가 달라서
+//Nominatim이 잘 찾지 못하는 검색어를 몇 가지 형태로 바꿔 함께 검색하기 위해 사용
+public final class QueryVariants {
+
+    //장소 이름 뒤에 붙는 위치 표현 (이름의 일부가 아니므로 떼어 냄)
+    private static final String[] LOCATION_SUFFIXES = {"입구", "앞", "근처", "쪽", "방면"};
+    //줄임말과 원래 이름 (뒤에서부터 비교)
+    private static final String[][] ABBREVIATIONS = {
+            {"대학교", "대"},
+            {"초등학교", "초"},
+    };
+
+    private QueryVariants() {
+    }
+
+    /**
+     * 검색어와 그 변형을 최대 max개 반환합니다. (첫 번째는 항상 정규화한 원래 검색어, 중복 없음)
+     * - 띄어쓰기를 모두 빼고 위치 접미사를 뗀 형태 ("한국 공학 대학교" -> "한국공학대학교", "강남역 입구" -> "강남역")
+     * - 줄임말을 풀거나 줄인 형태 ("한국공학대" <-> "한국공학대학교")
+     * - 역 이름에서 "역"을 뗀 형태 ("강남역" -> "강남", OSM의 역 이름은 "역" 없이 등록된 경우가 많음)
+     */
+    public static List<String> of(String query, int max) {
+        String normalized = KoreanText.normalize(query);
+        Set<String> variants = new LinkedHashSet<>();
+        variants.add(normalized);
+
+        //위치 표현을 뗀 경우에는 떼기 전의 붙여 쓴 형태("강남역입구")는 검색하지 않음
+        String compact = normalized.replace(" ", "");
+        String base = stripLocationSuffix(compact);
+        variants.add(base);
+
+        for (String[] abbreviation : ABBREVIATIONS) {
+            String full = abbreviation[0];
+            String shortForm = abbreviation[1];
+            if (base.endsWith(full) && base.length() > full.length() + 1) {
+                variants.add(base.substring(0, base.length() - full.length()) + shortForm);
+            } else if (base.endsWith(shortForm) && base.length() > shortForm.length() + 1) {
+                variants.add(base.substring(0, base.length() - shortForm.length()) + full);
+            }
+        }
+
+        if (base.endsWith("역") && base.length() >= 3) {
+            variants.add(base.substring(0, base.length() - 1));
+        }
+
+        List<String> result = new ArrayList<>(max);
+        for (String variant : variants) {
+            if (result.size() >= max) {
+                break;
+            }
+            if (variant.length() >= 2) {
+                result.add(variant);
+            }
+        }
+        if (result.isEmpty()) {
+            result.add(normalized);
+        }
+        return result;
+    }
+
+    //띄어쓰기를 뺀 검색어 끝의 위치 표현을 뗌 (남는 이름이 두 글자 이상일 때만)
+    private static String stripLocationSuffix(String compact) {
+        for (String suffix : LOCATION_SUFFIXES) {
+            if (compact.endsWith(suffix) && compact.length() - suffix.length() >= 2) {
+                return compact.substring(0, compact.length() - suffix.length());
+            }
+        }
+        return compact;
+    }
+}
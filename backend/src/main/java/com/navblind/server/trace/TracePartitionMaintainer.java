@@ -0,0 +1,149 @@
+package com.navblind.server.trace;
+
+import com.navblind.server.config.TraceProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * session_trace_points의 월별 파티션을 관리하는 주기 작업
+ *
+ * - 지난달, 이번 달과 다음 partitionMonthsAhead개월의 파티션을 미리 만듦
+ * - 만들려는 달의 행이 이미 기본 파티션에 있으면 (파티션이 없던 동안 들어온 위치)
+ *   Postgres가 PARTITION OF를 거부하므로, 새 테이블로 옮긴 뒤 파티션으로 붙임 (한 트랜잭션)
+ * - 마지막 시각이 retention보다 오래된 파티션은 DROP (행 단위 DELETE 없이 한 번에 정리),
+ *   기본 파티션의 오래된 행은 DELETE
+ *
+ * 파티션 경계는 UTC 기준이며, 여러 인스턴스가 동시에 실행해도 IF EXISTS/IF NOT EXISTS로 결과는 같음
+ *
+ * 메트릭: navblind.trace.partition.moved (기본 파티션에서 옮긴 행 수),
+ *        navblind.trace.partition.failures (실패하면 이후 위치가 기본 파티션에 쌓이므로 알림 대상)
+ */
+@Component
+@Slf4j
+public class TracePartitionMaintainer {
+
+    private static final String TABLE = "session_trace_points";
+    private static final String DEFAULT_PARTITION = TABLE + "_default";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final Pattern MONTHLY = Pattern.compile(TABLE + "_(\\d{4})_(\\d{2})");
+
+    private final TraceProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter moved;
+    private final Counter failures;
+
+    public TracePartitionMaintainer(TraceProperties properties,
+                                    JdbcTemplate jdbcTemplate,
+                                    TransactionTemplate transactionTemplate,
+                                    MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.moved = Counter.builder("navblind.trace.partition.moved")
+                .description("Trace rows moved out of the default partition into a new monthly partition")
+                .register(meterRegistry);
+        this.failures = Counter.builder("navblind.trace.partition.failures")
+                .description("Failed trace partition maintenance runs")
+                .register(meterRegistry);
+    }
+
+    //시작 직후와 이후 주기적으로 실행 (주기는 trace.partition-check-interval)
+    @Scheduled(initialDelay = 0, fixedDelayString = "${trace.partition-check-interval:6h}")
+    public void maintain() {
+        if (!properties.enabled()) {
+            return;
+        }
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        for (int i = -1; i <= properties.partitionMonthsAhead(); i++) {
+            YearMonth month = current.plusMonths(i);
+            try {
+                ensurePartition(month);
+            } catch (RuntimeException e) {
+                failures.increment();
+                log.error("Failed to create trace partition for {}, points of that month stay in {}: {}",
+                        month, DEFAULT_PARTITION, e.getMessage());
+            }
+        }
+        try {
+            dropExpiredPartitions();
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.warn("Failed to drop expired trace partitions: {}", e.getMessage());
+        }
+    }
+
+    private void ensurePartition(YearMonth month) {
+        String name = TABLE + "_" + month.format(SUFFIX);
+        if (Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, name))) {
+            return;
+        }
+
+        OffsetDateTime from = month.atDay(1).atStartOfDay().atOffset(ZoneOffset.UTC);
+        OffsetDateTime to = month.plusMonths(1).atDay(1).atStartOfDay().atOffset(ZoneOffset.UTC);
+        String bounds = " FOR VALUES FROM ('" + from + "') TO ('" + to + "')";
+
+        Boolean stranded = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM " + DEFAULT_PARTITION + " WHERE recorded_at >= ? AND recorded_at < ?)",
+                Boolean.class, from, to);
+        if (!Boolean.TRUE.equals(stranded)) {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + name + " PARTITION OF " + TABLE + bounds);
+            return;
+        }
+
+        // 기본 파티션에 그 달의 행이 있으면 PARTITION OF가 실패하므로 옮긴 뒤 붙임
+        Integer count = transactionTemplate.execute(status -> {
+            jdbcTemplate.execute("CREATE TABLE " + name + " (LIKE " + TABLE + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+            jdbcTemplate.update("INSERT INTO " + name + " SELECT * FROM " + DEFAULT_PARTITION
+                    + " WHERE recorded_at >= ? AND recorded_at < ?", from, to);
+            int rows = jdbcTemplate.update("DELETE FROM " + DEFAULT_PARTITION
+                    + " WHERE recorded_at >= ? AND recorded_at < ?", from, to);
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " ATTACH PARTITION " + name + bounds);
+            return rows;
+        });
+        moved.increment(count != null ? count : 0);
+        log.warn("Moved {} trace points for {} out of {} into new partition {}", count, month, DEFAULT_PARTITION, name);
+    }
+
+    private void dropExpiredPartitions() {
+        Instant cutoff = Instant.now().minus(properties.retention());
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid " +
+                "JOIN pg_class p ON p.oid = i.inhparent " +
+                "WHERE p.relname = ?", String.class, TABLE);
+
+        for (String partition : partitions) {
+            Matcher matcher = MONTHLY.matcher(partition);
+            if (!matcher.matches()) {
+                continue;
+            }
+            YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+            Instant end = month.plusMonths(1).atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+            if (!end.isAfter(cutoff)) {
+                jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition);
+                log.info("Dropped expired trace partition {}", partition);
+            }
+        }
+
+        int deleted = jdbcTemplate.update("DELETE FROM " + DEFAULT_PARTITION + " WHERE recorded_at < ?",
+                cutoff.atOffset(ZoneOffset.UTC));
+        if (deleted > 0) {
+            log.info("Deleted {} expired trace points from {}", deleted, DEFAULT_PARTITION);
+        }
+    }
+}
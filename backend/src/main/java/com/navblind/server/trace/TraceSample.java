@@ -0,0 +1,21 @@
+package com.navblind.server.trace;
+
+import java.util.UUID;
+
+/**
+ * 세션 중 기록된 위치 하나 (session_trace_points의 한 행)
+ *
+ * @param recordedAt 측정 시각 (epoch milliseconds)
+ * @param accuracy   위치 정확도 반경 (미터, 없으면 null)
+ * @param heading    이동 방향 (도, 없으면 null)
+ * @param source     위치 출처 (GPS, ARCORE_GEOSPATIAL 등, 없으면 null)
+ */
+public record TraceSample(
+        UUID sessionId,
+        long recordedAt,
+        double lat,
+        double lng,
+        Float accuracy,
+        Float heading,
+        String source
+) {}
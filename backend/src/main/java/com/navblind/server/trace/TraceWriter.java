@@ -0,0 +1,182 @@
+package com.navblind.server.trace;
+
+import com.navblind.server.config.TraceProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Types;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 업로드된 위치를 메모리 버퍼에 모았다가 전용 스레드에서 배치 INSERT로 session_trace_points에 쓰는 writer
+ *
+ * - 업로드 요청은 버퍼에 넣기만 하고 바로 반환 (DB 쓰기를 기다리지 않음)
+ * - 버퍼에 담긴 위치 수는 bufferCapacity를 넘지 않음. 넘치는 업로드는 통째로 거절(503)하고
+ *   클라이언트가 Retry-After 후 다시 보내게 함 (메모리 상한 + backpressure)
+ * - writer 스레드는 버퍼에 쌓인 만큼(최대 batchSize) 꺼내 한 번에 씀.
+ *   부하가 높을수록 쓰는 동안 쌓인 위치가 많아져 배치가 커지고 행당 비용이 줄어듦
+ * - JDBC 배치는 reWriteBatchedInserts(application.yml)로 여러 행 INSERT 한 문장으로 바뀌어 전송됨
+ * - 쓰기에 실패하면 잠시 후 다시 시도하고, 계속 실패하면 그 배치를 버림 (위치 기록은 안내에 필요하지 않음)
+ * - 서버 종료 시 버퍼에 남은 위치를 모두 쓴 뒤 종료
+ *
+ * 메트릭: navblind.trace.buffered, navblind.trace.points{result=written|rejected|dropped}
+ */
+@Component
+@Slf4j
+public class TraceWriter {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO session_trace_points (session_id, recorded_at, lat, lng, accuracy, heading, source) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final long POLL_MILLIS = 500;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_BACKOFF_MILLIS = 1000;
+    private static final long SHUTDOWN_WAIT_MILLIS = 10_000;
+    private static final int RETRY_AFTER_SECONDS = 2;
+
+    private final TraceProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final LinkedBlockingQueue<TraceSample> queue = new LinkedBlockingQueue<>();
+    //큐에 들어 있거나 쓰는 중인 위치 수 (업로드 단위로 한도를 확인하기 위해 큐 크기와 따로 관리)
+    private final AtomicInteger buffered = new AtomicInteger();
+    private final List<Thread> writers = new ArrayList<>();
+    private volatile boolean running = true;
+
+    private final Counter written;
+    private final Counter rejected;
+    private final Counter dropped;
+
+    public TraceWriter(TraceProperties properties, JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+
+        Gauge.builder("navblind.trace.buffered", buffered, AtomicInteger::get)
+                .description("Trace points waiting to be written to the database")
+                .register(meterRegistry);
+        this.written = pointCounter(meterRegistry, "written");
+        this.rejected = pointCounter(meterRegistry, "rejected");
+        this.dropped = pointCounter(meterRegistry, "dropped");
+
+        if (properties.enabled()) {
+            for (int i = 0; i < properties.writers(); i++) {
+                writers.add(Thread.ofPlatform()
+                        .name("trace-writer-" + i)
+                        .daemon(true)
+                        .start(this::run));
+            }
+        }
+    }
+
+    /**
+     * 위치들을 버퍼에 넣습니다. 버퍼에 자리가 없으면 하나도 넣지 않고 TraceBufferFullException을 던집니다.
+     */
+    public void submit(List<TraceSample> samples) {
+        int count = samples.size();
+        if (!running || buffered.addAndGet(count) > properties.bufferCapacity()) {
+            if (running) {
+                buffered.addAndGet(-count);
+            }
+            rejected.increment(count);
+            throw new TraceBufferFullException(RETRY_AFTER_SECONDS);
+        }
+        queue.addAll(samples);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        long deadline = System.currentTimeMillis() + SHUTDOWN_WAIT_MILLIS;
+        for (Thread writer : writers) {
+            try {
+                writer.join(Math.max(1, deadline - System.currentTimeMillis()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if (!queue.isEmpty()) {
+            log.warn("Dropping {} unwritten trace points on shutdown", queue.size());
+        }
+    }
+
+    //종료 요청 후에도 버퍼가 빌 때까지 계속 씀
+    private void run() {
+        List<TraceSample> batch = new ArrayList<>(properties.batchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                TraceSample first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, properties.batchSize() - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                buffered.addAndGet(-batch.size());
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<TraceSample> batch) throws InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, sample) -> {
+                    ps.setObject(1, sample.sessionId());
+                    ps.setObject(2, OffsetDateTime.ofInstant(Instant.ofEpochMilli(sample.recordedAt()), ZoneOffset.UTC));
+                    ps.setDouble(3, sample.lat());
+                    ps.setDouble(4, sample.lng());
+                    ps.setObject(5, sample.accuracy(), Types.REAL);
+                    ps.setObject(6, sample.heading(), Types.REAL);
+                    ps.setString(7, sample.source());
+                });
+                written.increment(batch.size());
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    dropped.increment(batch.size());
+                    log.warn("Dropping {} trace points after {} failed writes: {}", batch.size(), attempt, e.getMessage());
+                    return;
+                }
+                log.warn("Trace write failed (attempt {}), retrying: {}", attempt, e.getMessage());
+                Thread.sleep(RETRY_BACKOFF_MILLIS * attempt);
+            }
+        }
+    }
+
+    private static Counter pointCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("navblind.trace.points")
+                .description("Uploaded trace points by outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 버퍼가 가득 차서 위치를 받을 수 없는 상태 (503으로 응답)
+     */
+    @Getter
+    public static class TraceBufferFullException extends RuntimeException {
+        private final int retryAfterSeconds;
+
+        public TraceBufferFullException(int retryAfterSeconds) {
+            super("Trace buffer is full");
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+    }
+}
@@ -0,0 +1,5 @@
+-- Optimistic locking versions
+-- 경로 계산(업스트림 호출)을 트랜잭션 밖으로 옮기면서 동시 요청을 버전 비교로 감지
+
+ALTER TABLE users ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE navigation_sessions ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
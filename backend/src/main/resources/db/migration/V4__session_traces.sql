@@ -0,0 +1,19 @@
+-- Walking traces
+-- 안내 중 실제로 걸은 위치(융합 위치)를 세션별로 기록해 경로 이탈 원인을 분석하는 데 사용
+-- 점 단위로 대량 삽입되므로 기록 시각 기준 월별 파티션으로 나눔 (TracePartitionMaintainer가 미리 만들고, 보관 기간이 지난 달은 파티션째 삭제)
+-- 삽입 비용을 줄이기 위해 navigation_sessions 외래 키는 두지 않음 (세션 소유 확인은 API에서 함)
+
+CREATE TABLE session_trace_points (
+    session_id UUID NOT NULL,
+    recorded_at TIMESTAMPTZ NOT NULL,
+    lat DOUBLE PRECISION NOT NULL,
+    lng DOUBLE PRECISION NOT NULL,
+    accuracy REAL,
+    heading REAL,
+    source VARCHAR(20)
+) PARTITION BY RANGE (recorded_at);
+
+CREATE INDEX idx_trace_session_time ON session_trace_points(session_id, recorded_at);
+
+-- 월별 파티션이 아직 없는 시각의 위치도 잃지 않도록 받는 기본 파티션
+CREATE TABLE session_trace_points_default PARTITION OF session_trace_points DEFAULT;
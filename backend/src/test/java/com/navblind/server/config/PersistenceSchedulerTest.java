@@ -0,0 +1,44 @@
+package com.navblind.server.config;
+
+import com.navblind.server.config.PersistenceScheduler.PersistenceBusyException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PersistenceSchedulerTest {
+
+    private final PersistenceScheduler scheduler = new PersistenceScheduler(1, 1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        scheduler.dispose();
+    }
+
+    @Test
+    void runsBlockingWork() {
+        assertEquals("done", scheduler.call(() -> "done").block());
+    }
+
+    @Test
+    void rejectsWorkWhenTheQueueIsFull() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        // 스레드 하나는 작업 중, 대기열 한 자리는 대기 중
+        scheduler.call(() -> {
+            started.countDown();
+            release.await();
+            return 1;
+        }).subscribe();
+        started.await();
+        scheduler.call(() -> 2).subscribe();
+
+        PersistenceBusyException error = assertThrows(PersistenceBusyException.class,
+                () -> scheduler.call(() -> 3).block());
+        assertEquals(1, error.getRetryAfterSeconds());
+    }
+}
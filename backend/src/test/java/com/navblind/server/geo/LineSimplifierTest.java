@@ -0,0 +1,41 @@
+package com.navblind.server.geo;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class LineSimplifierTest {
+
+    @Test
+    void dropsPointsOnAStraightLine() {
+        double[] line = {37.5, 127.0, 37.5, 127.0005, 37.5, 127.001, 37.5, 127.0015, 37.5, 127.002};
+
+        assertArrayEquals(new double[]{37.5, 127.0, 37.5, 127.002}, LineSimplifier.simplify(line, 1.0), 0);
+    }
+
+    @Test
+    void keepsCornersBeyondTheTolerance() {
+        // 동쪽으로 약 90m 간 뒤 북쪽으로 약 110m
+        double[] corner = {37.5, 127.0, 37.5, 127.0005, 37.5, 127.001, 37.5005, 127.001, 37.501, 127.001};
+
+        assertArrayEquals(new double[]{37.5, 127.0, 37.5, 127.001, 37.501, 127.001},
+                LineSimplifier.simplify(corner, 1.0), 0);
+    }
+
+    @Test
+    void dropsWobbleWithinTheTolerance() {
+        // 가운데 점이 직선에서 약 1.1m 벗어남
+        double[] wobble = {37.5, 127.0, 37.50001, 127.0005, 37.5, 127.001};
+
+        assertArrayEquals(new double[]{37.5, 127.0, 37.5, 127.001}, LineSimplifier.simplify(wobble, 2.0), 0);
+        assertArrayEquals(wobble, LineSimplifier.simplify(wobble, 0.5), 0);
+    }
+
+    @Test
+    void returnsShortLinesUnchanged() {
+        double[] segment = {37.5, 127.0, 37.5, 127.001};
+
+        assertSame(segment, LineSimplifier.simplify(segment, 5.0));
+    }
+}
@@ -0,0 +1,64 @@
+package com.navblind.server.geo;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PolylineCodecTest {
+
+    private static final double TOLERANCE = 0.5 / 1e6;
+
+    @Test
+    void roundTripsAWalkingRoute() {
+        double[] route = {
+                37.497942, 127.027621,
+                37.498112, 127.027803,
+                37.498507, 127.028345,
+                37.499021, 127.029066,
+                37.500104, 127.030517};
+
+        assertArrayEquals(route, PolylineCodec.decode(PolylineCodec.encode(route)), TOLERANCE);
+    }
+
+    @Test
+    void roundTripsNegativeAndLargeCoordinates() {
+        double[] points = {
+                -33.868820, 151.209296,
+                40.712776, -74.005974,
+                0.0, 0.0,
+                -89.999999, -179.999999,
+                89.999999, 179.999999};
+
+        assertArrayEquals(points, PolylineCodec.decode(PolylineCodec.encode(points)), TOLERANCE);
+    }
+
+    @Test
+    void roundsToSixDecimals() {
+        double[] decoded = PolylineCodec.decode(PolylineCodec.encode(new double[]{37.1234564, 127.1234566}));
+
+        assertArrayEquals(new double[]{37.123456, 127.123457}, decoded, 1e-9);
+    }
+
+    @Test
+    void encodesSmallDeltasAsSingleCharacters() {
+        // 1e-5도 -> 10 -> zigzag 20 -> '?'(63) + 20 = 'S', 0 -> '?'
+        assertEquals("S?", PolylineCodec.encode(new double[]{0.00001, 0}));
+        // -1e-6도 -> -1 -> zigzag 1 -> '@'
+        assertEquals("@?", PolylineCodec.encode(new double[]{-0.000001, 0}));
+    }
+
+    @Test
+    void encodesOnlyTheRequestedPrefix() {
+        double[] route = {37.5, 127.0, 37.501, 127.001, 37.502, 127.002};
+
+        assertEquals(PolylineCodec.encode(new double[]{37.5, 127.0, 37.501, 127.001}),
+                PolylineCodec.encode(route, 2));
+    }
+
+    @Test
+    void handlesEmptyInput() {
+        assertEquals("", PolylineCodec.encode(new double[0]));
+        assertEquals(0, PolylineCodec.decode("").length);
+    }
+}
@@ -0,0 +1,96 @@
+package com.navblind.server.integration;
+
+import com.navblind.server.config.AdaptiveConcurrency;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveLimitTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void startsAtTheConfiguredMaximum() {
+        AdaptiveLimit limit = limit(true, 100);
+
+        assertEquals(100, limit.current());
+        assertEquals(100, limit.max());
+        assertEquals(0, limit.rttNanos());
+        assertEquals(100.0, registry.get("navblind.lane.limit").gauge().value());
+    }
+
+    @Test
+    void backsOffOnDropsDownToTheMinimum() {
+        AdaptiveLimit limit = limit(true, 100);
+
+        limit.onDrop();
+        assertEquals(90, limit.current());
+
+        for (int i = 0; i < 100; i++) {
+            limit.onDrop();
+        }
+        assertEquals(4, limit.current());
+    }
+
+    @Test
+    void shrinksWhenResponsesSlowDown() {
+        AdaptiveLimit limit = limit(true, 100);
+        limit.onSample(10 * MILLIS, 100);
+
+        for (int i = 0; i < 20; i++) {
+            limit.onSample(100 * MILLIS, limit.current());
+        }
+
+        assertTrue(limit.current() < 50, "limit " + limit.current());
+        assertTrue(limit.rttNanos() > 50 * MILLIS);
+    }
+
+    @Test
+    void growsBackWhenResponsesRecover() {
+        AdaptiveLimit limit = limit(true, 100);
+        limit.onSample(10 * MILLIS, 100);
+        for (int i = 0; i < 30; i++) {
+            limit.onDrop();
+        }
+        int backedOff = limit.current();
+
+        for (int i = 0; i < 200; i++) {
+            limit.onSample(10 * MILLIS, limit.current());
+        }
+
+        assertTrue(limit.current() > backedOff);
+        assertEquals(100, limit.current());
+    }
+
+    @Test
+    void doesNotGrowWhileMostSlotsAreIdle() {
+        AdaptiveLimit limit = limit(true, 100);
+        limit.onSample(10 * MILLIS, 100);
+        limit.onDrop();
+
+        // 진행 중 요청이 한도의 절반도 안 되면 한도가 부족한 상황이 아님
+        for (int i = 0; i < 50; i++) {
+            limit.onSample(10 * MILLIS, 10);
+        }
+        assertEquals(90, limit.current());
+    }
+
+    @Test
+    void staysAtTheMaximumWhenDisabled() {
+        AdaptiveLimit limit = limit(false, 100);
+
+        for (int i = 0; i < 10; i++) {
+            limit.onDrop();
+        }
+        assertEquals(100, limit.current());
+    }
+
+    private AdaptiveLimit limit(boolean enabled, int max) {
+        AdaptiveConcurrency settings = new AdaptiveConcurrency(enabled, 4, 1.5, 0.2, 0.9, 10, 600);
+        return new AdaptiveLimit("test", max, settings, registry);
+    }
+}
@@ -0,0 +1,126 @@
+package com.navblind.server.integration;
+
+import com.navblind.server.config.AdaptiveConcurrency;
+import com.navblind.server.config.LaneLimit;
+import com.navblind.server.integration.PriorityLanes.LaneRejectedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PriorityLanesTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicInteger started = new AtomicInteger();
+    private final List<Sinks.One<String>> running = new ArrayList<>();
+
+    @Test
+    void keepsReservedSlotsForTheFirstLane() {
+        // 한도 4, 재탐색 전용 1자리: 새 경로는 3개까지만 동시에 보냄
+        PriorityLanes lanes = lanes(4, 1, new LaneLimit(4, 10, TIMEOUT, null));
+
+        for (int i = 0; i < 4; i++) {
+            lanes.execute(Lane.ROUTE, this::hangingCall).subscribe();
+        }
+        assertEquals(3, started.get());
+
+        lanes.execute(Lane.REROUTE, this::hangingCall).subscribe();
+        assertEquals(4, started.get());
+    }
+
+    @Test
+    void givesFreedSlotsToTheHigherPriorityLaneFirst() {
+        PriorityLanes lanes = lanes(2, 0, new LaneLimit(2, 10, TIMEOUT, null));
+        lanes.execute(Lane.ROUTE, this::hangingCall).subscribe();
+        lanes.execute(Lane.ROUTE, this::hangingCall).subscribe();
+
+        List<Lane> order = new ArrayList<>();
+        lanes.execute(Lane.ROUTE, () -> {
+            order.add(Lane.ROUTE);
+            return hangingCall();
+        }).subscribe();
+        lanes.execute(Lane.REROUTE, () -> {
+            order.add(Lane.REROUTE);
+            return hangingCall();
+        }).subscribe();
+        assertEquals(List.of(), order);
+
+        // 먼저 들어온 새 경로 요청보다 재탐색이 먼저 자리를 받음
+        running.get(0).tryEmitValue("done");
+        assertEquals(List.of(Lane.REROUTE), order);
+        running.get(1).tryEmitValue("done");
+        assertEquals(List.of(Lane.REROUTE, Lane.ROUTE), order);
+    }
+
+    @Test
+    void dropsRequestsThatWaitLongerThanMaxWait() {
+        PriorityLanes lanes = lanes(2, 1, new LaneLimit(1, 10, TIMEOUT, Duration.ofMillis(50)));
+        lanes.execute(Lane.ROUTE, this::hangingCall).subscribe();
+
+        AtomicInteger expiredCalls = new AtomicInteger();
+        CompletableFuture<String> waiting = lanes.execute(Lane.ROUTE, () -> {
+            expiredCalls.incrementAndGet();
+            return Mono.just("late");
+        }).toFuture();
+
+        ExecutionException error = assertThrows(ExecutionException.class, waiting::get);
+        assertInstanceOf(TimeoutException.class, error.getCause());
+        assertEquals(1.0, registry.get("navblind.lane.expired").tag("lane", "route").counter().count());
+        assertEquals(0.0, registry.get("navblind.lane.queued").tag("lane", "route").gauge().value());
+
+        // 자리가 나도 버린 요청은 업스트림에 보내지 않음
+        running.get(0).tryEmitValue("done");
+        assertEquals(0, expiredCalls.get());
+    }
+
+    @Test
+    void rejectsWhenTheLaneQueueIsFull() {
+        PriorityLanes lanes = lanes(2, 1, new LaneLimit(1, 1, TIMEOUT, null));
+        lanes.execute(Lane.ROUTE, this::hangingCall).subscribe();
+        lanes.execute(Lane.ROUTE, this::hangingCall).subscribe();
+
+        LaneRejectedException rejected = assertThrows(LaneRejectedException.class,
+                () -> lanes.execute(Lane.ROUTE, this::hangingCall).block());
+        assertEquals(Lane.ROUTE, rejected.getLane());
+        assertEquals(1, rejected.getRetryAfterSeconds());
+    }
+
+    @Test
+    void rejectsReservingEverySlot() {
+        assertThrows(IllegalArgumentException.class, () -> lanes(2, 2, new LaneLimit(2, 10, TIMEOUT, null)));
+    }
+
+    //재탐색/새 경로 레인, 한도는 응답 시간으로 바뀌지 않도록 고정
+    private PriorityLanes lanes(int capacity, int reserved, LaneLimit routeLimit) {
+        AdaptiveConcurrency fixed = new AdaptiveConcurrency(false, 1, 1.5, 0.2, 0.9, 10, 600);
+        AdaptiveLimit limit = new AdaptiveLimit("test", capacity, fixed, registry);
+        Map<Lane, LaneLimit> limits = new EnumMap<>(Lane.class);
+        limits.put(Lane.REROUTE, new LaneLimit(capacity, 10, TIMEOUT, null));
+        limits.put(Lane.ROUTE, routeLimit);
+        return new PriorityLanes("test", limit, null, limits, reserved, registry);
+    }
+
+    //끝내기 전까지 자리를 차지하는 업스트림 호출
+    private Mono<String> hangingCall() {
+        started.incrementAndGet();
+        Sinks.One<String> sink = Sinks.one();
+        running.add(sink);
+        return sink.asMono();
+    }
+}
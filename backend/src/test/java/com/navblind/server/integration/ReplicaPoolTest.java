@@ -0,0 +1,165 @@
+package com.navblind.server.integration;
+
+import com.navblind.server.config.ReplicaBalancing;
+import com.navblind.server.integration.ReplicaPool.NoHealthyReplicaException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReplicaPoolTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+
+    @Test
+    void ejectsAReplicaAfterConsecutiveFailures() {
+        ReplicaPool pool = pool(List.of("a", "b"), balancing(false, 2, Duration.ofMinutes(1)));
+
+        // 복제본 선택은 무작위이므로 a가 두 번 실패할 때까지 보냄
+        for (int i = 0; i < 1000 && calls("a") < 2; i++) {
+            executeFailingOnA(pool);
+        }
+        assertEquals(2, calls("a"));
+        assertEquals(1.0, registry.get("navblind.upstream.replica.ejected").tag("replica", "a").counter().count());
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals("b", executeFailingOnA(pool));
+        }
+        assertEquals(2, calls("a"));
+    }
+
+    @Test
+    void keepsASoleReplicaInRotation() {
+        ReplicaPool pool = pool(List.of("a"), balancing(false, 1, Duration.ofMinutes(1)));
+
+        for (int i = 0; i < 5; i++) {
+            assertThrows(IllegalStateException.class, () -> pool.execute(url ->
+                    counted(url, Mono.<String>error(new IllegalStateException("down")))).block());
+        }
+
+        assertEquals(5, calls("a"));
+        assertEquals(0.0, registry.get("navblind.upstream.replica.ejected").counter().count());
+    }
+
+    @Test
+    void failsFastWhenEveryReplicaIsEjected() {
+        ReplicaPool pool = pool(List.of("a", "b"), balancing(false, 1, Duration.ofSeconds(30)));
+        for (int i = 0; i < 2; i++) {
+            assertThrows(IllegalStateException.class, () -> pool.execute(url ->
+                    counted(url, Mono.<String>error(new IllegalStateException("down")))).block());
+        }
+
+        NoHealthyReplicaException error = assertThrows(NoHealthyReplicaException.class,
+                () -> pool.execute(url -> counted(url, Mono.just(url))).block());
+        assertEquals("test", error.getUpstream());
+        assertTrue(error.getRetryAfterSeconds() >= 1 && error.getRetryAfterSeconds() <= 30);
+        assertEquals(2, calls("a") + calls("b"));
+        assertEquals(1.0, registry.get("navblind.upstream.unavailable").counter().count());
+    }
+
+    @Test
+    void takesAReplicaBackAfterASuccessfulProbe() throws InterruptedException {
+        ReplicaPool pool = pool(List.of("a", "b"), balancing(false, 1, Duration.ofMillis(50)));
+        AtomicBoolean aDown = new AtomicBoolean(true);
+        for (int i = 0; i < 1000 && calls("a") == 0; i++) {
+            try {
+                pool.execute(url -> counted(url, "a".equals(url) && aDown.get()
+                        ? Mono.error(new IllegalStateException("down")) : Mono.just(url))).block();
+            } catch (IllegalStateException ignored) {
+                // a가 제외됨
+            }
+        }
+        assertEquals(1.0, registry.get("navblind.upstream.replica.state").tag("replica", "a").gauge().value());
+
+        aDown.set(false);
+        Thread.sleep(80);
+
+        // 제외 시간이 지나면 다음 요청이 a로 가는 시험 요청이 됨
+        assertEquals("a", pool.execute(url -> counted(url, Mono.just(url))).block());
+        assertEquals(0.0, registry.get("navblind.upstream.replica.state").tag("replica", "a").gauge().value());
+    }
+
+    @Test
+    void doesNotCountClientErrorsAsFailures() {
+        ReplicaPool pool = pool(List.of("a"), balancing(false, 1, Duration.ofMinutes(1)));
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(WebClientResponseException.class, () -> pool.execute(url -> counted(url,
+                    Mono.<String>error(WebClientResponseException.create(400, "Bad Request", null, null, null))))
+                    .block());
+        }
+
+        assertEquals(3, calls("a"));
+        assertEquals(0.0, registry.get("navblind.upstream.replica.state").tag("replica", "a").gauge().value());
+    }
+
+    @Test
+    void hedgesASlowRequestToAnotherReplica() {
+        ReplicaPool pool = pool(List.of("a", "b"), balancing(true, 5, Duration.ofMinutes(1)));
+        AtomicInteger attempts = new AtomicInteger();
+        AtomicBoolean slowCancelled = new AtomicBoolean();
+
+        // 첫 요청은 응답하지 않고, 헤지로 보낸 두 번째 요청이 먼저 응답함
+        String answer = pool.execute(url -> counted(url, attempts.getAndIncrement() == 0
+                ? Mono.<String>never().doOnCancel(() -> slowCancelled.set(true))
+                : Mono.just(url))).block(Duration.ofSeconds(5));
+
+        assertEquals(1, calls(answer));
+        assertEquals(2, calls("a") + calls("b"));
+        assertTrue(slowCancelled.get());
+        assertEquals(1.0, registry.get("navblind.upstream.hedged").tag("result", "sent").counter().count());
+        assertEquals(1.0, registry.get("navblind.upstream.hedged").tag("result", "won").counter().count());
+    }
+
+    @Test
+    void doesNotHedgeFastRequests() {
+        ReplicaPool pool = pool(List.of("a", "b"), balancing(true, 5, Duration.ofMinutes(1)));
+
+        pool.execute(url -> counted(url, Mono.just(url))).block();
+
+        assertEquals(1, calls("a") + calls("b"));
+        assertEquals(0.0, registry.get("navblind.upstream.hedged").tag("result", "sent").counter().count());
+    }
+
+    private ReplicaPool pool(List<String> urls, ReplicaBalancing balancing) {
+        return new ReplicaPool("test", urls, balancing, registry);
+    }
+
+    //헤지 지연은 20ms로 고정, 헤지 비율 제한 없음
+    private static ReplicaBalancing balancing(boolean hedge, int failureThreshold, Duration openDuration) {
+        return new ReplicaBalancing(Duration.ofSeconds(10), hedge, 0.95, Duration.ofMillis(20),
+                Duration.ofMillis(20), 1.0, failureThreshold, openDuration);
+    }
+
+    //a는 항상 실패, 실패하면 null
+    private String executeFailingOnA(ReplicaPool pool) {
+        try {
+            return pool.execute(url -> counted(url, "a".equals(url)
+                    ? Mono.<String>error(new IllegalStateException("down")) : Mono.just(url))).block();
+        } catch (IllegalStateException e) {
+            return null;
+        }
+    }
+
+    private <T> Mono<T> counted(String url, Mono<T> result) {
+        calls.computeIfAbsent(url, key -> new AtomicInteger()).incrementAndGet();
+        return result;
+    }
+
+    private int calls(String url) {
+        AtomicInteger count = calls.get(url);
+        return count == null ? 0 : count.get();
+    }
+}
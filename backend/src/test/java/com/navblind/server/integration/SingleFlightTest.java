@@ -0,0 +1,109 @@
+package com.navblind.server.integration;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void sharesOneCallBetweenConcurrentCallers() throws Exception {
+        SingleFlight<String> flights = new SingleFlight<>("test", 16, registry);
+        Sinks.One<String> upstream = Sinks.one();
+        AtomicInteger calls = new AtomicInteger();
+
+        CompletableFuture<String> first = flights.execute("a", () -> counted(calls, upstream.asMono())).toFuture();
+        CompletableFuture<String> second = flights.execute("a", () -> counted(calls, upstream.asMono())).toFuture();
+        assertFalse(first.isDone());
+
+        upstream.tryEmitValue("route");
+
+        assertEquals("route", first.get());
+        assertEquals("route", second.get());
+        assertEquals(1, calls.get());
+        assertEquals(1.0, registry.get("navblind.upstream.coalesced").counter().count());
+    }
+
+    @Test
+    void releasesTheKeyOnceTheCallFinishes() {
+        SingleFlight<String> flights = new SingleFlight<>("test", 16, registry);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertEquals("route", flights.execute("a", () -> counted(calls, Mono.just("route"))).block());
+        assertNull(flights.execute("a", () -> counted(calls, Mono.empty())).block());
+        assertEquals(2, calls.get());
+        assertEquals(0.0, registry.get("navblind.upstream.inflight").gauge().value());
+    }
+
+    @Test
+    void sharesErrorsAndThenReleasesTheKey() {
+        SingleFlight<String> flights = new SingleFlight<>("test", 16, registry);
+        Sinks.One<String> upstream = Sinks.one();
+
+        CompletableFuture<String> first = flights.execute("a", upstream::asMono).toFuture();
+        CompletableFuture<String> second = flights.execute("a", upstream::asMono).toFuture();
+        upstream.tryEmitError(new IllegalStateException("boom"));
+
+        assertInstanceOf(IllegalStateException.class, assertThrows(ExecutionException.class, first::get).getCause());
+        assertInstanceOf(IllegalStateException.class, assertThrows(ExecutionException.class, second::get).getCause());
+        assertEquals("retry", flights.execute("a", () -> Mono.just("retry")).block());
+    }
+
+    @Test
+    void keepsTheSharedCallRunningWhenOneCallerCancels() throws Exception {
+        SingleFlight<String> flights = new SingleFlight<>("test", 16, registry);
+        Sinks.One<String> upstream = Sinks.one();
+
+        Disposable cancelled = flights.execute("a", upstream::asMono).subscribe();
+        CompletableFuture<String> waiting = flights.execute("a", upstream::asMono).toFuture();
+        cancelled.dispose();
+
+        // 공유 호출이 취소되지 않았으므로 여전히 값을 받을 수 있음
+        assertEquals(1, upstream.currentSubscriberCount());
+        upstream.tryEmitValue("route");
+        assertEquals("route", waiting.get());
+    }
+
+    @Test
+    void callsDirectlyWhenTooManyKeysAreInFlight() {
+        SingleFlight<String> flights = new SingleFlight<>("test", 1, registry);
+        Sinks.One<String> upstream = Sinks.one();
+        AtomicInteger calls = new AtomicInteger();
+
+        flights.execute("a", upstream::asMono).subscribe();
+        flights.execute("b", () -> counted(calls, Mono.just("b"))).block();
+        flights.execute("b", () -> counted(calls, Mono.just("b"))).block();
+
+        assertEquals(2, calls.get());
+        assertEquals(0.0, registry.get("navblind.upstream.coalesced").counter().count());
+    }
+
+    @Test
+    void releasesTheKeyWhenTheSupplierThrows() {
+        SingleFlight<String> flights = new SingleFlight<>("test", 16, registry);
+
+        assertThrows(IllegalStateException.class, () -> flights.execute("a", () -> {
+            throw new IllegalStateException("boom");
+        }).block());
+        assertEquals("route", flights.execute("a", () -> Mono.just("route")).block());
+    }
+
+    private static Mono<String> counted(AtomicInteger calls, Mono<String> result) {
+        calls.incrementAndGet();
+        return result;
+    }
+}
@@ -0,0 +1,52 @@
+package com.navblind.server.integration;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void allowsABurstThenWaitsForRefill() {
+        TokenBucket bucket = new TokenBucket(2, 3);
+        long now = System.nanoTime();
+
+        assertTrue(bucket.tryAcquire(now));
+        assertTrue(bucket.tryAcquire(now));
+        assertTrue(bucket.tryAcquire(now));
+        assertFalse(bucket.tryAcquire(now));
+
+        // 초당 2개이므로 0.5초 뒤에 하나가 생김
+        assertFalse(bucket.tryAcquire(now + SECOND / 4));
+        assertTrue(bucket.tryAcquire(now + SECOND / 2));
+        assertFalse(bucket.tryAcquire(now + SECOND / 2));
+    }
+
+    @Test
+    void reportsTimeUntilTheNextToken() {
+        TokenBucket bucket = new TokenBucket(4, 1);
+        long now = System.nanoTime();
+
+        assertEquals(0, bucket.nanosUntilAvailable(now));
+        assertTrue(bucket.tryAcquire(now));
+
+        long wait = bucket.nanosUntilAvailable(now);
+        assertTrue(wait > SECOND / 4 - 50_000_000 && wait <= SECOND / 4, "wait was " + wait);
+        assertTrue(bucket.tryAcquire(now + wait));
+    }
+
+    @Test
+    void neverStoresMoreThanTheBurst() {
+        TokenBucket bucket = new TokenBucket(10, 2);
+        long now = System.nanoTime();
+
+        long later = now + 60 * SECOND;
+        assertTrue(bucket.tryAcquire(later));
+        assertTrue(bucket.tryAcquire(later));
+        assertFalse(bucket.tryAcquire(later));
+    }
+}
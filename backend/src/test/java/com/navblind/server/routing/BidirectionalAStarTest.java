@@ -0,0 +1,133 @@
+package com.navblind.server.routing;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class BidirectionalAStarTest {
+
+    //   D ----(북쪽으로 돌아가는 길, E 경유)---- C
+    //   |                                      |
+    //   A ------------------------------------ B        (F - G는 떨어진 다른 길)
+    private static final String OSM = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <osm version="0.6">
+              <node id="1" lat="37.5000" lon="127.0000"/>
+              <node id="2" lat="37.5000" lon="127.0010"/>
+              <node id="3" lat="37.5010" lon="127.0010"/>
+              <node id="4" lat="37.5010" lon="127.0000"/>
+              <node id="5" lat="37.5030" lon="127.0005"/>
+              <node id="6" lat="37.6000" lon="127.1000"/>
+              <node id="7" lat="37.6010" lon="127.1000"/>
+              <way id="10"><nd ref="1"/><nd ref="2"/><tag k="highway" v="footway"/><tag k="name" v="남쪽길"/></way>
+              <way id="11"><nd ref="2"/><nd ref="3"/><tag k="highway" v="footway"/></way>
+              <way id="12"><nd ref="1"/><nd ref="4"/><tag k="highway" v="footway"/></way>
+              <way id="13"><nd ref="4"/><nd ref="5"/><nd ref="3"/><tag k="highway" v="footway"/></way>
+              <way id="14"><nd ref="6"/><nd ref="7"/><tag k="highway" v="footway"/></way>
+            </osm>
+            """;
+
+    private static PedestrianGraph graph;
+    private static BidirectionalAStar search;
+
+    @BeforeAll
+    static void buildGraph(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("tiny.osm");
+        Files.writeString(file, OSM);
+        graph = PedestrianGraphBuilder.fromOsmXml(file);
+        search = new BidirectionalAStar(graph);
+    }
+
+    @Test
+    void findsTheShortestOfTwoRoutes() {
+        // A-D 중간에서 B-C 중간으로: A, B를 지나는 길이 D, E, C를 지나는 길보다 짧음
+        EdgeSnap from = snap(37.5005, 127.0000);
+        EdgeSnap to = snap(37.5005, 127.0010);
+
+        BidirectionalAStar.Path path = search.search(from, to, 1000);
+
+        assertNotNull(path);
+        assertArrayEquals(new double[]{37.5000, 127.0000, 37.5000, 127.0010}, coordinates(path.nodes()), 1e-7);
+        assertEquals(path.nodes().length - 1, path.arcs().length);
+        double expected = meters(from.lat(), from.lng(), 37.5000, 127.0000)
+                + meters(37.5000, 127.0000, 37.5000, 127.0010)
+                + meters(37.5000, 127.0010, to.lat(), to.lng());
+        assertEquals(expected, path.weight(), 0.5);
+    }
+
+    @Test
+    void isSymmetric() {
+        EdgeSnap a = snap(37.5005, 127.0000);
+        EdgeSnap b = snap(37.5005, 127.0010);
+
+        assertEquals(search.search(a, b, 1000).weight(), search.search(b, a, 1000).weight(), 1e-3);
+    }
+
+    @Test
+    void takesTheDetourWhenItIsTheOnlyWay() {
+        // D-E 위에서 E-C 위로: E를 지나는 길이 A, B를 돌아가는 길보다 짧음
+        EdgeSnap from = snap(37.5020, 127.00025);
+        EdgeSnap to = snap(37.5020, 127.00075);
+
+        BidirectionalAStar.Path path = search.search(from, to, 1000);
+
+        assertNotNull(path);
+        assertArrayEquals(new double[]{37.5030, 127.0005}, coordinates(path.nodes()), 1e-7);
+    }
+
+    @Test
+    void goesStraightAlongASharedEdge() {
+        EdgeSnap from = snap(37.5002, 127.0000);
+        EdgeSnap to = snap(37.5008, 127.0000);
+
+        BidirectionalAStar.Path path = search.search(from, to, 1000);
+
+        assertNotNull(path);
+        assertEquals(0, path.nodes().length);
+        assertEquals(meters(from.lat(), from.lng(), to.lat(), to.lng()), path.weight(), 0.5);
+    }
+
+    @Test
+    void returnsNullWhenDisconnected() {
+        EdgeSnap from = snap(37.5005, 127.0000);
+        EdgeSnap island = snap(37.6005, 127.1000);
+
+        assertNull(search.search(from, island, 1000));
+    }
+
+    @Test
+    void givesUpAfterMaxSettled() {
+        EdgeSnap from = snap(37.5005, 127.0000);
+        EdgeSnap to = snap(37.5005, 127.0010);
+
+        assertNull(search.search(from, to, 1));
+    }
+
+    private static EdgeSnap snap(double lat, double lng) {
+        EdgeSnap snap = graph.snap(lat, lng, 5);
+        assertNotNull(snap, "no edge near " + lat + ", " + lng);
+        return snap;
+    }
+
+    private static double[] coordinates(int[] nodes) {
+        double[] latLngs = new double[nodes.length * 2];
+        for (int i = 0; i < nodes.length; i++) {
+            latLngs[i * 2] = graph.lat(nodes[i]);
+            latLngs[i * 2 + 1] = graph.lng(nodes[i]);
+        }
+        return latLngs;
+    }
+
+    private static double meters(double lat1, double lng1, double lat2, double lng2) {
+        return PedestrianGraphBuilder.haversine(lat1, lng1, lat2, lng2);
+    }
+}
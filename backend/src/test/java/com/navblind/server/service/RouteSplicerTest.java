@@ -0,0 +1,168 @@
+package com.navblind.server.service;
+
+import com.navblind.server.config.RerouteProperties;
+import com.navblind.server.dto.RouteDto.Instruction;
+import com.navblind.server.dto.RouteDto.InstructionType;
+import com.navblind.server.dto.RouteDto.TurnModifier;
+import com.navblind.server.dto.RouteDto.Waypoint;
+import com.navblind.server.geo.PolylineCodec;
+import com.navblind.server.geo.RouteLine;
+import com.navblind.server.integration.GuidanceBuilder;
+import com.navblind.server.integration.OsrmClient.OsrmRouteResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RouteSplicerTest {
+
+    private static final double LAT = 37.5;
+    private static final double LNG = 127.0;
+    private static final double METERS_PER_DEGREE_LAT = 111_320.0;
+    private static final double METERS_PER_DEGREE_LNG = METERS_PER_DEGREE_LAT * Math.cos(Math.toRadians(LAT));
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RouteSplicer splicer = splicer(true);
+
+    //동쪽으로 500m(A로) 간 뒤 왼쪽으로 돌아 북쪽으로 500m(B로)
+    private final OsrmRouteResult stored = storedRoute();
+
+    @Test
+    void splicesAConnectorOntoTheRemainingRoute() {
+        // 경로 시작점에서 동쪽 200m, 남쪽 20m 벗어난 위치
+        double[] here = point(200, -20);
+
+        OsrmRouteResult result = splicer.splice(stored, here[0], here[1], this::straightConnector).block();
+
+        assertNotNull(result);
+        double connector = RouteLine.distance(here[0], here[1], LAT, LNG + 225 / METERS_PER_DEGREE_LNG);
+        assertEquals(connector + 775, result.getDistance(), 2);
+
+        List<Instruction> instructions = result.getInstructions();
+        assertEquals(List.of(0, 1, 2, 3), instructions.stream().map(Instruction::getStep).toList());
+        assertEquals(InstructionType.depart, instructions.get(0).getType());
+
+        // 북동쪽으로 걷다가 동쪽으로 이어지는 경로에 합류
+        Instruction rejoin = instructions.get(1);
+        assertEquals(InstructionType.turn, rejoin.getType());
+        assertEquals(TurnModifier.slight_right, rejoin.getModifier());
+        assertEquals("A로", rejoin.getLocation().getName());
+        assertEquals(275, rejoin.getDistance(), 2);
+        assertEquals(225, (rejoin.getLocation().getLng() - LNG) * METERS_PER_DEGREE_LNG, 0.5);
+
+        assertEquals("B로", instructions.get(2).getLocation().getName());
+        assertEquals(InstructionType.arrive, instructions.get(3).getType());
+        // 저장된 경로의 Instruction은 그대로
+        assertEquals(1, stored.getInstructions().get(1).getStep());
+
+        double[] geometry = PolylineCodec.decode(result.getGeometry());
+        assertEquals(here[0], geometry[0], 1e-6);
+        assertEquals(here[1], geometry[1], 1e-6);
+        double[] end = point(500, 500);
+        assertEquals(end[0], geometry[geometry.length - 2], 1e-6);
+        assertEquals(end[1], geometry[geometry.length - 1], 1e-6);
+        assertEquals(1.0, count("spliced"));
+    }
+
+    @Test
+    void computesTheFullRouteWhenFarFromTheStoredRoute() {
+        AtomicInteger routed = new AtomicInteger();
+        double[] here = point(200, -200);
+
+        assertNull(splicer.splice(stored, here[0], here[1], (a, b, c, d) -> {
+            routed.incrementAndGet();
+            return Mono.empty();
+        }).block());
+        assertEquals(0, routed.get());
+        assertEquals(1.0, count("off_route"));
+    }
+
+    @Test
+    void rejectsConnectorsThatDetour() {
+        double[] here = point(200, -20);
+
+        // 직선 약 32m + 남은 경로 775m의 1.5배를 넘는 연결 경로
+        assertNull(splicer.splice(stored, here[0], here[1], (lat, lng, destLat, destLng) ->
+                Mono.just(connector(lat, lng, destLat, destLng, 600))).block());
+        assertEquals(1.0, count("detour"));
+    }
+
+    @Test
+    void fallsBackWhenNoConnectorIsFound() {
+        double[] here = point(200, -20);
+
+        assertNull(splicer.splice(stored, here[0], here[1], (a, b, c, d) -> Mono.empty()).block());
+        assertEquals(1.0, count("no_connector"));
+    }
+
+    @Test
+    void doesNotSpliceNearTheDestinationOrWhenDisabled() {
+        double[] nearEnd = point(500, 480);
+        assertNull(splicer.splice(stored, nearEnd[0], nearEnd[1], this::straightConnector).block());
+
+        double[] here = point(200, -20);
+        assertNull(splicer(false).splice(stored, here[0], here[1], this::straightConnector).block());
+        assertEquals(2.0, count("unavailable"));
+    }
+
+    private RouteSplicer splicer(boolean enabled) {
+        RerouteProperties properties = new RerouteProperties(enabled, 150, 25, 1.5, Duration.ofHours(2), 100);
+        return new RouteSplicer(properties, registry);
+    }
+
+    //현재 위치에서 복귀 지점까지 직선으로 걷는 연결 경로
+    private Mono<OsrmRouteResult> straightConnector(double lat, double lng, double destLat, double destLng) {
+        int distance = (int) Math.round(RouteLine.distance(lat, lng, destLat, destLng));
+        return Mono.just(connector(lat, lng, destLat, destLng, distance));
+    }
+
+    private static OsrmRouteResult connector(double lat, double lng, double destLat, double destLng, int distance) {
+        Waypoint start = waypoint(new double[]{lat, lng}, "");
+        Waypoint end = waypoint(new double[]{destLat, destLng}, "A로");
+        return OsrmRouteResult.builder()
+                .distance(distance)
+                .duration(distance)
+                .geometry(PolylineCodec.encode(new double[]{lat, lng, destLat, destLng}))
+                .instructions(List.of(
+                        GuidanceBuilder.instruction(0, "depart", null, null, distance, start),
+                        GuidanceBuilder.instruction(1, "arrive", null, "A로", 0, end)))
+                .build();
+    }
+
+    private static OsrmRouteResult storedRoute() {
+        double[] start = point(0, 0);
+        double[] corner = point(500, 0);
+        double[] end = point(500, 500);
+        double[] geometry = {start[0], start[1], corner[0], corner[1], end[0], end[1]};
+        int distance = (int) Math.round(new RouteLine(geometry).length());
+        return OsrmRouteResult.builder()
+                .distance(distance)
+                .duration(distance)
+                .geometry(PolylineCodec.encode(geometry))
+                .instructions(List.of(
+                        GuidanceBuilder.instruction(0, "depart", null, "A로", 500, waypoint(start, "A로")),
+                        GuidanceBuilder.instruction(1, "turn", "left", "B로", 500, waypoint(corner, "B로")),
+                        GuidanceBuilder.instruction(2, "arrive", null, "B로", 0, waypoint(end, "B로"))))
+                .build();
+    }
+
+    //경로 시작점에서 동쪽 east m, 북쪽 north m
+    private static double[] point(double east, double north) {
+        return new double[]{LAT + north / METERS_PER_DEGREE_LAT, LNG + east / METERS_PER_DEGREE_LNG};
+    }
+
+    private static Waypoint waypoint(double[] point, String name) {
+        return Waypoint.builder().lat(point[0]).lng(point[1]).name(name).build();
+    }
+
+    private double count(String result) {
+        return registry.get("navblind.reroute.splice").tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,147 @@
+package com.navblind.server.service;
+
+import com.navblind.server.config.PersistenceScheduler;
+import com.navblind.server.config.TraceProperties;
+import com.navblind.server.dto.RouteDto.TraceUploadRequest;
+import com.navblind.server.geo.PolylineCodec;
+import com.navblind.server.repository.NavigationSessionRepository;
+import com.navblind.server.trace.TraceSample;
+import com.navblind.server.trace.TraceWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class TraceServiceTest {
+
+    private static final UUID USER = UUID.randomUUID();
+    private static final UUID SESSION = UUID.randomUUID();
+    private static final String TWO_POINTS = PolylineCodec.encode(new double[]{37.4979, 127.0276, 37.4980, 127.0278});
+
+    private final TraceWriter traceWriter = mock(TraceWriter.class);
+    private final NavigationSessionRepository sessionRepository = mock(NavigationSessionRepository.class);
+    private final PersistenceScheduler persistence = mock(PersistenceScheduler.class);
+    private final TraceService service = new TraceService(
+            new TraceProperties(true, 1000, 100, 1, 3, 2, Duration.ofDays(180)),
+            traceWriter, sessionRepository, persistence);
+
+    private final long now = System.currentTimeMillis();
+
+    @BeforeEach
+    void setUp() {
+        when(persistence.call(any())).thenAnswer(invocation -> Mono.fromCallable(invocation.<Callable<?>>getArgument(0)));
+        when(sessionRepository.existsByIdAndUserId(SESSION, USER)).thenReturn(true);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void decodesPointsAndAccumulatesTimeDeltas() {
+        TraceUploadRequest request = request(TWO_POINTS, now - 10_000, List.of(0, 1500));
+        request.setAccuracies(List.of(4.5f, 6f));
+        request.setSources(List.of("GPS", "ARCORE_GEOSPATIAL"));
+
+        assertEquals(2, service.upload(USER, SESSION, request).block());
+
+        ArgumentCaptor<List<TraceSample>> captor = ArgumentCaptor.forClass(List.class);
+        verify(traceWriter).submit(captor.capture());
+        List<TraceSample> samples = captor.getValue();
+        assertEquals(now - 10_000, samples.get(0).recordedAt());
+        assertEquals(now - 8_500, samples.get(1).recordedAt());
+        assertEquals(37.4980, samples.get(1).lat(), 1e-6);
+        assertEquals(127.0278, samples.get(1).lng(), 1e-6);
+        assertEquals(4.5f, samples.get(0).accuracy());
+        assertNull(samples.get(0).heading());
+        assertEquals("ARCORE_GEOSPATIAL", samples.get(1).source());
+        assertEquals(SESSION, samples.get(1).sessionId());
+    }
+
+    @Test
+    void rejectsMalformedPolylines() {
+        assertRejected(request("_", now, List.of(0)), "Malformed trace polyline");
+    }
+
+    @Test
+    void rejectsTooManyPoints() {
+        String fourPoints = PolylineCodec.encode(new double[]{37.49, 127.02, 37.491, 127.021, 37.492, 127.022, 37.493, 127.023});
+        assertRejected(request(fourPoints, now, List.of(0, 1, 1, 1)), "Trace must contain 1 to 3 points");
+    }
+
+    @Test
+    void rejectsFieldsWithTheWrongLength() {
+        assertRejected(request(TWO_POINTS, now, List.of(0)), "timeDeltas must have one entry per point (2)");
+
+        TraceUploadRequest request = request(TWO_POINTS, now, List.of(0, 1));
+        request.setHeadings(List.of(90f));
+        assertRejected(request, "headings must have one entry per point (2)");
+    }
+
+    @Test
+    void rejectsNegativeTimeDeltas() {
+        assertRejected(request(TWO_POINTS, now, List.of(0, -1)), "timeDeltas must be non-negative");
+    }
+
+    @Test
+    void rejectsLongSources() {
+        TraceUploadRequest request = request(TWO_POINTS, now, List.of(0, 1));
+        request.setSources(List.of("GPS", "X".repeat(21)));
+        assertRejected(request, "Trace source too long at index 1");
+    }
+
+    @Test
+    void rejectsTimestampsOutsideTheRetentionPeriod() {
+        // 초 단위로 보낸 startTime
+        assertRejected(request(TWO_POINTS, now / 1000, List.of(0, 1)), "Trace timestamps must be within");
+        assertRejected(request(TWO_POINTS, now + Duration.ofHours(1).toMillis(), List.of(0, 1)),
+                "Trace timestamps must be within");
+    }
+
+    @Test
+    void checksSessionOwnershipOnce() {
+        service.upload(USER, SESSION, request(TWO_POINTS, now, List.of(0, 1))).block();
+        service.upload(USER, SESSION, request(TWO_POINTS, now, List.of(0, 1))).block();
+
+        verify(sessionRepository, times(1)).existsByIdAndUserId(SESSION, USER);
+        verify(traceWriter, times(2)).submit(any());
+    }
+
+    @Test
+    void rejectsSessionsOfOtherUsers() {
+        UUID other = UUID.randomUUID();
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> service.upload(other, SESSION, request(TWO_POINTS, now, List.of(0, 1))).block());
+        assertEquals("Session not found: " + SESSION, error.getMessage());
+        verifyNoInteractions(traceWriter);
+    }
+
+    private void assertRejected(TraceUploadRequest request, String message) {
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> service.upload(USER, SESSION, request));
+        assertTrue(error.getMessage().startsWith(message), error.getMessage());
+        verifyNoInteractions(traceWriter, sessionRepository);
+    }
+
+    private static TraceUploadRequest request(String polyline, long startTime, List<Integer> timeDeltas) {
+        return TraceUploadRequest.builder()
+                .polyline(polyline)
+                .startTime(startTime)
+                .timeDeltas(timeDeltas)
+                .build();
+    }
+}
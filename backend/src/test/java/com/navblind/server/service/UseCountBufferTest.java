@@ -0,0 +1,148 @@
+package com.navblind.server.service;
+
+import com.navblind.server.cache.DestinationCache;
+import com.navblind.server.config.UseCountProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UseCountBufferTest {
+
+    private static final UUID USER = UUID.randomUUID();
+    private static final UUID HOME = UUID.randomUUID();
+    private static final UUID OFFICE = UUID.randomUUID();
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final DestinationCache destinationCache = mock(DestinationCache.class);
+    private final SuggestService suggestService = mock(SuggestService.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    //batchUpdate 호출마다 (목적지 id -> 증가분)
+    private final List<Map<UUID, Integer>> writes = new ArrayList<>();
+    private boolean databaseDown;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        doAnswer(invocation -> {
+            if (databaseDown) {
+                throw new DataAccessResourceFailureException("db down");
+            }
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(mock(TransactionStatus.class));
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(invocation -> {
+                    Collection<Object> updates = invocation.getArgument(1);
+                    ParameterizedPreparedStatementSetter<Object> setter = invocation.getArgument(3);
+                    Map<UUID, Integer> written = new HashMap<>();
+                    for (Object update : updates) {
+                        // setter가 채운 파라미터 (1: 증가분, 2: 목적지 id, 3: 사용자 id)
+                        Object[] params = new Object[4];
+                        PreparedStatement ps = mock(PreparedStatement.class, call -> {
+                            params[call.<Integer>getArgument(0)] = call.getArgument(1);
+                            return null;
+                        });
+                        setter.setValues(ps, update);
+                        assertEquals(USER, params[3]);
+                        written.put((UUID) params[2], (Integer) params[1]);
+                    }
+                    writes.add(written);
+                    return new int[0][];
+                });
+    }
+
+    @Test
+    void collectsIncrementsUntilTheFlush() {
+        UseCountBuffer buffer = buffer(true);
+
+        buffer.increment(USER, HOME);
+        buffer.increment(USER, HOME);
+        buffer.increment(USER, OFFICE);
+
+        assertEquals(2, buffer.pending(USER, HOME));
+        assertEquals(0, writes.size());
+
+        buffer.flush();
+
+        assertEquals(List.of(Map.of(HOME, 2, OFFICE, 1)), writes);
+        assertEquals(0, buffer.pending(USER, HOME));
+        assertEquals(2.0, registry.get("navblind.usecount.flushed").counter().count());
+        verify(destinationCache).invalidate(USER);
+        verify(suggestService).invalidate(USER);
+    }
+
+    @Test
+    void mergesIncrementsBackWhenTheFlushFails() {
+        UseCountBuffer buffer = buffer(true);
+        buffer.increment(USER, HOME);
+        buffer.increment(USER, HOME);
+
+        databaseDown = true;
+        buffer.flush();
+
+        // 실패한 증가분은 그 사이 들어온 증가분과 합쳐짐
+        buffer.increment(USER, HOME);
+        assertEquals(3, buffer.pending(USER, HOME));
+        assertEquals(1.0, registry.get("navblind.usecount.flush.failures").counter().count());
+        verify(destinationCache, never()).invalidate(USER);
+
+        databaseDown = false;
+        buffer.flush();
+        assertEquals(List.of(Map.of(HOME, 3)), writes);
+        assertEquals(0, buffer.pending(USER, HOME));
+    }
+
+    @Test
+    void writesImmediatelyWithoutWriteBehind() {
+        UseCountBuffer buffer = buffer(false);
+
+        buffer.increment(USER, HOME);
+
+        assertEquals(List.of(Map.of(HOME, 1)), writes);
+        assertEquals(0, buffer.pending(USER, HOME));
+    }
+
+    @Test
+    void skipsTheDatabaseWhenNothingIsPending() {
+        UseCountBuffer buffer = buffer(true);
+
+        buffer.flush();
+
+        verify(transactionTemplate, never()).executeWithoutResult(any());
+    }
+
+    private UseCountBuffer buffer(boolean writeBehind) {
+        UseCountProperties properties = new UseCountProperties(writeBehind, Duration.ofSeconds(5), 500);
+        return new UseCountBuffer(properties, jdbcTemplate, transactionTemplate, destinationCache, suggestService,
+                registry);
+    }
+}
@@ -0,0 +1,78 @@
+package com.navblind.server.suggest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SuggestIndexTest {
+
+    private static final SuggestIndex INDEX = SuggestIndex.build(List.of(
+            place("강남역", 37.4979, 127.0276, 10, null),
+            place("강변역", 37.5351, 127.0946, 5, null),
+            place("스타벅스 역삼점", 37.5006, 127.0364, 3, null),
+            place("서울특별시 중구 세종대로 110", 37.5663, 126.9779, 1, "회사")
+    ), 64, 512, 10_000);
+
+    @Test
+    void findsByJamoPrefixWhileTyping() {
+        assertEquals(List.of("강남역", "강변역"), names(INDEX.lookup(SuggestIndex.queryKey("가"))));
+        assertEquals(List.of("강남역"), names(INDEX.lookup(SuggestIndex.queryKey("강ㄴ"))));
+        assertEquals(List.of("강남역"), names(INDEX.lookup(SuggestIndex.queryKey("강나"))));
+    }
+
+    @Test
+    void findsByChosung() {
+        assertEquals(List.of("강남역"), names(INDEX.lookup(SuggestIndex.queryKey("ㄱㄴㅇ"))));
+    }
+
+    @Test
+    void findsByLaterWordAndAlias() {
+        assertEquals(List.of("스타벅스 역삼점"), names(INDEX.lookup(SuggestIndex.queryKey("역삼"))));
+        assertEquals(List.of("서울특별시 중구 세종대로 110"), names(INDEX.lookup(SuggestIndex.queryKey("회사"))));
+    }
+
+    @Test
+    void ignoresSpacesInTheQuery() {
+        assertEquals(List.of("스타벅스 역삼점"), names(INDEX.lookup(SuggestIndex.queryKey("스타벅스역"))));
+    }
+
+    @Test
+    void returnsNothingForUnknownOrEmptyPrefixes() {
+        assertTrue(INDEX.lookup(SuggestIndex.queryKey("부산")).isEmpty());
+        assertTrue(INDEX.lookup("").isEmpty());
+        assertTrue(SuggestIndex.empty().lookup(SuggestIndex.queryKey("강")).isEmpty());
+    }
+
+    @Test
+    void shortPrefixesKeepNearbyPlacesBesideTheGlobalTop() {
+        // 부산에 점수가 높은 "가..." 장소가 많고, 서울의 점수가 낮은 장소 하나
+        List<SuggestEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            entries.add(place("가게 " + i, 35.1, 129.0 + i * 0.001, 100 + i, null));
+        }
+        entries.add(place("가로수길", 37.5206, 127.0230, 1, null));
+        SuggestIndex index = SuggestIndex.build(entries, 8, 16, 10_000);
+        String key = SuggestIndex.queryKey("ㄱ");
+
+        List<String> anywhere = names(index.lookup(key));
+        assertEquals(8, anywhere.size());
+        assertFalse(anywhere.contains("가로수길"));
+
+        List<String> inSeoul = names(index.lookup(key, 37.5172, 127.0473));
+        assertTrue(inSeoul.contains("가로수길"));
+        assertTrue(inSeoul.containsAll(anywhere));
+    }
+
+    private static SuggestEntry place(String name, double lat, double lng, double weight, String alias) {
+        return new SuggestEntry(name, lat, lng, null, null, weight, alias);
+    }
+
+    private static List<String> names(List<SuggestEntry> entries) {
+        return entries.stream().map(SuggestEntry::name).sorted().toList();
+    }
+}
@@ -0,0 +1,85 @@
+package com.navblind.server.text;
+
+import org.junit.jupiter.api.Test;
+
+import java.text.Normalizer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KoreanTextTest {
+
+    @Test
+    void decomposesSyllablesInTypingOrder() {
+        assertEquals("ㄱㅏㅇㄴㅏㅁㅇㅕㄱ", KoreanText.decompose("강남역"));
+        assertEquals("ㅅㅓㅇㅜㄹ", KoreanText.decompose("서울"));
+    }
+
+    @Test
+    void splitsCompoundVowels() {
+        assertEquals("ㄱㅗㅏ", KoreanText.decompose("과"));
+        assertEquals("ㅇㅜㅓㄴ", KoreanText.decompose("원"));
+        assertEquals("ㅇㅡㅣ", KoreanText.decompose("의"));
+        assertEquals("ㅎㅗㅣ", KoreanText.decompose("회"));
+    }
+
+    @Test
+    void splitsCompoundFinals() {
+        assertEquals("ㄷㅏㄹㄱ", KoreanText.decompose("닭"));
+        assertEquals("ㄱㅏㅂㅅ", KoreanText.decompose("값"));
+        assertEquals("ㅇㅏㄴㅈ", KoreanText.decompose("앉"));
+        // 겹모음과 겹받침이 함께 있는 음절
+        assertEquals("ㅂㅜㅔㄹㄱ", KoreanText.decompose("뷁"));
+    }
+
+    @Test
+    void splitsStandaloneCompoundJamo() {
+        assertEquals("ㅗㅏ", KoreanText.decompose("ㅘ"));
+        assertEquals("ㄹㄱ", KoreanText.decompose("ㄺ"));
+        assertEquals("ㄱㄴ", KoreanText.decompose("ㄱㄴ"));
+    }
+
+    @Test
+    void halfTypedSyllablesArePrefixesOfTheFinishedWord() {
+        // IME가 입력 중에 보여 주는 글자들 ("고" -> "과", "다" -> "달" -> "닭", 다음 초성이 받침으로 붙은 "간" -> "가나")
+        assertPrefix("고", "과");
+        assertPrefix("다", "닭");
+        assertPrefix("달", "닭");
+        assertPrefix("간", "가나");
+        assertPrefix("강ㄴ", "강남");
+        assertPrefix("강남여", "강남역");
+    }
+
+    @Test
+    void keepsNonHangulCharacters() {
+        assertEquals("gs25 ㅍㅕㄴㅇㅡㅣㅈㅓㅁ", KoreanText.decompose("gs25 편의점"));
+    }
+
+    @Test
+    void extractsChosung() {
+        assertEquals("ㄱㄴㅇ", KoreanText.chosung("강남역"));
+        assertEquals("GS25 ㅍㅇㅈ", KoreanText.chosung("GS25 편의점"));
+    }
+
+    @Test
+    void normalizesInputFromDifferentKeyboards() {
+        String nfd = Normalizer.normalize("한강", Normalizer.Form.NFD);
+        assertEquals("한강", KoreanText.normalize(nfd));
+        assertEquals("gs25 편의점", KoreanText.normalize("  ＧＳ２５ 　편의​점 "));
+        assertEquals("", KoreanText.normalize(null));
+    }
+
+    @Test
+    void detectsSyllables() {
+        assertTrue(KoreanText.hasSyllable("gs25 편의점"));
+        assertFalse(KoreanText.hasSyllable("ㄱㄴㅇ"));
+        assertFalse(KoreanText.hasSyllable("starbucks"));
+    }
+
+    private static void assertPrefix(String typing, String finished) {
+        String prefix = KoreanText.decompose(typing);
+        String word = KoreanText.decompose(finished);
+        assertTrue(word.startsWith(prefix), prefix + " is not a prefix of " + word);
+    }
+}
@@ -0,0 +1,41 @@
+package com.navblind.server.text;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class QueryVariantsTest {
+
+    @Test
+    void joinsSpacedWordsAndShortensTheSuffix() {
+        assertEquals(List.of("한국 공학 대학교", "한국공학대학교", "한국공학대"), QueryVariants.of("한국 공학 대학교", 5));
+    }
+
+    @Test
+    void expandsAbbreviations() {
+        assertEquals(List.of("한국공학대", "한국공학대학교"), QueryVariants.of("한국공학대", 5));
+        assertEquals(List.of("서울초", "서울초등학교"), QueryVariants.of("서울초", 5));
+    }
+
+    @Test
+    void stripsLocationSuffixesAndTheStationMarker() {
+        assertEquals(List.of("강남역 입구", "강남역", "강남"), QueryVariants.of("강남역 입구", 5));
+        assertEquals(List.of("강남역 앞", "강남역", "강남"), QueryVariants.of("  강남역   앞 ", 5));
+    }
+
+    @Test
+    void keepsNamesThatOnlyLookLikeSuffixes() {
+        // 떼고 나면 한 글자만 남는 경우는 그대로 둠
+        assertEquals(List.of("역앞"), QueryVariants.of("역앞", 5));
+        assertEquals(List.of("서울역", "서울"), QueryVariants.of("서울역", 5));
+        assertEquals(List.of("대"), QueryVariants.of("대", 5));
+    }
+
+    @Test
+    void limitsTheNumberOfVariants() {
+        assertEquals(List.of("강남역 입구", "강남역"), QueryVariants.of("강남역 입구", 2));
+        assertEquals(List.of("강남역 입구"), QueryVariants.of("강남역 입구", 1));
+    }
+}
@@ -0,0 +1,39 @@
+#!/usr/bin/env bash
+# NavBlind 자동완성 POI 목록 내보내기
+# 로컬 Nominatim DB(placex)에서 이름 있는 한국 POI를 TSV로 내보낸다.
+# 서버는 SUGGEST_POI_FILE로 지정한 파일을 읽어 /destinations/suggest 색인에 넣는다.
+#
+# 형식 (탭 구분): 이름  위도  경도  분류(type)  importance  주소
+#
+# 사용법:
+#   bash tools/export_poi_dump.sh                    # data/poi-ko.tsv로 저장
+#   bash tools/export_poi_dump.sh data/poi-ko.tsv    # 저장 경로 지정
+#   SUGGEST_POI_FILE=data/poi-ko.tsv ./mvnw spring-boot:run
+
+set -euo pipefail
+
+CONTAINER="${NOMINATIM_CONTAINER:-navblind-nominatim}"
+OUTPUT="${1:-$(dirname "$0")/../backend/data/poi-ko.tsv}"
+mkdir -p "$(dirname "$OUTPUT")"
+
+# 한국어 이름을 우선 사용, 탭/줄바꿈은 공백으로 바꿔 TSV가 깨지지 않게 함
+# 도로(highway)는 버스 정류장만, 나머지는 사람이 목적지로 찾을 만한 분류만 포함
+QUERY="
+SELECT translate(COALESCE(name->'name:ko', name->'name'), E'\t\n\r', '   '),
+       round(ST_Y(centroid)::numeric, 7),
+       round(ST_X(centroid)::numeric, 7),
+       type,
+       round(COALESCE(importance, 0)::numeric, 5),
+       ''
+  FROM placex
+ WHERE country_code = 'kr'
+   AND (name ? 'name' OR name ? 'name:ko')
+   AND (class IN ('amenity', 'shop', 'tourism', 'leisure', 'office', 'healthcare', 'railway', 'public_transport')
+        OR (class = 'highway' AND type = 'bus_stop'))
+"
+
+echo "Exporting POIs from $CONTAINER ..."
+docker exec -u postgres "$CONTAINER" \
+    psql -d nominatim -X -A -t -F $'\t' -c "$QUERY" > "$OUTPUT"
+
+echo "Wrote $(wc -l < "$OUTPUT") POIs to $OUTPUT"
@@ -0,0 +1,130 @@
+#!/usr/bin/env python3
+"""
+NavBlind Route Load Test
+=========================
+POST /v1/navigation/route 를 동시성 단계별로 호출해서 DB 커넥션 풀 크기가 고정일 때
+서버가 처리할 수 있는 동시 경로 요청 수를 측정한다.
+
+경로 계산(OSRM 호출)이 트랜잭션 밖에서 이뤄지므로, 풀 크기(DB_POOL_SIZE)보다 훨씬 많은
+동시 요청도 커넥션 대기(connection-timeout) 없이 처리되어야 한다.
+비교하려면 변경 전/후 서버에 같은 옵션으로 실행하고 단계별 성공률과 p95/p99를 비교한다.
+느린 업스트림 상황에서 스레드 모델을 비교할 때는 slow_osrm_stub.py와 함께 사용한다.
+
+같은 사용자의 동시 경로 요청은 의도적으로 409(CONCURRENT_UPDATE)가 나므로
+요청마다 다른 사용자를 쓰도록 테스트 사용자를 미리 만들어 둔다:
+
+  INSERT INTO users (id, phone_number, display_name, is_active)
+  SELECT ('00000000-0000-0000-0001-' || lpad(g::text, 12, '0'))::uuid,
+         'load-' || g, '부하 테스트 ' || g, TRUE
+  FROM generate_series(1, 1000) g
+  ON CONFLICT DO NOTHING;
+
+사용법:
+  python tools/route_load_test.py
+  python tools/route_load_test.py --base-url http://localhost:8080/v1 --levels 10,50,100,200 --requests 400
+
+옵션:
+  --base-url : 서버 주소 (기본 http://localhost:8080/v1)
+  --levels   : 쉼표로 구분한 동시성 단계 (기본 10,25,50,100,200)
+  --requests : 단계별 총 요청 수 (기본 동시성의 4배)
+  --users    : 테스트 사용자 수 (위 SQL로 만든 수, 기본 1000)
+  --timeout  : 요청 타임아웃 초 (기본 15)
+"""
+
+import argparse
+import json
+import math
+import random
+import statistics
+import time
+import urllib.error
+import urllib.request
+from collections import Counter
+from concurrent.futures import ThreadPoolExecutor
+
+# 서울 시청 주변 1km 범위에서 출발/도착을 무작위로 고름
+CENTER_LAT = 37.5665
+CENTER_LNG = 126.9780
+SPREAD = 0.009
+
+
+def load_user_id(index):
+    return f"00000000-0000-0000-0001-{index:012d}"
+
+
+def route_request(base_url, user_id, timeout):
+    body = json.dumps({
+        "originLat": CENTER_LAT + random.uniform(-SPREAD, SPREAD),
+        "originLng": CENTER_LNG + random.uniform(-SPREAD, SPREAD),
+        "destLat": CENTER_LAT + random.uniform(-SPREAD, SPREAD),
+        "destLng": CENTER_LNG + random.uniform(-SPREAD, SPREAD),
+        "destName": "부하 테스트",
+        "geometryDetail": "none",
+    }).encode("utf-8")
+    request = urllib.request.Request(
+        f"{base_url}/navigation/route",
+        data=body,
+        method="POST",
+        headers={"Content-Type": "application/json", "X-User-Id": user_id},
+    )
+
+    start = time.perf_counter()
+    try:
+        with urllib.request.urlopen(request, timeout=timeout) as response:
+            response.read()
+            status = response.status
+    except urllib.error.HTTPError as e:
+        status = e.code
+    except Exception:
+        status = "error"
+    return status, time.perf_counter() - start
+
+
+def run_level(base_url, concurrency, total, users, timeout):
+    # 같은 단계 안에서는 동시에 실행되는 요청끼리 사용자가 겹치지 않도록 순환 배정
+    user_ids = [load_user_id(1 + i % users) for i in range(total)]
+
+    started = time.perf_counter()
+    with ThreadPoolExecutor(max_workers=concurrency) as pool:
+        results = list(pool.map(lambda uid: route_request(base_url, uid, timeout), user_ids))
+    elapsed = time.perf_counter() - started
+
+    statuses = Counter(status for status, _ in results)
+    latencies = sorted(latency for status, latency in results if status == 200)
+    ok = statuses.get(200, 0)
+
+    p50 = statistics.median(latencies) * 1000 if latencies else float("nan")
+    p95 = percentile(latencies, 0.95)
+    p99 = percentile(latencies, 0.99)
+    print(f"{concurrency:>6} {total:>6} {ok / total * 100:>7.1f}% {ok / elapsed:>8.1f} "
+          f"{p50:>8.0f} {p95:>8.0f} {p99:>8.0f}  {dict(statuses)}")
+
+
+def percentile(sorted_latencies, fraction):
+    if not sorted_latencies:
+        return float("nan")
+    index = max(0, math.ceil(len(sorted_latencies) * fraction) - 1)
+    return sorted_latencies[index] * 1000
+
+
+def main():
+    parser = argparse.ArgumentParser(description="NavBlind route endpoint load test")
+    parser.add_argument("--base-url", default="http://localhost:8080/v1")
+    parser.add_argument("--levels", default="10,25,50,100,200")
+    parser.add_argument("--requests", type=int, default=0)
+    parser.add_argument("--users", type=int, default=1000)
+    parser.add_argument("--timeout", type=float, default=15)
+    args = parser.parse_args()
+
+    levels = [int(level) for level in args.levels.split(",")]
+    if max(levels) > args.users:
+        parser.error("--users must be at least the highest concurrency level")
+
+    print(f"{'conc':>6} {'reqs':>6} {'success':>8} {'req/s':>8} {'p50ms':>8} {'p95ms':>8} {'p99ms':>8}  statuses")
+    for concurrency in levels:
+        total = args.requests or concurrency * 4
+        run_level(args.base_url.rstrip("/"), concurrency, total, args.users, args.timeout)
+
+
+if __name__ == "__main__":
+    main()
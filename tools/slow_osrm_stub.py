@@ -0,0 +1,117 @@
+#!/usr/bin/env python3
+"""
+NavBlind Slow OSRM Stub
+========================
+OSRM route/nearest API를 흉내 내면서 응답을 일부러 늦게 주는 테스트 서버.
+업스트림이 느릴 때 서버의 스레드 모델(플랫폼 스레드 vs 가상 스레드)에 따른
+처리량과 지연 시간을 비교하는 데 사용한다.
+
+route 응답은 출발지에서 도착지까지 직선 경로(depart/arrive 2단계)이며
+서버의 OsrmResponseParser가 읽는 필드만 채운다.
+
+사용법:
+  python tools/slow_osrm_stub.py --port 5001 --delay 2.0
+
+  # 서버를 스텁에 연결하고 두 모드를 번갈아 실행
+  OSRM_BASE_URL=http://localhost:5001 ROUTE_CACHE_ENABLED=false VIRTUAL_THREADS_ENABLED=false ./mvnw spring-boot:run
+  OSRM_BASE_URL=http://localhost:5001 ROUTE_CACHE_ENABLED=false VIRTUAL_THREADS_ENABLED=true  ./mvnw spring-boot:run
+  python tools/route_load_test.py --levels 50,200,400,800
+
+옵션:
+  --port   : 서버 포트 (기본 5001)
+  --delay  : 응답 지연 초 (기본 2.0)
+  --jitter : 지연에 더할 최대 무작위 초 (기본 0.5)
+"""
+
+import argparse
+import json
+import math
+import random
+import re
+import time
+from http.server import BaseHTTPRequestHandler, ThreadingHTTPServer
+
+ROUTE_PATH = re.compile(r"^/route/v1/[^/]+/([-\d.]+),([-\d.]+);([-\d.]+),([-\d.]+)")
+NEAREST_PATH = re.compile(r"^/nearest/v1/[^/]+/([-\d.]+),([-\d.]+)")
+
+
+def haversine(lat1, lng1, lat2, lng2):
+    d_lat = math.radians(lat2 - lat1)
+    d_lng = math.radians(lng2 - lng1)
+    a = (math.sin(d_lat / 2) ** 2
+         + math.cos(math.radians(lat1)) * math.cos(math.radians(lat2)) * math.sin(d_lng / 2) ** 2)
+    return 6_371_000 * 2 * math.atan2(math.sqrt(a), math.sqrt(1 - a))
+
+
+def route_body(lng1, lat1, lng2, lat2):
+    distance = haversine(lat1, lng1, lat2, lng2)
+    return {
+        "code": "Ok",
+        "routes": [{
+            "distance": distance,
+            "duration": distance / 1.3,
+            "geometry": {"type": "LineString", "coordinates": [[lng1, lat1], [lng2, lat2]]},
+            "legs": [{
+                "steps": [
+                    {"name": "테스트로", "distance": distance,
+                     "maneuver": {"type": "depart", "location": [lng1, lat1]}},
+                    {"name": "테스트로", "distance": 0,
+                     "maneuver": {"type": "arrive", "location": [lng2, lat2]}},
+                ],
+            }],
+        }],
+    }
+
+
+def nearest_body(lng, lat):
+    return {
+        "code": "Ok",
+        "waypoints": [{"location": [lng, lat], "distance": 0.0, "name": "테스트로"}],
+    }
+
+
+class Handler(BaseHTTPRequestHandler):
+    delay = 2.0
+    jitter = 0.5
+
+    def do_GET(self):
+        time.sleep(self.delay + random.uniform(0, self.jitter))
+
+        route = ROUTE_PATH.match(self.path)
+        nearest = NEAREST_PATH.match(self.path)
+        if route:
+            body = route_body(*map(float, route.groups()))
+        elif nearest:
+            body = nearest_body(*map(float, nearest.groups()))
+        else:
+            self.send_error(404)
+            return
+
+        payload = json.dumps(body).encode("utf-8")
+        self.send_response(200)
+        self.send_header("Content-Type", "application/json")
+        self.send_header("Content-Length", str(len(payload)))
+        self.end_headers()
+        self.wfile.write(payload)
+
+    def log_message(self, format, *args):
+        pass
+
+
+def main():
+    parser = argparse.ArgumentParser(description="Slow OSRM stub for thread model comparison")
+    parser.add_argument("--port", type=int, default=5001)
+    parser.add_argument("--delay", type=float, default=2.0)
+    parser.add_argument("--jitter", type=float, default=0.5)
+    args = parser.parse_args()
+
+    Handler.delay = args.delay
+    Handler.jitter = args.jitter
+    server = ThreadingHTTPServer(("0.0.0.0", args.port), Handler)
+    server.daemon_threads = True
+    print(f"Slow OSRM stub on :{args.port} (delay {args.delay}s + up to {args.jitter}s)")
+    server.serve_forever()
+
+
+if __name__ == "__main__":
+    main()